@@ -0,0 +1,125 @@
+package org.assignment;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.assignment.model.ReplaySummaryDTO;
+import org.assignment.replay.TrafficReplayer;
+import org.assignment.service.ModelBootstrap;
+import org.assignment.service.TenantResolver;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.Banner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.CommandLinePropertySource;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.MutablePropertySources;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Batch entry point replaying recorded traffic files through the detector, without starting the web server.
+ * <p>
+ * Usage: {@code --input=<traffic.ndjson> --models=<models.json> [--tenant=<id>] [--threads=<n>]
+ * [--chunk-size-mb=<n>] [--output=<results.ndjson>]}. Any application property can be passed the same way.
+ * Prints a JSON {@link ReplaySummaryDTO} on the standard output.
+ * </p>
+ * <p>
+ * The components of a server sharing the working directory or the environment are turned off: the hot-key tracker
+ * (it would save the replayed endpoints over the preload file of the server), the warm-up, the log tailer and the
+ * binary protocol. Only the command line can turn them back on.
+ * </p>
+ */
+@Slf4j
+public class ReplayApplication {
+
+    // Over application.properties and the environment (BINARY_PROTOCOL_ENABLED of a shared image, for one)
+    static final Map<String, Object> REPLAY_PROPERTIES = Map.of(
+            "app.detection-controller.hot-keys.enabled", false,
+            "app.warmup.enabled", false,
+            "app.log-tail.enabled", false,
+            "app.binary-protocol.enabled", false);
+
+    private static final String USAGE = "Usage: --input=<traffic.ndjson> --models=<models.json> [--tenant=<id>] "
+            + "[--threads=<n>] [--chunk-size-mb=<n>] [--output=<results.ndjson>]";
+
+    public static void main(String[] args) {
+        ConfigurableApplicationContext context = application().run(args);
+        int exitCode;
+        try {
+            exitCode = run(context);
+        } catch (Exception e) {
+            log.error("Replay failed", e);
+            exitCode = 1;
+        }
+        int code = exitCode;
+        System.exit(SpringApplication.exit(context, () -> code));
+    }
+
+    static SpringApplicationBuilder application() {
+        return new SpringApplicationBuilder(APIAnomalyDetectorApplication.class)
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .listeners(new ReplayProperties());
+    }
+
+    private static int run(ConfigurableApplicationContext context) throws Exception {
+        ApplicationArguments arguments = context.getBean(ApplicationArguments.class);
+        String input = option(arguments, "input", null);
+        String models = option(arguments, "models", null);
+        if (input == null || models == null) {
+            System.err.println(USAGE);
+            return 2;
+        }
+        String tenantId = option(arguments, "tenant", TenantResolver.DEFAULT_TENANT);
+        int threads = Integer.parseInt(option(arguments, "threads", String.valueOf(Runtime.getRuntime().availableProcessors())));
+        long chunkSize = Long.parseLong(option(arguments, "chunk-size-mb", "64")) << 20;
+        String output = option(arguments, "output", null);
+
+        try {
+            context.getBean(ModelBootstrap.class).loadModels(tenantId, Path.of(models));
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            return 2;
+        }
+
+        Path inputPath = Path.of(input);
+        if (!Files.isRegularFile(inputPath)) {
+            System.err.println("Input file not found: " + input);
+            return 2;
+        }
+        ReplaySummaryDTO summary = context.getBean(TrafficReplayer.class)
+                .replay(inputPath, tenantId, threads, chunkSize, output != null ? Path.of(output) : null);
+        System.out.println(context.getBean(ObjectMapper.class).writerWithDefaultPrettyPrinter().writeValueAsString(summary));
+        return 0;
+    }
+
+    private static String option(ApplicationArguments arguments, String name, String defaultValue) {
+        List<String> values = arguments.getOptionValues(name);
+        return values != null && !values.isEmpty() ? values.get(0) : defaultValue;
+    }
+
+    /**
+     * Adds {@link #REPLAY_PROPERTIES} right after the command line. Default properties of the builder would rank below
+     * application.properties, which sets every one of them.
+     */
+    private static final class ReplayProperties implements ApplicationListener<ApplicationEnvironmentPreparedEvent> {
+        @Override
+        public void onApplicationEvent(ApplicationEnvironmentPreparedEvent event) {
+            MutablePropertySources sources = event.getEnvironment().getPropertySources();
+            MapPropertySource replay = new MapPropertySource("replay", REPLAY_PROPERTIES);
+            if (sources.contains(CommandLinePropertySource.COMMAND_LINE_PROPERTY_SOURCE_NAME)) {
+                sources.addAfter(CommandLinePropertySource.COMMAND_LINE_PROPERTY_SOURCE_NAME, replay);
+            } else {
+                sources.addFirst(replay);
+            }
+        }
+    }
+
+}
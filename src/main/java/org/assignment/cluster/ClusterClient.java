@@ -0,0 +1,99 @@
+package org.assignment.cluster;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.assignment.model.APIModelDTO;
+import org.assignment.model.AnomalyDTO;
+import org.assignment.model.DetectionDTO;
+import org.assignment.service.TenantResolver;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Client of the internal cluster protocol.
+ * <p>
+ * Nodes talk to each other over plain HTTP/1.1 with small JSON payloads on the {@code /internal/cluster}
+ * endpoints, reusing persistent connections of the JDK {@link HttpClient}. Requests carry the tenant header
+ * and the shared cluster secret.
+ * </p>
+ */
+@Component
+public class ClusterClient {
+
+    public static final String CLUSTER_SECRET_HEADER = "X-Cluster-Secret";
+    public static final String INTERNAL_PATH = "/internal/cluster";
+    private static final TypeReference<List<AnomalyDTO>> ANOMALY_LIST = new TypeReference<>() {
+    };
+
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+    private final Duration requestTimeout;
+    private final String secret;
+
+    public ClusterClient(ObjectMapper objectMapper,
+                         @Value("${app.cluster.forward-timeout-millis}") long forwardTimeoutMillis,
+                         @Value("${app.cluster.secret}") String secret) {
+        this.objectMapper = objectMapper;
+        this.requestTimeout = Duration.ofMillis(forwardTimeoutMillis);
+        this.secret = secret;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(requestTimeout)
+                .build();
+    }
+
+    /**
+     * Forwards a detection to a node owning its endpoint.
+     *
+     * @param node      The owner node ("host:port").
+     * @param tenantId  The tenant of the detection.
+     * @param detection The detection to validate.
+     * @return The anomalies detected by the owner node.
+     * @throws IOException if the node cannot be reached or answers with an error.
+     */
+    public List<AnomalyDTO> forwardDetection(String node, String tenantId, DetectionDTO detection)
+            throws IOException, InterruptedException {
+        byte[] response = post(node, "/detect", tenantId, objectMapper.writeValueAsBytes(detection));
+        return objectMapper.readValue(response, ANOMALY_LIST);
+    }
+
+    /**
+     * Stores models on a node owning their endpoints.
+     *
+     * @param node     The owner node ("host:port").
+     * @param tenantId The tenant owning the models.
+     * @param models   The models to store.
+     * @throws IOException if the node cannot be reached or answers with an error.
+     */
+    public void replicateModels(String node, String tenantId, List<APIModelDTO> models)
+            throws IOException, InterruptedException {
+        post(node, "/models", tenantId, objectMapper.writeValueAsBytes(models));
+    }
+
+    private byte[] post(String node, String path, String tenantId, byte[] body) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://" + node + INTERNAL_PATH + path))
+                .timeout(requestTimeout)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .header(TenantResolver.TENANT_HEADER, tenantId)
+                .header(CLUSTER_SECRET_HEADER, secret)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+
+        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IOException(String.format("Node %s answered %s with status %d", node, path, response.statusCode()));
+        }
+        return response.body();
+    }
+
+}
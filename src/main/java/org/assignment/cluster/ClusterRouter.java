@@ -0,0 +1,84 @@
+package org.assignment.cluster;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Decides which cluster nodes own an endpoint.
+ * <p>
+ * In cluster mode several detector instances split the "METHOD:PATH" keyspace (scoped by tenant) with a
+ * {@link ConsistentHashRing}, and every key is replicated to {@code replication-factor} nodes.
+ * When cluster mode is disabled every key is local and the router is never consulted on the request path.
+ * </p>
+ */
+@Slf4j
+@Component
+public class ClusterRouter {
+
+    public static final String TENANT_KEY_DELIMITER = "/";
+
+    private final boolean enabled;
+    private final String selfNode;
+    private final int replicationFactor;
+    private final ConsistentHashRing ring;
+
+    public ClusterRouter(@Value("${app.cluster.enabled}") boolean enabled,
+                         @Value("${app.cluster.self-node}") String selfNode,
+                         @Value("${app.cluster.nodes}") String nodes,
+                         @Value("${app.cluster.replication-factor}") int replicationFactor,
+                         @Value("${app.cluster.virtual-nodes}") int virtualNodes) {
+        List<String> nodeList = Arrays.stream(nodes.split(","))
+                .map(String::trim)
+                .filter(StringUtils::hasText)
+                .collect(Collectors.toList());
+
+        if (enabled && !nodeList.contains(selfNode)) {
+            throw new IllegalStateException(String.format("Cluster self node '%s' is not part of the cluster nodes %s", selfNode, nodeList));
+        }
+
+        this.enabled = enabled;
+        this.selfNode = selfNode;
+        this.replicationFactor = replicationFactor;
+        this.ring = new ConsistentHashRing(nodeList, virtualNodes);
+
+        if (enabled) {
+            log.info("Cluster mode enabled: self={}, nodes={}, replication factor={}", selfNode, nodeList, replicationFactor);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String getSelfNode() {
+        return selfNode;
+    }
+
+    /**
+     * Returns the nodes owning an endpoint of a tenant, primary first.
+     *
+     * @param tenantId The tenant owning the endpoint.
+     * @param key      The key representing the combination of HTTP method and path.
+     * @return The owner nodes.
+     */
+    public List<String> ownersOf(String tenantId, String key) {
+        return ring.ownersOf(tenantId + TENANT_KEY_DELIMITER + key, replicationFactor);
+    }
+
+    /**
+     * Checks whether this node is one of the given owners.
+     *
+     * @param owners The owners of a key, as returned by {@link #ownersOf(String, String)}.
+     * @return true if the key can be served locally.
+     */
+    public boolean isLocal(List<String> owners) {
+        return owners.contains(selfNode);
+    }
+
+}
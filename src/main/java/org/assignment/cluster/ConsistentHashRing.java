@@ -0,0 +1,76 @@
+package org.assignment.cluster;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Immutable consistent-hash ring mapping keys to the nodes owning them.
+ * <p>
+ * Every node is placed on the ring at several virtual positions to even out the key distribution.
+ * The owners of a key are the first distinct nodes found walking the ring clockwise from the key's hash:
+ * the first one is the primary, the following ones hold the replicas. Adding or removing a node only
+ * moves the keys adjacent to its virtual positions.
+ * </p>
+ */
+public class ConsistentHashRing {
+
+    private static final HashFunction HASH = Hashing.murmur3_128();
+
+    private final NavigableMap<Long, String> ring = new TreeMap<>();
+    private final int nodeCount;
+
+    public ConsistentHashRing(Collection<String> nodes, int virtualNodes) {
+        for (String node : nodes) {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.put(hash(node + "#" + i), node);
+            }
+        }
+        this.nodeCount = (int) nodes.stream().distinct().count();
+    }
+
+    /**
+     * Returns the nodes owning a key, primary first.
+     *
+     * @param key      The key to place on the ring.
+     * @param replicas The number of owners wanted (capped by the number of nodes).
+     * @return The distinct owner nodes, in ring order.
+     *
+     * <p><strong>Performance Complexity:</strong> O(log(N * V) + R * V) in the worst case where N is the number
+     * of nodes, V the number of virtual nodes and R the number of replicas; typically O(log(N * V) + R).</p>
+     */
+    public List<String> ownersOf(String key, int replicas) {
+        int wanted = Math.min(replicas, nodeCount);
+        List<String> owners = new ArrayList<>(wanted);
+        if (wanted == 0) return owners;
+
+        long h = hash(key);
+        collect(ring.tailMap(h, true), owners, wanted);
+        if (owners.size() < wanted) {
+            // Wrap around the ring
+            collect(ring.headMap(h, false), owners, wanted);
+        }
+        return owners;
+    }
+
+    private static void collect(Map<Long, String> positions, List<String> owners, int wanted) {
+        for (String node : positions.values()) {
+            if (!owners.contains(node)) {
+                owners.add(node);
+                if (owners.size() == wanted) return;
+            }
+        }
+    }
+
+    private static long hash(String value) {
+        return HASH.hashString(value, StandardCharsets.UTF_8).asLong();
+    }
+
+}
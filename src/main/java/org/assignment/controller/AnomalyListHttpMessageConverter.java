@@ -0,0 +1,186 @@
+package org.assignment.controller;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import org.assignment.model.AnomalyDTO;
+import org.assignment.service.DetectionService;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.util.StreamUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the detection responses ({@code List<AnomalyDTO>} and, for batches, {@code List<List<AnomalyDTO>>})
+ * without Jackson data binding.
+ * <p>
+ * The empty list and the constant results of {@link DetectionService} are written from bytes encoded once, other
+ * anomaly lists are streamed field by field with pre-encoded field names. The output is byte for byte the one of
+ * the Jackson converter: same field order, no {@code param}, same escaping.
+ * Write only, the requests are still read by the Jackson converter.
+ * </p>
+ */
+public class AnomalyListHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    private static final byte[] EMPTY = "[]".getBytes(StandardCharsets.UTF_8);
+    // Quoted and UTF-8 encoded once, instead of on every write
+    private static final SerializableString TYPE = new SerializedString("type");
+    private static final SerializableString DESCRIPTION = new SerializedString("description");
+
+    private final JsonFactory jsonFactory;
+    // Keyed by identity: the constant results are shared instances
+    private final Map<List<AnomalyDTO>, byte[]> constantBytes = new IdentityHashMap<>();
+    private final Map<List<AnomalyDTO>, String> constantJson = new IdentityHashMap<>();
+
+    public AnomalyListHttpMessageConverter(JsonFactory jsonFactory) {
+        super(MediaType.APPLICATION_JSON, new MediaType("application", "*+json"));
+        this.jsonFactory = jsonFactory;
+        for (List<AnomalyDTO> constant : List.of(DetectionService.UNKNOWN_ENDPOINT_RESULT, DetectionService.OVERLOAD_RESULT,
+                DetectionService.NODE_UNAVAILABLE_RESULT)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (JsonGenerator generator = jsonFactory.createGenerator(out, JsonEncoding.UTF8)) {
+                writeAnomalies(generator, constant);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            constantBytes.put(constant, out.toByteArray());
+            constantJson.put(constant, out.toString(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return List.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return isAnomalyList(type, 1) && canWrite(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        // The element type is needed, so only the generic variant applies
+        return false;
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new UnsupportedOperationException("Write only converter");
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new UnsupportedOperationException("Write only converter");
+    }
+
+    @Override
+    protected Long getContentLength(Object value, MediaType contentType) {
+        byte[] bytes = precomputed(value);
+        return bytes != null ? (long) bytes.length : null;
+    }
+
+    @Override
+    protected void writeInternal(Object value, Type type, HttpOutputMessage outputMessage) throws IOException {
+        writeTo(value, outputMessage.getBody());
+    }
+
+    /**
+     * Writes an anomaly list, or a list of anomaly lists, as JSON.
+     *
+     * @param value The {@code List<AnomalyDTO>} or {@code List<List<AnomalyDTO>>} to write.
+     * @param out   The stream to write to, left open.
+     * @throws IOException If the stream cannot be written.
+     *
+     * <p><strong>Performance Complexity:</strong> O(1) for the empty list and the constant results (a single
+     * array copy), O(N) in the anomalies otherwise, without reflection or intermediate strings.</p>
+     */
+    @SuppressWarnings("unchecked")
+    public void writeTo(Object value, OutputStream out) throws IOException {
+        byte[] bytes = precomputed(value);
+        if (bytes != null) {
+            out.write(bytes);
+            return;
+        }
+        List<?> list = (List<?>) value;
+        try (JsonGenerator generator = jsonFactory.createGenerator(StreamUtils.nonClosing(out), JsonEncoding.UTF8)) {
+            if (list.get(0) instanceof List) {
+                // A batch: one anomaly list per entry
+                generator.writeStartArray();
+                for (Object entry : list) {
+                    String constant = entry == null ? null : constantJson.get(entry);
+                    if (constant != null) {
+                        generator.writeRawValue(constant);
+                    } else if (entry == null) {
+                        generator.writeNull();
+                    } else {
+                        writeAnomalies(generator, (List<AnomalyDTO>) entry);
+                    }
+                }
+                generator.writeEndArray();
+            } else {
+                writeAnomalies(generator, (List<AnomalyDTO>) list);
+            }
+        }
+    }
+
+    private byte[] precomputed(Object value) {
+        if (!(value instanceof List)) return null;
+        List<?> list = (List<?>) value;
+        return list.isEmpty() ? EMPTY : constantBytes.get(list);
+    }
+
+    private static void writeAnomalies(JsonGenerator generator, List<AnomalyDTO> anomalies) throws IOException {
+        generator.writeStartArray();
+        for (AnomalyDTO anomaly : anomalies) {
+            if (anomaly == null) {
+                generator.writeNull();
+                continue;
+            }
+            generator.writeStartObject();
+            generator.writeFieldName(TYPE);
+            generator.writeString(anomaly.getType());
+            generator.writeFieldName(DESCRIPTION);
+            generator.writeString(anomaly.getDescription());
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+    }
+
+    // List<AnomalyDTO>, and with depth 1 also List<List<AnomalyDTO>>
+    private static boolean isAnomalyList(Type type, int depth) {
+        if (!(type instanceof ParameterizedType)) return false;
+        ParameterizedType parameterized = (ParameterizedType) type;
+        if (!(parameterized.getRawType() instanceof Class)
+                || !List.class.isAssignableFrom((Class<?>) parameterized.getRawType())) {
+            return false;
+        }
+        Type element = parameterized.getActualTypeArguments()[0];
+        return element == AnomalyDTO.class || (depth > 0 && isAnomalyList(element, depth - 1));
+    }
+
+}
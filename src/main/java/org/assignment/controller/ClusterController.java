@@ -0,0 +1,144 @@
+package org.assignment.controller;
+
+import lombok.extern.slf4j.Slf4j;
+import org.assignment.cluster.ClusterClient;
+import org.assignment.exception.AppErrorCode;
+import org.assignment.exception.InvalidDetectionControllerException;
+import org.assignment.exception.InvalidModelsControllerException;
+import org.assignment.model.APIModelDTO;
+import org.assignment.model.APIModelsDTO;
+import org.assignment.model.AnomalyDTO;
+import org.assignment.model.DetectionDTO;
+import org.assignment.service.DetectionService;
+import org.assignment.service.ModelService;
+import org.assignment.service.TenantResolver;
+import org.assignment.validation.ModelSyntaxValidator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Internal controller receiving requests forwarded by other cluster nodes.
+ * <p>
+ * Requests reaching this controller were already routed to this node as an owner of their endpoint,
+ * so they are always served locally and never forwarded again.
+ * Only registered when cluster mode is enabled, which requires a secret other than the former {@value #DEFAULT_SECRET}
+ * default. A request holding the secret is still checked like a public one: the tenant ID, the tenant limit and the
+ * syntax of the models.
+ * </p>
+ */
+@Slf4j
+@RestController
+@RequestMapping(ClusterClient.INTERNAL_PATH)
+@ConditionalOnProperty(name = "app.cluster.enabled", havingValue = "true")
+public class ClusterController {
+
+    // The well-known default of earlier versions, never accepted
+    static final String DEFAULT_SECRET = "change-me";
+
+    private final DetectionService detectionService;
+    private final ModelService modelService;
+    private final TenantResolver tenantResolver;
+    private final ModelSyntaxValidator modelSyntaxValidator;
+    private final byte[] secret;
+
+    public ClusterController(DetectionService detectionService,
+                             ModelService modelService,
+                             TenantResolver tenantResolver,
+                             ModelSyntaxValidator modelSyntaxValidator,
+                             @Value("${app.cluster.secret}") String secret) {
+        if (!StringUtils.hasText(secret) || DEFAULT_SECRET.equals(secret.trim())) {
+            throw new IllegalStateException("Cluster mode requires a shared secret in app.cluster.secret (CLUSTER_SECRET), "
+                    + "other than '" + DEFAULT_SECRET + "'");
+        }
+        this.detectionService = detectionService;
+        this.modelService = modelService;
+        this.tenantResolver = tenantResolver;
+        this.modelSyntaxValidator = modelSyntaxValidator;
+        this.secret = secret.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Endpoint validating a detection forwarded by another node.
+     *
+     * @param detectionDTO The detection, already mapped and syntax-checked by the receiving node.
+     * @param tenantId     The tenant of the detection.
+     * @param secret       The shared cluster secret.
+     * @return A list of detected anomalies (empty if none).
+     */
+    @PostMapping("/detect")
+    public ResponseEntity<List<AnomalyDTO>> detect(@RequestBody DetectionDTO detectionDTO,
+                                                   @RequestHeader(TenantResolver.TENANT_HEADER) String tenantId,
+                                                   @RequestHeader(value = ClusterClient.CLUSTER_SECRET_HEADER, required = false) String secret) {
+        checkSecret(secret);
+        if (!tenantResolver.isValid(tenantId)) {
+            log.warn("Rejected forwarded detection of invalid tenant ID: {}", tenantId);
+            throw new InvalidDetectionControllerException(AppErrorCode.INVALID_TENANT_ID, "Tenant ID: " + tenantId);
+        }
+        return ResponseEntity.ok(detectionService.validateLocalDetection(tenantId, detectionDTO));
+    }
+
+    /**
+     * Endpoint storing models routed to this node by the node that received the ingestion.
+     *
+     * @param models   The models owned by this node, validated again with the checks of the ingestion API.
+     * @param tenantId The tenant owning the models.
+     * @param secret   The shared cluster secret.
+     * @return HTTP 200 OK once the models are stored.
+     */
+    @PostMapping("/models")
+    public ResponseEntity<Void> storeModels(@RequestBody List<APIModelDTO> models,
+                                            @RequestHeader(TenantResolver.TENANT_HEADER) String tenantId,
+                                            @RequestHeader(value = ClusterClient.CLUSTER_SECRET_HEADER, required = false) String secret) {
+        checkSecret(secret);
+        if (!tenantResolver.isValid(tenantId)) {
+            log.warn("Rejected replicated models of invalid tenant ID: {}", tenantId);
+            throw new InvalidModelsControllerException(AppErrorCode.INVALID_TENANT_ID, "Tenant ID: " + tenantId);
+        }
+        if (!tenantResolver.canRegister(tenantId)) {
+            log.warn("Rejected replicated models of new tenant {}: tenant limit reached", tenantId);
+            throw new InvalidModelsControllerException(AppErrorCode.TENANT_LIMIT_EXCEEDED, "Tenant ID: " + tenantId);
+        }
+        checkModelSyntax(models);
+        modelService.ingestLocalModels(tenantId, models);
+        return ResponseEntity.ok().build();
+    }
+
+    // Same checks as the ingestion API: custom types are compiled once validated, never before
+    private void checkModelSyntax(List<APIModelDTO> models) {
+        APIModelsDTO apiModelsDTO = new APIModelsDTO();
+        apiModelsDTO.setApiModelsDTO(models);
+        BeanPropertyBindingResult errors = new BeanPropertyBindingResult(apiModelsDTO, ModelSyntaxValidator.API_MODELS_DTO_FIELD_NAME);
+        modelSyntaxValidator.validate(apiModelsDTO, errors);
+        if (errors.hasErrors()) {
+            String errorDetails = errors.getAllErrors().stream()
+                    .map(DefaultMessageSourceResolvable::getDefaultMessage)
+                    .collect(Collectors.joining(", "));
+            log.warn("Rejected replicated models: {}", errorDetails);
+            throw new InvalidModelsControllerException(AppErrorCode.INVALID_MODEL_SYNTAX, errorDetails);
+        }
+    }
+
+    private void checkSecret(String provided) {
+        byte[] providedBytes = provided != null ? provided.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        // Constant-time comparison
+        if (!MessageDigest.isEqual(secret, providedBytes)) {
+            log.warn("Rejected internal cluster request with an invalid secret");
+            throw new InvalidDetectionControllerException(AppErrorCode.FORBIDDEN, "Invalid cluster secret");
+        }
+    }
+
+}
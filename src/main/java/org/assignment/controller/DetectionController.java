@@ -3,19 +3,25 @@ package org.assignment.controller;
 import lombok.extern.slf4j.Slf4j;
 import org.assignment.exception.AppErrorCode;
 import org.assignment.exception.InvalidDetectionControllerException;
+import org.assignment.metrics.Stage;
+import org.assignment.metrics.StageTimer;
 import org.assignment.model.*;
+import org.assignment.service.AdmissionController;
+import org.assignment.service.DetectionMapper;
 import org.assignment.service.DetectionService;
+import org.assignment.service.TenantResolver;
 import org.assignment.validation.DetectionSyntaxValidator;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
-import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -29,66 +35,134 @@ public class DetectionController {
 
     private final DetectionService detectionService;
     private final DetectionSyntaxValidator validator;
+    private final AdmissionController admissionController;
+    private final TenantResolver tenantResolver;
+    private final StageTimer stageTimer;
+    private final int maxBatchSize;
 
-    public DetectionController(DetectionService detectionService, DetectionSyntaxValidator validator) {
+    public DetectionController(DetectionService detectionService,
+                               DetectionSyntaxValidator validator,
+                               AdmissionController admissionController,
+                               TenantResolver tenantResolver,
+                               StageTimer stageTimer,
+                               @Value("${app.detection-controller.max-batch-size}") int maxBatchSize) {
         this.detectionService = detectionService;
         this.validator = validator;
+        this.admissionController = admissionController;
+        this.tenantResolver = tenantResolver;
+        this.stageTimer = stageTimer;
+        this.maxBatchSize = maxBatchSize;
     }
 
     /**
      * Endpoint to validate an incoming API request for anomalies.
      *
-     * @param requestDTO The detectionDTO entry containing request details.
+     * @param requestDTO   The detectionDTO entry containing request details.
+     * @param tenantHeader The tenant namespace whose models are used, default tenant if missing.
      * @return A list of detected anomalies (empty if none).
      */
     @PostMapping("/validate")
-    public ResponseEntity<List<AnomalyDTO>> validateDetection(@RequestBody RequestDTO requestDTO) {
+    public ResponseEntity<List<AnomalyDTO>> validateDetection(@RequestBody RequestDTO requestDTO,
+                                                              @RequestHeader(value = TenantResolver.TENANT_HEADER, required = false) String tenantHeader) {
+        String tenantId = resolveTenant(tenantHeader);
+
         // Validation phase
-        DetectionDTO detectionDTO = mapToDetectionDTO(requestDTO);
-        BindingResult bindingResult = new org.springframework.validation.BeanPropertyBindingResult(detectionDTO, "detectionDTO");
-        validator.validate(detectionDTO, bindingResult);
+        DetectionDTO detectionDTO = toValidatedDetection(requestDTO);
+        stageTimer.describeRequest(tenantId, List.of(detectionDTO));
 
-        // Check for validation errors
-        if (bindingResult.hasErrors()) {
-            String errors = bindingResult.getAllErrors().stream()
-                    .map(DefaultMessageSourceResolvable::getDefaultMessage)
-                    .collect(Collectors.joining(", "));
-            // Logs detailed error but returns standard JSON error response via ExceptionHandler
-            log.warn("Invalid detectionDTO request: {}", errors);
-            throw new InvalidDetectionControllerException(AppErrorCode.INVALID_JSON_FORMAT, errors);
+        // Admission control: shed or degrade when we are over the latency budget
+        AdmissionController.Decision decision = admissionController.tryAcquire();
+        if (decision == AdmissionController.Decision.REJECT) {
+            return ResponseEntity.ok(detectionService.overloadResult());
         }
 
         // Business logic to detect anomalies
-        List<AnomalyDTO> anomalies = detectionService.validateDetection(detectionDTO);
+        List<AnomalyDTO> anomalies;
+        long start = System.nanoTime();
+        try {
+            anomalies = decision == AdmissionController.Decision.DEGRADE
+                    ? detectionService.validateDetectionVerdictOnly(tenantId, detectionDTO)
+                    : detectionService.validateDetection(tenantId, detectionDTO);
+        } finally {
+            admissionController.release(System.nanoTime() - start);
+        }
 
         // Return detected anomalies
         return ResponseEntity.ok(anomalies);
     }
 
-    private DetectionDTO mapToDetectionDTO(RequestDTO requestDTO) {
-        DetectionDTO internalDetectionDTO = new DetectionDTO();
-        internalDetectionDTO.setPath(requestDTO.getPath());
-        internalDetectionDTO.setMethod(requestDTO.getMethod());
-        internalDetectionDTO.setHeaders(convertListToStringMap(requestDTO.getHeaders()));
-        internalDetectionDTO.setQueryParams(convertListToStringMap(requestDTO.getQueryParams()));
-        internalDetectionDTO.setBody(convertListToObjectMap(requestDTO.getBody()));
-        return internalDetectionDTO;
+    /**
+     * Endpoint to validate a batch of API requests, sharing a single model lookup for the whole batch.
+     *
+     * @param requestDTOs  The detection entries, at most max-batch-size.
+     * @param tenantHeader The tenant namespace whose models are used, default tenant if missing.
+     * @return One list of detected anomalies per entry, in the order of the entries.
+     */
+    @PostMapping("/validate/batch")
+    public ResponseEntity<List<List<AnomalyDTO>>> validateDetections(@RequestBody List<RequestDTO> requestDTOs,
+                                                                     @RequestHeader(value = TenantResolver.TENANT_HEADER, required = false) String tenantHeader) {
+        String tenantId = resolveTenant(tenantHeader);
+        if (requestDTOs.size() > maxBatchSize) {
+            String errorMsg = String.format("Batch size %d exceeds the maximum allowed limit of %d", requestDTOs.size(), maxBatchSize);
+            log.warn(errorMsg);
+            throw new InvalidDetectionControllerException(AppErrorCode.DETECTION_BATCH_TOO_LARGE, errorMsg);
+        }
+
+        List<DetectionDTO> detectionDTOs = requestDTOs.stream()
+                .map(this::toValidatedDetection)
+                .collect(Collectors.toList());
+        stageTimer.describeRequest(tenantId, detectionDTOs);
+
+        // A batch holds a single admission slot
+        AdmissionController.Decision decision = admissionController.tryAcquire();
+        if (decision == AdmissionController.Decision.REJECT) {
+            List<List<AnomalyDTO>> shed = detectionDTOs.stream()
+                    .map(d -> detectionService.overloadResult())
+                    .collect(Collectors.toList());
+            return ResponseEntity.ok(shed);
+        }
+
+        List<List<AnomalyDTO>> anomalies;
+        long start = System.nanoTime();
+        try {
+            anomalies = detectionService.validateDetections(tenantId, detectionDTOs,
+                    decision == AdmissionController.Decision.DEGRADE);
+        } finally {
+            // Record the latency per entry, so batches do not inflate the latency average
+            admissionController.release((System.nanoTime() - start) / Math.max(1, detectionDTOs.size()));
+        }
+        return ResponseEntity.ok(anomalies);
     }
 
-    private Map<String, String> convertListToStringMap(List<KeyValueStringDTO> list) {
-        if (list == null) {
-            return Map.of();
+    private String resolveTenant(String tenantHeader) {
+        String tenantId = tenantResolver.resolve(tenantHeader);
+        if (!tenantResolver.isValid(tenantId)) {
+            log.warn("Invalid tenant ID: {}", tenantId);
+            throw new InvalidDetectionControllerException(AppErrorCode.INVALID_TENANT_ID, "Tenant ID: " + tenantId);
         }
-        return list.stream()
-                .collect(Collectors.toMap(KeyValueStringDTO::getName, KeyValueStringDTO::getValue));
+        return tenantId;
     }
 
-    private Map<String, Object> convertListToObjectMap(List<KeyValueObjectDTO> list) {
-        if (list == null) {
-            return Map.of();
+    private DetectionDTO toValidatedDetection(RequestDTO requestDTO) {
+        long start = stageTimer.start();
+        DetectionDTO detectionDTO = DetectionMapper.toDetection(requestDTO);
+        stageTimer.stop(Stage.MAPPING, start);
+
+        start = stageTimer.start();
+        BindingResult bindingResult = new org.springframework.validation.BeanPropertyBindingResult(detectionDTO, "detectionDTO");
+        validator.validate(detectionDTO, bindingResult);
+        stageTimer.stop(Stage.SYNTAX_VALIDATION, start);
+
+        // Check for validation errors
+        if (bindingResult.hasErrors()) {
+            String errors = bindingResult.getAllErrors().stream()
+                    .map(DefaultMessageSourceResolvable::getDefaultMessage)
+                    .collect(Collectors.joining(", "));
+            // Logs detailed error but returns standard JSON error response via ExceptionHandler
+            log.warn("Invalid detectionDTO request: {}", errors);
+            throw new InvalidDetectionControllerException(AppErrorCode.INVALID_JSON_FORMAT, errors);
         }
-        return list.stream()
-                .collect(Collectors.toMap(KeyValueObjectDTO::getName, KeyValueObjectDTO::getValue));
+        return detectionDTO;
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,54 @@
+package org.assignment.controller;
+
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.LivenessState;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * Controller exposing the liveness and readiness states of the application, for load balancer and orchestrator probes.
+ * The readiness probe fails until the startup warm-up is done ({@link org.assignment.warmup.WarmupRunner}).
+ */
+@RestController
+@RequestMapping("/api/health")
+public class HealthController {
+
+    private static final String STATUS = "status";
+
+    private final ApplicationAvailability availability;
+
+    public HealthController(ApplicationAvailability availability) {
+        this.availability = availability;
+    }
+
+    /**
+     * Readiness probe.
+     *
+     * @return 200 once the application accepts traffic, 503 before (startup, warm-up) and while refusing it.
+     */
+    @GetMapping("/readiness")
+    public ResponseEntity<Map<String, String>> getReadiness() {
+        ReadinessState state = availability.getReadinessState();
+        HttpStatus status = state == ReadinessState.ACCEPTING_TRAFFIC ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE;
+        return ResponseEntity.status(status).body(Map.of(STATUS, state.name()));
+    }
+
+    /**
+     * Liveness probe.
+     *
+     * @return 200 while the application state is correct, 503 once it is broken.
+     */
+    @GetMapping("/liveness")
+    public ResponseEntity<Map<String, String>> getLiveness() {
+        LivenessState state = availability.getLivenessState();
+        HttpStatus status = state == LivenessState.CORRECT ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE;
+        return ResponseEntity.status(status).body(Map.of(STATUS, state.name()));
+    }
+
+}
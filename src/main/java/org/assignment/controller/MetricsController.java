@@ -0,0 +1,237 @@
+package org.assignment.controller;
+
+import org.assignment.events.AnomalyEventPipeline;
+import org.assignment.metrics.AnomalyStatistics;
+import org.assignment.replay.LogTailer;
+import org.assignment.metrics.SlowRequestRecorder;
+import org.assignment.metrics.StageTimer;
+import org.assignment.model.AdmissionStatsDTO;
+import org.assignment.model.AnomalyEventStatsDTO;
+import org.assignment.model.AnomalyTopDTO;
+import org.assignment.model.HotKeyDTO;
+import org.assignment.model.LogTailStatsDTO;
+import org.assignment.model.RepositoryStatsDTO;
+import org.assignment.model.SlowRequestDTO;
+import org.assignment.model.StageStatsDTO;
+import org.assignment.model.TenantStatsDTO;
+import org.assignment.model.WarmupStatsDTO;
+import org.assignment.repository.ModelRepository;
+import org.assignment.service.AdmissionController;
+import org.assignment.service.EndpointScanDetector;
+import org.assignment.service.HotKeyTracker;
+import org.assignment.service.ModelCache;
+import org.assignment.service.RateAnomalyDetector;
+import org.assignment.warmup.WarmupRunner;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Controller exposing operational metrics of the detector.
+ */
+@RestController
+@RequestMapping("/api/metrics")
+public class MetricsController {
+
+    private final AdmissionController admissionController;
+    private final ModelCache modelCache;
+    private final ModelRepository modelRepository;
+    private final StageTimer stageTimer;
+    private final SlowRequestRecorder slowRequestRecorder;
+    private final AnomalyEventPipeline anomalyEventPipeline;
+    private final AnomalyStatistics anomalyStatistics;
+    private final LogTailer logTailer;
+    private final WarmupRunner warmupRunner;
+    private final HotKeyTracker hotKeyTracker;
+    private final RateAnomalyDetector rateAnomalyDetector;
+    private final EndpointScanDetector endpointScanDetector;
+
+    public MetricsController(AdmissionController admissionController, ModelCache modelCache, ModelRepository modelRepository,
+                             StageTimer stageTimer, SlowRequestRecorder slowRequestRecorder,
+                             AnomalyEventPipeline anomalyEventPipeline, AnomalyStatistics anomalyStatistics,
+                             LogTailer logTailer, WarmupRunner warmupRunner, HotKeyTracker hotKeyTracker,
+                             RateAnomalyDetector rateAnomalyDetector, EndpointScanDetector endpointScanDetector) {
+        this.admissionController = admissionController;
+        this.modelCache = modelCache;
+        this.modelRepository = modelRepository;
+        this.stageTimer = stageTimer;
+        this.slowRequestRecorder = slowRequestRecorder;
+        this.anomalyEventPipeline = anomalyEventPipeline;
+        this.anomalyStatistics = anomalyStatistics;
+        this.logTailer = logTailer;
+        this.warmupRunner = warmupRunner;
+        this.hotKeyTracker = hotKeyTracker;
+        this.rateAnomalyDetector = rateAnomalyDetector;
+        this.endpointScanDetector = endpointScanDetector;
+    }
+
+    /**
+     * Endpoint exposing the admission controller state (in-flight requests, shed rate, recent latency).
+     *
+     * @return The current {@link AdmissionStatsDTO}.
+     */
+    @GetMapping("/admission")
+    public ResponseEntity<AdmissionStatsDTO> getAdmissionStats() {
+        return ResponseEntity.ok(admissionController.getStats());
+    }
+
+    /**
+     * Endpoint exposing per-tenant model counts, cache hit rates and estimated memory use.
+     *
+     * @return A list of {@link TenantStatsDTO}, one per tenant.
+     */
+    @GetMapping("/tenants")
+    public ResponseEntity<List<TenantStatsDTO>> getTenantStats() {
+        return ResponseEntity.ok(modelCache.getTenantStats());
+    }
+
+    /**
+     * Endpoint exposing the counters of the repository tiers (shared cache hits, store loads, coalesced misses).
+     *
+     * @return The current {@link RepositoryStatsDTO}.
+     */
+    @GetMapping("/repository")
+    public ResponseEntity<RepositoryStatsDTO> getRepositoryStats() {
+        return ResponseEntity.ok(modelRepository.getStats());
+    }
+
+    /**
+     * Endpoint exposing the latency histogram of every detection stage (binding, mapping, syntax validation,
+     * model lookup, anomaly detection, serialization and the whole request).
+     *
+     * @return A list of {@link StageStatsDTO}, one per stage. Counts stay at zero while stage timing is disabled.
+     */
+    @GetMapping("/stages")
+    public ResponseEntity<List<StageStatsDTO>> getStageStats() {
+        return ResponseEntity.ok(stageTimer.getStats());
+    }
+
+    /**
+     * Endpoint switching the stage histograms on or off at runtime.
+     *
+     * @param enabled true to record the stage histograms.
+     * @return The stage histograms.
+     */
+    @PutMapping("/stages")
+    public ResponseEntity<List<StageStatsDTO>> setStageTiming(@RequestParam boolean enabled) {
+        stageTimer.setEnabled(enabled);
+        return ResponseEntity.ok(stageTimer.getStats());
+    }
+
+    /**
+     * Endpoint clearing the stage histograms, e.g. before a load test.
+     *
+     * @return No content.
+     */
+    @DeleteMapping("/stages")
+    public ResponseEntity<Void> resetStageStats() {
+        stageTimer.reset();
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Endpoint exposing the slowest detection requests of the last window, with their per-stage timings,
+     * value sizes and shape fingerprint (parameter values are never kept).
+     *
+     * @return A list of {@link SlowRequestDTO}, slowest first.
+     */
+    @GetMapping("/slow-requests")
+    public ResponseEntity<List<SlowRequestDTO>> getSlowRequests() {
+        return ResponseEntity.ok(slowRequestRecorder.getSlowRequests());
+    }
+
+    /**
+     * Endpoint forgetting the kept slow requests.
+     *
+     * @return No content.
+     */
+    @DeleteMapping("/slow-requests")
+    public ResponseEntity<Void> clearSlowRequests() {
+        slowRequestRecorder.clear();
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Endpoint exposing the counters of the anomaly event pipeline (published, written and dropped events).
+     *
+     * @return The current {@link AnomalyEventStatsDTO}.
+     */
+    @GetMapping("/anomaly-events")
+    public ResponseEntity<AnomalyEventStatsDTO> getAnomalyEventStats() {
+        return ResponseEntity.ok(anomalyEventPipeline.getStats());
+    }
+
+    /**
+     * Endpoint exposing the endpoint, anomaly type and parameter combinations producing the most anomalies
+     * over the sliding window.
+     *
+     * @param limit The maximum number of offenders returned (capped by app.metrics.anomaly-stats.top-k).
+     * @return The current {@link AnomalyTopDTO}. Counts are estimates, above the true count by at most maxError.
+     */
+    @GetMapping("/anomalies/top")
+    public ResponseEntity<AnomalyTopDTO> getTopAnomalies(@RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(anomalyStatistics.getTop(limit));
+    }
+
+    /**
+     * Endpoint forgetting the windowed anomaly statistics.
+     *
+     * @return No content.
+     */
+    @DeleteMapping("/anomalies")
+    public ResponseEntity<Void> resetAnomalyStatistics() {
+        anomalyStatistics.reset();
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Endpoint forgetting the request rates and baselines learned per endpoint and client, and the distinct endpoints
+     * counted per client.
+     *
+     * @return No content.
+     */
+    @DeleteMapping("/rates")
+    public ResponseEntity<Void> resetRates() {
+        rateAnomalyDetector.reset();
+        endpointScanDetector.reset();
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Endpoint exposing the position, lag and throughput of the request log tailer.
+     *
+     * @return The current {@link LogTailStatsDTO}.
+     */
+    @GetMapping("/log-tail")
+    public ResponseEntity<LogTailStatsDTO> getLogTailStats() {
+        return ResponseEntity.ok(logTailer.getStats());
+    }
+
+    /**
+     * Endpoint exposing the most validated endpoints, as saved for the cache preload of the next start.
+     *
+     * @param limit The maximum number of endpoints.
+     * @return A list of {@link HotKeyDTO}, hottest first.
+     */
+    @GetMapping("/hot-keys")
+    public ResponseEntity<List<HotKeyDTO>> getHotKeys(@RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(hotKeyTracker.getTop(limit));
+    }
+
+    /**
+     * Endpoint exposing the outcome of the startup warm-up.
+     *
+     * @return The current {@link WarmupStatsDTO}.
+     */
+    @GetMapping("/warmup")
+    public ResponseEntity<WarmupStatsDTO> getWarmupStats() {
+        return ResponseEntity.ok(warmupRunner.getStats());
+    }
+
+}
@@ -5,37 +5,53 @@ import org.assignment.exception.AppErrorCode;
 import org.assignment.exception.InvalidModelsControllerException;
 import org.assignment.model.APIModelDTO;
 import org.assignment.model.APIModelsDTO;
+import org.assignment.model.IngestionJobDTO;
+import org.assignment.service.ModelIngestionLane;
 import org.assignment.service.ModelService;
+import org.assignment.service.TenantResolver;
 import org.assignment.validation.ModelSyntaxValidator;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
-import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.net.URI;
 import java.util.List;
 import java.util.stream.Collectors;
 
 /**
  * Controller to handle model ingestion requests.
+ * The shape of a batch is checked on the request thread, its validation and ingestion run on the
+ * {@link ModelIngestionLane}, off the threads detection is served by.
  */
 @Slf4j
 @RestController
 public class ModelController {
 
     private final ModelService modelService;
+    private final ModelIngestionLane modelIngestionLane;
     private final ModelSyntaxValidator modelSyntaxValidator;
+    private final TenantResolver tenantResolver;
     private final int maxModelsPerRequest;
+    // Serializes the tenant limit check with the store of the models of a new tenant
+    private final Object newTenantLock = new Object();
 
     public ModelController(ModelService modelService,
+                           ModelIngestionLane modelIngestionLane,
                            ModelSyntaxValidator modelSyntaxValidator,
+                           TenantResolver tenantResolver,
                            @Value("${app.model-controller.max-models-per-request}") int maxModelsPerRequest
     ) {
         this.modelService = modelService;
+        this.modelIngestionLane = modelIngestionLane;
         this.modelSyntaxValidator = modelSyntaxValidator;
+        this.tenantResolver = tenantResolver;
         this.maxModelsPerRequest = maxModelsPerRequest;
     }
 
@@ -45,10 +61,23 @@ public class ModelController {
      *
      * @param apiModelsDTO  The DTO containing the list of models to be ingested.
      * @param bindingResult The binding result to capture validation errors.
-     * @return HTTP 200 OK if models are ingested successfully.
+     * @param tenantHeader  The tenant namespace the models belong to, default tenant if missing.
+     * @return HTTP 202 Accepted with the queued ingestion job, to poll at the Location header.
      */
     @PostMapping("/api/models")
-    public ResponseEntity<Void> loadModels(@RequestBody List<APIModelDTO> apiModelDTOList) {
+    public ResponseEntity<IngestionJobDTO> loadModels(@RequestBody List<APIModelDTO> apiModelDTOList,
+                                                      @RequestHeader(value = TenantResolver.TENANT_HEADER, required = false) String tenantHeader) {
+        // Tenant Checks
+        String tenantId = tenantResolver.resolve(tenantHeader);
+        if (!tenantResolver.isValid(tenantId)) {
+            log.warn("Invalid tenant ID: {}", tenantId);
+            throw new InvalidModelsControllerException(AppErrorCode.INVALID_TENANT_ID, "Tenant ID: " + tenantId);
+        }
+        if (!tenantResolver.canRegister(tenantId)) {
+            log.warn("Rejected models of new tenant {}: tenant limit reached", tenantId);
+            throw new InvalidModelsControllerException(AppErrorCode.TENANT_LIMIT_EXCEEDED, "Tenant ID: " + tenantId);
+        }
+
         // Pre-validation Checks
         if (apiModelDTOList == null || apiModelDTOList.isEmpty()) {
             log.warn("Received empty model list");
@@ -63,6 +92,31 @@ public class ModelController {
             throw new InvalidModelsControllerException(AppErrorCode.MODEL_LIST_TOO_LARGE, errorMsg);
         }
 
+        // Validation and ingestion run on the ingestion lane
+        IngestionJobDTO job = modelIngestionLane.submit(tenantId, modelListSize, () -> ingest(tenantId, apiModelDTOList));
+        log.debug("Queued ingestion job {} of {} models for tenant {}", job.getJobId(), modelListSize, tenantId);
+
+        return ResponseEntity.accepted().location(URI.create("/api/models/jobs/" + job.getJobId())).body(job);
+    }
+
+    /**
+     * Endpoint to poll the status of an ingestion job.
+     *
+     * @param jobId        The id returned by POST /api/models.
+     * @param tenantHeader The tenant namespace the models belong to, default tenant if missing.
+     * @return HTTP 200 OK with the status of the job, 404 if unknown, of another tenant or no longer retained.
+     */
+    @GetMapping("/api/models/jobs/{jobId}")
+    public ResponseEntity<IngestionJobDTO> getIngestionJob(@PathVariable String jobId,
+                                                           @RequestHeader(value = TenantResolver.TENANT_HEADER, required = false) String tenantHeader) {
+        String tenantId = tenantResolver.resolve(tenantHeader);
+        return modelIngestionLane.getJob(tenantId, jobId)
+                .map(ResponseEntity::ok)
+                .orElseThrow(() -> new InvalidModelsControllerException(AppErrorCode.RESOURCE_NOT_FOUND, "Ingestion job: " + jobId));
+    }
+
+    // Runs on the ingestion lane, a failure is reported in the status of the job
+    private void ingest(String tenantId, List<APIModelDTO> apiModelDTOList) {
         // Run our Custom Validation
         // This populates 'bindingResult' with any errors found in the list
         APIModelsDTO apiModelsDTO = new APIModelsDTO();
@@ -84,11 +138,24 @@ public class ModelController {
         }
 
         // Ingest Models
-        log.debug("Ingesting {} models", modelListSize);
-        modelService.ingestModels(apiModelsDTO.getApiModelsDTO());
-        log.debug("Successfully ingested {} models", modelListSize);
+        if (tenantResolver.exists(tenantId)) {
+            store(tenantId, apiModelsDTO.getApiModelsDTO());
+            return;
+        }
+        // Checked again: every job queued for a new tenant passed the check of the request thread before any was stored
+        synchronized (newTenantLock) {
+            if (!tenantResolver.canRegister(tenantId)) {
+                log.warn("Rejected models of new tenant {}: tenant limit reached", tenantId);
+                throw new InvalidModelsControllerException(AppErrorCode.TENANT_LIMIT_EXCEEDED, "Tenant ID: " + tenantId);
+            }
+            store(tenantId, apiModelsDTO.getApiModelsDTO());
+        }
+    }
 
-        return ResponseEntity.status(HttpStatus.OK).build();
+    private void store(String tenantId, List<APIModelDTO> apiModelDTOList) {
+        log.debug("Ingesting {} models for tenant {}", apiModelDTOList.size(), tenantId);
+        modelService.ingestModels(tenantId, apiModelDTOList);
+        log.debug("Successfully ingested {} models for tenant {}", apiModelDTOList.size(), tenantId);
     }
 
 }
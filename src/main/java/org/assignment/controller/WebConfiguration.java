@@ -0,0 +1,51 @@
+package org.assignment.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Registers {@link AnomalyListHttpMessageConverter} ahead of the Jackson converter, so the detection responses
+ * skip the data binding. Every other body is still handled by the default converters.
+ * <p>
+ * Also configures the binary encodings negotiated on every endpoint, next to JSON: Smile
+ * ({@code application/x-jackson-smile}) and CBOR ({@code application/cbor}). Their mappers come from the builder
+ * Boot configures for the JSON one, so the DTOs, including {@link org.assignment.exception.ApiErrorResponse}, have
+ * the same fields and value formats in every encoding. These beans replace the converters Spring MVC adds by default
+ * when the formats are on the classpath.
+ * </p>
+ */
+@Configuration
+public class WebConfiguration implements WebMvcConfigurer {
+
+    private final ObjectMapper objectMapper;
+
+    public WebConfiguration(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.createXmlMapper(false).factory(new SmileFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.createXmlMapper(false).factory(new CBORFactory()).build());
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(0, new AnomalyListHttpMessageConverter(objectMapper.getFactory()));
+    }
+
+}
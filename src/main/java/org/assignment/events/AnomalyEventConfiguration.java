@@ -0,0 +1,53 @@
+package org.assignment.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+/**
+ * Assembles the {@link AnomalyEventPipeline} and its sink from the application properties.
+ */
+@Configuration
+public class AnomalyEventConfiguration {
+
+    /**
+     * The sinks available to the pipeline, NONE disables it.
+     */
+    public enum SinkType {
+        NONE,
+        FILE,
+        TCP
+    }
+
+    @Bean
+    public AnomalyEventPipeline anomalyEventPipeline(ObjectMapper objectMapper,
+                                                     @Value("${app.anomaly-events.sink}") SinkType sinkType,
+                                                     @Value("${app.anomaly-events.capacity}") int capacity,
+                                                     @Value("${app.anomaly-events.overflow-policy}") AnomalyEventPipeline.OverflowPolicy overflowPolicy,
+                                                     @Value("${app.anomaly-events.offer-timeout-millis}") long offerTimeoutMillis,
+                                                     @Value("${app.anomaly-events.max-batch-size}") int maxBatchSize,
+                                                     @Value("${app.anomaly-events.flush-interval-millis}") long flushIntervalMillis,
+                                                     @Value("${app.anomaly-events.file.path}") String filePath,
+                                                     @Value("${app.anomaly-events.file.max-file-bytes}") long maxFileBytes,
+                                                     @Value("${app.anomaly-events.file.max-files}") int maxFiles,
+                                                     @Value("${app.anomaly-events.tcp.host}") String tcpHost,
+                                                     @Value("${app.anomaly-events.tcp.port}") int tcpPort,
+                                                     @Value("${app.anomaly-events.tcp.connect-timeout-millis}") int connectTimeoutMillis) {
+        AnomalyEventSink sink;
+        switch (sinkType) {
+            case FILE:
+                sink = new NdjsonFileSink(objectMapper, Path.of(filePath), maxFileBytes, maxFiles);
+                break;
+            case TCP:
+                sink = new TcpSink(objectMapper, tcpHost, tcpPort, connectTimeoutMillis);
+                break;
+            default:
+                return AnomalyEventPipeline.disabled();
+        }
+        return new AnomalyEventPipeline(sink, capacity, overflowPolicy, offerTimeoutMillis, maxBatchSize, flushIntervalMillis);
+    }
+
+}
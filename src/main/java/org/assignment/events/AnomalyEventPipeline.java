@@ -0,0 +1,222 @@
+package org.assignment.events;
+
+import lombok.extern.slf4j.Slf4j;
+import org.assignment.model.AnomalyDTO;
+import org.assignment.model.AnomalyEventDTO;
+import org.assignment.model.AnomalyEventStatsDTO;
+import org.assignment.model.DetectionDTO;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Ships the detected anomalies to an {@link AnomalyEventSink} without adding I/O to the request path.
+ * <p>
+ * Request threads publish events into a bounded {@link MpscRingBuffer}, which costs a compare-and-set.
+ * A single background thread drains the buffer in batches and writes them to the sink, so the sink sees
+ * large sequential writes whatever the request concurrency. When the buffer is full (slow or unreachable sink),
+ * the {@link OverflowPolicy} decides between dropping the event and briefly waiting for room.
+ * Every event is accounted for: written, dropped on overflow or dropped with a failed batch.
+ * </p>
+ */
+@Slf4j
+public class AnomalyEventPipeline implements AutoCloseable {
+
+    /**
+     * What a request thread does when the buffer is full.
+     */
+    public enum OverflowPolicy {
+        // Drop the event being published, the request never waits
+        DROP_NEWEST,
+        // Wait up to the offer timeout for the batcher to make room, then drop
+        BLOCK
+    }
+
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final boolean enabled;
+    private final AnomalyEventSink sink;
+    private final MpscRingBuffer<AnomalyEventDTO> buffer;
+    private final OverflowPolicy overflowPolicy;
+    private final long offerTimeoutNanos;
+    private final int maxBatchSize;
+    private final long flushIntervalNanos;
+    private final Thread batcher;
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder droppedOverflow = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder sinkFailures = new LongAdder();
+    private final LongAdder droppedSinkFailure = new LongAdder();
+
+    private volatile boolean running = true;
+
+    /**
+     * A disabled pipeline: publishing is a no-op.
+     */
+    public static AnomalyEventPipeline disabled() {
+        return new AnomalyEventPipeline();
+    }
+
+    private AnomalyEventPipeline() {
+        this.enabled = false;
+        this.sink = null;
+        this.buffer = null;
+        this.overflowPolicy = OverflowPolicy.DROP_NEWEST;
+        this.offerTimeoutNanos = 0;
+        this.maxBatchSize = 0;
+        this.flushIntervalNanos = 0;
+        this.batcher = null;
+        this.running = false;
+    }
+
+    /**
+     * Starts a pipeline and its batcher thread.
+     *
+     * @param sink               The destination of the events, only used by the batcher thread.
+     * @param capacity           The number of events buffered, rounded up to a power of two.
+     * @param overflowPolicy     What to do when the buffer is full.
+     * @param offerTimeoutMillis The maximum wait of {@link OverflowPolicy#BLOCK}.
+     * @param maxBatchSize       The maximum number of events per sink write.
+     * @param flushIntervalMillis How long the batcher sleeps when the buffer is empty,
+     *                           the maximum delay of an event under low traffic.
+     */
+    public AnomalyEventPipeline(AnomalyEventSink sink, int capacity, OverflowPolicy overflowPolicy, long offerTimeoutMillis,
+                                int maxBatchSize, long flushIntervalMillis) {
+        this.enabled = true;
+        this.sink = sink;
+        this.buffer = new MpscRingBuffer<>(capacity);
+        this.overflowPolicy = overflowPolicy;
+        this.offerTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(offerTimeoutMillis);
+        this.maxBatchSize = maxBatchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.batcher = new Thread(this::runBatcher, "anomaly-event-batcher");
+        batcher.setDaemon(true);
+        batcher.start();
+    }
+
+    /**
+     * Publishes the anomalies detected for a request, from the request thread.
+     *
+     * @param tenantId  The tenant of the request.
+     * @param detection The validated request.
+     * @param anomalies The anomalies detected, nothing is published if empty.
+     *
+     * <p><strong>Performance Complexity:</strong> O(A) for A anomalies, one compare-and-set each
+     * (plus the wait of {@link OverflowPolicy#BLOCK} when the buffer is full).</p>
+     */
+    public void publish(String tenantId, DetectionDTO detection, List<AnomalyDTO> anomalies) {
+        if (!enabled || anomalies.isEmpty()) return;
+        long timestamp = System.currentTimeMillis();
+        for (AnomalyDTO anomaly : anomalies) {
+            offer(AnomalyEventDTO.builder()
+                    .timestamp(timestamp)
+                    .tenantId(tenantId)
+                    .method(detection.getMethod())
+                    .path(detection.getPath())
+                    .type(anomaly.getType())
+                    .param(anomaly.getParam())
+                    .description(anomaly.getDescription())
+                    .build());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the pipeline counters.
+     *
+     * <p><strong>Performance Complexity:</strong> O(P) where P is the number of CPUs (striped counters).</p>
+     */
+    public AnomalyEventStatsDTO getStats() {
+        return AnomalyEventStatsDTO.builder()
+                .enabled(enabled)
+                .sink(enabled ? sink.describe() : null)
+                .overflowPolicy(overflowPolicy.name())
+                .capacity(enabled ? buffer.capacity() : 0)
+                .queued(enabled ? buffer.size() : 0)
+                .published(published.sum())
+                .droppedOverflow(droppedOverflow.sum())
+                .written(written.sum())
+                .batches(batches.sum())
+                .sinkFailures(sinkFailures.sum())
+                .droppedSinkFailure(droppedSinkFailure.sum())
+                .build();
+    }
+
+    /**
+     * Stops the batcher after it wrote the buffered events, then closes the sink.
+     * Events published afterwards are dropped.
+     */
+    @Override
+    public void close() {
+        if (!running) return;
+        running = false;
+        LockSupport.unpark(batcher);
+        try {
+            batcher.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            sink.close();
+        } catch (IOException e) {
+            log.warn("Failed to close the anomaly event sink {}: {}", sink.describe(), e.getMessage());
+        }
+    }
+
+    private void offer(AnomalyEventDTO event) {
+        if (running && buffer.offer(event)) {
+            published.increment();
+            return;
+        }
+        if (running && overflowPolicy == OverflowPolicy.BLOCK) {
+            long deadline = System.nanoTime() + offerTimeoutNanos;
+            while (running && System.nanoTime() - deadline < 0) {
+                LockSupport.parkNanos(BLOCK_PARK_NANOS);
+                if (buffer.offer(event)) {
+                    published.increment();
+                    return;
+                }
+            }
+        }
+        droppedOverflow.increment();
+    }
+
+    private void runBatcher() {
+        List<AnomalyEventDTO> batch = new ArrayList<>(maxBatchSize);
+        while (true) {
+            // Read before draining: once stopped, an empty drain means nothing is left
+            boolean stopping = !running;
+            batch.clear();
+            buffer.drainTo(batch, maxBatchSize);
+            if (!batch.isEmpty()) {
+                writeBatch(batch);
+            } else if (stopping) {
+                return;
+            } else {
+                LockSupport.parkNanos(this, flushIntervalNanos);
+            }
+        }
+    }
+
+    private void writeBatch(List<AnomalyEventDTO> batch) {
+        try {
+            sink.write(batch);
+            written.add(batch.size());
+            batches.increment();
+        } catch (IOException | RuntimeException e) {
+            sinkFailures.increment();
+            droppedSinkFailure.add(batch.size());
+            log.warn("Failed to write {} anomaly events to {}: {}", batch.size(), sink.describe(), e.getMessage());
+        }
+    }
+
+}
@@ -0,0 +1,27 @@
+package org.assignment.events;
+
+import org.assignment.model.AnomalyEventDTO;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Destination of the anomaly events, written to by the {@link AnomalyEventPipeline} batcher thread only.
+ */
+public interface AnomalyEventSink extends Closeable {
+
+    /**
+     * Writes a batch of events.
+     *
+     * @param events The events, in publication order.
+     * @throws IOException if the batch could not be written. The pipeline counts it and drops the batch.
+     */
+    void write(List<AnomalyEventDTO> events) throws IOException;
+
+    /**
+     * Returns a short description of the destination, exposed with the pipeline counters.
+     */
+    String describe();
+
+}
@@ -0,0 +1,105 @@
+package org.assignment.events;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free multi-producer single-consumer ring buffer.
+ * <p>
+ * Every slot carries a sequence number telling whose turn it is: producers claim a position with a single
+ * compare-and-set on the tail, write the element and publish it by advancing the slot sequence;
+ * the consumer reads the slots in order and hands them back to the producers one lap later.
+ * A full buffer is detected by the producer without waiting, so {@link #offer(Object)} never blocks.
+ * </p>
+ *
+ * @param <E> the type of the elements.
+ */
+public class MpscRingBuffer<E> {
+
+    private final Object[] elements;
+    // sequences[i] == position: slot free for the producer of that position
+    // sequences[i] == position + 1: slot holds the element of that position
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    // Only read and written by the consumer thread
+    private long head;
+
+    /**
+     * @param capacity The minimum capacity, rounded up to a power of two.
+     */
+    public MpscRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.elements = new Object[size];
+        this.sequences = new AtomicLongArray(size);
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Adds an element, from any thread.
+     *
+     * @param element The element, not null.
+     * @return false if the buffer is full.
+     *
+     * <p><strong>Performance Complexity:</strong> O(1), lock-free.</p>
+     */
+    public boolean offer(E element) {
+        while (true) {
+            long position = tail.get();
+            int index = (int) position & mask;
+            long sequence = sequences.get(index);
+            if (sequence == position) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements[index] = element;
+                    sequences.lazySet(index, position + 1);
+                    return true;
+                }
+            } else if (sequence < position) {
+                // The consumer has not freed this slot yet: full
+                return false;
+            }
+            // Another producer claimed this position, retry with the new tail
+        }
+    }
+
+    /**
+     * Moves the available elements to a collection, from the consumer thread only.
+     *
+     * @param target      The collection receiving the elements, in order.
+     * @param maxElements The maximum number of elements to move.
+     * @return The number of elements moved.
+     *
+     * <p><strong>Performance Complexity:</strong> O(K) for the K elements moved.</p>
+     */
+    @SuppressWarnings("unchecked")
+    public int drainTo(Collection<? super E> target, int maxElements) {
+        int drained = 0;
+        while (drained < maxElements) {
+            int index = (int) head & mask;
+            // A claimed slot whose element is not written yet ends the drain, it is picked up next time
+            if (sequences.get(index) != head + 1) break;
+            target.add((E) elements[index]);
+            elements[index] = null;
+            sequences.lazySet(index, head + elements.length);
+            head++;
+            drained++;
+        }
+        return drained;
+    }
+
+    /**
+     * Returns the number of elements waiting, approximate while producers are active.
+     */
+    public int size() {
+        return (int) Math.max(0, Math.min(elements.length, tail.get() - head));
+    }
+
+    public int capacity() {
+        return elements.length;
+    }
+
+}
@@ -0,0 +1,115 @@
+package org.assignment.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.assignment.model.AnomalyEventDTO;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Writes the anomaly events to a local file, one JSON object per line (NDJSON).
+ * <p>
+ * The file is rotated once it reaches a size limit: "anomalies.ndjson" becomes "anomalies.ndjson.1",
+ * the previous "anomalies.ndjson.1" becomes "anomalies.ndjson.2" and so on, the oldest file beyond
+ * the retained count is deleted. Rotation only happens between batches, so a line is never split across files.
+ * </p>
+ */
+public class NdjsonFileSink implements AnomalyEventSink {
+
+    private static final byte NEWLINE = '\n';
+
+    private final ObjectMapper objectMapper;
+    private final Path file;
+    private final long maxFileBytes;
+    private final int maxFiles;
+
+    private OutputStream out;
+    private long size;
+
+    /**
+     * @param objectMapper The mapper serializing the events.
+     * @param file         The active file, created with its parent directories if missing and appended to otherwise.
+     * @param maxFileBytes The size from which the active file is rotated.
+     * @param maxFiles     The number of rotated files kept besides the active one.
+     */
+    public NdjsonFileSink(ObjectMapper objectMapper, Path file, long maxFileBytes, int maxFiles) {
+        this.objectMapper = objectMapper;
+        this.file = file;
+        this.maxFileBytes = maxFileBytes;
+        this.maxFiles = maxFiles;
+    }
+
+    /**
+     * <p><strong>Performance Complexity:</strong> O(B) where B is the serialized size of the batch,
+     * one buffered write and one flush per batch.</p>
+     */
+    @Override
+    public void write(List<AnomalyEventDTO> events) throws IOException {
+        if (out == null) {
+            open();
+        } else if (size >= maxFileBytes) {
+            rotate();
+        }
+        for (AnomalyEventDTO event : events) {
+            byte[] line = objectMapper.writeValueAsBytes(event);
+            out.write(line);
+            out.write(NEWLINE);
+            size += line.length + 1;
+        }
+        out.flush();
+    }
+
+    @Override
+    public String describe() {
+        return "file:" + file;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (out != null) {
+            out.close();
+            out = null;
+        }
+    }
+
+    private void open() throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        out = new BufferedOutputStream(Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND), 64 * 1024);
+        size = Files.size(file);
+        if (size >= maxFileBytes) {
+            rotate();
+        }
+    }
+
+    private void rotate() throws IOException {
+        close();
+        Files.deleteIfExists(rotated(maxFiles));
+        for (int i = maxFiles - 1; i >= 1; i--) {
+            Path source = rotated(i);
+            if (Files.exists(source)) {
+                Files.move(source, rotated(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        if (maxFiles > 0) {
+            Files.move(file, rotated(1), StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.deleteIfExists(file);
+        }
+        out = new BufferedOutputStream(Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING), 64 * 1024);
+        size = 0;
+    }
+
+    private Path rotated(int index) {
+        return file.resolveSibling(file.getFileName() + "." + index);
+    }
+
+}
@@ -0,0 +1,94 @@
+package org.assignment.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.assignment.model.AnomalyEventDTO;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.List;
+
+/**
+ * Streams the anomaly events to a TCP collector (SIEM forwarder, syslog-ng/Logstash "tcp" input with a
+ * json_lines codec...), one JSON object per line.
+ * <p>
+ * The connection is opened on the first batch and kept open. A failed write closes it and fails the batch,
+ * the next batch reconnects, so a collector restart costs the batches written while it was down.
+ * </p>
+ */
+@Slf4j
+public class TcpSink implements AnomalyEventSink {
+
+    private static final byte NEWLINE = '\n';
+
+    private final ObjectMapper objectMapper;
+    private final String host;
+    private final int port;
+    private final int connectTimeoutMillis;
+
+    private Socket socket;
+    private OutputStream out;
+
+    public TcpSink(ObjectMapper objectMapper, String host, int port, int connectTimeoutMillis) {
+        this.objectMapper = objectMapper;
+        this.host = host;
+        this.port = port;
+        this.connectTimeoutMillis = connectTimeoutMillis;
+    }
+
+    /**
+     * <p><strong>Performance Complexity:</strong> O(B) where B is the serialized size of the batch,
+     * one buffered write and one flush per batch.</p>
+     */
+    @Override
+    public void write(List<AnomalyEventDTO> events) throws IOException {
+        if (out == null) {
+            connect();
+        }
+        try {
+            for (AnomalyEventDTO event : events) {
+                out.write(objectMapper.writeValueAsBytes(event));
+                out.write(NEWLINE);
+            }
+            out.flush();
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    @Override
+    public String describe() {
+        return "tcp:" + host + ":" + port;
+    }
+
+    @Override
+    public void close() {
+        if (socket != null) {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                log.debug("Failed to close the connection to {}: {}", describe(), e.getMessage());
+            }
+        }
+        socket = null;
+        out = null;
+    }
+
+    private void connect() throws IOException {
+        Socket newSocket = new Socket();
+        try {
+            newSocket.setTcpNoDelay(true);
+            newSocket.connect(new InetSocketAddress(host, port), connectTimeoutMillis);
+            out = new BufferedOutputStream(newSocket.getOutputStream(), 64 * 1024);
+            socket = newSocket;
+        } catch (IOException e) {
+            newSocket.close();
+            throw e;
+        }
+    }
+
+}
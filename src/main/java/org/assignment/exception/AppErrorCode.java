@@ -11,10 +11,13 @@ public enum AppErrorCode {
 
     // General Errors
     INTERNAL_ERROR("ERROR-5000", HttpStatus.INTERNAL_SERVER_ERROR, "An unexpected error occurred"),
+    CLUSTER_NODE_UNAVAILABLE("ERROR-5030", HttpStatus.SERVICE_UNAVAILABLE, "A cluster node owning the request could not be reached"),
 
     // Input/Validation Errors
     INVALID_JSON_FORMAT("ERROR-4001", HttpStatus.BAD_REQUEST, "Malformatted JSON request"),
     MISSING_REQUEST_BODY("ERROR-4002", HttpStatus.BAD_REQUEST, "Request body is missing"),
+    INVALID_TENANT_ID("ERROR-4003", HttpStatus.BAD_REQUEST, "Invalid tenant ID"),
+    FORBIDDEN("ERROR-4006", HttpStatus.FORBIDDEN, "Access denied"),
     METHOD_NOT_ALLOWED("ERROR-4005", HttpStatus.METHOD_NOT_ALLOWED, "HTTP Method not supported for this endpoint"),
     RESOURCE_NOT_FOUND("ERROR-4004", HttpStatus.NOT_FOUND, "The requested resource was not found"),
 
@@ -22,7 +25,11 @@ public enum AppErrorCode {
     MODEL_VALIDATION_FAILED("ERROR-4020", HttpStatus.BAD_REQUEST, "Model validation failed"),
     EMPTY_MODEL_LIST("ERROR-4021", HttpStatus.BAD_REQUEST, "The provided model list cannot be empty"),
     MODEL_LIST_TOO_LARGE("ERROR-4023", HttpStatus.PAYLOAD_TOO_LARGE, "Batch size exceeds limit"),
-    INVALID_MODEL_SYNTAX("ERROR-4022", HttpStatus.BAD_REQUEST, "The provided model definition is invalid");
+    INVALID_MODEL_SYNTAX("ERROR-4022", HttpStatus.BAD_REQUEST, "The provided model definition is invalid"),
+    TENANT_LIMIT_EXCEEDED("ERROR-4024", HttpStatus.FORBIDDEN, "Maximum number of tenants reached"),
+    DETECTION_BATCH_TOO_LARGE("ERROR-4025", HttpStatus.PAYLOAD_TOO_LARGE, "Detection batch size exceeds limit"),
+    INGESTION_QUEUE_FULL("ERROR-4290", HttpStatus.TOO_MANY_REQUESTS, "Too many model ingestion jobs are queued"),
+    DETECTION_QUEUE_FULL("ERROR-4291", HttpStatus.TOO_MANY_REQUESTS, "Too many binary protocol detections are queued");
 
     private final String code;
     private final HttpStatus status;
@@ -0,0 +1,20 @@
+package org.assignment.exception;
+
+import lombok.Getter;
+
+/**
+ * Exception thrown when a cluster operation cannot reach the nodes it needs.
+ */
+@Getter
+public class ClusterException extends RuntimeException {
+
+    private final AppErrorCode errorCode;
+    private final String debugMessage;
+
+    public ClusterException(AppErrorCode errorCode, String debugMessage, Throwable cause) {
+        super(errorCode.getMessage(), cause);
+        this.errorCode = errorCode;
+        this.debugMessage = debugMessage;
+    }
+
+}
@@ -29,6 +29,30 @@ public class ExceptionResolver {
         return buildResponse(ex.getErrorCode(), ex.getDebugMessage());
     }
 
+    /**
+     * Handle InvalidDetectionControllerException and convert it to an API error response.
+     *
+     * @param ex
+     * @return
+     */
+    @ExceptionHandler(InvalidDetectionControllerException.class)
+    public ResponseEntity<ApiErrorResponse> handleInvalidDetectionException(InvalidDetectionControllerException ex) {
+        log.error("Business Error: {}", ex.getMessage());
+        return buildResponse(ex.getErrorCode(), ex.getDebugMessage());
+    }
+
+    /**
+     * Handle ClusterException and convert it to an API error response.
+     *
+     * @param ex
+     * @return
+     */
+    @ExceptionHandler(ClusterException.class)
+    public ResponseEntity<ApiErrorResponse> handleClusterException(ClusterException ex) {
+        log.error("Cluster Error: {}", ex.getDebugMessage(), ex.getCause());
+        return buildResponse(ex.getErrorCode(), ex.getDebugMessage());
+    }
+
     /**
      * Handle malformed JSON input errors.
      *
@@ -0,0 +1,270 @@
+package org.assignment.metrics;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import org.assignment.model.AnomalyDTO;
+import org.assignment.model.AnomalyOffenderDTO;
+import org.assignment.model.AnomalyTopDTO;
+import org.assignment.model.DetectionDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Sliding-window anomaly counts per tenant, endpoint, anomaly type and parameter, and their top offenders.
+ * <p>
+ * The window is a ring of time buckets. Every bucket holds:
+ * - An exact total in a {@link LongAdder}.
+ * - A {@link CountMinSketch} estimating the count of any key in fixed memory, however many endpoints exist.
+ * - A bounded set of heavy-hitter candidates: a key enters once its estimate reaches the smallest count kept,
+ *   and the set is trimmed back to the top K by whichever thread overflows it first (others never wait).
+ * Recording never takes a lock: a few striped atomic additions, then a lock-free read of the candidate set.
+ * The top offenders of the window are the candidates of its buckets, ranked by their estimates summed over the buckets.
+ * </p>
+ */
+@Component
+public class AnomalyStatistics {
+
+    private static final HashFunction HASH = Hashing.murmur3_128();
+    private static final int MAX_STRIPES = 16;
+
+    private final boolean enabled;
+    private final long bucketMillis;
+    private final int sketchWidth;
+    private final int sketchDepth;
+    private final int stripes;
+    private final int topK;
+    private final LongSupplier clock;
+    private final AtomicReferenceArray<Bucket> buckets;
+
+    @Autowired
+    public AnomalyStatistics(@Value("${app.metrics.anomaly-stats.enabled}") boolean enabled,
+                             @Value("${app.metrics.anomaly-stats.window-seconds}") long windowSeconds,
+                             @Value("${app.metrics.anomaly-stats.buckets}") int bucketCount,
+                             @Value("${app.metrics.anomaly-stats.sketch-width}") int sketchWidth,
+                             @Value("${app.metrics.anomaly-stats.sketch-depth}") int sketchDepth,
+                             @Value("${app.metrics.anomaly-stats.top-k}") int topK) {
+        this(enabled, windowSeconds, bucketCount, sketchWidth, sketchDepth, topK, System::currentTimeMillis);
+    }
+
+    AnomalyStatistics(boolean enabled, long windowSeconds, int bucketCount, int sketchWidth, int sketchDepth, int topK,
+                      LongSupplier clock) {
+        if (topK < 1) {
+            throw new IllegalArgumentException("The anomaly statistics keep at least one candidate per bucket: " + topK);
+        }
+        if (windowSeconds < 1 || bucketCount < 1) {
+            throw new IllegalArgumentException("Anomaly statistics window and buckets must be at least 1: "
+                    + windowSeconds + " s, " + bucketCount);
+        }
+        this.enabled = enabled;
+        this.bucketMillis = Math.max(1, TimeUnit.SECONDS.toMillis(windowSeconds) / bucketCount);
+        this.sketchWidth = sketchWidth;
+        this.sketchDepth = sketchDepth;
+        this.stripes = Math.min(MAX_STRIPES, Runtime.getRuntime().availableProcessors());
+        this.topK = topK;
+        this.clock = clock;
+        this.buckets = new AtomicReferenceArray<>(bucketCount);
+    }
+
+    /**
+     * Records the anomalies detected for a request, from the request thread.
+     *
+     * @param tenantId  The tenant of the request.
+     * @param detection The validated request.
+     * @param anomalies The anomalies detected.
+     *
+     * <p><strong>Performance Complexity:</strong> O(A * D) for A anomalies and D sketch rows, lock-free.</p>
+     */
+    public void record(String tenantId, DetectionDTO detection, List<AnomalyDTO> anomalies) {
+        if (!enabled || anomalies.isEmpty()) return;
+        Bucket bucket = currentBucket();
+        String endpoint = detection.getMethod() + " " + detection.getPath();
+        for (AnomalyDTO anomaly : anomalies) {
+            bucket.add(new OffenderKey(tenantId, endpoint, anomaly.getType(), anomaly.getParam()));
+        }
+    }
+
+    /**
+     * Returns the keys with the most anomalies over the window.
+     *
+     * @param limit The maximum number of offenders returned, at most the configured top K.
+     * @return The offenders, most anomalies first, with the exact window total.
+     *
+     * <p><strong>Performance Complexity:</strong> O(B * K * D * S) for B buckets of K candidates,
+     * D sketch rows and S stripes.</p>
+     */
+    public AnomalyTopDTO getTop(int limit) {
+        List<Bucket> live = liveBuckets();
+        long total = 0;
+        Map<OffenderKey, Long> counts = new HashMap<>();
+        for (Bucket bucket : live) {
+            total += bucket.total.sum();
+            for (OffenderKey key : bucket.candidates.keySet()) {
+                counts.computeIfAbsent(key, k -> live.stream().mapToLong(b -> b.sketch.estimate(k.hash1, k.hash2)).sum());
+            }
+        }
+        List<AnomalyOffenderDTO> offenders = counts.entrySet().stream()
+                .sorted(Map.Entry.<OffenderKey, Long>comparingByValue().reversed())
+                .limit(Math.max(0, Math.min(limit, topK)))
+                .map(entry -> entry.getKey().toOffender(entry.getValue()))
+                .collect(Collectors.toList());
+        return AnomalyTopDTO.builder()
+                .windowSeconds(TimeUnit.MILLISECONDS.toSeconds(bucketMillis * buckets.length()))
+                .totalAnomalies(total)
+                .maxError((long) Math.ceil(Math.E / sketchWidth * total))
+                .offenders(offenders)
+                .build();
+    }
+
+    /**
+     * Forgets every recorded anomaly.
+     */
+    public void reset() {
+        for (int i = 0; i < buckets.length(); i++) {
+            buckets.set(i, null);
+        }
+    }
+
+    private Bucket currentBucket() {
+        long epoch = clock.getAsLong() / bucketMillis;
+        int index = (int) (epoch % buckets.length());
+        Bucket bucket = buckets.get(index);
+        while (bucket == null || bucket.epoch < epoch) {
+            // The slot still holds a bucket of a previous lap: replace it, a single thread wins the race
+            Bucket fresh = new Bucket(epoch);
+            if (buckets.compareAndSet(index, bucket, fresh)) return fresh;
+            bucket = buckets.get(index);
+        }
+        return bucket;
+    }
+
+    private List<Bucket> liveBuckets() {
+        long epoch = clock.getAsLong() / bucketMillis;
+        List<Bucket> live = new ArrayList<>(buckets.length());
+        for (int i = 0; i < buckets.length(); i++) {
+            Bucket bucket = buckets.get(i);
+            if (bucket != null && bucket.epoch > epoch - buckets.length() && bucket.epoch <= epoch) {
+                live.add(bucket);
+            }
+        }
+        return live;
+    }
+
+    /**
+     * The counts of a single time bucket.
+     */
+    private final class Bucket {
+        private final long epoch;
+        private final LongAdder total = new LongAdder();
+        private final CountMinSketch sketch = new CountMinSketch(sketchWidth, sketchDepth, stripes);
+        private final Map<OffenderKey, Boolean> candidates = new ConcurrentHashMap<>();
+        private final ReentrantLock trimLock = new ReentrantLock();
+        // The smallest estimate kept by the last trim, what a new key needs to become a candidate
+        private volatile long admission = 1;
+
+        private Bucket(long epoch) {
+            this.epoch = epoch;
+        }
+
+        private void add(OffenderKey key) {
+            total.increment();
+            sketch.add(key.hash1, key.hash2, 1);
+            if (candidates.containsKey(key)) return;
+            if (sketch.estimate(key.hash1, key.hash2) < admission) return;
+            candidates.put(key, Boolean.TRUE);
+            // Trimming at twice the size amortizes its sort over K admissions
+            if (candidates.size() > 2 * topK && trimLock.tryLock()) {
+                try {
+                    trim();
+                } finally {
+                    trimLock.unlock();
+                }
+            }
+        }
+
+        private void trim() {
+            Map<OffenderKey, Long> estimates = new HashMap<>();
+            for (OffenderKey key : candidates.keySet()) {
+                estimates.put(key, sketch.estimate(key.hash1, key.hash2));
+            }
+            List<Map.Entry<OffenderKey, Long>> ranked = estimates.entrySet().stream()
+                    .sorted(Map.Entry.<OffenderKey, Long>comparingByValue(Comparator.reverseOrder()))
+                    .collect(Collectors.toList());
+            for (int i = topK; i < ranked.size(); i++) {
+                candidates.remove(ranked.get(i).getKey());
+            }
+            admission = ranked.get(topK - 1).getValue();
+        }
+    }
+
+    /**
+     * Tenant, endpoint, anomaly type and parameter, with the 128-bit hash used by the sketches.
+     */
+    private static final class OffenderKey {
+        private final String tenantId;
+        private final String endpoint;
+        private final String type;
+        private final String param;
+        private final long hash1;
+        private final long hash2;
+
+        private OffenderKey(String tenantId, String endpoint, String type, String param) {
+            this.tenantId = tenantId;
+            this.endpoint = endpoint;
+            this.type = type;
+            this.param = param;
+            HashCode hash = HASH.newHasher()
+                    .putString(tenantId, StandardCharsets.UTF_8).putByte((byte) 0)
+                    .putString(endpoint, StandardCharsets.UTF_8).putByte((byte) 0)
+                    .putString(String.valueOf(type), StandardCharsets.UTF_8).putByte((byte) 0)
+                    .putString(String.valueOf(param), StandardCharsets.UTF_8)
+                    .hash();
+            this.hash1 = hash.asLong();
+            // Odd, so that the rows of the sketch never collapse onto a single column
+            this.hash2 = ByteBuffer.wrap(hash.asBytes()).order(ByteOrder.LITTLE_ENDIAN).getLong(Long.BYTES) | 1;
+        }
+
+        private AnomalyOffenderDTO toOffender(long count) {
+            return AnomalyOffenderDTO.builder()
+                    .tenantId(tenantId)
+                    .endpoint(endpoint)
+                    .type(type)
+                    .param(param)
+                    .count(count)
+                    .build();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof OffenderKey)) return false;
+            OffenderKey other = (OffenderKey) o;
+            return hash1 == other.hash1 && tenantId.equals(other.tenantId) && endpoint.equals(other.endpoint)
+                    && Objects.equals(type, other.type) && Objects.equals(param, other.param);
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) hash1;
+        }
+    }
+
+}
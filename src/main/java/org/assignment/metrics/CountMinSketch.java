@@ -0,0 +1,77 @@
+package org.assignment.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Count-min sketch with striped counters, for frequency estimates over an unbounded key space in fixed memory.
+ * <p>
+ * Each key maps to one counter per row, its estimate is the smallest of them: never below the true count,
+ * above it by at most {@code e / width * total} with probability {@code 1 - e^-depth}.
+ * Like {@link java.util.concurrent.atomic.LongAdder}, the counters are split into stripes picked by thread,
+ * so concurrent writers of the same hot key update different cache lines; an estimate sums the stripes.
+ * </p>
+ */
+public final class CountMinSketch {
+
+    private final int depth;
+    private final int width;
+    private final int stripeMask;
+    private final int stripeLength;
+    // Layout: stripe, then row, then column
+    private final AtomicLongArray cells;
+
+    /**
+     * @param width   The number of counters per row, rounded up to a power of two.
+     * @param depth   The number of rows (independent hash functions).
+     * @param stripes The number of stripes, rounded up to a power of two. Memory is {@code 8 * width * depth * stripes} bytes.
+     */
+    public CountMinSketch(int width, int depth, int stripes) {
+        this.width = roundUpToPowerOfTwo(width);
+        this.depth = depth;
+        int stripeCount = roundUpToPowerOfTwo(stripes);
+        this.stripeMask = stripeCount - 1;
+        this.stripeLength = this.width * depth;
+        this.cells = new AtomicLongArray(stripeLength * stripeCount);
+    }
+
+    /**
+     * Adds to the count of a key, given by its 128-bit hash.
+     *
+     * <p><strong>Performance Complexity:</strong> O(D) atomic additions for D rows.</p>
+     */
+    public void add(long hash1, long hash2, long count) {
+        // Consecutive thread ids land on consecutive stripes
+        int base = ((int) Thread.currentThread().getId() & stripeMask) * stripeLength;
+        for (int row = 0; row < depth; row++) {
+            cells.getAndAdd(base + row * width + column(hash1, hash2, row), count);
+        }
+    }
+
+    /**
+     * Returns the estimated count of a key, given by its 128-bit hash.
+     *
+     * <p><strong>Performance Complexity:</strong> O(D * S) for D rows and S stripes.</p>
+     */
+    public long estimate(long hash1, long hash2) {
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            int offset = row * width + column(hash1, hash2, row);
+            long sum = 0;
+            for (int stripe = 0; stripe <= stripeMask; stripe++) {
+                sum += cells.get(stripe * stripeLength + offset);
+            }
+            min = Math.min(min, sum);
+        }
+        return min;
+    }
+
+    // Kirsch-Mitzenmacher: the row hash functions are derived from the two halves of a single 128-bit hash
+    private int column(long hash1, long hash2, int row) {
+        return (int) ((hash1 + row * hash2) & (width - 1));
+    }
+
+    private static int roundUpToPowerOfTwo(int value) {
+        return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+
+}
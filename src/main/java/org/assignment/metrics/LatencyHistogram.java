@@ -0,0 +1,119 @@
+package org.assignment.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with power-of-two buckets.
+ * <p>
+ * Bucket i counts the durations in [2^(i-1), 2^i) nanoseconds, so recording is a leading-zeros count and a
+ * {@link LongAdder} increment, and percentiles are accurate within a factor of two, enough to tell which
+ * stage a p99 spike comes from.
+ * </p>
+ */
+public class LatencyHistogram {
+
+    private static final int BUCKETS = 64;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records a duration.
+     *
+     * @param nanos The duration in nanoseconds.
+     *
+     * <p><strong>Performance Complexity:</strong> O(1), contention-free.</p>
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        buckets[bucketOf(value)].increment();
+        count.increment();
+        totalNanos.add(value);
+        maxNanos.accumulate(value);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    /**
+     * Returns the upper bound of the bucket holding a percentile.
+     *
+     * @param percentile The percentile, in (0, 100].
+     * @return The percentile in nanoseconds (bucket upper bound), 0 if nothing was recorded.
+     *
+     * <p><strong>Performance Complexity:</strong> O(B) where B is the number of buckets (64).</p>
+     */
+    public long getPercentileNanos(double percentile) {
+        long[] counts = snapshot();
+        long total = 0;
+        for (long c : counts) total += c;
+        if (total == 0) return 0;
+
+        long rank = (long) Math.ceil(total * percentile / 100.0);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) return upperBound(i);
+        }
+        return upperBound(BUCKETS - 1);
+    }
+
+    /**
+     * Returns the non-empty buckets.
+     *
+     * @return Counts by bucket upper bound in nanoseconds, in increasing order.
+     */
+    public Map<Long, Long> getBuckets() {
+        long[] counts = snapshot();
+        Map<Long, Long> nonEmpty = new LinkedHashMap<>();
+        for (int i = 0; i < BUCKETS; i++) {
+            if (counts[i] > 0) nonEmpty.put(upperBound(i), counts[i]);
+        }
+        return nonEmpty;
+    }
+
+    /**
+     * Clears the histogram. Durations recorded concurrently may survive the reset.
+     */
+    public void reset() {
+        for (LongAdder bucket : buckets) bucket.reset();
+        count.reset();
+        totalNanos.reset();
+        maxNanos.reset();
+    }
+
+    private long[] snapshot() {
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) counts[i] = buckets[i].sum();
+        return counts;
+    }
+
+    private static int bucketOf(long nanos) {
+        return Math.min(BUCKETS - 1, BUCKETS - Long.numberOfLeadingZeros(nanos));
+    }
+
+    private static long upperBound(int bucket) {
+        return bucket >= BUCKETS - 1 ? Long.MAX_VALUE : (1L << bucket);
+    }
+
+}
@@ -0,0 +1,77 @@
+package org.assignment.metrics;
+
+import org.assignment.model.DetectionDTO;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Timings of the detection request running on a thread, reused from one request to the next.
+ * <p>
+ * Holds the start times shared by the request hooks, the nanoseconds spent in every {@link Stage}
+ * (a batch adds up the lookups and detections of its entries), and references to what was detected,
+ * only read when the request turns out to be slow.
+ * </p>
+ */
+public final class RequestTrace {
+
+    private static final Stage[] STAGES = Stage.values();
+
+    private final long[] stageNanos = new long[STAGES.length];
+    long requestStart = StageTimer.NOT_TIMED;
+    long bindingStart = StageTimer.NOT_TIMED;
+    long serializationStart = StageTimer.NOT_TIMED;
+    private String tenantId;
+    private List<DetectionDTO> detections = Collections.emptyList();
+
+    RequestTrace() {
+    }
+
+    /**
+     * Returns the time spent in a stage of this request.
+     *
+     * @param stage The stage.
+     * @return The nanoseconds spent in the stage, 0 if it was not timed.
+     */
+    public long getStageNanos(Stage stage) {
+        return stageNanos[stage.ordinal()];
+    }
+
+    /**
+     * Returns the duration of the whole request, 0 if it was not timed.
+     */
+    public long getTotalNanos() {
+        return stageNanos[Stage.TOTAL.ordinal()];
+    }
+
+    public String getTenantId() {
+        return tenantId;
+    }
+
+    public List<DetectionDTO> getDetections() {
+        return detections;
+    }
+
+    void add(Stage stage, long nanos) {
+        stageNanos[stage.ordinal()] += nanos;
+    }
+
+    void describe(String tenantId, List<DetectionDTO> detections) {
+        this.tenantId = tenantId;
+        this.detections = detections;
+    }
+
+    /**
+     * Clears the timings, and the references to the request so a pooled thread does not retain its payload.
+     */
+    void reset() {
+        Arrays.fill(stageNanos, 0);
+        requestStart = StageTimer.NOT_TIMED;
+        bindingStart = StageTimer.NOT_TIMED;
+        serializationStart = StageTimer.NOT_TIMED;
+        tenantId = null;
+        detections = Collections.emptyList();
+    }
+
+}
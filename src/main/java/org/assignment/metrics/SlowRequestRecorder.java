@@ -0,0 +1,262 @@
+package org.assignment.metrics;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import org.assignment.model.DetectionDTO;
+import org.assignment.model.SlowRequestDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Keeps the N slowest detection requests of the last window, with their per-stage timings, value sizes and a
+ * fingerprint of their shape, so latency outliers can be traced back to the payload that caused them.
+ * <p>
+ * The fast path is a single volatile read: a request faster than the current admission threshold (the fastest
+ * of the kept requests once they are N, the configured minimum duration before) is dropped before any capture work.
+ * Slower requests replace the fastest kept one with a compare-and-set on a fixed array of N slots, no lock taken.
+ * Requests older than the window are treated as free slots and are not returned.
+ * </p>
+ */
+@Component
+public class SlowRequestRecorder {
+
+    private static final Stage[] STAGES = Stage.values();
+
+    private final boolean enabled;
+    private final long minDurationNanos;
+    private final long windowNanos;
+    private final AtomicReferenceArray<Entry> slots;
+    private volatile Threshold threshold;
+
+    public SlowRequestRecorder(StageTimer stageTimer,
+                               @Value("${app.metrics.slow-requests.enabled}") boolean enabled,
+                               @Value("${app.metrics.slow-requests.capacity}") int capacity,
+                               @Value("${app.metrics.slow-requests.window-seconds}") long windowSeconds,
+                               @Value("${app.metrics.slow-requests.min-duration-millis}") long minDurationMillis) {
+        this.enabled = enabled;
+        this.minDurationNanos = TimeUnit.MILLISECONDS.toNanos(minDurationMillis);
+        this.windowNanos = TimeUnit.SECONDS.toNanos(windowSeconds);
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.threshold = Threshold.floor(minDurationNanos);
+        // Per-request stage timings are only needed to describe the slow requests
+        stageTimer.setTracing(enabled);
+    }
+
+    /**
+     * Offers a finished request.
+     *
+     * @param trace The trace of the request.
+     *
+     * <p><strong>Performance Complexity:</strong> O(1) below the threshold, O(N) for the N slots otherwise,
+     * plus capturing the request (linear in its number of parameters).</p>
+     */
+    public void offer(RequestTrace trace) {
+        long totalNanos = trace.getTotalNanos();
+        if (!enabled || totalNanos == 0) return;
+        long now = System.nanoTime();
+        Threshold current = threshold;
+        if (totalNanos < current.nanos && !current.isExpired(now)) return;
+
+        Entry candidate = null;
+        while (true) {
+            // The weakest slot: a free or expired one first, else the fastest request
+            int weakest = -1;
+            Entry weakestEntry = null;
+            for (int i = 0; i < slots.length(); i++) {
+                Entry entry = slots.get(i);
+                if (entry == null || isExpired(entry, now)) {
+                    weakest = i;
+                    weakestEntry = entry;
+                    break;
+                }
+                if (weakest < 0 || entry.totalNanos < weakestEntry.totalNanos) {
+                    weakest = i;
+                    weakestEntry = entry;
+                }
+            }
+            if (weakest < 0) return;
+            if (weakestEntry != null && !isExpired(weakestEntry, now) && weakestEntry.totalNanos >= totalNanos) {
+                updateThreshold(now);
+                return;
+            }
+            if (candidate == null) {
+                candidate = new Entry(totalNanos, now, capture(trace));
+            }
+            if (slots.compareAndSet(weakest, weakestEntry, candidate)) {
+                updateThreshold(now);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns the slowest requests of the last window.
+     *
+     * @return The kept requests, slowest first.
+     */
+    public List<SlowRequestDTO> getSlowRequests() {
+        long now = System.nanoTime();
+        List<Entry> entries = new ArrayList<>();
+        for (int i = 0; i < slots.length(); i++) {
+            Entry entry = slots.get(i);
+            if (entry != null && !isExpired(entry, now)) entries.add(entry);
+        }
+        entries.sort(Comparator.comparingLong((Entry entry) -> entry.totalNanos).reversed());
+        List<SlowRequestDTO> requests = new ArrayList<>(entries.size());
+        for (Entry entry : entries) {
+            requests.add(entry.request);
+        }
+        return requests;
+    }
+
+    /**
+     * Forgets every kept request.
+     */
+    public void clear() {
+        for (int i = 0; i < slots.length(); i++) {
+            slots.set(i, null);
+        }
+        threshold = Threshold.floor(minDurationNanos);
+    }
+
+    private boolean isExpired(Entry entry, long now) {
+        return now - entry.capturedAtNanos >= windowNanos;
+    }
+
+    /**
+     * Raises the threshold to the fastest kept request once all slots are taken, until the oldest one expires.
+     * Racing updates may leave a lower threshold than possible, which only costs a few extra slow-path checks.
+     */
+    private void updateThreshold(long now) {
+        long fastest = Long.MAX_VALUE;
+        long oldestAge = 0;
+        for (int i = 0; i < slots.length(); i++) {
+            Entry entry = slots.get(i);
+            if (entry == null || isExpired(entry, now)) {
+                threshold = Threshold.floor(minDurationNanos);
+                return;
+            }
+            fastest = Math.min(fastest, entry.totalNanos);
+            oldestAge = Math.max(oldestAge, now - entry.capturedAtNanos);
+        }
+        threshold = new Threshold(Math.max(minDurationNanos, fastest), true, now - oldestAge + windowNanos);
+    }
+
+    private static SlowRequestDTO capture(RequestTrace trace) {
+        Map<String, Double> stageMicros = new LinkedHashMap<>();
+        for (Stage stage : STAGES) {
+            long nanos = trace.getStageNanos(stage);
+            if (nanos > 0 && stage != Stage.TOTAL) stageMicros.put(stage.name(), nanos / 1_000.0);
+        }
+
+        ValueSizes sizes = new ValueSizes();
+        Hasher fingerprint = Hashing.murmur3_128().newHasher();
+        List<DetectionDTO> detections = trace.getDetections();
+        for (DetectionDTO detection : detections) {
+            fingerprint.putString(String.valueOf(detection.getMethod()), StandardCharsets.UTF_8)
+                    .putString(String.valueOf(detection.getPath()), StandardCharsets.UTF_8);
+            describe("q", detection.getQueryParams(), sizes, fingerprint);
+            describe("h", detection.getHeaders(), sizes, fingerprint);
+            describe("b", detection.getBody(), sizes, fingerprint);
+        }
+
+        DetectionDTO first = detections.isEmpty() ? null : detections.get(0);
+        return SlowRequestDTO.builder()
+                .tenantId(trace.getTenantId())
+                .endpoint(first != null ? first.getMethod() + " " + first.getPath() : null)
+                .entries(detections.size())
+                .capturedAtEpochMillis(System.currentTimeMillis())
+                .totalMicros(trace.getTotalNanos() / 1_000.0)
+                .stageMicros(stageMicros)
+                .valueCount(sizes.count)
+                .totalValueChars(sizes.totalChars)
+                .largestValueChars(sizes.largestChars)
+                .largestCollectionSize(sizes.largestCollection)
+                .fingerprint(detections.isEmpty() ? null : fingerprint.hash().toString())
+                .build();
+    }
+
+    /**
+     * Measures the values of a section and hashes its shape: names (sorted), value kinds and size classes.
+     * Values are never hashed nor kept, and collections are measured by their size, never walked.
+     */
+    private static void describe(String section, Map<String, ?> values, ValueSizes sizes, Hasher fingerprint) {
+        fingerprint.putString(section, StandardCharsets.UTF_8);
+        if (values == null) return;
+        for (Map.Entry<String, ?> field : new TreeMap<>(values).entrySet()) {
+            Object value = field.getValue();
+            int size;
+            char kind;
+            if (value instanceof String) {
+                size = ((String) value).length();
+                kind = 's';
+                sizes.totalChars += size;
+                sizes.largestChars = Math.max(sizes.largestChars, size);
+            } else if (value instanceof Collection || value instanceof Map) {
+                size = value instanceof Map ? ((Map<?, ?>) value).size() : ((Collection<?>) value).size();
+                kind = value instanceof Map ? 'm' : 'l';
+                sizes.largestCollection = Math.max(sizes.largestCollection, size);
+            } else {
+                size = 1;
+                kind = value == null ? '0' : 'v';
+            }
+            sizes.count++;
+            // Size class (power of two), so requests differing only by a few characters share a fingerprint
+            fingerprint.putString(field.getKey(), StandardCharsets.UTF_8)
+                    .putChar(kind)
+                    .putInt(32 - Integer.numberOfLeadingZeros(size));
+        }
+    }
+
+    private static final class ValueSizes {
+        private int count;
+        private long totalChars;
+        private int largestChars;
+        private int largestCollection;
+    }
+
+    private static final class Entry {
+        private final long totalNanos;
+        private final long capturedAtNanos;
+        private final SlowRequestDTO request;
+
+        private Entry(long totalNanos, long capturedAtNanos, SlowRequestDTO request) {
+            this.totalNanos = totalNanos;
+            this.capturedAtNanos = capturedAtNanos;
+            this.request = request;
+        }
+    }
+
+    private static final class Threshold {
+        private final long nanos;
+        private final boolean expires;
+        // System.nanoTime() at which the oldest kept request expires
+        private final long validUntil;
+
+        private Threshold(long nanos, boolean expires, long validUntil) {
+            this.nanos = nanos;
+            this.expires = expires;
+            this.validUntil = validUntil;
+        }
+
+        private static Threshold floor(long nanos) {
+            return new Threshold(nanos, false, 0);
+        }
+
+        private boolean isExpired(long now) {
+            return expires && now - validUntil >= 0;
+        }
+    }
+
+}
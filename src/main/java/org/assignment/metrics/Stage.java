@@ -0,0 +1,21 @@
+package org.assignment.metrics;
+
+/**
+ * The stages of a detection request, in the order they run.
+ */
+public enum Stage {
+    // Jackson reading the request body into a RequestDTO
+    JSON_BINDING,
+    // RequestDTO to DetectionDTO
+    MAPPING,
+    // DetectionSyntaxValidator
+    SYNTAX_VALIDATION,
+    // ModelCache lookup, including repository loads on a miss
+    MODEL_LOOKUP,
+    // AnomalyDetector
+    ANOMALY_DETECTION,
+    // Jackson writing the anomalies to the response
+    SERIALIZATION,
+    // The whole request, as seen by the servlet filter
+    TOTAL
+}
@@ -0,0 +1,32 @@
+package org.assignment.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JDK Flight Recorder event committed for every timed stage of a detection request.
+ * <p>
+ * Free when no recording enables it. Stack traces are off: the stage name already says where the time went.
+ * </p>
+ */
+@Name(StageEvent.NAME)
+@Label("Detection Stage")
+@Category({"Anomaly Detector"})
+@Description("Time spent in a single stage of a detection request")
+@StackTrace(false)
+class StageEvent extends jdk.jfr.Event {
+
+    static final String NAME = "org.assignment.DetectionStage";
+
+    @Label("Stage")
+    String stage;
+
+    @Label("Elapsed")
+    @Timespan(Timespan.NANOSECONDS)
+    long elapsed;
+
+}
@@ -0,0 +1,209 @@
+package org.assignment.metrics;
+
+import jdk.jfr.EventType;
+import lombok.extern.slf4j.Slf4j;
+import org.assignment.model.DetectionDTO;
+import org.assignment.model.StageStatsDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-stage latency breakdown of the detection requests.
+ * <p>
+ * Every {@link Stage} is timed with {@link System#nanoTime()} and reported two ways:
+ * - A {@link LatencyHistogram} per stage, while enabled (see {@link #setEnabled(boolean)}, switchable at runtime).
+ * - A {@link StageEvent} per stage and request, while a JDK Flight Recorder recording enables it.
+ * - A {@link RequestTrace} per thread, accumulating the stages of the current request while tracing is on
+ * (see {@link SlowRequestRecorder}).
+ * When none is on, {@link #start()} does not even read the clock.
+ * </p>
+ * <p>
+ * Binding, serialization and the whole request are timed from request hooks ({@link StageTimingFilter},
+ * {@link StageTimingAdvice}) that share their start times through the trace.
+ * </p>
+ */
+@Slf4j
+@Component
+public class StageTimer {
+
+    /**
+     * Returned by {@link #start()} when timing is off, ignored by {@link #stop(Stage, long)}.
+     */
+    public static final long NOT_TIMED = Long.MIN_VALUE;
+
+    private static final Stage[] STAGES = Stage.values();
+    private static final EventType STAGE_EVENT = EventType.getEventType(StageEvent.class);
+
+    private volatile boolean enabled;
+    private volatile boolean tracing;
+    private final LatencyHistogram[] histograms = new LatencyHistogram[STAGES.length];
+    private final ThreadLocal<RequestTrace> currentRequest = ThreadLocal.withInitial(RequestTrace::new);
+
+    public StageTimer(@Value("${app.metrics.stage-timing.enabled}") boolean enabled) {
+        this.enabled = enabled;
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * Starts timing a stage.
+     *
+     * @return The start time to pass to {@link #stop(Stage, long)}, or {@link #NOT_TIMED}.
+     */
+    public long start() {
+        return enabled || tracing || STAGE_EVENT.isEnabled() ? System.nanoTime() : NOT_TIMED;
+    }
+
+    /**
+     * Stops timing a stage.
+     *
+     * @param stage The stage.
+     * @param start The value returned by {@link #start()}.
+     *
+     * <p><strong>Performance Complexity:</strong> O(1).</p>
+     */
+    public void stop(Stage stage, long start) {
+        if (start != NOT_TIMED) {
+            record(stage, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Marks the beginning of a request on the current thread.
+     */
+    public void beginRequest() {
+        RequestTrace trace = currentRequest.get();
+        trace.reset();
+        trace.requestStart = start();
+    }
+
+    /**
+     * Attaches what the current request detects to its trace (references only, nothing is copied).
+     *
+     * @param tenantId   The tenant of the request.
+     * @param detections The detections of the request.
+     */
+    public void describeRequest(String tenantId, List<DetectionDTO> detections) {
+        if (tracing) {
+            currentRequest.get().describe(tenantId, detections);
+        }
+    }
+
+    /**
+     * Marks the beginning of the request body binding.
+     */
+    public void beginBinding() {
+        currentRequest.get().bindingStart = start();
+    }
+
+    /**
+     * Marks the end of the request body binding.
+     */
+    public void endBinding() {
+        stop(Stage.JSON_BINDING, currentRequest.get().bindingStart);
+    }
+
+    /**
+     * Marks the beginning of the response serialization.
+     */
+    public void beginSerialization() {
+        currentRequest.get().serializationStart = start();
+    }
+
+    /**
+     * Marks the end of a request on the current thread, timing the serialization and the whole request.
+     *
+     * @return The trace of the request, valid until {@link #clearRequest()}.
+     */
+    public RequestTrace endRequest() {
+        RequestTrace trace = currentRequest.get();
+        stop(Stage.SERIALIZATION, trace.serializationStart);
+        stop(Stage.TOTAL, trace.requestStart);
+        return trace;
+    }
+
+    /**
+     * Releases the trace of the request that ended on the current thread.
+     */
+    public void clearRequest() {
+        currentRequest.get().reset();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Switches the per-request traces on or off, independently of the histograms.
+     *
+     * @param tracing true to accumulate the stages of every request in its {@link RequestTrace}.
+     */
+    public void setTracing(boolean tracing) {
+        this.tracing = tracing;
+    }
+
+    /**
+     * Switches the histograms on or off. Flight Recorder events only depend on the recording settings.
+     *
+     * @param enabled true to record the histograms.
+     */
+    public void setEnabled(boolean enabled) {
+        if (this.enabled != enabled) {
+            log.info("Stage timing histograms {}", enabled ? "enabled" : "disabled");
+        }
+        this.enabled = enabled;
+    }
+
+    /**
+     * Returns the histogram of every stage.
+     *
+     * @return A list of {@link StageStatsDTO}, one per stage, in the order of the stages.
+     */
+    public List<StageStatsDTO> getStats() {
+        List<StageStatsDTO> stats = new ArrayList<>(STAGES.length);
+        for (Stage stage : STAGES) {
+            LatencyHistogram histogram = histograms[stage.ordinal()];
+            long count = histogram.getCount();
+            stats.add(StageStatsDTO.builder()
+                    .stage(stage.name())
+                    .count(count)
+                    .meanMicros(count > 0 ? histogram.getTotalNanos() / 1_000.0 / count : 0)
+                    .p50Micros(histogram.getPercentileNanos(50) / 1_000.0)
+                    .p90Micros(histogram.getPercentileNanos(90) / 1_000.0)
+                    .p99Micros(histogram.getPercentileNanos(99) / 1_000.0)
+                    .maxMicros(histogram.getMaxNanos() / 1_000.0)
+                    .buckets(histogram.getBuckets())
+                    .build());
+        }
+        return stats;
+    }
+
+    /**
+     * Clears the histograms of every stage.
+     */
+    public void reset() {
+        for (LatencyHistogram histogram : histograms) {
+            histogram.reset();
+        }
+    }
+
+    private void record(Stage stage, long nanos) {
+        if (enabled) {
+            histograms[stage.ordinal()].record(nanos);
+        }
+        if (tracing) {
+            currentRequest.get().add(stage, nanos);
+        }
+        if (STAGE_EVENT.isEnabled()) {
+            StageEvent event = new StageEvent();
+            event.stage = stage.name();
+            event.elapsed = nanos;
+            event.commit();
+        }
+    }
+
+}
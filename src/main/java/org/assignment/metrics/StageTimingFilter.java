@@ -0,0 +1,49 @@
+package org.assignment.metrics;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Times the whole detection request and, with {@link StageTimingAdvice}, the response serialization,
+ * then offers the request to the {@link SlowRequestRecorder}.
+ */
+@Component
+public class StageTimingFilter extends OncePerRequestFilter {
+
+    private static final String DETECTION_PATH = "/api/detection/";
+
+    private final StageTimer stageTimer;
+    private final SlowRequestRecorder slowRequestRecorder;
+
+    public StageTimingFilter(StageTimer stageTimer, SlowRequestRecorder slowRequestRecorder) {
+        this.stageTimer = stageTimer;
+        this.slowRequestRecorder = slowRequestRecorder;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(DETECTION_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        stageTimer.beginRequest();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            try {
+                slowRequestRecorder.offer(stageTimer.endRequest());
+            } finally {
+                stageTimer.clearRequest();
+            }
+        }
+    }
+
+}
@@ -1,6 +1,7 @@
 package org.assignment.model;
 
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -25,4 +26,13 @@ public class APIModelDTO {
     private List<APIModelParamDTO> headers;
     @JsonProperty("body")
     private List<APIModelParamDTO> body;
-}
\ No newline at end of file
+    // Value types declared by this model, referenced by name from the types of its parameters
+    @JsonProperty("custom_types")
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private List<CustomTypeDTO> customTypes;
+
+    public APIModelDTO(String path, String method, List<APIModelParamDTO> queryParams,
+                       List<APIModelParamDTO> headers, List<APIModelParamDTO> body) {
+        this(path, method, queryParams, headers, body, null);
+    }
+}
@@ -0,0 +1,23 @@
+package org.assignment.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Snapshot of the detection admission controller metrics.
+ */
+@Data
+@Builder
+public class AdmissionStatsDTO {
+    private boolean enabled;
+    private String overloadMode;
+    private int inFlight;
+    private int peakInFlight;
+    private int maxInFlight;
+    private long latencyBudgetMillis;
+    private double recentLatencyMillis;
+    private long admitted;
+    private long degraded;
+    private long shed;
+    private double shedRate;
+}
@@ -1,14 +1,23 @@
 package org.assignment.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 /**
  * Represents an anomaly detected in the request processing.
  */
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class AnomalyDTO {
     private String type;
     private String description;
+    // The model parameter the anomaly is about ("items[].sku" for nested body paths), null for request-level anomalies.
+    // Kept for the anomaly statistics and events, never part of a response
+    @JsonIgnore
+    private String param;
 }
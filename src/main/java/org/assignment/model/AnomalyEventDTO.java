@@ -0,0 +1,25 @@
+package org.assignment.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A detected anomaly shipped to the anomaly event sink, one JSON line per event.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AnomalyEventDTO {
+    private long timestamp;
+    private String tenantId;
+    private String method;
+    private String path;
+    private String type;
+    private String param;
+    private String description;
+}
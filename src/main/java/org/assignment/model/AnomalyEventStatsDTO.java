@@ -0,0 +1,23 @@
+package org.assignment.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Snapshot of the anomaly event pipeline counters.
+ */
+@Data
+@Builder
+public class AnomalyEventStatsDTO {
+    private boolean enabled;
+    private String sink;
+    private String overflowPolicy;
+    private int capacity;
+    private int queued;
+    private long published;
+    private long droppedOverflow;
+    private long written;
+    private long batches;
+    private long sinkFailures;
+    private long droppedSinkFailure;
+}
@@ -0,0 +1,21 @@
+package org.assignment.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * An endpoint, anomaly type and parameter combination with its estimated anomaly count over the window.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnomalyOffenderDTO {
+    private String tenantId;
+    private String endpoint;
+    private String type;
+    private String param;
+    private long count;
+}
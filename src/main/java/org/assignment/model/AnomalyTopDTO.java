@@ -0,0 +1,20 @@
+package org.assignment.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * The top anomaly offenders of the sliding window.
+ */
+@Data
+@Builder
+public class AnomalyTopDTO {
+    private long windowSeconds;
+    // Exact number of anomalies recorded in the window
+    private long totalAnomalies;
+    // Upper bound of the overestimate of every offender count
+    private long maxError;
+    private List<AnomalyOffenderDTO> offenders;
+}
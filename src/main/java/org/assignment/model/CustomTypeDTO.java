@@ -0,0 +1,38 @@
+package org.assignment.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object representing a value type declared by an API model, usable in the types of its parameters.
+ * <p>
+ * A custom type is one of: an enumeration ({@code enum}), a regular expression ({@code pattern}) or an integer range
+ * ({@code intRange}, inclusive bounds). {@code minLength} / {@code maxLength} bound the length of the value, on their
+ * own or on top of any of the above.
+ * </p>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CustomTypeDTO {
+    @JsonProperty("name")
+    private String name;
+    @JsonProperty("enum")
+    private List<String> enumValues;
+    @JsonProperty("pattern")
+    private String pattern;
+    @JsonProperty("intRange")
+    private List<Long> intRange;
+    @JsonProperty("minLength")
+    private Integer minLength;
+    @JsonProperty("maxLength")
+    private Integer maxLength;
+}
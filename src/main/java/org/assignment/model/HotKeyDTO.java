@@ -0,0 +1,20 @@
+package org.assignment.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A frequently validated endpoint of a tenant with its (decayed) access count, as saved in the hot-key file.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HotKeyDTO {
+    private String tenantId;
+    // "METHOD:PATH"
+    private String key;
+    private long count;
+}
@@ -0,0 +1,27 @@
+package org.assignment.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Status of a model ingestion job, returned by POST /api/models and GET /api/models/jobs/{jobId}.
+ * The error fields are only set when the job failed, with the codes the synchronous API returned.
+ */
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class IngestionJobDTO {
+    private String jobId;
+    private String tenantId;
+    private String status;
+    private int models;
+    private LocalDateTime submittedAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String errorCode;
+    private String message;
+    private String debugMessage;
+}
@@ -0,0 +1,27 @@
+package org.assignment.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Snapshot of the log tailer: position, lag and throughput.
+ */
+@Data
+@Builder
+public class LogTailStatsDTO {
+    private boolean enabled;
+    private boolean running;
+    private String file;
+    // Byte offset up to which every line was evaluated (the checkpointed position)
+    private long offset;
+    private long fileSize;
+    private long lagBytes;
+    // Estimated time to evaluate the lag at the current rate (time since the last progress when stalled), 0 when caught up
+    private long lagMillis;
+    private long lines;
+    private long invalidLines;
+    private long anomalousLines;
+    private long anomalies;
+    private long rotations;
+    private double linesPerSecond;
+}
@@ -0,0 +1,26 @@
+package org.assignment.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Result of a single line of a replayed traffic file, identified by its byte offset in the file.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ReplayLineResultDTO {
+    private long offset;
+    private String method;
+    private String path;
+    private List<AnomalyDTO> anomalies;
+    // Why the line was not replayed, null for replayed lines
+    private String error;
+}
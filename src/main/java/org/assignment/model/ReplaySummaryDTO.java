@@ -0,0 +1,31 @@
+package org.assignment.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.Map;
+
+/**
+ * Outcome of replaying a recorded traffic file through the detector.
+ */
+@Data
+@Builder
+public class ReplaySummaryDTO {
+    private String input;
+    private String tenantId;
+    private int threads;
+    private int chunks;
+    private long bytes;
+    private long requests;
+    // Lines that are not a valid request (malformed JSON, missing method or path...)
+    private long invalidLines;
+    private long anomalousRequests;
+    private long anomalies;
+    // Anomaly count per type, most frequent first
+    private Map<String, Long> anomaliesByType;
+    // Anomaly count of the endpoints with the most anomalies, most frequent first
+    private Map<String, Long> topEndpoints;
+    private long elapsedMillis;
+    private double requestsPerSecond;
+    private double requestsPerSecondPerCore;
+}
@@ -0,0 +1,18 @@
+package org.assignment.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Counters of the model repository tiers (shared cache and source of truth).
+ */
+@Data
+@Builder
+public class RepositoryStatsDTO {
+    private boolean sharedCacheEnabled;
+    private long sharedCacheHits;
+    private long sharedCacheMisses;
+    private long storeLoads;
+    private long coalescedLoads;
+    private long pendingWrites;
+}
@@ -0,0 +1,29 @@
+package org.assignment.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.Map;
+
+/**
+ * A detection request kept by the slow-request recorder.
+ * Never holds parameter values: only their count, sizes and a fingerprint of the request shape.
+ */
+@Data
+@Builder
+public class SlowRequestDTO {
+    private String tenantId;
+    // "METHOD path" of the detection, or of the first entry of a batch
+    private String endpoint;
+    private int entries;
+    private long capturedAtEpochMillis;
+    private double totalMicros;
+    // Time per stage, stages that were not timed are absent
+    private Map<String, Double> stageMicros;
+    private int valueCount;
+    private long totalValueChars;
+    private int largestValueChars;
+    private int largestCollectionSize;
+    // Hash of the method, path, parameter names and value kinds/sizes, equal for requests of the same shape
+    private String fingerprint;
+}
@@ -0,0 +1,24 @@
+package org.assignment.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.Map;
+
+/**
+ * Snapshot of the latency histogram of a detection stage.
+ * Percentiles are the upper bound of their power-of-two bucket.
+ */
+@Data
+@Builder
+public class StageStatsDTO {
+    private String stage;
+    private long count;
+    private double meanMicros;
+    private double p50Micros;
+    private double p90Micros;
+    private double p99Micros;
+    private double maxMicros;
+    // Count per bucket, by bucket upper bound in nanoseconds
+    private Map<Long, Long> buckets;
+}
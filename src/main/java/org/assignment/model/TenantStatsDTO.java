@@ -0,0 +1,23 @@
+package org.assignment.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Per-tenant model index and cache statistics.
+ */
+@Data
+@Builder
+public class TenantStatsDTO {
+    private String tenantId;
+    private int models;
+    private long cacheBudget;
+    private long cachedEntries;
+    private long hitCount;
+    private long missCount;
+    private double hitRate;
+    private long evictionCount;
+    private long filteredLookups;
+    private long estimatedCacheBytes;
+    private long estimatedStoreBytes;
+}
@@ -0,0 +1,20 @@
+package org.assignment.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Outcome of the startup warm-up: synthetic detections sent and cache entries preloaded before reporting ready.
+ */
+@Data
+@Builder
+public class WarmupStatsDTO {
+    // PENDING, RUNNING, DONE or SKIPPED (disabled, or no model loaded)
+    private String state;
+    private int models;
+    private long detections;
+    private long anomalies;
+    private long errors;
+    private int preloadedEndpoints;
+    private long elapsedMillis;
+}
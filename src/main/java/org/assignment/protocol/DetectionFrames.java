@@ -0,0 +1,402 @@
+package org.assignment.protocol;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.assignment.model.AnomalyDTO;
+import org.assignment.model.KeyValueObjectDTO;
+import org.assignment.model.KeyValueStringDTO;
+import org.assignment.model.RequestDTO;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Encoding of the frames of the binary detection protocol, shared by {@link DetectionProtocolServer} and
+ * {@link DetectionProtocolClient}.
+ * <p>
+ * Every frame is {@code u32 length} (of the rest of the frame), {@code u8 type}, {@code i64 request id}, then:
+ * </p>
+ * <pre>
+ * DETECT (1)  str16 tenant, str16 method, str16 path,
+ *             u16 count, count x (str16 name, str32 value)               query params
+ *             u16 count, count x (str16 name, str32 value)               headers
+ *             u16 count, count x (str16 name, u8 kind, str32 value)      body, kind 1 = string, 2 = JSON value
+ * RESULT (2)  u16 count, count x (str16 type, str32 description)
+ * ERROR  (3)  str16 error code, str32 message
+ * </pre>
+ * <p>
+ * All numbers are big-endian. {@code str16} and {@code str32} are UTF-8 bytes after a {@code u16} / {@code i32}
+ * length, the maximum length (0xFFFF) / -1 meaning null. A null tenant is the default tenant. Body values that are
+ * not strings (numbers, booleans, lists, objects) are sent as JSON text, so they are typed as in the HTTP API.
+ * The response to a DETECT frame carries its request id, so responses can come back in any order.
+ * </p>
+ */
+public final class DetectionFrames {
+
+    public static final byte DETECT = 1;
+    public static final byte RESULT = 2;
+    public static final byte ERROR = 3;
+
+    static final int HEADER_BYTES = 4;
+
+    private static final int NULL_STR16 = 0xFFFF;
+    private static final byte KIND_STRING = 1;
+    private static final byte KIND_JSON = 2;
+
+    private DetectionFrames() {
+    }
+
+    /**
+     * A decoded DETECT frame.
+     */
+    public static final class Request {
+        private final long requestId;
+        private final String tenantId;
+        private final RequestDTO request;
+
+        Request(long requestId, String tenantId, RequestDTO request) {
+            this.requestId = requestId;
+            this.tenantId = tenantId;
+            this.request = request;
+        }
+
+        public long getRequestId() {
+            return requestId;
+        }
+
+        public String getTenantId() {
+            return tenantId;
+        }
+
+        public RequestDTO getRequest() {
+            return request;
+        }
+    }
+
+    /**
+     * A decoded RESULT or ERROR frame.
+     */
+    public static final class Response {
+        private final long requestId;
+        private final List<AnomalyDTO> anomalies;
+        private final String errorCode;
+        private final String errorMessage;
+
+        Response(long requestId, List<AnomalyDTO> anomalies, String errorCode, String errorMessage) {
+            this.requestId = requestId;
+            this.anomalies = anomalies;
+            this.errorCode = errorCode;
+            this.errorMessage = errorMessage;
+        }
+
+        public long getRequestId() {
+            return requestId;
+        }
+
+        /**
+         * @return The anomalies of a RESULT frame, null for an ERROR frame.
+         */
+        public List<AnomalyDTO> getAnomalies() {
+            return anomalies;
+        }
+
+        public String getErrorCode() {
+            return errorCode;
+        }
+
+        public String getErrorMessage() {
+            return errorMessage;
+        }
+    }
+
+    /**
+     * Encodes a DETECT frame, length prefix included.
+     *
+     * @param requestId    The id the response will carry.
+     * @param tenantId     The tenant whose models are used, null for the default tenant.
+     * @param request      The request to validate.
+     * @param objectMapper Writes the body values that are not strings.
+     * @return The frame, ready to be written.
+     * @throws IllegalArgumentException If a value is too long for its field, or a body value cannot be written as JSON.
+     *
+     * <p><strong>Performance Complexity:</strong> O(S) where S is the size of the request, one array for the frame.</p>
+     */
+    public static ByteBuffer encodeRequest(long requestId, String tenantId, RequestDTO request, ObjectMapper objectMapper) {
+        List<byte[]> queryParams = encodeStringPairs(request.getQueryParams());
+        List<byte[]> headers = encodeStringPairs(request.getHeaders());
+        List<KeyValueObjectDTO> body = request.getBody() != null ? request.getBody() : List.of();
+        List<byte[]> bodyValues = new ArrayList<>(body.size() * 2);
+        byte[] kinds = new byte[body.size()];
+        for (int i = 0; i < body.size(); i++) {
+            KeyValueObjectDTO entry = body.get(i);
+            bodyValues.add(utf8(entry.getName()));
+            Object value = entry.getValue();
+            if (value == null || value instanceof String) {
+                kinds[i] = KIND_STRING;
+                bodyValues.add(utf8((String) value));
+            } else {
+                kinds[i] = KIND_JSON;
+                try {
+                    bodyValues.add(objectMapper.writeValueAsBytes(value));
+                } catch (JsonProcessingException e) {
+                    throw new IllegalArgumentException("Body value of '" + entry.getName() + "' cannot be written as JSON", e);
+                }
+            }
+        }
+        byte[] tenant = utf8(tenantId);
+        byte[] method = utf8(request.getMethod());
+        byte[] path = utf8(request.getPath());
+
+        int size = 1 + 8 + str16Size(tenant) + str16Size(method) + str16Size(path)
+                + pairsSize(queryParams) + pairsSize(headers) + pairsSize(bodyValues) + kinds.length;
+        ByteBuffer frame = ByteBuffer.allocate(HEADER_BYTES + size);
+        frame.putInt(size).put(DETECT).putLong(requestId);
+        putStr16(frame, tenant);
+        putStr16(frame, method);
+        putStr16(frame, path);
+        putPairs(frame, queryParams, null);
+        putPairs(frame, headers, null);
+        putPairs(frame, bodyValues, kinds);
+        return frame.flip();
+    }
+
+    /**
+     * Decodes a DETECT frame.
+     *
+     * @param frame        The frame without its length prefix.
+     * @param objectMapper Reads the JSON body values.
+     * @return The request and its id.
+     * @throws IllegalArgumentException If the frame is not a well-formed DETECT frame.
+     *
+     * <p><strong>Performance Complexity:</strong> O(S) where S is the size of the frame.</p>
+     */
+    public static Request decodeRequest(ByteBuffer frame, ObjectMapper objectMapper) {
+        try {
+            byte type = frame.get();
+            long requestId = frame.getLong();
+            if (type != DETECT) {
+                throw new IllegalArgumentException("Unexpected frame type " + type);
+            }
+            String tenantId = getStr16(frame);
+            RequestDTO request = new RequestDTO();
+            request.setMethod(getStr16(frame));
+            request.setPath(getStr16(frame));
+            request.setQueryParams(getStringPairs(frame));
+            request.setHeaders(getStringPairs(frame));
+            int count = frame.getShort() & 0xFFFF;
+            List<KeyValueObjectDTO> body = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                String name = getStr16(frame);
+                byte kind = frame.get();
+                if (kind == KIND_STRING) {
+                    body.add(new KeyValueObjectDTO(name, getStr32(frame)));
+                } else if (kind == KIND_JSON) {
+                    int length = frame.getInt();
+                    if (length < 0 || length > frame.remaining()) {
+                        throw new IllegalArgumentException("JSON value of " + length + " bytes past the end of the frame");
+                    }
+                    body.add(new KeyValueObjectDTO(name, objectMapper.readValue(frame.array(),
+                            frame.arrayOffset() + frame.position(), length, Object.class)));
+                    frame.position(frame.position() + length);
+                } else {
+                    throw new IllegalArgumentException("Unknown body value kind " + kind + " for '" + name + "'");
+                }
+            }
+            request.setBody(body);
+            if (frame.hasRemaining()) {
+                throw new IllegalArgumentException(frame.remaining() + " unexpected bytes after the body");
+            }
+            return new Request(requestId, tenantId, request);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Truncated frame", e);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid JSON body value: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reads the request id of a frame, valid even when the rest of the frame is malformed.
+     *
+     * @param frame The frame without its length prefix.
+     * @return The request id, 0 when the frame is too short to have one.
+     */
+    public static long requestIdOf(ByteBuffer frame) {
+        return frame.remaining() >= 9 ? frame.getLong(frame.position() + 1) : 0;
+    }
+
+    /**
+     * Encodes a RESULT frame, length prefix included.
+     *
+     * @param requestId The id of the request.
+     * @param anomalies The anomalies detected in the request.
+     * @return The frame, ready to be written.
+     *
+     * <p><strong>Performance Complexity:</strong> O(N) in the anomalies, one array for the frame.</p>
+     */
+    public static ByteBuffer encodeResult(long requestId, List<AnomalyDTO> anomalies) {
+        byte[][] fields = new byte[anomalies.size() * 2][];
+        int size = 1 + 8 + 2;
+        for (int i = 0; i < anomalies.size(); i++) {
+            AnomalyDTO anomaly = anomalies.get(i);
+            fields[2 * i] = utf8(anomaly.getType());
+            fields[2 * i + 1] = utf8(anomaly.getDescription());
+            size += str16Size(fields[2 * i]) + str32Size(fields[2 * i + 1]);
+        }
+        ByteBuffer frame = ByteBuffer.allocate(HEADER_BYTES + size);
+        frame.putInt(size).put(RESULT).putLong(requestId).putShort((short) checkCount(anomalies.size()));
+        for (int i = 0; i < anomalies.size(); i++) {
+            putStr16(frame, fields[2 * i]);
+            putStr32(frame, fields[2 * i + 1]);
+        }
+        return frame.flip();
+    }
+
+    /**
+     * Encodes an ERROR frame, length prefix included.
+     *
+     * @param requestId The id of the request, 0 when it could not be read.
+     * @param errorCode The code of the error, as in the HTTP API ("ERROR-4001"...).
+     * @param message   The detail of the error.
+     * @return The frame, ready to be written.
+     */
+    public static ByteBuffer encodeError(long requestId, String errorCode, String message) {
+        byte[] code = utf8(errorCode);
+        byte[] detail = utf8(message);
+        int size = 1 + 8 + str16Size(code) + str32Size(detail);
+        ByteBuffer frame = ByteBuffer.allocate(HEADER_BYTES + size);
+        frame.putInt(size).put(ERROR).putLong(requestId);
+        putStr16(frame, code);
+        putStr32(frame, detail);
+        return frame.flip();
+    }
+
+    /**
+     * Decodes a RESULT or ERROR frame.
+     *
+     * @param frame The frame without its length prefix.
+     * @return The response and the id of its request.
+     * @throws IllegalArgumentException If the frame is not a well-formed RESULT or ERROR frame.
+     */
+    public static Response decodeResponse(ByteBuffer frame) {
+        try {
+            byte type = frame.get();
+            long requestId = frame.getLong();
+            if (type == ERROR) {
+                return new Response(requestId, null, getStr16(frame), getStr32(frame));
+            }
+            if (type != RESULT) {
+                throw new IllegalArgumentException("Unexpected frame type " + type);
+            }
+            int count = frame.getShort() & 0xFFFF;
+            List<AnomalyDTO> anomalies = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                anomalies.add(AnomalyDTO.builder().type(getStr16(frame)).description(getStr32(frame)).build());
+            }
+            return new Response(requestId, anomalies, null, null);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Truncated frame", e);
+        }
+    }
+
+    private static List<byte[]> encodeStringPairs(List<KeyValueStringDTO> pairs) {
+        if (pairs == null) return List.of();
+        List<byte[]> encoded = new ArrayList<>(pairs.size() * 2);
+        for (KeyValueStringDTO pair : pairs) {
+            encoded.add(utf8(pair.getName()));
+            encoded.add(utf8(pair.getValue()));
+        }
+        return encoded;
+    }
+
+    private static List<KeyValueStringDTO> getStringPairs(ByteBuffer frame) {
+        int count = frame.getShort() & 0xFFFF;
+        List<KeyValueStringDTO> pairs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            pairs.add(new KeyValueStringDTO(getStr16(frame), getStr32(frame)));
+        }
+        return pairs;
+    }
+
+    // Names and values alternate, kinds (body only) go between them
+    private static int pairsSize(List<byte[]> pairs) {
+        checkCount(pairs.size() / 2);
+        int size = 2;
+        for (int i = 0; i < pairs.size(); i += 2) {
+            size += str16Size(pairs.get(i)) + str32Size(pairs.get(i + 1));
+        }
+        return size;
+    }
+
+    private static void putPairs(ByteBuffer frame, List<byte[]> pairs, byte[] kinds) {
+        frame.putShort((short) (pairs.size() / 2));
+        for (int i = 0; i < pairs.size(); i += 2) {
+            putStr16(frame, pairs.get(i));
+            if (kinds != null) {
+                frame.put(kinds[i / 2]);
+            }
+            putStr32(frame, pairs.get(i + 1));
+        }
+    }
+
+    private static int checkCount(int count) {
+        if (count > 0xFFFF) {
+            throw new IllegalArgumentException("Too many entries for a frame section: " + count);
+        }
+        return count;
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int str16Size(byte[] bytes) {
+        if (bytes != null && bytes.length >= NULL_STR16) {
+            throw new IllegalArgumentException("Value of " + bytes.length + " bytes is too long for a 16-bit length");
+        }
+        return 2 + (bytes == null ? 0 : bytes.length);
+    }
+
+    private static int str32Size(byte[] bytes) {
+        return 4 + (bytes == null ? 0 : bytes.length);
+    }
+
+    private static void putStr16(ByteBuffer frame, byte[] bytes) {
+        if (bytes == null) {
+            frame.putShort((short) NULL_STR16);
+        } else {
+            frame.putShort((short) bytes.length).put(bytes);
+        }
+    }
+
+    private static void putStr32(ByteBuffer frame, byte[] bytes) {
+        if (bytes == null) {
+            frame.putInt(-1);
+        } else {
+            frame.putInt(bytes.length).put(bytes);
+        }
+    }
+
+    private static String getStr16(ByteBuffer frame) {
+        int length = frame.getShort() & 0xFFFF;
+        return length == NULL_STR16 ? null : getString(frame, length);
+    }
+
+    private static String getStr32(ByteBuffer frame) {
+        int length = frame.getInt();
+        return length == -1 ? null : getString(frame, length);
+    }
+
+    private static String getString(ByteBuffer frame, int length) {
+        if (length < 0 || length > frame.remaining()) {
+            throw new IllegalArgumentException("String of " + length + " bytes past the end of the frame");
+        }
+        String value = new String(frame.array(), frame.arrayOffset() + frame.position(), length, StandardCharsets.UTF_8);
+        frame.position(frame.position() + length);
+        return value;
+    }
+
+}
@@ -0,0 +1,159 @@
+package org.assignment.protocol;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.assignment.model.AnomalyDTO;
+import org.assignment.model.RequestDTO;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Client of {@link DetectionProtocolServer} over one persistent connection, safe for concurrent use.
+ * <p>
+ * Requests are written as they are submitted, without waiting for the previous responses (pipelining), and a reader
+ * thread completes their futures as the responses arrive, in any order. An ERROR frame completes the future of its
+ * request with a {@link DetectionProtocolException}. When the connection fails, every pending future fails and the
+ * client must be replaced.
+ * </p>
+ */
+@Slf4j
+public class DetectionProtocolClient implements Closeable {
+
+    private final ObjectMapper objectMapper;
+    private final Socket socket;
+    private final OutputStream out;
+    private final DataInputStream in;
+    private final Thread reader;
+    private final AtomicLong nextRequestId = new AtomicLong();
+    private final Map<Long, CompletableFuture<List<AnomalyDTO>>> pending = new ConcurrentHashMap<>();
+    private volatile IOException failure;
+
+    /**
+     * Connects to a detector.
+     *
+     * @param host                 The host of the detector.
+     * @param port                 The port of its binary detection protocol.
+     * @param connectTimeoutMillis The connection timeout.
+     * @param objectMapper         Writes the body values that are not strings.
+     * @throws IOException If the connection fails.
+     */
+    public DetectionProtocolClient(String host, int port, int connectTimeoutMillis, ObjectMapper objectMapper) throws IOException {
+        this.objectMapper = objectMapper;
+        this.socket = new Socket();
+        socket.setTcpNoDelay(true);
+        socket.connect(new InetSocketAddress(host, port), connectTimeoutMillis);
+        this.out = socket.getOutputStream();
+        this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), 64 * 1024));
+        this.reader = new Thread(this::readResponses, "detection-protocol-client-" + socket.getLocalPort());
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    /**
+     * Sends a request for validation.
+     *
+     * @param tenantId The tenant whose models are used, null for the default tenant.
+     * @param request  The request to validate.
+     * @return The anomalies of the request, completed when its response arrives.
+     *
+     * <p><strong>Performance Complexity:</strong> O(S) where S is the size of the request, one socket write.</p>
+     */
+    public CompletableFuture<List<AnomalyDTO>> detect(String tenantId, RequestDTO request) {
+        long requestId = nextRequestId.incrementAndGet();
+        CompletableFuture<List<AnomalyDTO>> future = new CompletableFuture<>();
+        ByteBuffer frame;
+        try {
+            frame = DetectionFrames.encodeRequest(requestId, tenantId, request, objectMapper);
+        } catch (IllegalArgumentException e) {
+            future.completeExceptionally(e);
+            return future;
+        }
+        pending.put(requestId, future);
+        try {
+            synchronized (out) {
+                if (failure != null) throw failure;
+                out.write(frame.array(), 0, frame.limit());
+            }
+        } catch (IOException e) {
+            fail(e);
+        }
+        return future;
+    }
+
+    /**
+     * @return The number of requests sent and still without a response.
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    @Override
+    public void close() {
+        fail(new IOException("Client closed"));
+        try {
+            reader.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void readResponses() {
+        try {
+            while (true) {
+                int length = in.readInt();
+                if (length <= 0) {
+                    throw new IOException("Invalid frame length " + length);
+                }
+                byte[] frame = new byte[length];
+                in.readFully(frame);
+                DetectionFrames.Response response = DetectionFrames.decodeResponse(ByteBuffer.wrap(frame));
+                CompletableFuture<List<AnomalyDTO>> future = pending.remove(response.getRequestId());
+                if (future == null) {
+                    log.warn("Response to unknown request {}", response.getRequestId());
+                } else if (response.getAnomalies() != null) {
+                    future.complete(response.getAnomalies());
+                } else {
+                    future.completeExceptionally(new DetectionProtocolException(response.getErrorCode(), response.getErrorMessage()));
+                }
+            }
+        } catch (EOFException e) {
+            fail(new IOException("Connection closed by the detector", e));
+        } catch (IOException | IllegalArgumentException e) {
+            fail(e instanceof IOException ? (IOException) e : new IOException(e.getMessage(), e));
+        }
+    }
+
+    private void fail(IOException e) {
+        synchronized (out) {
+            if (failure == null) {
+                failure = e;
+            }
+        }
+        try {
+            socket.close();
+        } catch (IOException closeFailure) {
+            log.debug("Failed to close the connection: {}", closeFailure.getMessage());
+        }
+        // Requests added after the failure was set fail in detect()
+        for (Long requestId : pending.keySet()) {
+            CompletableFuture<List<AnomalyDTO>> future = pending.remove(requestId);
+            if (future != null) {
+                future.completeExceptionally(failure);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,22 @@
+package org.assignment.protocol;
+
+import lombok.Getter;
+
+import java.io.IOException;
+
+/**
+ * An ERROR frame returned by the detector for a request, with the error code of the HTTP API.
+ */
+@Getter
+public class DetectionProtocolException extends IOException {
+
+    private final String errorCode;
+    private final String debugMessage;
+
+    public DetectionProtocolException(String errorCode, String debugMessage) {
+        super(errorCode + ": " + debugMessage);
+        this.errorCode = errorCode;
+        this.debugMessage = debugMessage;
+    }
+
+}
@@ -0,0 +1,398 @@
+package org.assignment.protocol;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.assignment.controller.DetectionController;
+import org.assignment.exception.AppErrorCode;
+import org.assignment.exception.ClusterException;
+import org.assignment.exception.InvalidDetectionControllerException;
+import org.assignment.metrics.SlowRequestRecorder;
+import org.assignment.metrics.StageTimer;
+import org.assignment.model.AnomalyDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serves detections over persistent TCP connections with the framed binary protocol of {@link DetectionFrames},
+ * for sidecar proxies that would pay more for HTTP/JSON than for the detection itself.
+ * <p>
+ * A single selector thread accepts the connections, cuts the received bytes into frames and writes the responses.
+ * Every frame is decoded and validated on a worker pool, through {@link DetectionController} as an HTTP request
+ * would be (syntax validation, admission control, stage timing), so the requests pipelined on a connection are
+ * processed concurrently and their responses are written as they complete, in any order. A connection holds at most
+ * max-in-flight-per-connection requests whose response is not written to the socket yet: at the limit, the frames
+ * already received stay in its read buffer and the connection is no longer read, so a client that stops reading its
+ * responses is no longer read either. The frames left are dispatched as responses get written.
+ * </p>
+ * <p>
+ * The workers queue at most queue-capacity frames over all the connections. A frame arriving on a full queue is
+ * answered at once with a "DETECTION_QUEUE_FULL" ERROR frame, so the backlog stays bounded and visible to the clients.
+ * </p>
+ * <p>
+ * A frame above max-frame-bytes or a connection error closes the connection. A malformed frame or an invalid
+ * request gets an ERROR frame with the error code the HTTP API would return.
+ * </p>
+ */
+@Slf4j
+@Component
+public class DetectionProtocolServer {
+
+    private static final int READ_BUFFER_BYTES = 64 * 1024;
+
+    private final DetectionController detectionController;
+    private final StageTimer stageTimer;
+    private final SlowRequestRecorder slowRequestRecorder;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final int port;
+    private final int threads;
+    private final int maxFrameBytes;
+    private final int maxInFlightPerConnection;
+    private final int queueCapacity;
+
+    // Connections with responses to write, handed from the workers to the selector thread
+    private final Queue<Connection> pendingWrites = new ConcurrentLinkedQueue<>();
+
+    private volatile boolean running;
+    private Selector selector;
+    private ServerSocketChannel serverChannel;
+    private Thread selectorThread;
+    private ExecutorService workers;
+
+    public DetectionProtocolServer(DetectionController detectionController,
+                                   StageTimer stageTimer,
+                                   SlowRequestRecorder slowRequestRecorder,
+                                   ObjectMapper objectMapper,
+                                   @Value("${app.binary-protocol.enabled}") boolean enabled,
+                                   @Value("${app.binary-protocol.port}") int port,
+                                   @Value("${app.binary-protocol.threads}") int threads,
+                                   @Value("${app.binary-protocol.max-frame-bytes}") int maxFrameBytes,
+                                   @Value("${app.binary-protocol.max-in-flight-per-connection}") int maxInFlightPerConnection,
+                                   @Value("${app.binary-protocol.queue-capacity}") int queueCapacity) {
+        if (maxInFlightPerConnection < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("Binary protocol in-flight limit and queue capacity must be at least 1: "
+                    + maxInFlightPerConnection + ", " + queueCapacity);
+        }
+        this.detectionController = detectionController;
+        this.stageTimer = stageTimer;
+        this.slowRequestRecorder = slowRequestRecorder;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.port = port;
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.maxFrameBytes = maxFrameBytes;
+        this.maxInFlightPerConnection = maxInFlightPerConnection;
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Starts listening once the application is ready, so the sidecars are served after the warm-up like HTTP clients.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            start();
+        }
+    }
+
+    /**
+     * Opens the listening socket and starts the selector thread and the workers.
+     */
+    public synchronized void start() {
+        if (running) return;
+        try {
+            selector = Selector.open();
+            serverChannel = ServerSocketChannel.open();
+            serverChannel.bind(new InetSocketAddress(port));
+            serverChannel.configureBlocking(false);
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to listen on port " + port + " for the binary detection protocol", e);
+        }
+        running = true;
+        AtomicInteger workerIndex = new AtomicInteger();
+        workers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity), r -> {
+            Thread thread = new Thread(r, "detection-protocol-worker-" + workerIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        selectorThread = new Thread(this::select, "detection-protocol-selector");
+        selectorThread.setDaemon(true);
+        selectorThread.start();
+        log.info("Binary detection protocol listening on port {} with {} workers", getPort(), threads);
+    }
+
+    /**
+     * @return The port the server listens on (the one picked by the system for port 0), -1 when not started.
+     */
+    public int getPort() {
+        ServerSocketChannel channel = serverChannel;
+        return channel != null && channel.socket().isBound() ? channel.socket().getLocalPort() : -1;
+    }
+
+    /**
+     * Stops reading and writing, waits for the workers, and closes every connection.
+     * The requests still without a response get none, the clients see the connection close.
+     */
+    @PreDestroy
+    public synchronized void stop() {
+        if (!running) return;
+        running = false;
+        selector.wakeup();
+        try {
+            selectorThread.join(TimeUnit.SECONDS.toMillis(5));
+            workers.shutdown();
+            workers.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (SelectionKey key : selector.keys()) {
+            closeQuietly(key);
+        }
+        try {
+            selector.close();
+        } catch (IOException e) {
+            log.debug("Failed to close the selector: {}", e.getMessage());
+        }
+        serverChannel = null;
+        log.info("Binary detection protocol stopped");
+    }
+
+    private void select() {
+        while (running) {
+            try {
+                selector.select();
+                Connection pending;
+                while ((pending = pendingWrites.poll()) != null) {
+                    pending.flush();
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    try {
+                        if (!key.isValid()) continue;
+                        if (key.isAcceptable()) {
+                            accept();
+                            continue;
+                        }
+                        Connection connection = (Connection) key.attachment();
+                        if (key.isWritable()) {
+                            connection.flush();
+                        }
+                        if (key.isValid() && key.isReadable()) {
+                            connection.read();
+                        }
+                    } catch (IOException e) {
+                        log.debug("Closing connection {}: {}", key.attachment(), e.getMessage());
+                        closeQuietly(key);
+                    }
+                }
+            } catch (IOException e) {
+                log.error("Binary detection protocol selector failed", e);
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel == null) return;
+        channel.configureBlocking(false);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        Connection connection = new Connection(channel);
+        connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+        log.debug("Accepted connection {}", connection);
+    }
+
+    // On a worker thread
+    private void handle(Connection connection, byte[] bytes) {
+        ByteBuffer frame = ByteBuffer.wrap(bytes);
+        long requestId = DetectionFrames.requestIdOf(frame);
+        stageTimer.beginRequest();
+        try {
+            connection.send(process(frame, requestId));
+        } finally {
+            try {
+                slowRequestRecorder.offer(stageTimer.endRequest());
+            } finally {
+                stageTimer.clearRequest();
+            }
+        }
+    }
+
+    private ByteBuffer process(ByteBuffer frame, long requestId) {
+        DetectionFrames.Request request;
+        stageTimer.beginBinding();
+        try {
+            request = DetectionFrames.decodeRequest(frame, objectMapper);
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid frame {}: {}", requestId, e.getMessage());
+            return DetectionFrames.encodeError(requestId, AppErrorCode.INVALID_JSON_FORMAT.getCode(), e.getMessage());
+        }
+        stageTimer.endBinding();
+        try {
+            List<AnomalyDTO> anomalies = detectionController.validateDetection(request.getRequest(), request.getTenantId()).getBody();
+            stageTimer.beginSerialization();
+            return DetectionFrames.encodeResult(requestId, anomalies);
+        } catch (InvalidDetectionControllerException e) {
+            return DetectionFrames.encodeError(requestId, e.getErrorCode().getCode(), e.getDebugMessage());
+        } catch (ClusterException e) {
+            log.error("Cluster Error: {}", e.getDebugMessage(), e.getCause());
+            return DetectionFrames.encodeError(requestId, e.getErrorCode().getCode(), e.getDebugMessage());
+        } catch (RuntimeException e) {
+            log.error("Unexpected System Error", e);
+            return DetectionFrames.encodeError(requestId, AppErrorCode.INTERNAL_ERROR.getCode(), e.getMessage());
+        }
+    }
+
+    private static void closeQuietly(SelectionKey key) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException e) {
+            log.debug("Failed to close {}: {}", key.attachment(), e.getMessage());
+        }
+    }
+
+    /**
+     * A client connection. The buffers and the interest set are only touched by the selector thread,
+     * the workers only add to the response queue.
+     */
+    private final class Connection {
+        private final SocketChannel channel;
+        private final Queue<ByteBuffer> responses = new ConcurrentLinkedQueue<>();
+        private final ArrayDeque<ByteBuffer> writing = new ArrayDeque<>();
+        private final AtomicBoolean writeScheduled = new AtomicBoolean();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private ByteBuffer readBuffer = ByteBuffer.allocate(READ_BUFFER_BYTES);
+        private SelectionKey key;
+
+        private Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        void read() throws IOException {
+            int read = channel.read(readBuffer);
+            if (read < 0) {
+                throw new IOException("closed by the client");
+            }
+            dispatch();
+            updateInterest();
+        }
+
+        // Hands the complete frames of the read buffer to the workers, up to the in-flight limit: the rest stays in the
+        // buffer until responses are written
+        private void dispatch() throws IOException {
+            readBuffer.flip();
+            while (inFlight.get() < maxInFlightPerConnection && readBuffer.remaining() >= DetectionFrames.HEADER_BYTES) {
+                int length = readBuffer.getInt(readBuffer.position());
+                if (length <= 0 || length > maxFrameBytes) {
+                    throw new IOException("frame of " + length + " bytes, the maximum is " + maxFrameBytes);
+                }
+                if (readBuffer.remaining() < DetectionFrames.HEADER_BYTES + length) {
+                    if (readBuffer.capacity() < DetectionFrames.HEADER_BYTES + length) {
+                        // A frame larger than the buffer: grow it, the start of the frame is kept
+                        ByteBuffer larger = ByteBuffer.allocate(Math.max(DetectionFrames.HEADER_BYTES + length, readBuffer.capacity() * 2));
+                        larger.put(readBuffer).flip();
+                        readBuffer = larger;
+                    }
+                    break;
+                }
+                byte[] frame = new byte[length];
+                readBuffer.position(readBuffer.position() + DetectionFrames.HEADER_BYTES);
+                readBuffer.get(frame);
+                inFlight.incrementAndGet();
+                try {
+                    workers.execute(() -> handle(this, frame));
+                } catch (RejectedExecutionException e) {
+                    // The workers are saturated over all connections: answered at once, the response stays in flight
+                    send(DetectionFrames.encodeError(DetectionFrames.requestIdOf(ByteBuffer.wrap(frame)),
+                            AppErrorCode.DETECTION_QUEUE_FULL.getCode(), "The detection queue is full, retry later"));
+                }
+            }
+            readBuffer.compact();
+        }
+
+        // On a worker thread. The request stays in flight until its response is written
+        void send(ByteBuffer response) {
+            responses.add(response);
+            if (writeScheduled.compareAndSet(false, true)) {
+                pendingWrites.add(this);
+                selector.wakeup();
+            }
+        }
+
+        void flush() {
+            if (!key.isValid()) return;
+            writeScheduled.set(false);
+            ByteBuffer response;
+            while ((response = responses.poll()) != null) {
+                writing.add(response);
+            }
+            try {
+                // One gathering write for all the responses ready, the rest waits for OP_WRITE
+                if (!writing.isEmpty()) {
+                    channel.write(writing.toArray(new ByteBuffer[0]));
+                    int written = 0;
+                    while (!writing.isEmpty() && !writing.peekFirst().hasRemaining()) {
+                        writing.pollFirst();
+                        written++;
+                    }
+                    inFlight.addAndGet(-written);
+                }
+                // Frames left at the limit: the client may have nothing more to send, so no read would dispatch them
+                if (readBuffer.position() > 0) {
+                    dispatch();
+                }
+            } catch (IOException e) {
+                log.debug("Closing connection {}: {}", this, e.getMessage());
+                closeQuietly(key);
+                return;
+            }
+            updateInterest();
+        }
+
+        private void updateInterest() {
+            int interest = writing.isEmpty() ? SelectionKey.OP_READ : SelectionKey.OP_READ | SelectionKey.OP_WRITE;
+            if (inFlight.get() >= maxInFlightPerConnection) {
+                interest &= ~SelectionKey.OP_READ;
+            }
+            key.interestOps(interest);
+        }
+
+        @Override
+        public String toString() {
+            try {
+                return String.valueOf(channel.getRemoteAddress());
+            } catch (IOException e) {
+                return "closed";
+            }
+        }
+    }
+
+}
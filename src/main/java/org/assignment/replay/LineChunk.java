@@ -0,0 +1,74 @@
+package org.assignment.replay;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A byte range of a line-oriented file that starts at the beginning of a line and ends right after a newline
+ * (or at the end of the file), so that chunks can be mapped and parsed independently.
+ */
+final class LineChunk {
+
+    private static final int PROBE_SIZE = 8192;
+
+    final int index;
+    final long start;
+    final long length;
+
+    private LineChunk(int index, long start, long length) {
+        this.index = index;
+        this.start = start;
+        this.length = length;
+    }
+
+    /**
+     * Splits a file into chunks of about the given size, moving every boundary forward to the next line start.
+     *
+     * @param channel   The file.
+     * @param chunkSize The target size of a chunk, in bytes.
+     * @return The chunks, in file order, covering the whole file.
+     * @throws IOException if the file cannot be read, or a single line exceeds the largest mappable chunk.
+     *
+     * <p><strong>Performance Complexity:</strong> O(C * L) reads for C chunks, where L is the line length.</p>
+     */
+    static List<LineChunk> split(FileChannel channel, long chunkSize) throws IOException {
+        long size = channel.size();
+        List<LineChunk> chunks = new ArrayList<>();
+        ByteBuffer probe = ByteBuffer.allocate(PROBE_SIZE);
+        long start = 0;
+        while (start < size) {
+            long end = Math.min(size, start + chunkSize);
+            end = nextLineStart(channel, end, size, probe);
+            if (end - start > Integer.MAX_VALUE) {
+                throw new IOException("Line at offset " + start + " is longer than the largest mappable chunk");
+            }
+            chunks.add(new LineChunk(chunks.size(), start, end - start));
+            start = end;
+        }
+        return chunks;
+    }
+
+    private static long nextLineStart(FileChannel channel, long position, long size, ByteBuffer probe) throws IOException {
+        // A boundary right after a newline is already a line start
+        if (position == size || isNewlineBefore(channel, position, probe)) return position;
+        while (position < size) {
+            probe.clear();
+            int read = channel.read(probe, position);
+            if (read <= 0) break;
+            for (int i = 0; i < read; i++) {
+                if (probe.get(i) == '\n') return position + i + 1;
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private static boolean isNewlineBefore(FileChannel channel, long position, ByteBuffer probe) throws IOException {
+        probe.clear().limit(1);
+        return channel.read(probe, position - 1) == 1 && probe.get(0) == '\n';
+    }
+
+}
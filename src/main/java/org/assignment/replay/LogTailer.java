@@ -0,0 +1,534 @@
+package org.assignment.replay;
+
+import lombok.extern.slf4j.Slf4j;
+import org.assignment.model.AnomalyDTO;
+import org.assignment.model.DetectionDTO;
+import org.assignment.model.LogTailStatsDTO;
+import org.assignment.service.DetectionService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Follows a growing request log (one JSON request per line, NDJSON) and evaluates every new line with the
+ * {@link DetectionService}, for services that only write access logs.
+ * <p>
+ * A reader thread reads the new bytes with a {@link FileChannel} into a reused buffer and hands every run of
+ * complete lines (a segment) to a worker pool, which parses them and validates them in batches. The byte offset
+ * after the last segment whose predecessors are all evaluated is checkpointed to a file, together with the identity
+ * of the log file, so that a restart resumes where the previous run stopped instead of reprocessing the log.
+ * After a crash, at most the lines of the last checkpoint interval are evaluated twice.
+ * </p>
+ * <p>
+ * Rotation: when the path points to a new file (rename and create), the old file is read to its end before
+ * switching to the new one from its start. When the file shrinks below the offset (copy and truncate),
+ * it is read again from its start.
+ * </p>
+ * <p>
+ * A line longer than max-line-kb (a corrupted or binary log) is skipped up to its newline and counted as invalid, so
+ * the read buffer never grows past that size.
+ * </p>
+ */
+@Slf4j
+@Component
+public class LogTailer {
+
+    private static final String CHECKPOINT_FILE_KEY = "fileKey";
+    private static final String CHECKPOINT_OFFSET = "offset";
+
+    private final DetectionService detectionService;
+    private final RequestLineParser lineParser;
+    private final boolean enabled;
+    private final Path file;
+    private final Path checkpointFile;
+    private final String tenantId;
+    private final int threads;
+    private final int maxBatchLines;
+    private final int readBufferBytes;
+    private final int maxLineBytes;
+    private final long pollIntervalMillis;
+    private final long checkpointIntervalMillis;
+
+    private final LongAdder lines = new LongAdder();
+    private final LongAdder invalidLines = new LongAdder();
+    private final LongAdder anomalousLines = new LongAdder();
+    private final LongAdder anomalies = new LongAdder();
+    private volatile long rotations;
+    private volatile long committedOffset;
+    private volatile long fileSize;
+    private volatile long progressAtMillis = System.currentTimeMillis();
+    private volatile double linesPerSecond;
+    private volatile double bytesPerSecond;
+
+    private volatile boolean running;
+    private Thread reader;
+    private ExecutorService workers;
+
+    public LogTailer(DetectionService detectionService,
+                     RequestLineParser lineParser,
+                     @Value("${app.log-tail.enabled}") boolean enabled,
+                     @Value("${app.log-tail.file}") String file,
+                     @Value("${app.log-tail.checkpoint-file}") String checkpointFile,
+                     @Value("${app.log-tail.tenant}") String tenantId,
+                     @Value("${app.log-tail.threads}") int threads,
+                     @Value("${app.log-tail.max-batch-lines}") int maxBatchLines,
+                     @Value("${app.log-tail.read-buffer-kb}") int readBufferKb,
+                     @Value("${app.log-tail.max-line-kb}") int maxLineKb,
+                     @Value("${app.log-tail.poll-interval-millis}") long pollIntervalMillis,
+                     @Value("${app.log-tail.checkpoint-interval-millis}") long checkpointIntervalMillis) {
+        this.detectionService = detectionService;
+        this.lineParser = lineParser;
+        this.enabled = enabled;
+        this.file = Path.of(file);
+        this.checkpointFile = checkpointFile.isEmpty() ? Path.of(file + ".checkpoint") : Path.of(checkpointFile);
+        this.tenantId = tenantId;
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.maxBatchLines = maxBatchLines;
+        this.readBufferBytes = readBufferKb * 1024;
+        this.maxLineBytes = maxLineKb * 1024;
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.checkpointIntervalMillis = checkpointIntervalMillis;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            start();
+        }
+    }
+
+    /**
+     * Starts following the log from the checkpointed position (from the start of the log without checkpoint).
+     */
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        AtomicInteger workerIndex = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "log-tail-worker-" + workerIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        reader = new Thread(this::follow, "log-tail-reader");
+        reader.setDaemon(true);
+        reader.start();
+        log.info("Following {} with {} workers, checkpoint {}", file, threads, checkpointFile);
+    }
+
+    /**
+     * Stops following the log once the lines already read are evaluated, and saves the checkpoint.
+     */
+    @PreDestroy
+    public synchronized void stop() {
+        if (!running) return;
+        running = false;
+        try {
+            reader.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        workers.shutdownNow();
+    }
+
+    /**
+     * Returns the position, lag and throughput of the tailer.
+     *
+     * <p><strong>Performance Complexity:</strong> O(P) where P is the number of CPUs (striped counters).</p>
+     */
+    public LogTailStatsDTO getStats() {
+        long offset = committedOffset;
+        long size = fileSize;
+        long lagBytes = Math.max(0, size - offset);
+        return LogTailStatsDTO.builder()
+                .enabled(enabled)
+                .running(running)
+                .file(file.toString())
+                .offset(offset)
+                .fileSize(size)
+                .lagBytes(lagBytes)
+                .lagMillis(lagMillis(lagBytes))
+                .lines(lines.sum())
+                .invalidLines(invalidLines.sum())
+                .anomalousLines(anomalousLines.sum())
+                .anomalies(anomalies.sum())
+                .rotations(rotations)
+                .linesPerSecond(linesPerSecond)
+                .build();
+    }
+
+    /**
+     * The time needed to evaluate the lag at the current rate, or the time since the last progress when stalled.
+     */
+    private long lagMillis(long lagBytes) {
+        if (lagBytes == 0) return 0;
+        double rate = bytesPerSecond;
+        return rate > 0 ? (long) (lagBytes * 1000 / rate) : System.currentTimeMillis() - progressAtMillis;
+    }
+
+    /**
+     * The reader loop: reads, cuts segments, commits finished ones, follows rotations.
+     */
+    private void follow() {
+        ByteBuffer buffer = ByteBuffer.allocate(readBufferBytes);
+        Deque<Segment> inFlight = new ArrayDeque<>();
+        FileChannel channel = null;
+        Object fileKey = null;
+        // File offset of buffer[0], and of the next byte to read
+        long bufferOffset = 0;
+        long readOffset = 0;
+        boolean rotationPending = false;
+        // Dropping the bytes of a line over max-line-kb until its newline
+        boolean skippingLine = false;
+        long lastCheckpointMillis = System.currentTimeMillis();
+        long lastRateMillis = lastCheckpointMillis;
+        long lastRateLines = 0;
+        long lastRateOffset = 0;
+
+        try {
+            while (running) {
+                if (channel == null) {
+                    BasicFileAttributes attributes = attributesOf(file);
+                    if (attributes == null) {
+                        sleep();
+                        continue;
+                    }
+                    channel = FileChannel.open(file, StandardOpenOption.READ);
+                    fileKey = attributes.fileKey();
+                    readOffset = resumeOffset(fileKey, channel.size());
+                    bufferOffset = readOffset;
+                    committedOffset = readOffset;
+                    buffer.clear();
+                    skippingLine = false;
+                }
+
+                int read = channel.read(buffer, readOffset);
+                if (read > 0) {
+                    readOffset += read;
+                    fileSize = Math.max(fileSize, readOffset);
+                    if (skippingLine) {
+                        int newline = indexOfNewline(buffer);
+                        skippingLine = newline < 0;
+                        bufferOffset = skip(buffer, bufferOffset, skippingLine ? buffer.position() : newline + 1, inFlight);
+                    }
+                    bufferOffset = submitCompleteLines(buffer, bufferOffset, inFlight);
+                    if (!buffer.hasRemaining()) {
+                        if (buffer.capacity() < maxLineBytes) {
+                            // A single line larger than the buffer: grow it
+                            buffer = grow(buffer, maxLineBytes);
+                        } else {
+                            invalidLines.increment();
+                            log.warn("Skipping a line of {} longer than {} bytes at offset {}", file, maxLineBytes, bufferOffset);
+                            skippingLine = true;
+                            bufferOffset = skip(buffer, bufferOffset, buffer.position(), inFlight);
+                        }
+                    }
+                } else {
+                    fileSize = channel.size();
+                    BasicFileAttributes attributes = attributesOf(file);
+                    if (rotationPending || (attributes != null && !Objects.equals(attributes.fileKey(), fileKey))) {
+                        if (!rotationPending) {
+                            // Read the old file once more: the writer may have appended before reopening
+                            rotationPending = true;
+                            continue;
+                        }
+                        rotationPending = false;
+                        if (skippingLine) {
+                            bufferOffset = skip(buffer, bufferOffset, buffer.position(), inFlight);
+                            skippingLine = false;
+                        }
+                        submitTrailingLine(buffer, bufferOffset, inFlight);
+                        commit(inFlight, true);
+                        channel.close();
+                        channel = null;
+                        rotations++;
+                        saveCheckpoint(null, 0);
+                        log.info("{} was rotated, following the new file", file);
+                        continue;
+                    }
+                    if (attributes != null && attributes.size() < readOffset) {
+                        commit(inFlight, true);
+                        log.info("{} was truncated, reading it again from its start", file);
+                        readOffset = 0;
+                        bufferOffset = 0;
+                        committedOffset = 0;
+                        buffer.clear();
+                        skippingLine = false;
+                        rotations++;
+                        continue;
+                    }
+                    commit(inFlight, false);
+                    sleep();
+                }
+
+                commit(inFlight, false);
+                long now = System.currentTimeMillis();
+                if (now - lastCheckpointMillis >= checkpointIntervalMillis) {
+                    saveCheckpoint(fileKey, committedOffset);
+                    lastCheckpointMillis = now;
+                }
+                if (now - lastRateMillis >= 1000) {
+                    long total = lines.sum();
+                    long offset = committedOffset;
+                    linesPerSecond = (total - lastRateLines) * 1000.0 / (now - lastRateMillis);
+                    // A rotation moves the offset back, the rate of that second is unknown
+                    bytesPerSecond = Math.max(0, offset - lastRateOffset) * 1000.0 / (now - lastRateMillis);
+                    lastRateLines = total;
+                    lastRateOffset = offset;
+                    lastRateMillis = now;
+                }
+            }
+            commit(inFlight, true);
+            saveCheckpoint(fileKey, committedOffset);
+        } catch (IOException | RuntimeException e) {
+            log.error("Stopped following {} at offset {}", file, committedOffset, e);
+            running = false;
+        } finally {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    log.debug("Failed to close {}: {}", file, e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Hands the complete lines of the buffer to the workers and keeps the partial last line at the buffer start.
+     *
+     * @return The new file offset of buffer[0].
+     */
+    private long submitCompleteLines(ByteBuffer buffer, long bufferOffset, Deque<Segment> inFlight) {
+        byte[] array = buffer.array();
+        int end = buffer.position();
+        int lastNewline = end - 1;
+        while (lastNewline >= 0 && array[lastNewline] != '\n') {
+            lastNewline--;
+        }
+        if (lastNewline < 0) return bufferOffset;
+
+        int length = lastNewline + 1;
+        submit(Arrays.copyOf(array, length), bufferOffset + length, inFlight);
+        System.arraycopy(array, length, array, 0, end - length);
+        buffer.position(end - length);
+        return bufferOffset + length;
+    }
+
+    /**
+     * Drops the first bytes of the buffer, part of a line over the maximum length. The offset after them is committed
+     * in order with the segments in flight, so a restart does not read them again.
+     *
+     * @return The new file offset of buffer[0].
+     */
+    private long skip(ByteBuffer buffer, long bufferOffset, int length, Deque<Segment> inFlight) {
+        byte[] array = buffer.array();
+        int end = buffer.position();
+        System.arraycopy(array, length, array, 0, end - length);
+        buffer.position(end - length);
+        inFlight.addLast(new Segment(CompletableFuture.completedFuture(null), bufferOffset + length));
+        return bufferOffset + length;
+    }
+
+    private static int indexOfNewline(ByteBuffer buffer) {
+        byte[] array = buffer.array();
+        for (int i = 0; i < buffer.position(); i++) {
+            if (array[i] == '\n') return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Hands a last line without newline to the workers, before leaving a rotated file.
+     */
+    private void submitTrailingLine(ByteBuffer buffer, long bufferOffset, Deque<Segment> inFlight) {
+        if (buffer.position() == 0) return;
+        submit(Arrays.copyOf(buffer.array(), buffer.position()), bufferOffset + buffer.position(), inFlight);
+        buffer.clear();
+    }
+
+    private void submit(byte[] bytes, long endOffset, Deque<Segment> inFlight) {
+        // Bounded work queue: wait for the oldest segment rather than buffering the whole backlog in memory
+        while (inFlight.size() >= threads * 2) {
+            commitOldest(inFlight);
+        }
+        inFlight.addLast(new Segment(workers.submit(() -> evaluate(bytes)), endOffset));
+    }
+
+    /**
+     * Advances the committed offset over the finished segments at the head of the queue.
+     *
+     * @param wait Whether to wait for every segment.
+     */
+    private void commit(Deque<Segment> inFlight, boolean wait) {
+        while (!inFlight.isEmpty() && (wait || inFlight.peekFirst().future.isDone())) {
+            commitOldest(inFlight);
+        }
+    }
+
+    private void commitOldest(Deque<Segment> inFlight) {
+        Segment segment = inFlight.pollFirst();
+        try {
+            segment.future.get();
+        } catch (ExecutionException e) {
+            log.error("Failed to evaluate the lines of {} before offset {}", file, segment.endOffset, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        committedOffset = segment.endOffset;
+        progressAtMillis = System.currentTimeMillis();
+    }
+
+    /**
+     * Worker side: parses the lines of a segment and validates them in batches.
+     */
+    private void evaluate(byte[] bytes) {
+        List<DetectionDTO> batch = new ArrayList<>(maxBatchLines);
+        int lineStart = 0;
+        for (int i = 0; i <= bytes.length; i++) {
+            if (i < bytes.length && bytes[i] != '\n') continue;
+            int lineEnd = (i > lineStart && bytes[i - 1] == '\r') ? i - 1 : i;
+            if (lineEnd > lineStart) {
+                try {
+                    batch.add(lineParser.parse(bytes, lineStart, lineEnd - lineStart));
+                } catch (IllegalArgumentException e) {
+                    invalidLines.increment();
+                    log.debug("Skipping invalid line of {}: {}", file, e.getMessage());
+                }
+                if (batch.size() == maxBatchLines) {
+                    validate(batch);
+                }
+            }
+            lineStart = i + 1;
+        }
+        validate(batch);
+    }
+
+    private void validate(List<DetectionDTO> batch) {
+        if (batch.isEmpty()) return;
+        List<List<AnomalyDTO>> results = RecordedTraffic.run(() -> detectionService.validateDetections(tenantId, batch, false));
+        for (List<AnomalyDTO> result : results) {
+            if (!result.isEmpty()) {
+                anomalousLines.increment();
+                anomalies.add(result.size());
+            }
+        }
+        lines.add(batch.size());
+        batch.clear();
+    }
+
+    /**
+     * The offset to resume from: the checkpoint if it belongs to this file and is within it, the start otherwise.
+     */
+    private long resumeOffset(Object fileKey, long size) {
+        Properties checkpoint = loadCheckpoint();
+        if (checkpoint == null) return 0;
+        long offset = Long.parseLong(checkpoint.getProperty(CHECKPOINT_OFFSET, "0"));
+        boolean sameFile = String.valueOf(fileKey).equals(checkpoint.getProperty(CHECKPOINT_FILE_KEY));
+        if (sameFile && offset <= size) {
+            log.info("Resuming {} at offset {}", file, offset);
+            return offset;
+        }
+        log.info("Checkpoint of {} belongs to a previous file, reading the current one from its start", file);
+        return 0;
+    }
+
+    private Properties loadCheckpoint() {
+        if (!Files.exists(checkpointFile)) return null;
+        Properties checkpoint = new Properties();
+        try (InputStream in = Files.newInputStream(checkpointFile)) {
+            checkpoint.load(in);
+            return checkpoint;
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("Ignoring unreadable checkpoint {}: {}", checkpointFile, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Writes the checkpoint to a temporary file moved over the previous one, so that a crash never leaves it half written.
+     */
+    private void saveCheckpoint(Object fileKey, long offset) throws IOException {
+        Properties checkpoint = new Properties();
+        checkpoint.setProperty(CHECKPOINT_FILE_KEY, String.valueOf(fileKey));
+        checkpoint.setProperty(CHECKPOINT_OFFSET, String.valueOf(offset));
+        Path parent = checkpointFile.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = parent.resolve(checkpointFile.getFileName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            checkpoint.store(out, null);
+        }
+        try {
+            Files.move(temp, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, checkpointFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static BasicFileAttributes attributesOf(Path path) throws IOException {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    private static ByteBuffer grow(ByteBuffer buffer, int maxBytes) {
+        ByteBuffer larger = ByteBuffer.allocate((int) Math.min((long) buffer.capacity() * 2, maxBytes));
+        buffer.flip();
+        larger.put(buffer);
+        return larger;
+    }
+
+    private void sleep() {
+        try {
+            Thread.sleep(pollIntervalMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    /**
+     * A run of complete lines being evaluated, and the file offset right after it.
+     */
+    private static final class Segment {
+        private final Future<?> future;
+        private final long endOffset;
+
+        private Segment(Future<?> future, long endOffset) {
+            this.future = future;
+            this.endOffset = endOffset;
+        }
+    }
+
+}
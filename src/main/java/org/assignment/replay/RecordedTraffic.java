@@ -0,0 +1,42 @@
+package org.assignment.replay;
+
+import java.util.function.Supplier;
+
+/**
+ * Marks the detections running on the current thread as recorded traffic (offline replay, log tailing).
+ * <p>
+ * Recorded requests are validated and reported like live ones, but they did not arrive now: the rate and endpoint scan
+ * detectors, which count requests against the wall clock, skip them. A file replayed in seconds is not a flood.
+ * The hot-key tracker skips them too, its preload follows the live traffic.
+ * </p>
+ */
+public final class RecordedTraffic {
+
+    private static final ThreadLocal<Boolean> ACTIVE = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    private RecordedTraffic() {
+    }
+
+    /**
+     * Runs an action with the current thread marked as replaying recorded traffic.
+     *
+     * @param action The action sending recorded detections.
+     * @return The result of the action.
+     */
+    public static <T> T run(Supplier<T> action) {
+        ACTIVE.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            ACTIVE.remove();
+        }
+    }
+
+    /**
+     * @return true if the current thread is sending recorded detections.
+     */
+    public static boolean isActive() {
+        return ACTIVE.get();
+    }
+
+}
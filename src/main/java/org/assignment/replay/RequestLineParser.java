@@ -0,0 +1,62 @@
+package org.assignment.replay;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.assignment.model.DetectionDTO;
+import org.assignment.model.RequestDTO;
+import org.assignment.service.DetectionMapper;
+import org.assignment.validation.DetectionSyntaxValidator;
+import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+
+import java.io.IOException;
+import java.util.stream.Collectors;
+
+/**
+ * Turns a line of a request log (one JSON {@link RequestDTO}) into a validated {@link DetectionDTO},
+ * with the same mapping and syntax checks as the detection API.
+ */
+@Component
+public class RequestLineParser {
+
+    private final DetectionSyntaxValidator validator;
+    private final ObjectReader requestReader;
+
+    public RequestLineParser(DetectionSyntaxValidator validator, ObjectMapper objectMapper) {
+        this.validator = validator;
+        this.requestReader = objectMapper.readerFor(RequestDTO.class);
+    }
+
+    /**
+     * Parses a line.
+     *
+     * @param bytes  The buffer holding the line.
+     * @param offset The start of the line in the buffer.
+     * @param length The length of the line, without its line terminator.
+     * @return The validated detection entry.
+     * @throws IllegalArgumentException if the line is not a valid request, with the reason as message.
+     *
+     * <p><strong>Performance Complexity:</strong> O(L) where L is the length of the line.</p>
+     */
+    public DetectionDTO parse(byte[] bytes, int offset, int length) {
+        DetectionDTO detection;
+        try {
+            RequestDTO request = requestReader.readValue(bytes, offset, length);
+            detection = DetectionMapper.toDetection(request);
+        } catch (IOException | RuntimeException e) {
+            throw new IllegalArgumentException("Invalid request: " + e.getMessage(), e);
+        }
+
+        BindingResult bindingResult = new BeanPropertyBindingResult(detection, "detectionDTO");
+        validator.validate(detection, bindingResult);
+        if (bindingResult.hasErrors()) {
+            throw new IllegalArgumentException(bindingResult.getAllErrors().stream()
+                    .map(DefaultMessageSourceResolvable::getDefaultMessage)
+                    .collect(Collectors.joining(", ")));
+        }
+        return detection;
+    }
+
+}
@@ -0,0 +1,245 @@
+package org.assignment.replay;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.assignment.model.AnomalyDTO;
+import org.assignment.model.DetectionDTO;
+import org.assignment.model.ReplayLineResultDTO;
+import org.assignment.model.ReplaySummaryDTO;
+import org.assignment.model.RequestDTO;
+import org.assignment.service.DetectionService;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Replays recorded traffic (one JSON {@link RequestDTO} per line, NDJSON) through the {@link DetectionService}.
+ * <p>
+ * The file is split into chunks at line boundaries and every chunk is memory-mapped and evaluated by its own task,
+ * on as many threads as requested. Chunks never share state: each one counts into its own {@link ChunkResult}
+ * and writes its per-line results to its own part file, merged in file order at the end.
+ * Lines are read straight from the mapping, the file is never copied into the heap as a whole.
+ * </p>
+ */
+@Slf4j
+@Service
+public class TrafficReplayer {
+
+    private static final int TOP_ENDPOINTS = 20;
+
+    private final DetectionService detectionService;
+    private final RequestLineParser lineParser;
+    private final ObjectWriter resultWriter;
+
+    public TrafficReplayer(DetectionService detectionService, RequestLineParser lineParser, ObjectMapper objectMapper) {
+        this.detectionService = detectionService;
+        this.lineParser = lineParser;
+        this.resultWriter = objectMapper.writerFor(ReplayLineResultDTO.class);
+    }
+
+    /**
+     * Replays a traffic file against the models of a tenant.
+     *
+     * @param input     The NDJSON file of {@link RequestDTO}s.
+     * @param tenantId  The tenant whose models are used.
+     * @param threads   The number of threads evaluating chunks in parallel.
+     * @param chunkSize The target size of a chunk in bytes; smaller chunks balance the threads better.
+     * @param output    The NDJSON file receiving one {@link ReplayLineResultDTO} per line, in file order, or null.
+     * @return The summary of the replay, including the throughput.
+     * @throws IOException if the input cannot be read or the output cannot be written.
+     *
+     * <p><strong>Performance Complexity:</strong> O(N / T) wall time for N requests on T threads,
+     * each request costing a JSON parse plus {@link DetectionService#validateDetection(String, DetectionDTO)}.</p>
+     */
+    public ReplaySummaryDTO replay(Path input, String tenantId, int threads, long chunkSize, Path output) throws IOException {
+        long startNanos = System.nanoTime();
+        ChunkResult total = new ChunkResult();
+        int chunkCount;
+        long bytes;
+
+        try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ)) {
+            bytes = channel.size();
+            // At least a few chunks per thread, so that a slow chunk does not leave the other threads idle
+            long effectiveChunkSize = Math.max(1, Math.min(chunkSize, bytes / (threads * 4L) + 1));
+            List<LineChunk> chunks = LineChunk.split(channel, effectiveChunkSize);
+            chunkCount = chunks.size();
+            log.info("Replaying {} ({} bytes) in {} chunks on {} threads", input, bytes, chunkCount, threads);
+
+            AtomicInteger threadIndex = new AtomicInteger();
+            ExecutorService executor = Executors.newFixedThreadPool(threads, r -> {
+                Thread thread = new Thread(r, "replay-" + threadIndex.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            try {
+                List<Future<ChunkResult>> futures = new ArrayList<>(chunks.size());
+                for (LineChunk chunk : chunks) {
+                    Path part = output != null ? partFile(output, chunk) : null;
+                    futures.add(executor.submit(() -> replayChunk(channel, chunk, tenantId, part)));
+                }
+                for (Future<ChunkResult> future : futures) {
+                    total.merge(future.get());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Replay interrupted", e);
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getCause());
+            } finally {
+                executor.shutdownNow();
+            }
+
+            if (output != null) {
+                mergeParts(output, chunks);
+            }
+        }
+
+        long elapsedNanos = Math.max(1, System.nanoTime() - startNanos);
+        double requestsPerSecond = total.requests * 1e9 / elapsedNanos;
+        return ReplaySummaryDTO.builder()
+                .input(input.toString())
+                .tenantId(tenantId)
+                .threads(threads)
+                .chunks(chunkCount)
+                .bytes(bytes)
+                .requests(total.requests)
+                .invalidLines(total.invalidLines)
+                .anomalousRequests(total.anomalousRequests)
+                .anomalies(total.anomalies)
+                .anomaliesByType(mostFrequent(total.anomaliesByType, Integer.MAX_VALUE))
+                .topEndpoints(mostFrequent(total.anomaliesByEndpoint, TOP_ENDPOINTS))
+                .elapsedMillis(elapsedNanos / 1_000_000)
+                .requestsPerSecond(requestsPerSecond)
+                .requestsPerSecondPerCore(requestsPerSecond / threads)
+                .build();
+    }
+
+    private ChunkResult replayChunk(FileChannel channel, LineChunk chunk, String tenantId, Path part) throws IOException {
+        ChunkResult result = new ChunkResult();
+        MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, chunk.start, chunk.length);
+        int limit = mapped.limit();
+        byte[] line = new byte[8192];
+
+        try (OutputStream out = part != null ? new BufferedOutputStream(Files.newOutputStream(part), 64 * 1024) : null) {
+            int lineStart = 0;
+            for (int i = 0; i <= limit; i++) {
+                if (i < limit && mapped.get(i) != '\n') continue;
+                int lineEnd = (i > lineStart && mapped.get(i - 1) == '\r') ? i - 1 : i;
+                int length = lineEnd - lineStart;
+                if (length > 0) {
+                    if (length > line.length) {
+                        line = new byte[Math.max(length, line.length * 2)];
+                    }
+                    mapped.position(lineStart);
+                    mapped.get(line, 0, length);
+                    ReplayLineResultDTO lineResult = replayLine(line, length, chunk.start + lineStart, tenantId, result);
+                    if (out != null) {
+                        out.write(resultWriter.writeValueAsBytes(lineResult));
+                        out.write('\n');
+                    }
+                }
+                lineStart = i + 1;
+            }
+        }
+        return result;
+    }
+
+    private ReplayLineResultDTO replayLine(byte[] line, int length, long offset, String tenantId, ChunkResult result) {
+        DetectionDTO detection;
+        try {
+            detection = lineParser.parse(line, 0, length);
+        } catch (IllegalArgumentException e) {
+            result.invalidLines++;
+            return ReplayLineResultDTO.builder().offset(offset).error(e.getMessage()).build();
+        }
+
+        List<AnomalyDTO> anomalies = RecordedTraffic.run(() -> detectionService.validateDetection(tenantId, detection));
+        result.record(detection, anomalies);
+        return ReplayLineResultDTO.builder()
+                .offset(offset)
+                .method(detection.getMethod())
+                .path(detection.getPath())
+                .anomalies(anomalies)
+                .build();
+    }
+
+    private static Path partFile(Path output, LineChunk chunk) {
+        return output.resolveSibling(output.getFileName() + ".part" + chunk.index);
+    }
+
+    private static void mergeParts(Path output, List<LineChunk> chunks) throws IOException {
+        try (FileChannel target = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (LineChunk chunk : chunks) {
+                Path part = partFile(output, chunk);
+                try (FileChannel source = FileChannel.open(part, StandardOpenOption.READ)) {
+                    long position = 0;
+                    long size = source.size();
+                    while (position < size) {
+                        position += source.transferTo(position, size - position, target);
+                    }
+                }
+                Files.delete(part);
+            }
+        }
+    }
+
+    private static Map<String, Long> mostFrequent(Map<String, Long> counts, int limit) {
+        return counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(limit)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a, LinkedHashMap::new));
+    }
+
+    /**
+     * The counts of a single chunk, owned by the thread replaying it.
+     */
+    private static final class ChunkResult {
+        private long requests;
+        private long invalidLines;
+        private long anomalousRequests;
+        private long anomalies;
+        private final Map<String, Long> anomaliesByType = new HashMap<>();
+        private final Map<String, Long> anomaliesByEndpoint = new HashMap<>();
+
+        private void record(DetectionDTO detection, List<AnomalyDTO> detected) {
+            requests++;
+            if (detected.isEmpty()) return;
+            anomalousRequests++;
+            anomalies += detected.size();
+            for (AnomalyDTO anomaly : detected) {
+                anomaliesByType.merge(anomaly.getType(), 1L, Long::sum);
+            }
+            anomaliesByEndpoint.merge(detection.getMethod() + " " + detection.getPath(), (long) detected.size(), Long::sum);
+        }
+
+        private void merge(ChunkResult other) {
+            requests += other.requests;
+            invalidLines += other.invalidLines;
+            anomalousRequests += other.anomalousRequests;
+            anomalies += other.anomalies;
+            other.anomaliesByType.forEach((type, count) -> anomaliesByType.merge(type, count, Long::sum));
+            other.anomaliesByEndpoint.forEach((endpoint, count) -> anomaliesByEndpoint.merge(endpoint, count, Long::sum));
+        }
+    }
+
+}
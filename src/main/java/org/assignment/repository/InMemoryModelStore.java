@@ -0,0 +1,50 @@
+package org.assignment.repository;
+
+import org.assignment.model.APIModelDTO;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory source of truth, standing in for a durable store (e.g. Cassandra, partitioned by tenant)
+ * for assignment purposes.
+ */
+public class InMemoryModelStore implements ModelStore {
+
+    // Thread safe in memory store
+    // Key: Tenant ID -> "METHOD:PATH"
+    // Value: API Model
+    private final Map<String, Map<String, APIModelDTO>> modelStore = new ConcurrentHashMap<>();
+
+    @Override
+    public APIModelDTO get(String tenantId, String key) {
+        // get is Lock-Free (High throughput for reads)
+        Map<String, APIModelDTO> tenantModels = modelStore.get(tenantId);
+        return tenantModels != null ? tenantModels.get(key) : null;
+    }
+
+    @Override
+    public void putAll(String tenantId, Map<String, APIModelDTO> models) {
+        // put is Thread-Safe in ConcurrentHashMap(Bucket Locking)
+        modelStore.computeIfAbsent(tenantId, t -> new ConcurrentHashMap<>()).putAll(models);
+    }
+
+    @Override
+    public Map<String, APIModelDTO> findAllByTenant(String tenantId) {
+        Map<String, APIModelDTO> tenantModels = modelStore.get(tenantId);
+        return tenantModels != null ? Collections.unmodifiableMap(tenantModels) : Map.of();
+    }
+
+    @Override
+    public boolean hasTenant(String tenantId) {
+        return modelStore.containsKey(tenantId);
+    }
+
+    @Override
+    public Set<String> findAllTenants() {
+        return Collections.unmodifiableSet(modelStore.keySet());
+    }
+
+}
@@ -0,0 +1,82 @@
+package org.assignment.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.assignment.model.APIModelDTO;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-process stand-in for the shared cache tier.
+ * <p>
+ * Behaves like a remote cache: models are stored serialized (so callers never share instances with the cache
+ * and pay the encoding cost a network cache would), and the cache is bounded by an entry count with LRU eviction.
+ * </p>
+ */
+public class LoopbackSharedCacheClient implements SharedCacheClient {
+
+    private final ObjectMapper objectMapper;
+    // Key: "Tenant ID/METHOD:PATH", Value: JSON encoded model
+    private final Cache<String, byte[]> entries;
+
+    public LoopbackSharedCacheClient(ObjectMapper objectMapper, long maxEntries) {
+        this.objectMapper = objectMapper;
+        this.entries = CacheBuilder.newBuilder().maximumSize(maxEntries).build();
+    }
+
+    @Override
+    public APIModelDTO get(String tenantId, String key) {
+        byte[] encoded = entries.getIfPresent(cacheKey(tenantId, key));
+        return encoded != null ? decode(encoded) : null;
+    }
+
+    @Override
+    public Map<String, APIModelDTO> getAll(String tenantId, Collection<String> keys) {
+        List<String> cacheKeys = new ArrayList<>(keys.size());
+        keys.forEach(key -> cacheKeys.add(cacheKey(tenantId, key)));
+
+        Map<String, APIModelDTO> found = new HashMap<>();
+        entries.getAllPresent(cacheKeys).forEach((cacheKey, encoded) ->
+                found.put(cacheKey.substring(tenantId.length() + 1), decode(encoded)));
+        return found;
+    }
+
+    @Override
+    public void putAll(String tenantId, Map<String, APIModelDTO> models) {
+        models.forEach((key, model) -> entries.put(cacheKey(tenantId, key), encode(model)));
+    }
+
+    @Override
+    public void putAllIfAbsent(String tenantId, Map<String, APIModelDTO> models) {
+        models.forEach((key, model) -> entries.asMap().putIfAbsent(cacheKey(tenantId, key), encode(model)));
+    }
+
+    // Tenant IDs cannot contain '/', so the composite key is unambiguous
+    private static String cacheKey(String tenantId, String key) {
+        return tenantId + "/" + key;
+    }
+
+    private byte[] encode(APIModelDTO model) {
+        try {
+            return objectMapper.writeValueAsBytes(model);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private APIModelDTO decode(byte[] encoded) {
+        try {
+            return objectMapper.readValue(encoded, APIModelDTO.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
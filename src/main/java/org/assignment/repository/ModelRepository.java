@@ -1,47 +1,242 @@
 package org.assignment.repository;
 
 import org.assignment.model.APIModelDTO;
-import org.springframework.stereotype.Component;
+import org.assignment.model.RepositoryStatsDTO;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
- * In-memory implementation of the Model Repository for assignment purposes.
+ * Tiered Model Repository.
  * In a real production system, I would use this 3-layer approach:
  * 1. Cassandra(Source of truth): the persistent storage layer. It handles large-scale data and ensures durability.
  * Optimized for write-heavy workloads and read but partition key based access patterns.
  * 2. Redis Cluster(Shared distributed cache): a fast, in-memory cache layer that all application nodes can access.
  * 3. Local Cache(Guava): A small cache inside the application itself.
+ * <p>
+ * This class composes layers 1 and 2 behind the {@link ModelTier} SPI ({@link ModelStore} and
+ * {@link SharedCacheClient}); layer 3 is the per-tenant {@code ModelCache} reading through this class.
+ * The implementations are chosen by {@link RepositoryConfiguration}.
+ * - Reads go to the shared cache first and fall back to the store, filling the shared cache on the way back.
+ * - Concurrent misses for the same key are coalesced: a single caller loads from the store, the others wait for it.
+ * - Writes go to the store first and then overwrite the shared cache, so a racing fill can never leave
+ * a stale model in the shared cache.
+ * </p>
+ * <p>
+ * Models are namespaced per tenant: every tenant owns its own "METHOD:PATH" index, so teams sharing
+ * the detector never collide on the same endpoint key.
+ * </p>
  */
-@Component
 public class ModelRepository {
 
-    // Thread safe in memory store
-    // Key: "METHOD:PATH"
-    // Value: API Model
-    private final Map<String, APIModelDTO> modelStore = new ConcurrentHashMap<>();
+    private final ModelStore store;
+    // Null when the shared cache tier is disabled
+    private final SharedCacheClient sharedCache;
+
+    // Key: "Tenant ID/METHOD:PATH" of every store load in progress
+    private final Map<String, CompletableFuture<Optional<APIModelDTO>>> inFlightLoads = new ConcurrentHashMap<>();
+
+    private final LongAdder sharedCacheHits = new LongAdder();
+    private final LongAdder sharedCacheMisses = new LongAdder();
+    private final LongAdder storeLoads = new LongAdder();
+    private final LongAdder coalescedLoads = new LongAdder();
+
+    public ModelRepository(ModelStore store, SharedCacheClient sharedCache) {
+        this.store = store;
+        this.sharedCache = sharedCache;
+    }
+
+    /**
+     * Creates a repository backed by an in-memory store only.
+     */
+    public ModelRepository() {
+        this(new InMemoryModelStore(), null);
+    }
 
     /**
      * Save a batch of API models to the repository.
      *
+     * @param tenantId     The tenant owning the models.
      * @param apiModelDTOS A map where the key is a combination of HTTP method and path,
      *                     and the value is the corresponding APIModelDTO.
      */
-    public void saveBatch(Map<String, APIModelDTO> apiModelDTOS) {
-        // put is Thread-Safe in ConcurrentHashMap(Bucket Locking)
-        modelStore.putAll(apiModelDTOS);
+    public void saveBatch(String tenantId, Map<String, APIModelDTO> apiModelDTOS) {
+        store.putAll(tenantId, apiModelDTOS);
+        if (sharedCache != null) {
+            sharedCache.putAll(tenantId, apiModelDTOS);
+        }
     }
 
     /**
      * Find an API model by its key.
      *
-     * @param key The key representing the combination of HTTP method and path.
+     * @param tenantId The tenant owning the model.
+     * @param key      The key representing the combination of HTTP method and path.
      * @return The corresponding APIModelDTO, or null if not found.
+     *
+     * <p><strong>Performance Complexity:</strong> O(1) on a shared cache hit, one store read on a miss
+     * (shared by all concurrent callers of the same key).</p>
+     */
+    public APIModelDTO findByKey(String tenantId, String key) {
+        if (sharedCache != null) {
+            APIModelDTO cached = sharedCache.get(tenantId, key);
+            if (cached != null) {
+                sharedCacheHits.increment();
+                return cached;
+            }
+            sharedCacheMisses.increment();
+        }
+
+        String loadKey = loadKey(tenantId, key);
+        CompletableFuture<Optional<APIModelDTO>> load = new CompletableFuture<>();
+        CompletableFuture<Optional<APIModelDTO>> inFlight = inFlightLoads.putIfAbsent(loadKey, load);
+        if (inFlight != null) {
+            coalescedLoads.increment();
+            return await(inFlight).orElse(null);
+        }
+
+        try {
+            storeLoads.increment();
+            APIModelDTO model = store.get(tenantId, key);
+            if (model != null && sharedCache != null) {
+                sharedCache.putAllIfAbsent(tenantId, Map.of(key, model));
+            }
+            load.complete(Optional.ofNullable(model));
+            return model;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightLoads.remove(loadKey, load);
+        }
+    }
+
+    /**
+     * Finds many API models of a tenant in one call.
+     * <p>
+     * Keys missing from the shared cache are read from the store in a single batch, except the keys
+     * another caller is already loading, which are awaited instead.
+     * </p>
+     *
+     * @param tenantId The tenant owning the models.
+     * @param keys     The keys representing the combination of HTTP method and path.
+     * @return The models found, by key. Unknown keys are absent from the map.
+     *
+     * <p><strong>Performance Complexity:</strong> O(K) where K is the number of keys, with at most one shared cache
+     * round trip and one store batch.</p>
+     */
+    public Map<String, APIModelDTO> findAllByKeys(String tenantId, Collection<String> keys) {
+        Map<String, APIModelDTO> found = new HashMap<>();
+        List<String> missing = new ArrayList<>(keys);
+        if (sharedCache != null) {
+            found.putAll(sharedCache.getAll(tenantId, keys));
+            sharedCacheHits.add(found.size());
+            sharedCacheMisses.add(keys.size() - found.size());
+            missing.removeAll(found.keySet());
+        }
+        if (missing.isEmpty()) return found;
+
+        // Claim the keys nobody is loading, wait for the others
+        Map<String, CompletableFuture<Optional<APIModelDTO>>> claimed = new HashMap<>();
+        Map<String, CompletableFuture<Optional<APIModelDTO>>> awaited = new HashMap<>();
+        for (String key : missing) {
+            CompletableFuture<Optional<APIModelDTO>> load = new CompletableFuture<>();
+            CompletableFuture<Optional<APIModelDTO>> inFlight = inFlightLoads.putIfAbsent(loadKey(tenantId, key), load);
+            if (inFlight != null) {
+                awaited.put(key, inFlight);
+            } else {
+                claimed.put(key, load);
+            }
+        }
+
+        if (!claimed.isEmpty()) {
+            try {
+                storeLoads.increment();
+                Map<String, APIModelDTO> loaded = store.getAll(tenantId, claimed.keySet());
+                if (!loaded.isEmpty() && sharedCache != null) {
+                    sharedCache.putAllIfAbsent(tenantId, loaded);
+                }
+                found.putAll(loaded);
+                claimed.forEach((key, load) -> load.complete(Optional.ofNullable(loaded.get(key))));
+            } catch (RuntimeException e) {
+                claimed.values().forEach(load -> load.completeExceptionally(e));
+                throw e;
+            } finally {
+                claimed.forEach((key, load) -> inFlightLoads.remove(loadKey(tenantId, key), load));
+            }
+        }
+
+        coalescedLoads.add(awaited.size());
+        awaited.forEach((key, load) -> await(load).ifPresent(model -> found.put(key, model)));
+        return found;
+    }
+
+    /**
+     * Returns the models of a tenant.
+     *
+     * @param tenantId The tenant owning the models.
+     * @return An unmodifiable view of the tenant's models, empty if the tenant is unknown.
+     */
+    public Map<String, APIModelDTO> findAllByTenant(String tenantId) {
+        return store.findAllByTenant(tenantId);
+    }
+
+    /**
+     * Checks whether a tenant has ingested any models.
+     *
+     * @param tenantId The tenant ID.
+     * @return true if the tenant is known to the repository.
+     */
+    public boolean hasTenant(String tenantId) {
+        return store.hasTenant(tenantId);
+    }
+
+    /**
+     * Returns the IDs of all tenants known to the repository.
+     *
+     * @return An unmodifiable view of the tenant IDs.
      */
-    public APIModelDTO findByKey(String key) {
-        // get is Lock-Free (High throughput for reads)
-        return modelStore.get(key);
+    public Set<String> findAllTenants() {
+        return store.findAllTenants();
+    }
+
+    /**
+     * Returns the counters of the repository tiers.
+     *
+     * @return The current {@link RepositoryStatsDTO}.
+     */
+    public RepositoryStatsDTO getStats() {
+        return RepositoryStatsDTO.builder()
+                .sharedCacheEnabled(sharedCache != null)
+                .sharedCacheHits(sharedCacheHits.sum())
+                .sharedCacheMisses(sharedCacheMisses.sum())
+                .storeLoads(storeLoads.sum())
+                .coalescedLoads(coalescedLoads.sum())
+                .pendingWrites(store.getPendingWrites())
+                .build();
+    }
+
+    private static String loadKey(String tenantId, String key) {
+        return tenantId + "/" + key;
+    }
+
+    private static Optional<APIModelDTO> await(CompletableFuture<Optional<APIModelDTO>> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            // Rethrow the loader's failure to every waiting caller
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            throw e;
+        }
     }
 
 }
@@ -0,0 +1,49 @@
+package org.assignment.repository;
+
+import org.assignment.model.APIModelDTO;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The source of truth of the model repository.
+ * <p>
+ * On top of the {@link ModelTier} operations, the store can enumerate tenants and their models,
+ * which the caches in front of it cannot.
+ * </p>
+ */
+public interface ModelStore extends ModelTier {
+
+    /**
+     * Returns the models of a tenant.
+     *
+     * @param tenantId The tenant owning the models.
+     * @return An unmodifiable view of the tenant's models, empty if the tenant is unknown.
+     */
+    Map<String, APIModelDTO> findAllByTenant(String tenantId);
+
+    /**
+     * Checks whether a tenant has ingested any models.
+     *
+     * @param tenantId The tenant ID.
+     * @return true if the tenant is known to the store.
+     */
+    boolean hasTenant(String tenantId);
+
+    /**
+     * Returns the IDs of all tenants known to the store.
+     *
+     * @return An unmodifiable view of the tenant IDs.
+     */
+    Set<String> findAllTenants();
+
+    /**
+     * Returns the number of writes accepted but not yet durable.
+     *
+     * @return 0 for synchronous stores.
+     */
+    default long getPendingWrites() {
+        return 0;
+    }
+
+}
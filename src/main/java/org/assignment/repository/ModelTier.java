@@ -0,0 +1,57 @@
+package org.assignment.repository;
+
+import org.assignment.model.APIModelDTO;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A single storage tier of the model repository (shared cache, source of truth...).
+ * <p>
+ * Models are namespaced per tenant and addressed by their "METHOD:PATH" key.
+ * Tiers are composed by {@link ModelRepository}, which implements read-through, write ordering
+ * and coalescing of concurrent misses on top of them; a tier only has to store and fetch.
+ * </p>
+ */
+public interface ModelTier {
+
+    /**
+     * Fetches a single model.
+     *
+     * @param tenantId The tenant owning the model.
+     * @param key      The key representing the combination of HTTP method and path.
+     * @return The corresponding APIModelDTO, or null if this tier does not hold it.
+     */
+    APIModelDTO get(String tenantId, String key);
+
+    /**
+     * Fetches many models of a tenant in one call.
+     *
+     * @param tenantId The tenant owning the models.
+     * @param keys     The keys to fetch.
+     * @return The models found, by key. Keys this tier does not hold are absent from the map.
+     *
+     * <p><strong>Performance Complexity:</strong> O(K) where K is the number of keys. Remote tiers should override
+     * this method with a single round trip.</p>
+     */
+    default Map<String, APIModelDTO> getAll(String tenantId, Collection<String> keys) {
+        Map<String, APIModelDTO> found = new HashMap<>();
+        for (String key : keys) {
+            APIModelDTO model = get(tenantId, key);
+            if (model != null) {
+                found.put(key, model);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Stores models, replacing the existing models with the same keys.
+     *
+     * @param tenantId The tenant owning the models.
+     * @param models   The models to store, by key.
+     */
+    void putAll(String tenantId, Map<String, APIModelDTO> models);
+
+}
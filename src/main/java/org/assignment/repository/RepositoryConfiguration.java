@@ -0,0 +1,34 @@
+package org.assignment.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Assembles the tiers of the {@link ModelRepository} from the application properties.
+ */
+@Configuration
+public class RepositoryConfiguration {
+
+    /**
+     * The source of truth, optionally behind a write-behind buffer.
+     */
+    @Bean
+    public ModelStore modelStore(@Value("${app.repository.write-behind.enabled}") boolean writeBehind,
+                                 @Value("${app.repository.write-behind.flush-interval-millis}") long flushIntervalMillis) {
+        ModelStore store = new InMemoryModelStore();
+        return writeBehind ? new WriteBehindModelStore(store, flushIntervalMillis) : store;
+    }
+
+    @Bean
+    public ModelRepository modelRepository(ModelStore modelStore, ObjectMapper objectMapper,
+                                           @Value("${app.repository.shared-cache.enabled}") boolean sharedCacheEnabled,
+                                           @Value("${app.repository.shared-cache.max-entries}") long sharedCacheMaxEntries) {
+        SharedCacheClient sharedCache = sharedCacheEnabled
+                ? new LoopbackSharedCacheClient(objectMapper, sharedCacheMaxEntries)
+                : null;
+        return new ModelRepository(modelStore, sharedCache);
+    }
+
+}
@@ -0,0 +1,27 @@
+package org.assignment.repository;
+
+import org.assignment.model.APIModelDTO;
+
+import java.util.Map;
+
+/**
+ * Client of the shared cache tier, the cache every application node can read (e.g. a Redis cluster).
+ * <p>
+ * Implementations are expected to be remote, so {@link #getAll} should be a single round trip (MGET).
+ * </p>
+ */
+public interface SharedCacheClient extends ModelTier {
+
+    /**
+     * Stores models only for keys the cache does not hold yet (SETNX).
+     * <p>
+     * Used to fill the cache after a read from the source of truth: a fill racing with an ingestion
+     * must never overwrite the newer model written by that ingestion.
+     * </p>
+     *
+     * @param tenantId The tenant owning the models.
+     * @param models   The models to store, by key.
+     */
+    void putAllIfAbsent(String tenantId, Map<String, APIModelDTO> models);
+
+}
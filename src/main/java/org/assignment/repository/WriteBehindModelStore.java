@@ -0,0 +1,137 @@
+package org.assignment.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.assignment.model.APIModelDTO;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind decorator of a {@link ModelStore}.
+ * <p>
+ * Writes are acknowledged as soon as they are buffered and flushed to the delegate by a background thread,
+ * so ingestion latency does not depend on the durable store. Successive writes of the same key are coalesced.
+ * Reads see buffered writes first, so a model is visible the moment its ingestion returns.
+ * A buffered entry is only dropped once the delegate holds it, and a failed flush is retried on the next tick.
+ * </p>
+ */
+@Slf4j
+public class WriteBehindModelStore implements ModelStore, AutoCloseable {
+
+    private final ModelStore delegate;
+    private final ScheduledExecutorService flusher;
+
+    // Key: Tenant ID -> "METHOD:PATH"
+    // Value: API Model not yet written to the delegate
+    private final Map<String, Map<String, APIModelDTO>> pending = new ConcurrentHashMap<>();
+
+    public WriteBehindModelStore(ModelStore delegate, long flushIntervalMillis) {
+        this.delegate = delegate;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "model-store-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public APIModelDTO get(String tenantId, String key) {
+        Map<String, APIModelDTO> tenantPending = pending.get(tenantId);
+        APIModelDTO model = tenantPending != null ? tenantPending.get(key) : null;
+        return model != null ? model : delegate.get(tenantId, key);
+    }
+
+    @Override
+    public Map<String, APIModelDTO> getAll(String tenantId, Collection<String> keys) {
+        Map<String, APIModelDTO> tenantPending = pending.getOrDefault(tenantId, Map.of());
+        Map<String, APIModelDTO> found = new HashMap<>(delegate.getAll(tenantId, keys));
+        for (String key : keys) {
+            APIModelDTO model = tenantPending.get(key);
+            if (model != null) {
+                found.put(key, model);
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public void putAll(String tenantId, Map<String, APIModelDTO> models) {
+        pending.computeIfAbsent(tenantId, t -> new ConcurrentHashMap<>()).putAll(models);
+    }
+
+    @Override
+    public Map<String, APIModelDTO> findAllByTenant(String tenantId) {
+        Map<String, APIModelDTO> tenantPending = pending.get(tenantId);
+        if (tenantPending == null || tenantPending.isEmpty()) {
+            return delegate.findAllByTenant(tenantId);
+        }
+        Map<String, APIModelDTO> models = new HashMap<>(delegate.findAllByTenant(tenantId));
+        models.putAll(tenantPending);
+        return Collections.unmodifiableMap(models);
+    }
+
+    @Override
+    public boolean hasTenant(String tenantId) {
+        return pending.containsKey(tenantId) || delegate.hasTenant(tenantId);
+    }
+
+    @Override
+    public Set<String> findAllTenants() {
+        Set<String> tenants = new HashSet<>(delegate.findAllTenants());
+        tenants.addAll(pending.keySet());
+        return Collections.unmodifiableSet(tenants);
+    }
+
+    @Override
+    public long getPendingWrites() {
+        return pending.values().stream().mapToLong(Map::size).sum();
+    }
+
+    /**
+     * Writes every buffered model to the delegate.
+     *
+     * <p><strong>Performance Complexity:</strong> O(P) where P is the number of buffered models,
+     * one delegate batch per tenant.</p>
+     */
+    public void flush() {
+        for (Map.Entry<String, Map<String, APIModelDTO>> entry : pending.entrySet()) {
+            Map<String, APIModelDTO> batch = new HashMap<>(entry.getValue());
+            if (batch.isEmpty()) continue;
+            delegate.putAll(entry.getKey(), batch);
+            // Only drop what was written: a newer value buffered meanwhile stays for the next flush
+            batch.forEach(entry.getValue()::remove);
+        }
+    }
+
+    /**
+     * Stops the background thread after a last flush.
+     */
+    @Override
+    public void close() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushQuietly();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Write-behind flush failed, {} models will be retried", getPendingWrites(), e);
+        }
+    }
+
+}
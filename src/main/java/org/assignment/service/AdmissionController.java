@@ -0,0 +1,180 @@
+package org.assignment.service;
+
+import org.assignment.model.AdmissionStatsDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Admission controller placed in front of {@link DetectionService}.
+ * <p>
+ * Tracks the number of in-flight detections and an exponentially weighted moving average (EWMA)
+ * of recent detection latency. While the EWMA stays inside the configured latency budget every
+ * request is admitted. Once the budget is exceeded the controller degrades gracefully:
+ * a configurable sample of requests is still fully processed (which also keeps the EWMA fresh so
+ * we can recover), and the rest are either skipped ({@link OverloadMode#SKIP}) or validated in
+ * fail-fast mode ({@link OverloadMode#VERDICT_ONLY}).
+ * Reaching the in-flight limit always skips, so the Tomcat queue cannot grow without bound.
+ * </p>
+ * All state is lock-free, so no request ever blocks on the controller, but it is not contention-free: every
+ * acquire increments the shared in-flight counter and every release updates the shared latency EWMA with a
+ * compare-and-set retry loop, two cache lines written by all request threads. The decision counters are
+ * {@link LongAdder}s and do not add to it.
+ */
+@Component
+public class AdmissionController {
+
+    /**
+     * How to treat requests that are not admitted while the latency budget is exceeded.
+     */
+    public enum OverloadMode {
+        // Do not validate, answer with a SKIPPED_OVERLOAD anomaly
+        SKIP,
+        // Validate, but stop at the first anomaly found
+        VERDICT_ONLY
+    }
+
+    /**
+     * The outcome of an admission attempt.
+     */
+    public enum Decision {
+        ADMIT,
+        DEGRADE,
+        REJECT
+    }
+
+    // Weight of the newest sample in the latency EWMA
+    private static final double EWMA_ALPHA = 0.2;
+    private static final double MIN_SAMPLE_RATIO = 0.001;
+
+    private final boolean enabled;
+    private final long latencyBudgetNanos;
+    private final int maxInFlight;
+    private final OverloadMode overloadMode;
+    private final long samplePeriod;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    // Double bits of the latency EWMA in nanos
+    private final AtomicLong ewmaLatencyNanos = new AtomicLong(Double.doubleToLongBits(0d));
+    private final AtomicLong overloadSequence = new AtomicLong();
+
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder degraded = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public AdmissionController(@Value("${app.detection-controller.admission.enabled}") boolean enabled,
+                               @Value("${app.detection-controller.admission.latency-budget-millis}") long latencyBudgetMillis,
+                               @Value("${app.detection-controller.admission.max-in-flight}") int maxInFlight,
+                               @Value("${app.detection-controller.admission.overload-mode}") OverloadMode overloadMode,
+                               @Value("${app.detection-controller.admission.overload-sample-ratio}") double overloadSampleRatio) {
+        this.enabled = enabled;
+        this.latencyBudgetNanos = TimeUnit.MILLISECONDS.toNanos(latencyBudgetMillis);
+        this.maxInFlight = maxInFlight;
+        this.overloadMode = overloadMode;
+        // Admit one of every N requests while overloaded. At least one in a thousand always goes through,
+        // otherwise the latency average would never be refreshed and we could not leave the overload state.
+        this.samplePeriod = Math.max(1, Math.round(1 / Math.max(overloadSampleRatio, MIN_SAMPLE_RATIO)));
+    }
+
+    /**
+     * Tries to admit a detection request.
+     * <p>
+     * Every call returning {@link Decision#ADMIT} or {@link Decision#DEGRADE} must be paired with a call to
+     * {@link #release(long)} once the detection completes. A {@link Decision#REJECT} holds no capacity.
+     * </p>
+     *
+     * @return The admission decision for the current request.
+     *
+     * <p><strong>Performance Complexity:</strong> O(1), lock-free.</p>
+     */
+    public Decision tryAcquire() {
+        if (!enabled) {
+            inFlight.incrementAndGet();
+            admitted.increment();
+            return Decision.ADMIT;
+        }
+
+        int current = inFlight.incrementAndGet();
+        if (current > maxInFlight) {
+            // Hard limit: never queue more than maxInFlight detections
+            inFlight.decrementAndGet();
+            rejected.increment();
+            return Decision.REJECT;
+        }
+        updatePeak(current);
+
+        if (currentLatencyNanos() <= latencyBudgetNanos || overloadSequence.incrementAndGet() % samplePeriod == 0) {
+            admitted.increment();
+            return Decision.ADMIT;
+        }
+
+        if (overloadMode == OverloadMode.VERDICT_ONLY) {
+            degraded.increment();
+            return Decision.DEGRADE;
+        }
+
+        inFlight.decrementAndGet();
+        rejected.increment();
+        return Decision.REJECT;
+    }
+
+    /**
+     * Releases the capacity held by an admitted request and records its latency.
+     *
+     * @param elapsedNanos The time the detection took, in nanoseconds.
+     */
+    public void release(long elapsedNanos) {
+        inFlight.decrementAndGet();
+        long prevBits;
+        long nextBits;
+        do {
+            prevBits = ewmaLatencyNanos.get();
+            double prev = Double.longBitsToDouble(prevBits);
+            nextBits = Double.doubleToLongBits(prev + EWMA_ALPHA * (elapsedNanos - prev));
+        } while (!ewmaLatencyNanos.compareAndSet(prevBits, nextBits));
+    }
+
+    /**
+     * Returns a snapshot of the admission metrics.
+     *
+     * @return The current {@link AdmissionStatsDTO}.
+     */
+    public AdmissionStatsDTO getStats() {
+        long admittedCount = admitted.sum();
+        long degradedCount = degraded.sum();
+        long rejectedCount = rejected.sum();
+        long total = admittedCount + degradedCount + rejectedCount;
+        return AdmissionStatsDTO.builder()
+                .enabled(enabled)
+                .overloadMode(overloadMode.name())
+                .inFlight(inFlight.get())
+                .peakInFlight(peakInFlight.get())
+                .maxInFlight(maxInFlight)
+                .latencyBudgetMillis(TimeUnit.NANOSECONDS.toMillis(latencyBudgetNanos))
+                .recentLatencyMillis(currentLatencyNanos() / 1_000_000d)
+                .admitted(admittedCount)
+                .degraded(degradedCount)
+                .shed(rejectedCount)
+                .shedRate(total == 0 ? 0d : (double) rejectedCount / total)
+                .build();
+    }
+
+    private double currentLatencyNanos() {
+        return Double.longBitsToDouble(ewmaLatencyNanos.get());
+    }
+
+    private void updatePeak(int current) {
+        int peak;
+        while (current > (peak = peakInFlight.get())) {
+            if (peakInFlight.compareAndSet(peak, current)) {
+                return;
+            }
+        }
+    }
+
+}
@@ -4,13 +4,22 @@ import org.assignment.model.APIModelDTO;
 import org.assignment.model.APIModelParamDTO;
 import org.assignment.model.AnomalyDTO;
 import org.assignment.model.DetectionDTO;
+import org.assignment.validation.BodyPath;
+import org.assignment.validation.CustomType;
+import org.assignment.validation.ScanBudget;
+import org.assignment.validation.ScanLimits;
+import org.assignment.validation.TypeCheckOrder;
 import org.assignment.validation.TypeValidator;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Service for detecting anomalies in API requests compared to a learned model.
@@ -24,11 +33,15 @@ public class AnomalyDetector {
     public static final String MISSING = "MISSING";
     public static final String DELIMITER = "_";
     public static final String TYPE_MISMATCH = "TYPE_MISMATCH";
+    public static final String VALUE_TOO_LARGE = "VALUE_TOO_LARGE";
+    public static final String SCAN_BUDGET_EXCEEDED = "SCAN_BUDGET_EXCEEDED";
 
     private final TypeValidator typeValidator;
+    private final ScanLimits scanLimits;
 
-    public AnomalyDetector(TypeValidator typeValidator) {
+    public AnomalyDetector(TypeValidator typeValidator, ScanLimits scanLimits) {
         this.typeValidator = typeValidator;
+        this.scanLimits = scanLimits;
     }
 
     /**
@@ -36,6 +49,11 @@ public class AnomalyDetector {
      * <p>
      * Validates query parameters, headers, and the body of the detection entry against the learned model.
      * Checks for missing required parameters and type mismatches.
+     * Values over the {@link ScanLimits} are reported as "VALUE_TOO_LARGE" without being scanned, and once the
+     * request scan budget is spent a single "SCAN_BUDGET_EXCEEDED" anomaly ends the validation.
+     * Body parameters may be nested paths ("user.address.zip", "items[].sku"), validated by walking only the
+     * referenced fields of the body.
+     * Types may be built-in ({@link org.assignment.validation.ValueType}) or declared by the model ({@link CustomType}).
      * </p>
      *
      * @param detection    The {@link DetectionDTO} representing the actual request.
@@ -45,22 +63,58 @@ public class AnomalyDetector {
      *
      * <p><strong>Performance Complexity:</strong> O(P * T) where P is the total number of parameters
      * (query + headers + body) in the learned model, and T is the average number of allowed types per parameter.
-     * The validation iterates through all defined parameters in the model.</p>
+     * The validation iterates through all defined parameters in the model, after compiling it: package-private for
+     * tests, production code validates against the compilations of the {@link CompiledModelRegistry}.</p>
      */
-    public List<AnomalyDTO> detectAnomalies(DetectionDTO detection, APIModelDTO learnedModel) {
+    List<AnomalyDTO> detectAnomalies(DetectionDTO detection, APIModelDTO learnedModel) {
+        return detectAnomalies(detection, learnedModel, false);
+    }
+
+    /**
+     * Same as {@link #detectAnomalies(DetectionDTO, APIModelDTO)}, optionally stopping at the first anomaly.
+     * <p>
+     * Fail-fast mode is used to degrade gracefully under overload: the caller still gets a correct
+     * normal/abnormal verdict, but we skip validating the remaining parameters once one anomaly is found.
+     * </p>
+     *
+     * @param detection    The {@link DetectionDTO} representing the actual request.
+     * @param learnedModel The {@link APIModelDTO} representing the expected structure.
+     * @param failFast     If true, returns as soon as the first anomaly is detected.
+     * @return A list of {@link AnomalyDTO} objects, holding at most one element in fail-fast mode.
+     *
+     * <p><strong>Performance Complexity:</strong> compiles the model on every call, on top of the validation: the
+     * services validate against the compilations made at ingestion ({@link CompiledModelRegistry}), only tests use
+     * it.</p>
+     */
+    List<AnomalyDTO> detectAnomalies(DetectionDTO detection, APIModelDTO learnedModel, boolean failFast) {
+        return detectAnomalies(detection, CompiledModel.compile(learnedModel), failFast);
+    }
+
+    /**
+     * Same as {@link #detectAnomalies(DetectionDTO, APIModelDTO, boolean)}, against an already compiled model.
+     *
+     * @param detection The {@link DetectionDTO} representing the actual request.
+     * @param compiled  The compiled model, validated against the model it was compiled from.
+     * @param failFast  If true, returns as soon as the first anomaly is detected.
+     * @return A list of {@link AnomalyDTO} objects, holding at most one element in fail-fast mode.
+     */
+    List<AnomalyDTO> detectAnomalies(DetectionDTO detection, CompiledModel compiled, boolean failFast) {
         List<AnomalyDTO> anomalies = new ArrayList<>();
+        ScanBudget budget = scanLimits.newBudget();
+        APIModelDTO learnedModel = compiled.getModel();
 
         // 1. Validate Query Params [cite: 15, 41]
         validateSection(QUERY_PARAM,
-                learnedModel.getQueryParams(), detection.getQueryParams(), anomalies);
+                learnedModel.getQueryParams(), detection.getQueryParams(), anomalies, failFast, budget, compiled);
+        if ((failFast && !anomalies.isEmpty()) || budget.isExhausted()) return anomalies;
 
         // 2. Validate Headers [cite: 21, 46]
         validateSection(HEADER,
-                learnedModel.getHeaders(), detection.getHeaders(), anomalies);
+                learnedModel.getHeaders(), detection.getHeaders(), anomalies, failFast, budget, compiled);
+        if ((failFast && !anomalies.isEmpty()) || budget.isExhausted()) return anomalies;
 
         // 3. Validate Body [cite: 26, 51]
-        validateSection(BODY,
-                learnedModel.getBody(), detection.getBody(), anomalies);
+        validateBody(learnedModel, compiled, detection.getBody(), anomalies, failFast, budget);
 
         return anomalies;
     }
@@ -73,41 +127,280 @@ public class AnomalyDetector {
      * @param learnedParams The list of learned parameters from the model.
      * @param actualValues  The actual values from the detection entry.
      * @param anomalies     The list to which any detected anomalies will be added.
+     * @param failFast      If true, stops after the first anomaly is added.
+     * @param budget        The scan budget of the current request.
+     * @param compiled      The compiled model: custom types and type orders.
      */
     private void validateSection(String sectionName,
                                  List<APIModelParamDTO> learnedParams,
                                  Map<String, ?> actualValues,
-                                 List<AnomalyDTO> anomalies) {
+                                 List<AnomalyDTO> anomalies,
+                                 boolean failFast,
+                                 ScanBudget budget,
+                                 CompiledModel compiled) {
 
         Map<String, ?> safeActualValues = (actualValues != null) ? actualValues : Collections.emptyMap();
         List<APIModelParamDTO> safeLearnedParams = (learnedParams != null) ? learnedParams : Collections.emptyList();
 
         for (APIModelParamDTO param : safeLearnedParams) {
             Object actualValue = safeActualValues.get(param.getName());
+            if (!validateValue(sectionName, param, actualValue, anomalies, failFast, budget, compiled, null)) return;
+        }
+    }
 
-            // A. Check for missing required parameters [cite: 33, 36]
-            if (param.isRequired() && actualValue == null) {
+    /**
+     * Validates the body against a model holding nested body paths ("user.address.zip", "items[].sku").
+     * <p>
+     * The compiled {@link BodyPathTree} is walked together with the body: only the fields referenced by a parameter
+     * are visited, so the cost depends on the validated fields, not on the size of the document.
+     * A required nested parameter is reported missing when any field on its path is missing, and a field on the path
+     * holding the wrong shape (not an object, not a list) is reported once as a type mismatch.
+     * Within a list, a parameter is reported for its first offending element only.
+     * </p>
+     */
+    private void validateBody(APIModelDTO learnedModel, CompiledModel compiled, Map<String, Object> body,
+                              List<AnomalyDTO> anomalies, boolean failFast, ScanBudget budget) {
+        BodyPathTree tree = compiled.getBody();
+        if (!tree.hasNestedParams()) {
+            validateSection(BODY, learnedModel.getBody(), body, anomalies, failFast, budget, compiled);
+            return;
+        }
+
+        Map<String, ?> safeBody = (body != null) ? body : Collections.emptyMap();
+        BodyWalk walk = new BodyWalk(anomalies, failFast, budget, compiled);
+
+        // A literal top-level field named like the path wins, as it did before nested paths existed
+        for (APIModelParamDTO param : tree.getNestedParams()) {
+            if (safeBody.containsKey(param.getName())) {
+                walk.skipped.add(param);
+                if (!validateValue(BODY, param, safeBody.get(param.getName()), anomalies, failFast, budget, compiled, null)) return;
+            }
+        }
+
+        walk(tree.getRoot(), safeBody, walk);
+    }
+
+    /**
+     * Walks a node of the body path tree against the body value at the same position.
+     *
+     * @return false if the validation must stop (fail-fast anomaly or exhausted scan budget).
+     */
+    private boolean walk(BodyPathTree.Node node, Object value, BodyWalk walk) {
+        for (APIModelParamDTO param : node.params) {
+            if (walk.skipped.contains(param)) continue;
+            int before = walk.anomalies.size();
+            // The path is rendered only if an anomaly is reported
+            if (!validateValue(BODY, param, value, walk.anomalies, walk.failFast, walk.budget, walk.compiled, walk)) return false;
+            if (walk.anomalies.size() > before) walk.skipped.add(param);
+        }
+
+        if (!node.fields.isEmpty()) {
+            if (value == null || value instanceof Map) {
+                Map<?, ?> object = (value != null) ? (Map<?, ?>) value : Collections.emptyMap();
+                for (Map.Entry<String, BodyPathTree.Node> field : node.fields.entrySet()) {
+                    walk.path.addLast(field.getKey());
+                    boolean proceed = walk(field.getValue(), object.get(field.getKey()), walk);
+                    walk.path.removeLast();
+                    if (!proceed) return false;
+                }
+            } else if (!reportShapeMismatch(node, "an object", walk)) {
+                return false;
+            }
+        }
+
+        if (node.elements != null) {
+            if (value == null) {
+                // Report the required parameters below as missing
+                walk.path.addLast(BodyPath.ELEMENTS);
+                boolean proceed = walk(node.elements, null, walk);
+                walk.path.removeLast();
+                return proceed;
+            }
+            if (!(value instanceof List)) {
+                return reportShapeMismatch(node, "a list", walk);
+            }
+
+            List<?> elements = (List<?>) value;
+            ScanLimits.Violation violation = scanLimits.checkElements(elements.size(), walk.budget);
+            if (violation == ScanLimits.Violation.BUDGET_EXHAUSTED) {
+                walk.anomalies.add(AnomalyDTO.builder()
+                        .type(SCAN_BUDGET_EXCEEDED)
+                        .param(walk.renderModelPath())
+                        .description(String.format("Request scan budget exhausted at %s parameter '%s'", BODY, walk.renderPath()))
+                        .build());
+                return false;
+            }
+            if (violation != ScanLimits.Violation.NONE) {
+                walk.anomalies.add(AnomalyDTO.builder()
+                        .type(VALUE_TOO_LARGE + DELIMITER + BODY)
+                        .param(walk.renderModelPath())
+                        .description(String.format("%s parameter '%s' was not validated: %s", BODY, walk.renderPath(), violation))
+                        .build());
+                return !walk.failFast;
+            }
+
+            // One index holder for the whole list, moved along the elements
+            int[] index = new int[1];
+            walk.path.addLast(index);
+            boolean proceed = true;
+            for (int i = 0; proceed && i < elements.size(); i++) {
+                index[0] = i;
+                proceed = walk(node.elements, elements.get(i), walk);
+            }
+            walk.path.removeLast();
+            if (!proceed) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Reports a body field holding the wrong shape for the nested parameters going through it (once per field).
+     *
+     * @return false if the validation must stop.
+     */
+    private boolean reportShapeMismatch(BodyPathTree.Node node, String expected, BodyWalk walk) {
+        if (walk.reportedNodes.add(node)) {
+            walk.anomalies.add(AnomalyDTO.builder()
+                    .type(TYPE_MISMATCH + DELIMITER + BODY)
+                    .param(walk.renderModelPath())
+                    .description(String.format("%s parameter '%s' is not %s as expected by the nested parameters of the model",
+                            BODY, walk.renderPath(), expected))
+                    .build());
+            return !walk.failFast;
+        }
+        return true;
+    }
+
+    /**
+     * Validates a single value against a learned parameter: missing, scan limits, then type.
+     *
+     * @param sectionName The name of the section being validated (e.g., "QUERY_PARAM", "HEADER", "BODY").
+     * @param param       The learned parameter.
+     * @param actualValue The actual value, null if missing.
+     * @param anomalies   The list to which any detected anomalies will be added.
+     * @param failFast    If true, stops after the first anomaly is added.
+     * @param budget      The scan budget of the current request.
+     * @param compiled    The compiled model: custom types and type orders.
+     * @param walk        The walk positioned on a nested body field, whose concrete path names the field in anomalies;
+     *                    null to name it by the parameter.
+     * @return false if the validation must stop (fail-fast anomaly or exhausted scan budget).
+     */
+    private boolean validateValue(String sectionName,
+                                  APIModelParamDTO param,
+                                  Object actualValue,
+                                  List<AnomalyDTO> anomalies,
+                                  boolean failFast,
+                                  ScanBudget budget,
+                                  CompiledModel compiled,
+                                  BodyWalk walk) {
+        // A. Check for missing required parameters [cite: 33, 36]
+        if (param.isRequired() && actualValue == null) {
+            anomalies.add(AnomalyDTO.builder()
+                    // Create specific anomaly types like MISSING_BODY or MISSING_HEADER
+                    .type(MISSING + DELIMITER + sectionName)
+                    .param(param.getName())
+                    // Format description to match test: "Required field 'X' is missing in Y"
+                    .description(String.format("Required field '%s' is missing in %s",
+                            fieldName(param, walk), sectionName))
+                    .build());
+            return !failFast;
+        }
+
+        // B. Guard the CPU budget before scanning the value
+        ScanLimits.Violation violation = scanLimits.check(actualValue, param.getTypes(), budget);
+        if (violation == ScanLimits.Violation.BUDGET_EXHAUSTED) {
+            anomalies.add(AnomalyDTO.builder()
+                    .type(SCAN_BUDGET_EXCEEDED)
+                    .param(param.getName())
+                    .description(String.format("Request scan budget exhausted at %s parameter '%s'",
+                            sectionName, fieldName(param, walk)))
+                    .build());
+            return false;
+        }
+        if (violation != ScanLimits.Violation.NONE) {
+            anomalies.add(AnomalyDTO.builder()
+                    // Create specific anomaly types like VALUE_TOO_LARGE_BODY
+                    .type(VALUE_TOO_LARGE + DELIMITER + sectionName)
+                    .param(param.getName())
+                    // Never echo the value itself, it is the oversized part
+                    .description(String.format("%s parameter '%s' was not validated: %s",
+                            sectionName, fieldName(param, walk), violation))
+                    .build());
+            return !failFast;
+        }
+
+        // C. Check for type mismatch [cite: 33, 36]
+        if (actualValue != null) {
+            // Parameters allowing several types try the most likely and cheapest first
+            TypeCheckOrder typeOrder = compiled.getTypeOrder(param);
+            boolean valid = typeOrder != null
+                    ? typeValidator.validate(actualValue, typeOrder, compiled.getCustomTypes())
+                    : typeValidator.validate(actualValue, param.getTypes(), compiled.getCustomTypes());
+            if (!valid) {
                 anomalies.add(AnomalyDTO.builder()
-                        // Create specific anomaly types like MISSING_BODY or MISSING_HEADER
-                        .type(MISSING + DELIMITER + sectionName)
-                        // Format description to match test: "Required field 'X' is missing in Y"
-                        .description(String.format("Required field '%s' is missing in %s",
-                                param.getName(), sectionName))
+                        // Create specific anomaly types like TYPE_MISMATCH_BODY
+                        .type(TYPE_MISMATCH + DELIMITER + sectionName)
+                        .param(param.getName())
+                        .description(String.format("%s parameter '%s' has value '%s' which does not match any allowed types: %s",
+                                sectionName, fieldName(param, walk), actualValue, param.getTypes()))
                         .build());
-                continue;
+                return !failFast;
             }
+        }
+        return true;
+    }
+
+    // The name of a field in anomalies: its concrete path for nested body fields
+    private static String fieldName(APIModelParamDTO param, BodyWalk walk) {
+        return walk != null ? walk.renderPath() : param.getName();
+    }
+
+    /**
+     * State of a single walk over a body: the current path and what was already reported.
+     */
+    private static final class BodyWalk {
+        private final List<AnomalyDTO> anomalies;
+        private final boolean failFast;
+        private final ScanBudget budget;
+        private final CompiledModel compiled;
+        // Field names, element indices (an int[1] holder per list) and "[]" (missing list) of the current position
+        private final Deque<Object> path = new ArrayDeque<>();
+        // Parameters already reported (or validated as literal fields), compared by identity
+        private final Set<APIModelParamDTO> skipped = Collections.newSetFromMap(new IdentityHashMap<>());
+        private final Set<BodyPathTree.Node> reportedNodes = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        private BodyWalk(List<AnomalyDTO> anomalies, boolean failFast, ScanBudget budget, CompiledModel compiled) {
+            this.anomalies = anomalies;
+            this.failFast = failFast;
+            this.budget = budget;
+            this.compiled = compiled;
+        }
+
+        private String renderPath() {
+            StringBuilder rendered = new StringBuilder();
+            for (Object token : path) {
+                if (token instanceof int[]) {
+                    rendered.append('[').append(((int[]) token)[0]).append(']');
+                } else {
+                    if (rendered.length() > 0 && !BodyPath.ELEMENTS.equals(token)) rendered.append('.');
+                    rendered.append(token);
+                }
+            }
+            return rendered.toString();
+        }
 
-            // B. Check for type mismatch [cite: 33, 36]
-            if (actualValue != null) {
-                if (!typeValidator.validate(actualValue, param.getTypes())) {
-                    anomalies.add(AnomalyDTO.builder()
-                            // Create specific anomaly types like TYPE_MISMATCH_BODY
-                            .type(TYPE_MISMATCH + DELIMITER + sectionName)
-                            .description(String.format("%s parameter '%s' has value '%s' which does not match any allowed types: %s",
-                                    sectionName, param.getName(), actualValue, param.getTypes()))
-                            .build());
+        // The current position as a model path: element indices are rendered as "[]", as in "items[].sku"
+        private String renderModelPath() {
+            StringBuilder rendered = new StringBuilder();
+            for (Object token : path) {
+                if (token instanceof int[] || BodyPath.ELEMENTS.equals(token)) {
+                    rendered.append(BodyPath.ELEMENTS);
+                } else {
+                    if (rendered.length() > 0) rendered.append('.');
+                    rendered.append(token);
                 }
             }
+            return rendered.toString();
         }
     }
 
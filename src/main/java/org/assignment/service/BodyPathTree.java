@@ -0,0 +1,100 @@
+package org.assignment.service;
+
+import org.assignment.model.APIModelParamDTO;
+import org.assignment.validation.BodyPath;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The body parameters of a model compiled into a tree of field paths.
+ * <p>
+ * Every node is a position in the JSON body: its {@code fields} are the object fields some parameter goes through,
+ * {@code elements} the elements of a list some parameter goes through ("items[]"), and {@code params} the
+ * parameters whose value sits at that position. Walking the tree against a body only visits the fields that
+ * at least one parameter references; every other subtree of the body is never looked at.
+ * </p>
+ * <p>
+ * Compiled once per model by {@link AnomalyDetector} and immutable afterwards.
+ * </p>
+ */
+final class BodyPathTree {
+
+    static final class Node {
+        final Map<String, Node> fields = new LinkedHashMap<>();
+        final List<APIModelParamDTO> params = new ArrayList<>();
+        Node elements;
+        // Name of the field or "[]" leading to this node, used in anomaly descriptions
+        final String token;
+
+        private Node(String token) {
+            this.token = token;
+        }
+
+        boolean hasChildren() {
+            return !fields.isEmpty() || elements != null;
+        }
+    }
+
+    private final Node root = new Node("");
+    private final List<APIModelParamDTO> nestedParams = new ArrayList<>();
+
+    private BodyPathTree() {
+    }
+
+    /**
+     * Compiles the body parameters of a model.
+     *
+     * @param bodyParams The body parameters of the model, top-level fields and nested paths.
+     * @return The compiled tree. Malformed paths (rejected at ingestion) are treated as top-level field names.
+     *
+     * <p><strong>Performance Complexity:</strong> O(L) where L is the total length of the parameter names.</p>
+     */
+    static BodyPathTree compile(List<APIModelParamDTO> bodyParams) {
+        BodyPathTree tree = new BodyPathTree();
+        if (bodyParams == null) return tree;
+
+        for (APIModelParamDTO param : bodyParams) {
+            List<String> tokens = BodyPath.isNested(param.getName()) ? BodyPath.parse(param.getName()) : null;
+            if (tokens == null) {
+                tokens = List.of(param.getName());
+            } else {
+                tree.nestedParams.add(param);
+            }
+
+            Node node = tree.root;
+            for (String token : tokens) {
+                if (BodyPath.ELEMENTS.equals(token)) {
+                    if (node.elements == null) node.elements = new Node(token);
+                    node = node.elements;
+                } else {
+                    node = node.fields.computeIfAbsent(token, Node::new);
+                }
+            }
+            node.params.add(param);
+        }
+        return tree;
+    }
+
+    Node getRoot() {
+        return root;
+    }
+
+    /**
+     * Returns whether any body parameter is a nested path. Models without nested paths are validated field by field.
+     */
+    boolean hasNestedParams() {
+        return !nestedParams.isEmpty();
+    }
+
+    /**
+     * Returns the nested parameters, checked first against a literal top-level field of the same name
+     * (e.g. a flat "user.name" field), so models learned before nested paths existed keep their meaning.
+     */
+    List<APIModelParamDTO> getNestedParams() {
+        return nestedParams;
+    }
+
+}
@@ -0,0 +1,123 @@
+package org.assignment.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.assignment.model.APIModelDTO;
+import org.assignment.model.APIModelParamDTO;
+import org.assignment.model.CustomTypeDTO;
+import org.assignment.validation.CustomType;
+import org.assignment.validation.TypeCheckOrder;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Everything {@link AnomalyDetector} derives from a model before validating requests against it:
+ * the {@link BodyPathTree} of its body parameters, its {@link CustomType}s, by name, and the {@link TypeCheckOrder}
+ * of every parameter allowing several types.
+ * <p>
+ * Compiled once per model version ({@link CompiledModelRegistry}) and immutable afterwards, apart from the type orders
+ * adapting to the traffic. Type orders are kept by parameter instance: requests are validated against the model the
+ * compilation was made from ({@link #getModel()}), never against another copy.
+ * </p>
+ */
+@Slf4j
+final class CompiledModel {
+
+    private final APIModelDTO model;
+    private final BodyPathTree body;
+    private final Map<String, CustomType> customTypes;
+    // By parameter instance
+    private final Map<APIModelParamDTO, TypeCheckOrder> typeOrders;
+    // The copy of the model last matched by content: copies of the cache are compared once
+    private volatile APIModelDTO lastSeen;
+
+    private CompiledModel(APIModelDTO model, BodyPathTree body, Map<String, CustomType> customTypes,
+                          Map<APIModelParamDTO, TypeCheckOrder> typeOrders) {
+        this.model = model;
+        this.lastSeen = model;
+        this.body = body;
+        this.customTypes = customTypes;
+        this.typeOrders = typeOrders;
+    }
+
+    /**
+     * Compiles a model.
+     *
+     * @param model The model.
+     * @return The compiled model. Invalid custom types (rejected at ingestion) are left out, so they match nothing.
+     *
+     * <p><strong>Performance Complexity:</strong> O(L) where L is the total length of the body parameter names,
+     * plus the compilation of the custom types.</p>
+     */
+    static CompiledModel compile(APIModelDTO model) {
+        Map<String, CustomType> customTypes = Collections.emptyMap();
+        if (model.getCustomTypes() != null && !model.getCustomTypes().isEmpty()) {
+            customTypes = new HashMap<>();
+            for (CustomTypeDTO definition : model.getCustomTypes()) {
+                try {
+                    customTypes.put(definition.getName(), CustomType.compile(definition));
+                } catch (IllegalArgumentException e) {
+                    log.warn("Ignoring custom type '{}' of model {} {}: {}",
+                            definition.getName(), model.getMethod(), model.getPath(), e.getMessage());
+                }
+            }
+        }
+        Map<APIModelParamDTO, TypeCheckOrder> typeOrders = new IdentityHashMap<>();
+        addTypeOrders(model.getQueryParams(), typeOrders);
+        addTypeOrders(model.getHeaders(), typeOrders);
+        addTypeOrders(model.getBody(), typeOrders);
+        return new CompiledModel(model, BodyPathTree.compile(model.getBody()), customTypes,
+                typeOrders.isEmpty() ? Collections.emptyMap() : typeOrders);
+    }
+
+    private static void addTypeOrders(List<APIModelParamDTO> params, Map<APIModelParamDTO, TypeCheckOrder> typeOrders) {
+        if (params == null) return;
+        for (APIModelParamDTO param : params) {
+            // A single type has nothing to reorder
+            if (param.getTypes() != null && param.getTypes().size() > 1) {
+                typeOrders.put(param, new TypeCheckOrder(param.getTypes()));
+            }
+        }
+    }
+
+    /**
+     * @param copy A model, usually a copy read from the cache.
+     * @return true if this compilation was made from the same content.
+     *
+     * <p><strong>Performance Complexity:</strong> O(1) for the copy last matched, O(M) otherwise where M is the
+     * number of parameters of the model.</p>
+     */
+    boolean isCompiledFrom(APIModelDTO copy) {
+        if (copy == lastSeen) return true;
+        if (!model.equals(copy)) return false;
+        lastSeen = copy;
+        return true;
+    }
+
+    /**
+     * @return The model this compilation was made from.
+     */
+    APIModelDTO getModel() {
+        return model;
+    }
+
+    BodyPathTree getBody() {
+        return body;
+    }
+
+    Map<String, CustomType> getCustomTypes() {
+        return customTypes;
+    }
+
+    /**
+     * @param param A parameter of the model.
+     * @return The type order of the parameter, null if it allows a single type or none.
+     */
+    TypeCheckOrder getTypeOrder(APIModelParamDTO param) {
+        return typeOrders.get(param);
+    }
+
+}
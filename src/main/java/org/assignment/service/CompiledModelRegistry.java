@@ -0,0 +1,68 @@
+package org.assignment.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.assignment.model.APIModelDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@link CompiledModel} of every model stored on this node, by tenant and endpoint key.
+ * <p>
+ * Models are compiled when they are stored, on the ingestion thread, so detection never compiles body paths or custom
+ * types (patterns compile to a DFA) on the request path. The cached instance of a model changes on every load of the
+ * {@link ModelCache} (a decoded copy of the shared cache, for one): a compilation is matched to a model by its content,
+ * the version of the model, then remembered by identity, so a reloaded copy costs one comparison and keeps the
+ * {@link org.assignment.validation.TypeCheckOrder} statistics learned so far.
+ * </p>
+ * <p>
+ * Every model of this node is stored through {@link ModelService}, hence registered. A model read before its
+ * registration lands (a re-ingestion in flight) or never stored on this node is compiled on demand, without being
+ * registered: only ingestion replaces a compilation.
+ * </p>
+ */
+@Slf4j
+@Component
+public class CompiledModelRegistry {
+
+    // Key: "tenant/METHOD:PATH", as in the repository
+    private final Map<String, CompiledModel> compiledModels = new ConcurrentHashMap<>();
+
+    /**
+     * Compiles and registers models being stored, replacing their previous versions.
+     *
+     * @param tenantId The tenant owning the models.
+     * @param modelMap The models by endpoint key ("METHOD:PATH").
+     *
+     * <p><strong>Performance Complexity:</strong> O(N) compilations where N is the number of models, see
+     * {@link CompiledModel#compile(APIModelDTO)}.</p>
+     */
+    public void registerAll(String tenantId, Map<String, APIModelDTO> modelMap) {
+        modelMap.forEach((key, model) -> compiledModels.put(registryKey(tenantId, key), CompiledModel.compile(model)));
+    }
+
+    /**
+     * Finds the compilation of a model.
+     *
+     * @param tenantId The tenant owning the model.
+     * @param key      The endpoint key ("METHOD:PATH").
+     * @param model    The model, as read from the cache.
+     * @return The registered compilation if it was compiled from the same content, otherwise a compilation made on
+     * demand.
+     *
+     * <p><strong>Performance Complexity:</strong> O(1) for the instance last seen, O(M) to compare a new instance of
+     * M parameters.</p>
+     */
+    CompiledModel get(String tenantId, String key, APIModelDTO model) {
+        CompiledModel compiled = compiledModels.get(registryKey(tenantId, key));
+        if (compiled != null && compiled.isCompiledFrom(model)) return compiled;
+        log.debug("Compiling unregistered model {} of tenant {} on demand", key, tenantId);
+        return CompiledModel.compile(model);
+    }
+
+    private static String registryKey(String tenantId, String key) {
+        return tenantId + "/" + key;
+    }
+
+}
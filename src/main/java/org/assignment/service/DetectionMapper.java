@@ -0,0 +1,56 @@
+package org.assignment.service;
+
+import org.assignment.model.DetectionDTO;
+import org.assignment.model.KeyValueObjectDTO;
+import org.assignment.model.KeyValueStringDTO;
+import org.assignment.model.RequestDTO;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Maps the wire format of a request ({@link RequestDTO}, parameters as name/value lists)
+ * to the internal {@link DetectionDTO} (parameters as maps), for the API and the offline replay alike.
+ */
+public final class DetectionMapper {
+
+    private DetectionMapper() {
+    }
+
+    /**
+     * Maps a request to a detection entry.
+     *
+     * @param requestDTO The request as received.
+     * @return The detection entry, with empty maps for missing parameter lists.
+     * @throws IllegalStateException if a parameter name appears twice in the same list.
+     *
+     * <p><strong>Performance Complexity:</strong> O(P) where P is the number of parameters.</p>
+     */
+    public static DetectionDTO toDetection(RequestDTO requestDTO) {
+        DetectionDTO internalDetectionDTO = new DetectionDTO();
+        internalDetectionDTO.setPath(requestDTO.getPath());
+        internalDetectionDTO.setMethod(requestDTO.getMethod());
+        internalDetectionDTO.setHeaders(convertListToStringMap(requestDTO.getHeaders()));
+        internalDetectionDTO.setQueryParams(convertListToStringMap(requestDTO.getQueryParams()));
+        internalDetectionDTO.setBody(convertListToObjectMap(requestDTO.getBody()));
+        return internalDetectionDTO;
+    }
+
+    private static Map<String, String> convertListToStringMap(List<KeyValueStringDTO> list) {
+        if (list == null) {
+            return Map.of();
+        }
+        return list.stream()
+                .collect(Collectors.toMap(KeyValueStringDTO::getName, KeyValueStringDTO::getValue));
+    }
+
+    private static Map<String, Object> convertListToObjectMap(List<KeyValueObjectDTO> list) {
+        if (list == null) {
+            return Map.of();
+        }
+        return list.stream()
+                .collect(Collectors.toMap(KeyValueObjectDTO::getName, KeyValueObjectDTO::getValue));
+    }
+
+}
@@ -1,14 +1,28 @@
 package org.assignment.service;
 
 import lombok.extern.slf4j.Slf4j;
+import org.assignment.cluster.ClusterClient;
+import org.assignment.cluster.ClusterRouter;
+import org.assignment.events.AnomalyEventPipeline;
+import org.assignment.exception.AppErrorCode;
+import org.assignment.exception.ClusterException;
+import org.assignment.metrics.AnomalyStatistics;
+import org.assignment.metrics.Stage;
+import org.assignment.metrics.StageTimer;
 import org.assignment.model.APIModelDTO;
 import org.assignment.model.AnomalyDTO;
 import org.assignment.model.DetectionDTO;
+import org.assignment.warmup.SyntheticTraffic;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
 
 /**
@@ -19,14 +33,52 @@ import java.util.concurrent.ExecutionException;
 public class DetectionService {
 
     public static final String UNKNOWN_ENDPOINT = "UNKNOWN_ENDPOINT";
+    public static final String SKIPPED_OVERLOAD = "SKIPPED_OVERLOAD";
+    public static final String SKIPPED_NODE_UNAVAILABLE = "SKIPPED_NODE_UNAVAILABLE";
+
+    // Constant results, shared by every response (immutable) so they can be written from pre-encoded bytes
+    public static final List<AnomalyDTO> UNKNOWN_ENDPOINT_RESULT = List.of(AnomalyDTO.builder()
+            .type(UNKNOWN_ENDPOINT)
+            .description("Endpoint not found in learned models")
+            .build());
+    public static final List<AnomalyDTO> OVERLOAD_RESULT = List.of(AnomalyDTO.builder()
+            .type(SKIPPED_OVERLOAD)
+            .description("Detection skipped because the service is over its latency budget")
+            .build());
+    public static final List<AnomalyDTO> NODE_UNAVAILABLE_RESULT = List.of(AnomalyDTO.builder()
+            .type(SKIPPED_NODE_UNAVAILABLE)
+            .description("Detection skipped because no cluster node owning the endpoint could be reached")
+            .build());
 
     // The Cache
     private final AnomalyDetector anomalyDetector;
     private final ModelCache modelCache;
+    private final CompiledModelRegistry compiledModels;
+    private final ClusterRouter clusterRouter;
+    private final ClusterClient clusterClient;
+    private final StageTimer stageTimer;
+    private final AnomalyEventPipeline anomalyEvents;
+    private final AnomalyStatistics anomalyStatistics;
+    private final HotKeyTracker hotKeys;
+    private final RateAnomalyDetector rateAnomalies;
+    private final EndpointScanDetector endpointScans;
 
-    public DetectionService(AnomalyDetector anomalyDetector, ModelCache modelCache) {
+    public DetectionService(AnomalyDetector anomalyDetector, ModelCache modelCache, CompiledModelRegistry compiledModels,
+                            ClusterRouter clusterRouter, ClusterClient clusterClient, StageTimer stageTimer,
+                            AnomalyEventPipeline anomalyEvents, AnomalyStatistics anomalyStatistics,
+                            HotKeyTracker hotKeys, RateAnomalyDetector rateAnomalies,
+                            EndpointScanDetector endpointScans) {
         this.anomalyDetector = anomalyDetector;
         this.modelCache = modelCache;
+        this.compiledModels = compiledModels;
+        this.clusterRouter = clusterRouter;
+        this.clusterClient = clusterClient;
+        this.stageTimer = stageTimer;
+        this.anomalyEvents = anomalyEvents;
+        this.anomalyStatistics = anomalyStatistics;
+        this.hotKeys = hotKeys;
+        this.rateAnomalies = rateAnomalies;
+        this.endpointScans = endpointScans;
     }
 
     /**
@@ -47,35 +99,215 @@ public class DetectionService {
      * Subsequent validation depends on {@link AnomalyDetector#detectAnomalies}.</p>
      */
     public List<AnomalyDTO> validateDetection(DetectionDTO detection) {
-        String key = detection.getMethod().toUpperCase() + ":" + detection.getPath();
+        return validateDetection(TenantResolver.DEFAULT_TENANT, detection, false);
+    }
+
+    /**
+     * Validates a detection entry against the models of a tenant.
+     *
+     * @param tenantId  The tenant whose models are used.
+     * @param detection The {@link DetectionDTO} to validate.
+     * @return A list of {@link AnomalyDTO} objects, see {@link #validateDetection(DetectionDTO)}.
+     */
+    public List<AnomalyDTO> validateDetection(String tenantId, DetectionDTO detection) {
+        return validateDetection(tenantId, detection, false);
+    }
+
+    /**
+     * Validates a detection entry in fail-fast mode, returning at most one anomaly.
+     * <p>
+     * Used by the {@link AdmissionController} to degrade gracefully under overload:
+     * the verdict (normal/abnormal) is preserved while the remaining checks are skipped.
+     * </p>
+     *
+     * @param tenantId  The tenant whose models are used.
+     * @param detection The {@link DetectionDTO} to validate.
+     * @return A list holding at most one {@link AnomalyDTO}.
+     */
+    public List<AnomalyDTO> validateDetectionVerdictOnly(String tenantId, DetectionDTO detection) {
+        return validateDetection(tenantId, detection, true);
+    }
+
+    /**
+     * Validates a batch of detection entries against the models of a tenant.
+     * <p>
+     * The models of all the local entries are fetched with a single multi-get through the cache tiers,
+     * instead of one lookup per entry. In cluster mode, entries owned by other nodes are forwarded one by one: an entry
+     * none of whose owners can be reached gets a "SKIPPED_NODE_UNAVAILABLE" anomaly, the rest of the batch is served.
+     * </p>
+     *
+     * @param tenantId   The tenant whose models are used.
+     * @param detections The {@link DetectionDTO}s to validate.
+     * @param failFast   Whether to stop at the first anomaly of every entry (verdict-only).
+     * @return One list of {@link AnomalyDTO} objects per entry, in the order of the entries.
+     *
+     * <p><strong>Performance Complexity:</strong> O(N) cache lookups with at most one repository batch,
+     * plus {@link AnomalyDetector#detectAnomalies} for every entry.</p>
+     */
+    public List<List<AnomalyDTO>> validateDetections(String tenantId, List<DetectionDTO> detections, boolean failFast) {
+        List<String> keys = new ArrayList<>(detections.size());
+        Set<String> localKeys = new HashSet<>();
+        for (DetectionDTO detection : detections) {
+            String key = keyOf(detection);
+            keys.add(key);
+            if (!clusterRouter.isEnabled() || clusterRouter.isLocal(clusterRouter.ownersOf(tenantId, key))) {
+                localKeys.add(key);
+            }
+        }
+
+        Map<String, Optional<APIModelDTO>> models;
+        long start = stageTimer.start();
+        try {
+            models = modelCache.getAll(tenantId, localKeys);
+        } catch (ExecutionException e) {
+            log.error("Cache read error", e);
+            // Fail safe
+            models = Map.of();
+        } finally {
+            stageTimer.stop(Stage.MODEL_LOOKUP, start);
+        }
+
+        List<List<AnomalyDTO>> results = new ArrayList<>(detections.size());
+        for (int i = 0; i < detections.size(); i++) {
+            DetectionDTO detection = detections.get(i);
+            String key = keys.get(i);
+            if (!localKeys.contains(key)) {
+                try {
+                    results.add(forwardDetection(clusterRouter.ownersOf(tenantId, key), tenantId, detection));
+                } catch (ClusterException e) {
+                    // Skipped like a shed entry: neither counted nor reported
+                    results.add(NODE_UNAVAILABLE_RESULT);
+                    continue;
+                }
+            } else if (!models.containsKey(key)) {
+                results.add(Collections.emptyList());
+            } else {
+                Optional<APIModelDTO> model = models.get(key);
+                if (model.isPresent()) {
+                    hotKeys.record(tenantId, key);
+                    results.add(detect(tenantId, key, detection, model.get(), failFast));
+                } else {
+                    results.add(UNKNOWN_ENDPOINT_RESULT);
+                }
+            }
+            results.set(i, checkTraffic(tenantId, key, detection, results.get(i), failFast));
+            report(tenantId, detection, results.get(i));
+        }
+        return results;
+    }
+
+    /**
+     * Builds the result returned for requests shed by the {@link AdmissionController}.
+     *
+     * @return A list containing a single "SKIPPED_OVERLOAD" anomaly.
+     */
+    public List<AnomalyDTO> overloadResult() {
+        return OVERLOAD_RESULT;
+    }
+
+    /**
+     * Validates a detection entry on this node, without cluster routing.
+     * Used for detections forwarded by another cluster node that already routed them here.
+     *
+     * @param tenantId  The tenant whose models are used.
+     * @param detection The {@link DetectionDTO} to validate.
+     * @return A list of {@link AnomalyDTO} objects, see {@link #validateDetection(DetectionDTO)}.
+     */
+    public List<AnomalyDTO> validateLocalDetection(String tenantId, DetectionDTO detection) {
+        return validateLocally(tenantId, keyOf(detection), detection, false);
+    }
+
+    private List<AnomalyDTO> validateDetection(String tenantId, DetectionDTO detection, boolean failFast) {
+        String key = keyOf(detection);
+        List<AnomalyDTO> anomalies = null;
 
+        // Cluster mode: endpoints owned by other nodes are forwarded to them
+        if (clusterRouter.isEnabled()) {
+            List<String> owners = clusterRouter.ownersOf(tenantId, key);
+            if (!clusterRouter.isLocal(owners)) {
+                anomalies = forwardDetection(owners, tenantId, detection);
+            }
+        }
+        if (anomalies == null) {
+            anomalies = validateLocally(tenantId, key, detection, failFast);
+        }
+        anomalies = checkTraffic(tenantId, key, detection, anomalies, failFast);
+
+        // Reported by the node that received the request only, forwarded detections are not counted twice
+        report(tenantId, detection, anomalies);
+        return anomalies;
+    }
+
+    /**
+     * Counts the request for the rate and endpoint scan anomalies, on the node that received it: forwarded detections
+     * are not counted twice. Only endpoints with a model are counted per endpoint, every endpoint is counted per client.
+     */
+    private List<AnomalyDTO> checkTraffic(String tenantId, String key, DetectionDTO detection, List<AnomalyDTO> anomalies,
+                                       boolean failFast) {
+        // Forwarded results are deserialized copies of the constant
+        boolean knownEndpoint = anomalies.size() != 1 || !UNKNOWN_ENDPOINT.equals(anomalies.get(0).getType());
+        List<AnomalyDTO> checked = rateAnomalies.check(tenantId, key, knownEndpoint, detection, anomalies, failFast);
+        return endpointScans.check(tenantId, key, detection, checked, failFast);
+    }
+
+    /**
+     * Hands the anomalies of a request to the event pipeline and the windowed statistics, both lock-free.
+     * Synthetic warm-up detections are not reported.
+     */
+    private void report(String tenantId, DetectionDTO detection, List<AnomalyDTO> anomalies) {
+        if (SyntheticTraffic.isActive()) return;
+        anomalyEvents.publish(tenantId, detection, anomalies);
+        anomalyStatistics.record(tenantId, detection, anomalies);
+    }
+
+    /**
+     * Forwards a detection to the first reachable owner of its endpoint (primary first, then replicas).
+     */
+    private List<AnomalyDTO> forwardDetection(List<String> owners, String tenantId, DetectionDTO detection) {
+        IOException lastError = null;
+        for (String owner : owners) {
+            try {
+                return clusterClient.forwardDetection(owner, tenantId, detection);
+            } catch (IOException e) {
+                log.warn("Failed to forward detection to node {}: {}", owner, e.getMessage());
+                lastError = e;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        throw new ClusterException(AppErrorCode.CLUSTER_NODE_UNAVAILABLE, "No reachable owner in " + owners, lastError);
+    }
+
+    private List<AnomalyDTO> validateLocally(String tenantId, String key, DetectionDTO detection, boolean failFast) {
         try {
             // Use Optional to wrap the result so the Cache stores the Optional object.
             // If the repository returns null, we return Optional.empty().
             // If you truly want to NEVER store the null/empty result, see the manual check below.
 
             // Atomic lookup: Check Cache -> If miss -> Repo -> Store in Cache
-            Optional<APIModelDTO> modelOpt = modelCache.get(key);
+            long start = stageTimer.start();
+            Optional<APIModelDTO> modelOpt;
+            try {
+                modelOpt = modelCache.get(tenantId, key);
+            } finally {
+                stageTimer.stop(Stage.MODEL_LOOKUP, start);
+            }
 
             if (modelOpt.isEmpty()) {
                 // Requirement: identify abnormal requests like unknown endpoints [cite: 6, 61]
-                return List.of(AnomalyDTO.builder()
-                        .type(UNKNOWN_ENDPOINT)
-                        .description("Endpoint not found in learned models")
-                        .build());
+                return UNKNOWN_ENDPOINT_RESULT;
             }
+            hotKeys.record(tenantId, key);
 
             // 2. DETECT
-            return anomalyDetector.detectAnomalies(detection, modelOpt.get());
+            return detect(tenantId, key, detection, modelOpt.get(), failFast);
 
         } catch (ExecutionException e) {
             // If repository returned null (ResourceNotFoundException), we handle it here
             if (e.getCause() instanceof ResourceNotFoundException) {
                 // UNKNOWN ENDPOINT Case
-                return List.of(AnomalyDTO.builder()
-                        .type(UNKNOWN_ENDPOINT)
-                        .description("Endpoint not found in learned models")
-                        .build());
+                return UNKNOWN_ENDPOINT_RESULT;
             }
             log.error("Cache read error", e);
             // Fail safe
@@ -83,6 +315,21 @@ public class DetectionService {
         }
     }
 
+    private List<AnomalyDTO> detect(String tenantId, String key, DetectionDTO detection, APIModelDTO model,
+                                    boolean failFast) {
+        long start = stageTimer.start();
+        try {
+            // Compiled at ingestion: the cached copy only selects the version
+            return anomalyDetector.detectAnomalies(detection, compiledModels.get(tenantId, key, model), failFast);
+        } finally {
+            stageTimer.stop(Stage.ANOMALY_DETECTION, start);
+        }
+    }
+
+    private static String keyOf(DetectionDTO detection) {
+        return detection.getMethod().toUpperCase() + ":" + detection.getPath();
+    }
+
     // Internal marker exception for CacheLoader
     private static class ResourceNotFoundException extends RuntimeException {
     }
@@ -0,0 +1,139 @@
+package org.assignment.service;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Negative-lookup tier in front of the {@link ModelCache}.
+ * <p>
+ * Keeps a Bloom filter of the "METHOD:PATH" keys of every tenant. A key the filter has never seen is
+ * certainly unknown, so scanners probing thousands of random paths are answered without loading
+ * the repository and without taking cache slots away from the hot models.
+ * A false positive only costs the regular cache lookup.
+ * </p>
+ * <p>
+ * Keys are added on ingestion, before the models are stored, so a stored model is never filtered out.
+ * A Bloom filter's false positive rate grows past its capacity, so every tenant holds a scalable filter:
+ * when the current filter is full a new one with twice the capacity and half the false positive rate is added,
+ * which keeps the total false positive rate below the configured one.
+ * </p>
+ */
+@Slf4j
+@Component
+public class EndpointFilter {
+
+    private static final long MIN_CAPACITY = 1024;
+
+    private final boolean enabled;
+    private final double falsePositiveRate;
+
+    // Key: Tenant ID
+    private final Map<String, TenantFilter> tenantFilters = new ConcurrentHashMap<>();
+
+    public EndpointFilter(@Value("${app.detection-controller.negative-filter.enabled}") boolean enabled,
+                          @Value("${app.detection-controller.negative-filter.false-positive-rate}") double falsePositiveRate) {
+        this.enabled = enabled;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    /**
+     * Checks whether a tenant may hold a model for a key.
+     *
+     * @param tenantId The tenant ID.
+     * @param key      The key representing the combination of HTTP method and path.
+     * @return false if the key is certainly unknown, true if it may be known (or the filter is disabled).
+     *
+     * <p><strong>Performance Complexity:</strong> O(log N) Bloom filter probes where N is the number of keys
+     * of the tenant, lock-free.</p>
+     */
+    public boolean mightContain(String tenantId, String key) {
+        if (!enabled) return true;
+        TenantFilter filter = tenantFilters.get(tenantId);
+        if (filter == null) return false;
+        if (filter.mightContain(key)) return true;
+        filter.rejected.increment();
+        return false;
+    }
+
+    /**
+     * Registers keys about to be stored for a tenant. Must be called before the models are stored.
+     *
+     * @param tenantId The tenant owning the models.
+     * @param keys     The keys of the models.
+     *
+     * <p><strong>Performance Complexity:</strong> O(K) where K is the number of keys.</p>
+     */
+    public void addAll(String tenantId, Collection<String> keys) {
+        if (!enabled) return;
+        TenantFilter filter = tenantFilters.computeIfAbsent(tenantId, t -> new TenantFilter());
+        // Ingestion is rare compared to lookups, serialize it per tenant
+        synchronized (filter) {
+            for (String key : keys) {
+                // Re-ingested keys (and false positives) are already answered positively, do not fill the filter with them
+                if (filter.mightContain(key)) continue;
+                if (filter.inserted >= filter.capacity || filter.blooms.isEmpty()) {
+                    grow(tenantId, filter);
+                }
+                filter.blooms.get(filter.blooms.size() - 1).put(key);
+                filter.inserted++;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of lookups of a tenant answered by the filter alone.
+     *
+     * @param tenantId The tenant ID.
+     * @return The number of filtered lookups.
+     */
+    public long getRejectedCount(String tenantId) {
+        TenantFilter filter = tenantFilters.get(tenantId);
+        return filter != null ? filter.rejected.sum() : 0;
+    }
+
+    /**
+     * Appends a new filter, twice as large and twice as strict as the previous one.
+     * Lookups see the previous filters until the new list is published.
+     */
+    private void grow(String tenantId, TenantFilter filter) {
+        int level = filter.blooms.size();
+        long capacity = MIN_CAPACITY << level;
+        double rate = falsePositiveRate / (2L << level);
+        if (level > 0) {
+            log.info("Growing endpoint filter of tenant '{}' to {} keys", tenantId, filter.capacity + capacity);
+        }
+
+        List<BloomFilter<CharSequence>> blooms = new ArrayList<>(filter.blooms);
+        blooms.add(BloomFilter.create(Funnels.stringFunnel(StandardCharsets.UTF_8), capacity, rate));
+        filter.blooms = List.copyOf(blooms);
+        filter.capacity += capacity;
+    }
+
+    private static final class TenantFilter {
+        // Guava's BloomFilter is thread-safe, the immutable list is replaced when a filter is added
+        private volatile List<BloomFilter<CharSequence>> blooms = List.of();
+        // Guarded by the filter's monitor
+        private long capacity;
+        private long inserted;
+        private final LongAdder rejected = new LongAdder();
+
+        private boolean mightContain(String key) {
+            for (BloomFilter<CharSequence> bloom : blooms) {
+                if (bloom.mightContain(key)) return true;
+            }
+            return false;
+        }
+    }
+
+}
@@ -0,0 +1,300 @@
+package org.assignment.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.assignment.model.HotKeyDTO;
+import org.assignment.replay.RecordedTraffic;
+import org.assignment.warmup.SyntheticTraffic;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tracks the most validated endpoints of every tenant and saves them, so a restarted node can preload its
+ * {@link ModelCache} instead of paying a load on the first hit of every hot endpoint.
+ * <p>
+ * Every model found for a detection counts one access (a {@link LongAdder} per endpoint, lock-free).
+ * Only endpoints that have a model are counted, so the tracked keys are bounded by the models, and by
+ * {@code max-tracked-keys} on top of that. The hottest {@code max-keys} endpoints are saved to a small JSON file:
+ * - Periodically, after which every count is halved, so the ranking follows the recent traffic.
+ * - On graceful shutdown.
+ * The file is written to a temporary file moved over the previous one, so a crash never leaves it half written.
+ * </p>
+ * <p>
+ * On boot, {@link #preload()} loads the saved endpoints into the cache in parallel, before the application reports ready
+ * ({@link org.assignment.warmup.WarmupRunner}).
+ * </p>
+ */
+@Slf4j
+@Component
+public class HotKeyTracker {
+
+    // Endpoints loaded by a single multi-get of the preload
+    private static final int PRELOAD_CHUNK_SIZE = 128;
+    private static final TypeReference<List<HotKeyDTO>> HOT_KEY_LIST = new TypeReference<List<HotKeyDTO>>() {
+    };
+
+    private final ModelCache modelCache;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Path file;
+    private final int maxKeys;
+    private final int maxTrackedKeys;
+    private final int preloadThreads;
+    private final long preloadTimeoutMillis;
+    private final ScheduledExecutorService snapshotter;
+
+    // Key: Tenant ID -> "METHOD:PATH"
+    private final Map<String, Map<String, LongAdder>> counts = new ConcurrentHashMap<>();
+    private final AtomicInteger trackedKeys = new AtomicInteger();
+
+    public HotKeyTracker(ModelCache modelCache, ObjectMapper objectMapper,
+                         @Value("${app.detection-controller.hot-keys.enabled}") boolean enabled,
+                         @Value("${app.detection-controller.hot-keys.file}") String file,
+                         @Value("${app.detection-controller.hot-keys.max-keys}") int maxKeys,
+                         @Value("${app.detection-controller.hot-keys.max-tracked-keys}") int maxTrackedKeys,
+                         @Value("${app.detection-controller.hot-keys.snapshot-interval-millis}") long snapshotIntervalMillis,
+                         @Value("${app.detection-controller.hot-keys.preload-threads}") int preloadThreads,
+                         @Value("${app.detection-controller.hot-keys.preload-timeout-millis}") long preloadTimeoutMillis) {
+        this.modelCache = modelCache;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.file = Path.of(file);
+        this.maxKeys = maxKeys;
+        this.maxTrackedKeys = maxTrackedKeys;
+        this.preloadThreads = preloadThreads > 0 ? preloadThreads : Runtime.getRuntime().availableProcessors();
+        this.preloadTimeoutMillis = preloadTimeoutMillis;
+        if (enabled) {
+            this.snapshotter = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "hot-key-snapshot");
+                thread.setDaemon(true);
+                return thread;
+            });
+            snapshotter.scheduleWithFixedDelay(this::snapshotAndDecay, snapshotIntervalMillis, snapshotIntervalMillis,
+                    TimeUnit.MILLISECONDS);
+        } else {
+            this.snapshotter = null;
+        }
+    }
+
+    /**
+     * Counts one access to the model of an endpoint. Synthetic warm-up detections and recorded traffic
+     * ({@link RecordedTraffic}: replayed or tailed logs) are not counted, the preload follows the live traffic.
+     *
+     * @param tenantId The tenant owning the model.
+     * @param key      The key representing the combination of HTTP method and path.
+     *
+     * <p><strong>Performance Complexity:</strong> O(1), two hash lookups and a {@link LongAdder} increment.</p>
+     */
+    public void record(String tenantId, String key) {
+        if (!enabled || SyntheticTraffic.isActive() || RecordedTraffic.isActive()) return;
+        Map<String, LongAdder> tenantCounts = counts.computeIfAbsent(tenantId, t -> new ConcurrentHashMap<>());
+        LongAdder count = tenantCounts.get(key);
+        if (count == null) {
+            // Past the limit, new endpoints wait for the decay to free room
+            if (trackedKeys.get() >= maxTrackedKeys) return;
+            count = tenantCounts.computeIfAbsent(key, k -> {
+                trackedKeys.incrementAndGet();
+                return new LongAdder();
+            });
+        }
+        count.increment();
+    }
+
+    /**
+     * Returns the hottest endpoints over all tenants.
+     *
+     * @param limit The maximum number of endpoints.
+     * @return The endpoints with the highest counts, hottest first.
+     *
+     * <p><strong>Performance Complexity:</strong> O(K log N) where K is the number of tracked endpoints
+     * and N the limit.</p>
+     */
+    public List<HotKeyDTO> getTop(int limit) {
+        PriorityQueue<HotKeyDTO> top = new PriorityQueue<>(Comparator.comparingLong(HotKeyDTO::getCount));
+        for (Map.Entry<String, Map<String, LongAdder>> tenant : counts.entrySet()) {
+            for (Map.Entry<String, LongAdder> entry : tenant.getValue().entrySet()) {
+                long count = entry.getValue().sum();
+                if (count <= 0) continue;
+                if (top.size() < limit) {
+                    top.add(new HotKeyDTO(tenant.getKey(), entry.getKey(), count));
+                } else if (limit > 0 && count > top.peek().getCount()) {
+                    top.poll();
+                    top.add(new HotKeyDTO(tenant.getKey(), entry.getKey(), count));
+                }
+            }
+        }
+        List<HotKeyDTO> result = new ArrayList<>(top);
+        result.sort(Comparator.comparingLong(HotKeyDTO::getCount).reversed());
+        return result;
+    }
+
+    /**
+     * Loads the endpoints saved by the previous run into the model cache, in parallel.
+     * The saved counts seed the tracker, so a node restarted twice in a row keeps its ranking.
+     *
+     * @return The number of preloaded endpoints that still have a model, 0 without a saved file.
+     *
+     * <p><strong>Performance Complexity:</strong> O(K / T) multi-gets per thread for K saved endpoints and T threads,
+     * waiting at most the configured preload timeout.</p>
+     */
+    public int preload() {
+        if (!enabled) return 0;
+        List<HotKeyDTO> saved = load();
+        if (saved.isEmpty()) return 0;
+
+        // Chunks of a single tenant, each loaded by one multi-get through the cache tiers
+        Map<String, List<String>> keysByTenant = new LinkedHashMap<>();
+        for (HotKeyDTO hotKey : saved) {
+            keysByTenant.computeIfAbsent(hotKey.getTenantId(), t -> new ArrayList<>()).add(hotKey.getKey());
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(preloadThreads, r -> {
+            Thread thread = new Thread(r, "hot-key-preload");
+            thread.setDaemon(true);
+            return thread;
+        });
+        int preloaded = 0;
+        long start = System.nanoTime();
+        try {
+            List<Future<Integer>> chunks = new ArrayList<>();
+            for (Map.Entry<String, List<String>> tenant : keysByTenant.entrySet()) {
+                List<String> keys = tenant.getValue();
+                for (int from = 0; from < keys.size(); from += PRELOAD_CHUNK_SIZE) {
+                    List<String> chunk = keys.subList(from, Math.min(keys.size(), from + PRELOAD_CHUNK_SIZE));
+                    chunks.add(pool.submit(() -> (int) modelCache.getAll(tenant.getKey(), chunk).values().stream()
+                            .filter(Optional::isPresent)
+                            .count()));
+                }
+            }
+            long deadline = start + TimeUnit.MILLISECONDS.toNanos(preloadTimeoutMillis);
+            for (Future<Integer> chunk : chunks) {
+                try {
+                    preloaded += chunk.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                } catch (ExecutionException e) {
+                    log.warn("Cannot preload hot models: {}", e.getCause().getMessage());
+                } catch (TimeoutException e) {
+                    log.warn("Hot model preload timed out after {} ms", preloadTimeoutMillis);
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            pool.shutdownNow();
+        }
+
+        for (HotKeyDTO hotKey : saved) {
+            seed(hotKey);
+        }
+        log.info("Preloaded {} of {} hot models from {} in {} ms", preloaded, saved.size(), file,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return preloaded;
+    }
+
+    /**
+     * Saves the hottest endpoints, keeping the previous file when nothing was counted.
+     *
+     * @return The number of saved endpoints.
+     * @throws IOException if the file cannot be written.
+     */
+    public int save() throws IOException {
+        List<HotKeyDTO> top = getTop(maxKeys);
+        if (top.isEmpty()) return 0;
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = parent.resolve(file.getFileName() + ".tmp");
+        objectMapper.writeValue(temp.toFile(), top);
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return top.size();
+    }
+
+    /**
+     * Saves the hottest endpoints on graceful shutdown.
+     */
+    @PreDestroy
+    public void stop() {
+        if (snapshotter == null) return;
+        snapshotter.shutdownNow();
+        try {
+            int saved = save();
+            log.info("Saved {} hot keys to {}", saved, file);
+        } catch (IOException e) {
+            log.warn("Cannot save hot keys to {}: {}", file, e.getMessage());
+        }
+    }
+
+    private void snapshotAndDecay() {
+        try {
+            save();
+        } catch (IOException e) {
+            log.warn("Cannot save hot keys to {}: {}", file, e.getMessage());
+        }
+        decay();
+    }
+
+    /**
+     * Halves every count and forgets the endpoints no longer accessed. Concurrent increments are kept.
+     */
+    void decay() {
+        for (Map<String, LongAdder> tenantCounts : counts.values()) {
+            tenantCounts.entrySet().removeIf(entry -> {
+                long count = entry.getValue().sum();
+                if (count <= 1) {
+                    trackedKeys.decrementAndGet();
+                    return true;
+                }
+                entry.getValue().add(-(count / 2));
+                return false;
+            });
+        }
+    }
+
+    private void seed(HotKeyDTO hotKey) {
+        Map<String, LongAdder> tenantCounts = counts.computeIfAbsent(hotKey.getTenantId(), t -> new ConcurrentHashMap<>());
+        if (trackedKeys.get() >= maxTrackedKeys && !tenantCounts.containsKey(hotKey.getKey())) return;
+        tenantCounts.computeIfAbsent(hotKey.getKey(), k -> {
+            trackedKeys.incrementAndGet();
+            return new LongAdder();
+        }).add(Math.max(1, hotKey.getCount()));
+    }
+
+    private List<HotKeyDTO> load() {
+        if (!Files.isRegularFile(file)) return List.of();
+        try {
+            List<HotKeyDTO> saved = objectMapper.readValue(file.toFile(), HOT_KEY_LIST);
+            return saved.size() > maxKeys ? saved.subList(0, maxKeys) : saved;
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable hot-key file {}: {}", file, e.getMessage());
+            return List.of();
+        }
+    }
+
+}
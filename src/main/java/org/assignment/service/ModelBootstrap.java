@@ -0,0 +1,84 @@
+package org.assignment.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.assignment.model.APIModelDTO;
+import org.assignment.model.APIModelsDTO;
+import org.assignment.validation.ModelSyntaxValidator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.validation.BeanPropertyBindingResult;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Loads API models from a JSON file (same format as the ingestion API) at startup, before the warm-up runs.
+ * Also used by the offline replay to load its models.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ModelBootstrap implements ApplicationRunner {
+
+    private final ModelService modelService;
+    private final ModelSyntaxValidator validator;
+    private final ObjectMapper objectMapper;
+    private final String bootstrapFile;
+    private final String bootstrapTenant;
+
+    public ModelBootstrap(ModelService modelService, ModelSyntaxValidator validator, ObjectMapper objectMapper,
+                          @Value("${app.models.bootstrap-file}") String bootstrapFile,
+                          @Value("${app.models.bootstrap-tenant}") String bootstrapTenant) {
+        this.modelService = modelService;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.bootstrapFile = bootstrapFile;
+        this.bootstrapTenant = bootstrapTenant;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        if (!StringUtils.hasText(bootstrapFile)) return;
+        int count = loadModels(bootstrapTenant, Path.of(bootstrapFile));
+        log.info("Loaded {} models of tenant {} from {}", count, bootstrapTenant, bootstrapFile);
+    }
+
+    /**
+     * Reads, validates and ingests the models of a file.
+     *
+     * @param tenantId The tenant the models are ingested for.
+     * @param file     A JSON array of API models.
+     * @return The number of ingested models.
+     * @throws IOException              if the file cannot be read or parsed.
+     * @throws IllegalArgumentException if the models fail the checks of the ingestion API, nothing is ingested then.
+     *
+     * <p><strong>Performance Complexity:</strong> O(M) where M is the size of the file.</p>
+     */
+    public int loadModels(String tenantId, Path file) throws IOException {
+        List<APIModelDTO> models = objectMapper.readValue(file.toFile(), new TypeReference<List<APIModelDTO>>() {
+        });
+        // Same checks as the ingestion API
+        APIModelsDTO apiModelsDTO = new APIModelsDTO();
+        apiModelsDTO.setApiModelsDTO(models);
+        BeanPropertyBindingResult errors = new BeanPropertyBindingResult(apiModelsDTO, ModelSyntaxValidator.API_MODELS_DTO_FIELD_NAME);
+        validator.validate(apiModelsDTO, errors);
+        if (errors.hasErrors()) {
+            throw new IllegalArgumentException("Invalid models: " + errors.getAllErrors().stream()
+                    .map(DefaultMessageSourceResolvable::getDefaultMessage)
+                    .collect(Collectors.joining(", ")));
+        }
+        modelService.ingestModels(tenantId, models);
+        return models.size();
+    }
+
+}
@@ -2,14 +2,23 @@ package org.assignment.service;
 
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
 import com.google.common.cache.LoadingCache;
 import lombok.extern.slf4j.Slf4j;
 import org.assignment.model.APIModelDTO;
+import org.assignment.model.APIModelParamDTO;
+import org.assignment.model.TenantStatsDTO;
 import org.assignment.repository.ModelRepository;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 
@@ -19,20 +28,152 @@ import java.util.concurrent.TimeUnit;
  * This cache automatically loads models from the ModelRepository on cache misses.
  * It uses LRU eviction based on maximum size and TTL (time-to-live) settings.
  * </p>
+ * <p>
+ * Every tenant gets its own cache with its own size budget, so a tenant flooding the cache with scans
+ * only evicts its own entries and never another tenant's hot models. A tenant's cache is created the
+ * first time that tenant is looked up after ingesting models; unknown tenants never allocate a cache.
+ * </p>
+ * <p>
+ * Lookups of keys the {@link EndpointFilter} has never seen are answered as not found before reaching the cache,
+ * so unknown-endpoint scans neither load the repository nor evict hot models.
+ * </p>
  */
 @Slf4j
 @Component
 public class ModelCache {
 
-    private final LoadingCache<String, Optional<APIModelDTO>> modelCache;
+    // Rough per-object overhead used by the memory estimation (header + references)
+    private static final int OBJECT_OVERHEAD_BYTES = 48;
+
+    private final ModelRepository repository;
+    private final long defaultCacheSize;
+    private final Map<String, Long> tenantCacheSizes;
+    private final long modelCacheTTLMillis;
+    private final EndpointFilter endpointFilter;
+
+    // Key: Tenant ID
+    private final Map<String, LoadingCache<String, Optional<APIModelDTO>>> tenantCaches = new ConcurrentHashMap<>();
 
     public ModelCache(ModelRepository repository,
                       @Value("${app.detection-controller.max-cache-models-entry}") long modelCacheSize,
-                      @Value("${app.detection-controller.max-cache-models-ttl-millis}") long modelCacheTTLMillis) {
+                      @Value("${app.detection-controller.max-cache-models-ttl-millis}") long modelCacheTTLMillis,
+                      @Value("#{${app.tenants.cache-budgets}}") Map<String, Long> tenantCacheSizes,
+                      EndpointFilter endpointFilter) {
+        this.repository = repository;
+        this.defaultCacheSize = modelCacheSize;
+        this.tenantCacheSizes = new HashMap<>(tenantCacheSizes);
+        this.modelCacheTTLMillis = modelCacheTTLMillis;
+        this.endpointFilter = endpointFilter;
+    }
+
+    /**
+     * Retrieves an API model from the cache by its key.
+     *
+     * @param tenantId The tenant owning the model.
+     * @param key      The key representing the combination of HTTP method and path.
+     * @return An Optional containing the corresponding APIModelDTO if found, or empty if not found.
+     */
+    public Optional<APIModelDTO> get(String tenantId, String key) throws ExecutionException {
+        // Certainly unknown endpoint: do not load it, and do not cache the miss
+        if (!endpointFilter.mightContain(tenantId, key)) return Optional.empty();
+        LoadingCache<String, Optional<APIModelDTO>> cache = cacheOf(tenantId);
+        // Unknown tenant: nothing to load, and we do not allocate a cache for it
+        return cache != null ? cache.get(key) : Optional.empty();
+    }
+
+    /**
+     * Retrieves many API models of a tenant, loading all the cache misses with a single repository call.
+     *
+     * @param tenantId The tenant owning the models.
+     * @param keys     The keys representing the combination of HTTP method and path.
+     * @return A map holding an Optional for every requested key, empty if the model was not found.
+     *
+     * <p><strong>Performance Complexity:</strong> O(K) where K is the number of keys,
+     * plus one {@link ModelRepository#findAllByKeys} call for the misses.</p>
+     */
+    public Map<String, Optional<APIModelDTO>> getAll(String tenantId, Collection<String> keys) throws ExecutionException {
+        LoadingCache<String, Optional<APIModelDTO>> cache = cacheOf(tenantId);
+        Map<String, Optional<APIModelDTO>> models = new HashMap<>();
+        List<String> candidates = new ArrayList<>();
+        for (String key : keys) {
+            if (cache != null && endpointFilter.mightContain(tenantId, key)) {
+                candidates.add(key);
+            } else {
+                models.put(key, Optional.empty());
+            }
+        }
+        if (!candidates.isEmpty()) {
+            models.putAll(cache.getAll(candidates));
+        }
+        return models;
+    }
+
+    /**
+     * Evicts an entry from the cache by its key.
+     *
+     * @param tenantId The tenant owning the model.
+     * @param key      The key representing the combination of HTTP method and path.
+     */
+    public void evict(String tenantId, String key) {
+        LoadingCache<String, Optional<APIModelDTO>> cache = tenantCaches.get(tenantId);
+        if (cache != null) {
+            cache.invalidate(key);
+        }
+    }
+
+    /**
+     * Returns hit rate and memory statistics of every tenant.
+     *
+     * @return A list of {@link TenantStatsDTO}, one per tenant known to the repository.
+     *
+     * <p><strong>Performance Complexity:</strong> O(N) where N is the total number of models.
+     * Meant for the metrics endpoint, never called on the request path.</p>
+     */
+    public List<TenantStatsDTO> getTenantStats() {
+        List<TenantStatsDTO> stats = new ArrayList<>();
+        for (String tenantId : repository.findAllTenants()) {
+            Map<String, APIModelDTO> models = repository.findAllByTenant(tenantId);
+            LoadingCache<String, Optional<APIModelDTO>> cache = tenantCaches.get(tenantId);
+            CacheStats cacheStats = cache != null ? cache.stats() : new CacheStats(0, 0, 0, 0, 0, 0);
+
+            long cachedBytes = 0;
+            if (cache != null) {
+                for (Optional<APIModelDTO> entry : cache.asMap().values()) {
+                    cachedBytes += OBJECT_OVERHEAD_BYTES + entry.map(ModelCache::estimateBytes).orElse(0L);
+                }
+            }
+
+            stats.add(TenantStatsDTO.builder()
+                    .tenantId(tenantId)
+                    .models(models.size())
+                    .cacheBudget(cacheSizeOf(tenantId))
+                    .cachedEntries(cache != null ? cache.size() : 0)
+                    .hitCount(cacheStats.hitCount())
+                    .missCount(cacheStats.missCount())
+                    .hitRate(cacheStats.hitRate())
+                    .evictionCount(cacheStats.evictionCount())
+                    .filteredLookups(endpointFilter.getRejectedCount(tenantId))
+                    .estimatedCacheBytes(cachedBytes)
+                    .estimatedStoreBytes(models.values().stream().mapToLong(ModelCache::estimateBytes).sum())
+                    .build());
+        }
+        return stats;
+    }
+
+    private LoadingCache<String, Optional<APIModelDTO>> cacheOf(String tenantId) {
+        LoadingCache<String, Optional<APIModelDTO>> cache = tenantCaches.get(tenantId);
+        if (cache == null && repository.hasTenant(tenantId)) {
+            cache = tenantCaches.computeIfAbsent(tenantId, this::buildCache);
+        }
+        return cache;
+    }
+
+    private LoadingCache<String, Optional<APIModelDTO>> buildCache(String tenantId) {
+        log.info("Creating model cache for tenant '{}'", tenantId);
         // --- GUAVA CACHE SETUP ---
         // "Keep up to X value and remove older entry"
-        this.modelCache = CacheBuilder.newBuilder()
-                .maximumSize(modelCacheSize)
+        return CacheBuilder.newBuilder()
+                .maximumSize(cacheSizeOf(tenantId))
                 .expireAfterAccess(modelCacheTTLMillis, TimeUnit.MILLISECONDS) // LRU Eviction
                 // Useful for monitoring hit-rate
                 .recordStats()
@@ -41,28 +182,52 @@ public class ModelCache {
                     public Optional<APIModelDTO> load(String key) {
                         // repository.findByKey returns APIModelDTO or null
                         // Optional.ofNullable handles the null safely without exceptions
-                        return Optional.ofNullable(repository.findByKey(key));
+                        return Optional.ofNullable(repository.findByKey(tenantId, key));
+                    }
+
+                    @Override
+                    public Map<String, Optional<APIModelDTO>> loadAll(Iterable<? extends String> keys) {
+                        List<String> keyList = new ArrayList<>();
+                        keys.forEach(keyList::add);
+                        Map<String, APIModelDTO> found = repository.findAllByKeys(tenantId, keyList);
+                        // Guava requires a value for every requested key
+                        Map<String, Optional<APIModelDTO>> loaded = new HashMap<>();
+                        keyList.forEach(key -> loaded.put(key, Optional.ofNullable(found.get(key))));
+                        return loaded;
                     }
                 });
     }
 
-    /**
-     * Retrieves an API model from the cache by its key.
-     *
-     * @param key The key representing the combination of HTTP method and path.
-     * @return An Optional containing the corresponding APIModelDTO if found, or empty if not found.
-     */
-    public Optional<APIModelDTO> get(String key) throws ExecutionException {
-        return modelCache.get(key);
+    private long cacheSizeOf(String tenantId) {
+        return tenantCacheSizes.getOrDefault(tenantId, defaultCacheSize);
     }
 
     /**
-     * Evicts an entry from the cache by its key.
-     *
-     * @param key The key representing the combination of HTTP method and path.
+     * Rough estimation of the heap used by a model (strings are counted as 2 bytes per char).
      */
-    public void evict(String key) {
-        modelCache.invalidate(key);
+    private static long estimateBytes(APIModelDTO model) {
+        long bytes = OBJECT_OVERHEAD_BYTES + 2L * (length(model.getPath()) + length(model.getMethod()));
+        bytes += estimateBytes(model.getQueryParams()) + estimateBytes(model.getHeaders()) + estimateBytes(model.getBody());
+        return bytes;
+    }
+
+    private static long estimateBytes(List<APIModelParamDTO> params) {
+        if (params == null) return 0;
+        long bytes = OBJECT_OVERHEAD_BYTES;
+        for (APIModelParamDTO param : params) {
+            bytes += OBJECT_OVERHEAD_BYTES + 2L * length(param.getName());
+            if (param.getTypes() != null) {
+                bytes += OBJECT_OVERHEAD_BYTES;
+                for (String type : param.getTypes()) {
+                    bytes += OBJECT_OVERHEAD_BYTES + 2L * length(type);
+                }
+            }
+        }
+        return bytes;
+    }
+
+    private static int length(String s) {
+        return s != null ? s.length() : 0;
     }
 
 }
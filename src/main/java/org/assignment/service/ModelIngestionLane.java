@@ -0,0 +1,204 @@
+package org.assignment.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.assignment.exception.AppErrorCode;
+import org.assignment.exception.ClusterException;
+import org.assignment.exception.InvalidModelsControllerException;
+import org.assignment.model.IngestionJobDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Execution lane of model ingestion, isolated from detection.
+ * <p>
+ * Validating a batch of models, saving it and evicting the cache entries it replaces used to run on the Tomcat thread
+ * of POST /api/models, so a large push held the request threads and the CPU detection needed. Ingestion now runs as
+ * jobs on a small pool of its own (one thread by default) behind a bounded queue: the request thread only enqueues the
+ * job, a full queue is rejected with 429, and clients poll the status of their job. However many models are pushed,
+ * ingestion never uses more cores than it has threads.
+ * </p>
+ * The threads run at {@link Thread#MIN_PRIORITY}, which only helps where the JVM maps Java priorities to the OS
+ * (not on Linux by default). Finished jobs are kept for polling up to a bounded count, the oldest dropped first.
+ */
+@Slf4j
+@Component
+public class ModelIngestionLane {
+
+    /**
+     * The lifecycle of a job.
+     */
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        SUCCEEDED,
+        FAILED
+    }
+
+    private final int maxRetainedJobs;
+    private final ThreadPoolExecutor executor;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    // Finished jobs, oldest first
+    private final Queue<String> finishedJobIds = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger finishedCount = new AtomicInteger();
+
+    public ModelIngestionLane(@Value("${app.model-controller.ingestion.threads}") int threads,
+                              @Value("${app.model-controller.ingestion.queue-capacity}") int queueCapacity,
+                              @Value("${app.model-controller.ingestion.max-retained-jobs}") int maxRetainedJobs) {
+        this.maxRetainedJobs = maxRetainedJobs;
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+            Thread thread = new Thread(r, "model-ingestion-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Queues an ingestion job.
+     *
+     * @param tenantId The tenant the models belong to.
+     * @param models   The number of models of the job.
+     * @param work     Validates and saves the models, failing with the exception the synchronous API would throw.
+     * @return The status of the new job.
+     * @throws InvalidModelsControllerException With {@link AppErrorCode#INGESTION_QUEUE_FULL} if the queue is full.
+     *
+     * <p><strong>Performance Complexity:</strong> O(1), the work runs on the ingestion threads.</p>
+     */
+    public IngestionJobDTO submit(String tenantId, int models, Runnable work) {
+        Job job = new Job(UUID.randomUUID().toString(), tenantId, models);
+        jobs.put(job.jobId, job);
+        try {
+            executor.execute(() -> run(job, work));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.jobId);
+            log.warn("Rejected {} models of tenant {}: ingestion queue full", models, tenantId);
+            throw new InvalidModelsControllerException(AppErrorCode.INGESTION_QUEUE_FULL,
+                    String.format("%d ingestion jobs are already queued", executor.getQueue().size()));
+        }
+        return job.toDTO();
+    }
+
+    /**
+     * @param tenantId The tenant asking, a job of another tenant is not found.
+     * @param jobId    The id returned when the job was submitted.
+     * @return The status of the job, empty if unknown or no longer retained.
+     *
+     * <p><strong>Performance Complexity:</strong> O(1).</p>
+     */
+    public Optional<IngestionJobDTO> getJob(String tenantId, String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null || !job.tenantId.equals(tenantId)) {
+            return Optional.empty();
+        }
+        return Optional.of(job.toDTO());
+    }
+
+    /**
+     * @return The number of jobs waiting for an ingestion thread.
+     */
+    public int getQueuedCount() {
+        return executor.getQueue().size();
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                log.warn("Ingestion jobs still running at shutdown");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run(Job job, Runnable work) {
+        job.startedAt = LocalDateTime.now();
+        job.status = Status.RUNNING;
+        try {
+            work.run();
+            job.finish(Status.SUCCEEDED, null, null);
+        } catch (InvalidModelsControllerException e) {
+            job.finish(Status.FAILED, e.getErrorCode(), e.getDebugMessage());
+        } catch (ClusterException e) {
+            job.finish(Status.FAILED, e.getErrorCode(), e.getDebugMessage());
+        } catch (RuntimeException e) {
+            log.error("Ingestion job {} of tenant {} failed", job.jobId, job.tenantId, e);
+            job.finish(Status.FAILED, AppErrorCode.INTERNAL_ERROR, e.getMessage());
+        }
+        retire(job.jobId);
+    }
+
+    private void retire(String jobId) {
+        finishedJobIds.add(jobId);
+        if (finishedCount.incrementAndGet() > maxRetainedJobs) {
+            String oldest = finishedJobIds.poll();
+            if (oldest != null) {
+                jobs.remove(oldest);
+                finishedCount.decrementAndGet();
+            }
+        }
+    }
+
+    // Written by the ingestion thread running it, read by the request threads polling it
+    private static final class Job {
+        private final String jobId;
+        private final String tenantId;
+        private final int models;
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+        private volatile AppErrorCode errorCode;
+        private volatile String debugMessage;
+        // Written last, so a reader seeing a final status sees the fields above
+        private volatile Status status = Status.QUEUED;
+
+        private Job(String jobId, String tenantId, int models) {
+            this.jobId = jobId;
+            this.tenantId = tenantId;
+            this.models = models;
+        }
+
+        private void finish(Status status, AppErrorCode errorCode, String debugMessage) {
+            this.errorCode = errorCode;
+            this.debugMessage = debugMessage;
+            this.finishedAt = LocalDateTime.now();
+            this.status = status;
+        }
+
+        private IngestionJobDTO toDTO() {
+            Status current = status;
+            AppErrorCode error = current == Status.FAILED ? errorCode : null;
+            return IngestionJobDTO.builder()
+                    .jobId(jobId)
+                    .tenantId(tenantId)
+                    .status(current.name())
+                    .models(models)
+                    .submittedAt(submittedAt)
+                    .startedAt(startedAt)
+                    .finishedAt(current == Status.SUCCEEDED || current == Status.FAILED ? finishedAt : null)
+                    .errorCode(error != null ? error.getCode() : null)
+                    .message(error != null ? error.getMessage() : null)
+                    .debugMessage(error != null ? debugMessage : null)
+                    .build();
+        }
+    }
+
+}
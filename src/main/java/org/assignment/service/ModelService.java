@@ -1,12 +1,19 @@
 package org.assignment.service;
 
+import lombok.extern.slf4j.Slf4j;
+import org.assignment.cluster.ClusterClient;
+import org.assignment.cluster.ClusterRouter;
+import org.assignment.exception.AppErrorCode;
+import org.assignment.exception.ClusterException;
 import org.assignment.model.APIModelDTO;
 import org.assignment.model.AnomalyDTO;
 import org.assignment.model.DetectionDTO;
 import org.assignment.repository.ModelRepository;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -14,6 +21,7 @@ import java.util.stream.Collectors;
 /**
  * Service for managing API models and validating detection entries against them.
  */
+@Slf4j
 @Service
 public class ModelService {
 
@@ -22,11 +30,20 @@ public class ModelService {
     private final ModelRepository repository;
     private final AnomalyDetector anomalyDetector;
     private final ModelCache modelCache;
+    private final CompiledModelRegistry compiledModels;
+    private final EndpointFilter endpointFilter;
+    private final ClusterRouter clusterRouter;
+    private final ClusterClient clusterClient;
 
-    public ModelService(ModelRepository repository, AnomalyDetector anomalyDetector, ModelCache modelCache) {
+    public ModelService(ModelRepository repository, AnomalyDetector anomalyDetector, ModelCache modelCache,
+                        CompiledModelRegistry compiledModels, EndpointFilter endpointFilter, ClusterRouter clusterRouter, ClusterClient clusterClient) {
         this.repository = repository;
         this.anomalyDetector = anomalyDetector;
         this.modelCache = modelCache;
+        this.compiledModels = compiledModels;
+        this.endpointFilter = endpointFilter;
+        this.clusterRouter = clusterRouter;
+        this.clusterClient = clusterClient;
     }
 
     /**
@@ -44,16 +61,82 @@ public class ModelService {
      *               assuming the map collection and batch save are linear operations.</p>
      */
     public void ingestModels(List<APIModelDTO> models) {
+        ingestModels(TenantResolver.DEFAULT_TENANT, models);
+    }
+
+    /**
+     * Ingests a list of API models into the namespace of a tenant.
+     * <p>
+     * In cluster mode every model is routed to the nodes owning its endpoint (primary and replicas);
+     * models owned by this node are stored locally, the others are sent to their owners.
+     * </p>
+     *
+     * @param tenantId The tenant owning the models.
+     * @param models   The list of {@link APIModelDTO} to be ingested. Can be null or empty.
+     * @throws ClusterException if an owner node cannot be reached.
+     *
+     *                          <p><strong>Performance Complexity:</strong> O(N) where N is the number of models in the list.</p>
+     */
+    public void ingestModels(String tenantId, List<APIModelDTO> models) {
+        if (models == null) return;
+        Map<String, APIModelDTO> modelMap = toModelMap(models);
+        if (!clusterRouter.isEnabled()) {
+            saveLocally(tenantId, modelMap);
+            return;
+        }
+
+        // Group the models by owner node
+        Map<String, Map<String, APIModelDTO>> modelsByNode = new HashMap<>();
+        modelMap.forEach((key, model) -> clusterRouter.ownersOf(tenantId, key)
+                .forEach(node -> modelsByNode.computeIfAbsent(node, n -> new HashMap<>()).put(key, model)));
+
+        for (Map.Entry<String, Map<String, APIModelDTO>> entry : modelsByNode.entrySet()) {
+            String node = entry.getKey();
+            if (node.equals(clusterRouter.getSelfNode())) {
+                saveLocally(tenantId, entry.getValue());
+                continue;
+            }
+            try {
+                clusterClient.replicateModels(node, tenantId, new ArrayList<>(entry.getValue().values()));
+                log.debug("Routed {} models of tenant {} to node {}", entry.getValue().size(), tenantId, node);
+            } catch (IOException e) {
+                throw new ClusterException(AppErrorCode.CLUSTER_NODE_UNAVAILABLE, "Failed to store models on node " + node, e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ClusterException(AppErrorCode.CLUSTER_NODE_UNAVAILABLE, "Interrupted while storing models on node " + node, e);
+            }
+        }
+    }
+
+    /**
+     * Stores models on this node only, without cluster routing.
+     * Used for models routed here by the cluster node that received the ingestion.
+     *
+     * @param tenantId The tenant owning the models.
+     * @param models   The list of {@link APIModelDTO} owned by this node.
+     */
+    public void ingestLocalModels(String tenantId, List<APIModelDTO> models) {
         if (models == null) return;
-        Map<String, APIModelDTO> modelMap = models.stream()
+        saveLocally(tenantId, toModelMap(models));
+    }
+
+    private void saveLocally(String tenantId, Map<String, APIModelDTO> modelMap) {
+        // Register the keys first, so a stored model is never reported as unknown by the filter
+        endpointFilter.addAll(tenantId, modelMap.keySet());
+        // Compiled before being stored, so detection never compiles a model it can read
+        compiledModels.registerAll(tenantId, modelMap);
+        repository.saveBatch(tenantId, modelMap);
+        // Evict cache entries to ensure consistency
+        modelMap.keySet().forEach(key -> modelCache.evict(tenantId, key));
+    }
+
+    private static Map<String, APIModelDTO> toModelMap(List<APIModelDTO> models) {
+        return models.stream()
                 .collect(Collectors.toMap(
                         m -> m.getMethod().toUpperCase() + ":" + m.getPath(), // Key Mapper
                         m -> m,                                               // Value Mapper
                         (existing, replacement) -> existing                   // Merge Function (Handle Duplicates)
                 ));
-        repository.saveBatch(modelMap);
-        // Evict cache entries to ensure consistency
-        modelMap.keySet().forEach(modelCache::evict);
     }
 
     /**
@@ -70,11 +153,11 @@ public class ModelService {
      * anomaly if the model is not found, or a list of detected anomalies if validation fails.
      *
      * <p><strong>Performance Complexity:</strong> O(1) for repository lookup (assuming hash-based access)
-     * plus the complexity of {@link AnomalyDetector#detectAnomalies(DetectionDTO, APIModelDTO)}.</p>
+     * plus the complexity of {@link AnomalyDetector#detectAnomalies(DetectionDTO, CompiledModel, boolean)}.</p>
      */
     public List<AnomalyDTO> validateDetection(DetectionDTO detectionDTO) {
         String key = detectionDTO.getMethod().toUpperCase() + ":" + detectionDTO.getPath();
-        APIModelDTO model = repository.findByKey(key);
+        APIModelDTO model = repository.findByKey(TenantResolver.DEFAULT_TENANT, key);
 
         if (model == null) {
             List<AnomalyDTO> criticalAnomalyDTO = new ArrayList<>();
@@ -86,6 +169,6 @@ public class ModelService {
             return criticalAnomalyDTO;
         }
 
-        return anomalyDetector.detectAnomalies(detectionDTO, model);
+        return anomalyDetector.detectAnomalies(detectionDTO, compiledModels.get(TenantResolver.DEFAULT_TENANT, key, model), false);
     }
 }
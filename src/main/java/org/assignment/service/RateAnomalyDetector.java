@@ -0,0 +1,332 @@
+package org.assignment.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import org.assignment.metrics.CountMinSketch;
+import org.assignment.model.AnomalyDTO;
+import org.assignment.model.DetectionDTO;
+import org.assignment.replay.RecordedTraffic;
+import org.assignment.warmup.SyntheticTraffic;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Detects request floods: requests per sliding window of every endpoint and every client, compared to a learned
+ * baseline. Well-formed requests pass the {@link AnomalyDetector}, however many arrive.
+ * <p>
+ * The sliding count of a key is its count in the current fixed window plus the count of the previous window weighted
+ * by the part of it still covered. The baseline is an EWMA of the counts of the completed windows. A request is
+ * reported as "RATE_ANOMALY_ENDPOINT" or "RATE_ANOMALY_CLIENT" when the sliding count is over both the floor of its
+ * kind and {@code factor} times the baseline.
+ * </p>
+ * <p>
+ * A completed window over both thresholds is a flood and is not learned: the baseline keeps its value, so a sustained
+ * flood is reported for as long as it lasts, and {@code DELETE /api/metrics/rates} accepts a new normal. The first
+ * window of an endpoint seeds its baseline, during its warm-up windows. A client has no warm-up, so its first window
+ * is learned like any other, from a baseline of zero.
+ * </p>
+ * <p>
+ * Memory is bounded however many clients exist:
+ * - Endpoints with a model get an exact counter, in an LRU bounded by {@code max-tracked-endpoints}.
+ * - Clients (the value of {@code client-header}) are first counted in a {@link CountMinSketch} per window. Once the
+ *   sketch estimates half the client floor, the client gets an exact counter in an LRU bounded by
+ *   {@code max-tracked-clients}, counting from zero, so sketch collisions never cause a report.
+ * Endpoints are only checked after {@code warmup-windows} completed windows, so a restart does not report every busy
+ * endpoint. Clients are checked from their first window: a client flooding from its first request is the attack.
+ * </p>
+ * Updates never lock: {@link LongAdder} increments, striped sketch additions, and a compare-and-set when a window
+ * completes. An increment racing with that swap may be lost, which only lowers one window count by a request.
+ */
+@Component
+public class RateAnomalyDetector {
+
+    public static final String RATE_ANOMALY = "RATE_ANOMALY";
+    public static final String ENDPOINT = "ENDPOINT";
+    public static final String CLIENT = "CLIENT";
+
+    private static final HashFunction HASH = Hashing.murmur3_128();
+    // The sketches are written by every request: a few stripes spread the contention on the counters of hot clients
+    private static final int MAX_STRIPES = 4;
+
+    private final boolean enabled;
+    private final String clientHeader;
+    private final long windowMillis;
+    private final double factor;
+    private final double baselineAlpha;
+    private final int warmupWindows;
+    private final long endpointMinRequests;
+    private final long clientMinRequests;
+    private final int sketchWidth;
+    private final int sketchDepth;
+    private final int stripes;
+    private final LongSupplier clock;
+    private final Cache<String, RateCounter> endpoints;
+    private final Cache<String, RateCounter> clients;
+    // The sketches of the current and previous windows, by window parity
+    private final AtomicReferenceArray<SketchWindow> sketches = new AtomicReferenceArray<>(2);
+
+    @Autowired
+    public RateAnomalyDetector(@Value("${app.detection-controller.rate-anomalies.enabled}") boolean enabled,
+                               @Value("${app.detection-controller.rate-anomalies.client-header}") String clientHeader,
+                               @Value("${app.detection-controller.rate-anomalies.window-seconds}") long windowSeconds,
+                               @Value("${app.detection-controller.rate-anomalies.factor}") double factor,
+                               @Value("${app.detection-controller.rate-anomalies.baseline-alpha}") double baselineAlpha,
+                               @Value("${app.detection-controller.rate-anomalies.warmup-windows}") int warmupWindows,
+                               @Value("${app.detection-controller.rate-anomalies.endpoint-min-requests}") long endpointMinRequests,
+                               @Value("${app.detection-controller.rate-anomalies.client-min-requests}") long clientMinRequests,
+                               @Value("${app.detection-controller.rate-anomalies.max-tracked-endpoints}") long maxTrackedEndpoints,
+                               @Value("${app.detection-controller.rate-anomalies.max-tracked-clients}") long maxTrackedClients,
+                               @Value("${app.detection-controller.rate-anomalies.sketch-width}") int sketchWidth,
+                               @Value("${app.detection-controller.rate-anomalies.sketch-depth}") int sketchDepth) {
+        this(enabled, clientHeader, windowSeconds, factor, baselineAlpha, warmupWindows, endpointMinRequests,
+                clientMinRequests, maxTrackedEndpoints, maxTrackedClients, sketchWidth, sketchDepth, System::currentTimeMillis);
+    }
+
+    RateAnomalyDetector(boolean enabled, String clientHeader, long windowSeconds, double factor, double baselineAlpha,
+                        int warmupWindows, long endpointMinRequests, long clientMinRequests, long maxTrackedEndpoints,
+                        long maxTrackedClients, int sketchWidth, int sketchDepth, LongSupplier clock) {
+        this.enabled = enabled;
+        this.clientHeader = clientHeader;
+        this.windowMillis = Math.max(1, TimeUnit.SECONDS.toMillis(windowSeconds));
+        this.factor = factor;
+        this.baselineAlpha = baselineAlpha;
+        this.warmupWindows = warmupWindows;
+        this.endpointMinRequests = endpointMinRequests;
+        this.clientMinRequests = clientMinRequests;
+        this.sketchWidth = sketchWidth;
+        this.sketchDepth = sketchDepth;
+        this.stripes = Math.min(MAX_STRIPES, Runtime.getRuntime().availableProcessors());
+        this.clock = clock;
+        this.endpoints = CacheBuilder.newBuilder().maximumSize(maxTrackedEndpoints).build();
+        this.clients = CacheBuilder.newBuilder().maximumSize(maxTrackedClients).build();
+    }
+
+    /**
+     * Counts a request and adds the rate anomalies it causes. Synthetic warm-up detections and recorded traffic
+     * ({@link RecordedTraffic}) are not counted: they did not arrive now.
+     *
+     * @param tenantId      The tenant of the request.
+     * @param key           The key of the endpoint ("METHOD:PATH").
+     * @param knownEndpoint Whether the endpoint has a model. Only those are counted per endpoint, so the counters are
+     *                      bounded by the models.
+     * @param detection     The validated request.
+     * @param anomalies     The anomalies already detected, never modified.
+     * @param failFast      Whether to stop at the first anomaly (verdict-only): nothing is added to a non-empty list.
+     * @return The anomalies, with the rate anomalies appended in a new list if any.
+     *
+     * <p><strong>Performance Complexity:</strong> O(1): two LRU lookups, {@link LongAdder} increments, and for a
+     * client without an exact counter a 128-bit hash of its header value and O(D) sketch additions for D rows.</p>
+     */
+    public List<AnomalyDTO> check(String tenantId, String key, boolean knownEndpoint, DetectionDTO detection,
+                                  List<AnomalyDTO> anomalies, boolean failFast) {
+        if (!enabled || SyntheticTraffic.isActive() || RecordedTraffic.isActive()) return anomalies;
+        long now = clock.getAsLong();
+        long epoch = now / windowMillis;
+        // Part of the previous window still covered by the sliding window
+        double previousWeight = 1.0 - (now % windowMillis) / (double) windowMillis;
+
+        AnomalyDTO endpointAnomaly = knownEndpoint ? checkEndpoint(tenantId, key, epoch, previousWeight) : null;
+        AnomalyDTO clientAnomaly = checkClient(tenantId, detection.getHeaders(), epoch, previousWeight);
+        if (endpointAnomaly == null && clientAnomaly == null) return anomalies;
+        if (failFast && !anomalies.isEmpty()) return anomalies;
+
+        List<AnomalyDTO> result = new ArrayList<>(anomalies.size() + 2);
+        result.addAll(anomalies);
+        if (endpointAnomaly != null) result.add(endpointAnomaly);
+        if (clientAnomaly != null && (!failFast || result.isEmpty())) result.add(clientAnomaly);
+        return result;
+    }
+
+    /**
+     * Forgets every counter and baseline.
+     */
+    public void reset() {
+        endpoints.invalidateAll();
+        clients.invalidateAll();
+        for (int i = 0; i < sketches.length(); i++) {
+            sketches.set(i, null);
+        }
+    }
+
+    private AnomalyDTO checkEndpoint(String tenantId, String key, long epoch, double previousWeight) {
+        RateCounter counter = getOrCreate(endpoints, tenantId + " " + key, epoch, endpointMinRequests, warmupWindows);
+        Window window = counter.add(epoch);
+        if (window.completed < warmupWindows) return null;
+        double rate = window.slidingCount(previousWeight);
+        if (!isAnomalous(rate, window.baseline, endpointMinRequests)) return null;
+        return AnomalyDTO.builder()
+                .type(RATE_ANOMALY + AnomalyDetector.DELIMITER + ENDPOINT)
+                .description("Endpoint received " + Math.round(rate) + " requests in the last " + windowSeconds()
+                        + " s, its baseline is " + Math.round(window.baseline))
+                .build();
+    }
+
+    private AnomalyDTO checkClient(String tenantId, Map<String, String> headers, long epoch, double previousWeight) {
+        String client = headers != null ? headers.get(clientHeader) : null;
+        if (client == null || client.isEmpty()) return null;
+        String clientKey = tenantId + " " + client;
+
+        RateCounter counter = clients.getIfPresent(clientKey);
+        if (counter == null) {
+            HashCode hash = HASH.hashUnencodedChars(clientKey);
+            long hash1 = hash.asLong();
+            // Odd, so that the rows of the sketch never collapse onto a single column
+            long hash2 = ByteBuffer.wrap(hash.asBytes()).order(ByteOrder.LITTLE_ENDIAN).getLong(Long.BYTES) | 1;
+            SketchWindow current = currentSketch(epoch);
+            current.sketch.add(hash1, hash2, 1);
+            double estimate = current.sketch.estimate(hash1, hash2);
+            SketchWindow previous = sketches.get((int) ((epoch - 1) & 1));
+            if (previous != null && previous.epoch == epoch - 1) {
+                estimate += previous.sketch.estimate(hash1, hash2) * previousWeight;
+            }
+            // Below half the floor a client cannot be reported yet: the sketch is enough
+            if (estimate * 2 < clientMinRequests) return null;
+            counter = getOrCreate(clients, clientKey, epoch, clientMinRequests, 0);
+        }
+        Window window = counter.add(epoch);
+        double rate = window.slidingCount(previousWeight);
+        if (!isAnomalous(rate, window.baseline, clientMinRequests)) return null;
+        // The header value is a credential: never reported
+        return AnomalyDTO.builder()
+                .type(RATE_ANOMALY + AnomalyDetector.DELIMITER + CLIENT)
+                .description("Client of this '" + clientHeader + "' header sent " + Math.round(rate)
+                        + " requests in the last " + windowSeconds() + " s, its baseline is " + Math.round(window.baseline))
+                .build();
+    }
+
+    private long windowSeconds() {
+        return TimeUnit.MILLISECONDS.toSeconds(windowMillis);
+    }
+
+    private boolean isAnomalous(double rate, double baseline, long minRequests) {
+        return rate >= minRequests && rate > factor * baseline;
+    }
+
+    private RateCounter getOrCreate(Cache<String, RateCounter> counters, String key, long epoch, long minRequests,
+                                    int warmup) {
+        RateCounter counter = counters.getIfPresent(key);
+        if (counter != null) return counter;
+        try {
+            return counters.get(key, () -> new RateCounter(epoch, minRequests, warmup));
+        } catch (ExecutionException e) {
+            // The loader cannot throw
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private SketchWindow currentSketch(long epoch) {
+        int index = (int) (epoch & 1);
+        SketchWindow window = sketches.get(index);
+        while (window == null || window.epoch < epoch) {
+            // The slot still holds the window before the previous one: replace it, a single thread wins the race
+            SketchWindow fresh = new SketchWindow(epoch, new CountMinSketch(sketchWidth, sketchDepth, stripes));
+            if (sketches.compareAndSet(index, window, fresh)) return fresh;
+            window = sketches.get(index);
+        }
+        return window;
+    }
+
+    /**
+     * The client sketch of one window.
+     */
+    private static final class SketchWindow {
+        private final long epoch;
+        private final CountMinSketch sketch;
+
+        private SketchWindow(long epoch, CountMinSketch sketch) {
+            this.epoch = epoch;
+            this.sketch = sketch;
+        }
+    }
+
+    /**
+     * Exact count of an endpoint or client, with its baseline, published as an immutable window per fixed window.
+     */
+    private final class RateCounter {
+        private final AtomicReference<Window> window;
+        // The floor of the kind of the counter, and its warm-up windows: 0 for clients, never seeded
+        private final long minRequests;
+        private final int warmup;
+
+        private RateCounter(long epoch, long minRequests, int warmup) {
+            this.window = new AtomicReference<>(new Window(epoch, 0, 0, 0));
+            this.minRequests = minRequests;
+            this.warmup = warmup;
+        }
+
+        private Window add(long epoch) {
+            Window current = window.get();
+            while (current.epoch < epoch) {
+                Window next = current.next(epoch, learnedCount(current), baselineAlpha);
+                if (window.compareAndSet(current, next)) {
+                    current = next;
+                } else {
+                    current = window.get();
+                }
+            }
+            current.count.increment();
+            return current;
+        }
+
+        // The baseline after a completed window: seeded by the first window of a warm-up, unchanged by a flood
+        private double learnedCount(Window completed) {
+            long finished = completed.count.sum();
+            if (completed.completed == 0 && warmup > 0) return finished;
+            if (completed.completed >= warmup && isAnomalous(finished, completed.baseline, minRequests)) {
+                return completed.baseline;
+            }
+            return completed.baseline + baselineAlpha * (finished - completed.baseline);
+        }
+    }
+
+    /**
+     * The count of one fixed window, with the count of the previous one and the baseline learned before it.
+     */
+    private static final class Window {
+        private final long epoch;
+        private final long previous;
+        private final double baseline;
+        // Completed windows learned by the baseline, capped
+        private final int completed;
+        private final LongAdder count = new LongAdder();
+
+        private Window(long epoch, long previous, double baseline, int completed) {
+            this.epoch = epoch;
+            this.previous = previous;
+            this.baseline = baseline;
+            this.completed = completed;
+        }
+
+        private double slidingCount(double previousWeight) {
+            return count.sum() + previous * previousWeight;
+        }
+
+        // The window following this one, with the baseline learned from it, and any skipped window learned as empty
+        private Window next(long nextEpoch, double learned, double alpha) {
+            long finished = count.sum();
+            long skipped = nextEpoch - epoch - 1;
+            if (skipped > 0) {
+                learned *= Math.pow(1 - alpha, Math.min(skipped, 1000));
+            }
+            int learnedWindows = (int) Math.min(Integer.MAX_VALUE / 2, completed + 1 + Math.min(skipped, 1000));
+            return new Window(nextEpoch, skipped == 0 ? finished : 0, learned, learnedWindows);
+        }
+    }
+
+}
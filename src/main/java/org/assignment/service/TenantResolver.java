@@ -0,0 +1,75 @@
+package org.assignment.service;
+
+import org.assignment.repository.ModelRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.regex.Pattern;
+
+/**
+ * Resolves the tenant namespace of a request.
+ * <p>
+ * The tenant is selected by the {@value #TENANT_HEADER} header on both the model ingestion and
+ * the detection endpoints. Requests without the header fall into the {@value #DEFAULT_TENANT} tenant,
+ * so single-team deployments keep working unchanged.
+ * </p>
+ */
+@Component
+public class TenantResolver {
+
+    public static final String TENANT_HEADER = "X-Tenant-ID";
+    public static final String DEFAULT_TENANT = "default";
+    private static final Pattern TENANT_ID = Pattern.compile("^[A-Za-z0-9_-]{1,64}$");
+
+    private final ModelRepository repository;
+    private final int maxTenants;
+
+    public TenantResolver(ModelRepository repository,
+                          @Value("${app.tenants.max-tenants}") int maxTenants) {
+        this.repository = repository;
+        this.maxTenants = maxTenants;
+    }
+
+    /**
+     * Resolves the tenant ID from the raw header value.
+     *
+     * @param headerValue The value of the tenant header, may be null.
+     * @return The tenant ID, or {@value #DEFAULT_TENANT} if the header is missing.
+     */
+    public String resolve(String headerValue) {
+        return StringUtils.hasText(headerValue) ? headerValue.trim() : DEFAULT_TENANT;
+    }
+
+    /**
+     * Checks the tenant ID syntax (alphanumeric, '-' and '_', up to 64 characters).
+     *
+     * @param tenantId The tenant ID to check.
+     * @return true if the tenant ID is well-formed.
+     */
+    public boolean isValid(String tenantId) {
+        return tenantId != null && TENANT_ID.matcher(tenantId).matches();
+    }
+
+    /**
+     * Checks whether a tenant already has models.
+     *
+     * @param tenantId The tenant ID.
+     * @return true if the tenant is known to the repository.
+     */
+    public boolean exists(String tenantId) {
+        return repository.hasTenant(tenantId);
+    }
+
+    /**
+     * Checks whether models can be ingested for the tenant without going over the tenant limit.
+     * Every tenant owns its own index and cache, so the number of tenants must be bounded.
+     *
+     * @param tenantId The tenant ID.
+     * @return true if the tenant already exists or a new tenant can still be registered.
+     */
+    public boolean canRegister(String tenantId) {
+        return exists(tenantId) || repository.findAllTenants().size() < maxTenants;
+    }
+
+}
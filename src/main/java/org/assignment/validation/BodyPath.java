@@ -0,0 +1,71 @@
+package org.assignment.validation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Syntax of nested body parameter names.
+ * <p>
+ * A body parameter name is either a top-level field ("email") or a path into the JSON body:
+ * - "user.address.zip": field "zip" of object "address" of object "user".
+ * - "items[].sku": field "sku" of every element of list "items".
+ * - "tags[]": every element of list "tags".
+ * A path is parsed into tokens: field names and {@link #ELEMENTS} markers,
+ * e.g. "items[].sku" becomes ["items", "[]", "sku"].
+ * </p>
+ */
+public final class BodyPath {
+
+    public static final String ELEMENTS = "[]";
+    private static final char FIELD_SEPARATOR = '.';
+
+    private BodyPath() {
+    }
+
+    /**
+     * Checks whether a parameter name is a nested path rather than a top-level field.
+     *
+     * @param name The body parameter name.
+     * @return true if the name contains a '.' or a "[]".
+     */
+    public static boolean isNested(String name) {
+        return name.indexOf(FIELD_SEPARATOR) >= 0 || name.contains(ELEMENTS);
+    }
+
+    /**
+     * Parses a body path into tokens.
+     *
+     * @param name The body parameter name.
+     * @return The field names and {@link #ELEMENTS} markers of the path, or null if the path is malformed
+     * (empty segment, brackets other than a trailing "[]").
+     *
+     * <p><strong>Performance Complexity:</strong> O(L) where L is the length of the name.</p>
+     */
+    public static List<String> parse(String name) {
+        List<String> tokens = new ArrayList<>();
+        int start = 0;
+        while (start <= name.length()) {
+            int end = name.indexOf(FIELD_SEPARATOR, start);
+            if (end < 0) end = name.length();
+            if (!parseSegment(name.substring(start, end), tokens)) return null;
+            start = end + 1;
+        }
+        return tokens;
+    }
+
+    private static boolean parseSegment(String segment, List<String> tokens) {
+        int fieldEnd = segment.indexOf('[');
+        if (fieldEnd < 0) fieldEnd = segment.length();
+        String field = segment.substring(0, fieldEnd);
+        if (field.isEmpty() || field.indexOf(']') >= 0) return false;
+        tokens.add(field);
+
+        // Any number of trailing "[]" (lists of lists)
+        for (int i = fieldEnd; i < segment.length(); i += ELEMENTS.length()) {
+            if (!segment.startsWith(ELEMENTS, i)) return false;
+            tokens.add(ELEMENTS);
+        }
+        return true;
+    }
+
+}
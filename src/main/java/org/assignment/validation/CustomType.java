@@ -0,0 +1,140 @@
+package org.assignment.validation;
+
+import org.assignment.model.CustomTypeDTO;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A custom value type declared by an API model ({@link CustomTypeDTO}), compiled once into a linear-time matcher.
+ * - Enumerations: a hash set, O(1) per value (plus hashing the value).
+ * - Patterns: a {@link DfaPattern}, one table lookup per char, never backtracking.
+ * - Integer ranges: a single pass parse, O(N) with N bounded to 20 digits.
+ * - Length bounds: O(1), checked before anything else.
+ * Values are matched in their rendered form ("7", "true"), so a JSON number 7 matches the enumeration value "7".
+ * Lists and objects never match a custom type.
+ */
+public final class CustomType {
+
+    // Long.MIN_VALUE has 19 digits plus the sign
+    private static final int MAX_INT_LENGTH = 20;
+
+    private final String name;
+    private final Set<String> enumValues;
+    private final DfaPattern pattern;
+    private final boolean intRange;
+    private final long minValue;
+    private final long maxValue;
+    private final int minLength;
+    private final int maxLength;
+
+    private CustomType(String name, Set<String> enumValues, DfaPattern pattern, List<Long> range,
+                       int minLength, int maxLength) {
+        this.name = name;
+        this.enumValues = enumValues;
+        this.pattern = pattern;
+        this.intRange = range != null;
+        this.minValue = range != null ? range.get(0) : 0;
+        this.maxValue = range != null ? range.get(1) : 0;
+        this.minLength = minLength;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Compiles a custom type definition.
+     *
+     * @param definition The definition declared by the model.
+     * @return The compiled type.
+     * @throws IllegalArgumentException if the definition is invalid, with a message naming the problem.
+     *
+     * <p><strong>Performance Complexity:</strong> O(E) for enumerations of E values, bounded by
+     * {@link DfaPattern#compile(String)} for patterns.</p>
+     */
+    public static CustomType compile(CustomTypeDTO definition) {
+        int kinds = (definition.getEnumValues() != null ? 1 : 0)
+                + (definition.getPattern() != null ? 1 : 0)
+                + (definition.getIntRange() != null ? 1 : 0);
+        boolean hasLength = definition.getMinLength() != null || definition.getMaxLength() != null;
+        if (kinds > 1) {
+            throw new IllegalArgumentException("A custom type declares only one of 'enum', 'pattern' and 'intRange'");
+        }
+        if (kinds == 0 && !hasLength) {
+            throw new IllegalArgumentException("A custom type declares one of 'enum', 'pattern', 'intRange', 'minLength' and 'maxLength'");
+        }
+
+        Set<String> enumValues = null;
+        if (definition.getEnumValues() != null) {
+            if (definition.getEnumValues().isEmpty() || definition.getEnumValues().stream().anyMatch(Objects::isNull)) {
+                throw new IllegalArgumentException("'enum' requires at least one value and no null values");
+            }
+            enumValues = new HashSet<>(definition.getEnumValues());
+        }
+
+        DfaPattern pattern = definition.getPattern() != null ? DfaPattern.compile(definition.getPattern()) : null;
+
+        List<Long> range = definition.getIntRange();
+        if (range != null && (range.size() != 2 || range.stream().anyMatch(Objects::isNull) || range.get(0) > range.get(1))) {
+            throw new IllegalArgumentException("'intRange' requires two bounds [min, max] with min <= max");
+        }
+
+        int minLength = definition.getMinLength() != null ? definition.getMinLength() : 0;
+        int maxLength = definition.getMaxLength() != null ? definition.getMaxLength() : Integer.MAX_VALUE;
+        if (minLength < 0 || maxLength < minLength) {
+            throw new IllegalArgumentException("Length bounds require 0 <= minLength <= maxLength");
+        }
+
+        return new CustomType(definition.getName(), enumValues, pattern, range, minLength, maxLength);
+    }
+
+    /**
+     * Checks whether a value belongs to this type.
+     *
+     * @param value The value from the request (String, Number, Boolean...).
+     * @return true if the value matches.
+     *
+     * <p><strong>Performance Complexity:</strong> O(N) where N is the length of the rendered value.</p>
+     */
+    public boolean matches(Object value) {
+        if (value == null || value instanceof Collection || value instanceof Map) return false;
+        if (intRange && isIntegral(value)) {
+            long number = ((Number) value).longValue();
+            return number >= minValue && number <= maxValue && lengthMatches(String.valueOf(number));
+        }
+
+        String s = String.valueOf(value);
+        if (!lengthMatches(s)) return false;
+        if (enumValues != null) return enumValues.contains(s);
+        if (pattern != null) return pattern.matches(s);
+        if (intRange) return rangeMatches(s);
+        return true;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private boolean lengthMatches(String s) {
+        return s.length() >= minLength && s.length() <= maxLength;
+    }
+
+    private boolean rangeMatches(String s) {
+        // Same syntax as the Int type: optional minus sign and digits only
+        if (s.length() > MAX_INT_LENGTH || !ValueType.INT.isValid(s)) return false;
+        try {
+            long number = Long.parseLong(s);
+            return number >= minValue && number <= maxValue;
+        } catch (NumberFormatException e) {
+            // Out of the long range, hence out of the declared range
+            return false;
+        }
+    }
+
+    private static boolean isIntegral(Object value) {
+        return value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte;
+    }
+
+}
@@ -6,27 +6,36 @@ package org.assignment.validation;
  */
 public class DateValidator implements ObjectValidator {
 
+    // Bytes 2 and 5 of the "dd-mm-yy" word hold the dashes
+    private static final long DASH_BYTES = (0xFFL << 16) | (0xFFL << 40);
+    private static final long ZEROS_AT_DASHES = ((long) '0' << 16) | ((long) '0' << 40);
+    private static final int[] DAYS_IN_MONTH = {31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+
     @Override
     public boolean validate(String s) {
         if (s == null) return false;
 
         // 1. Handle strict quoting requirement
-        String clean = s;
+        int offset = 0;
         if (s.startsWith("\"") && s.endsWith("\"")) {
             if (s.length() != 12) return false; // "dd-mm-yyyy" = 12 chars
-            clean = s.substring(1, 11);
+            offset = 1;
         } else if (s.length() != 10) {
             return false;
         }
+        byte[] bytes = Swar.latin1(s);
+        // Shorter when the value holds a surrogate pair
+        if (bytes.length != s.length()) return false;
 
-        // 2. Structural check (dd-mm-yyyy)
-        if (clean.charAt(2) != '-' || clean.charAt(5) != '-') return false;
-        if (!isDigits(clean, 0, 2) || !isDigits(clean, 3, 5) || !isDigits(clean, 6, 10)) return false;
+        // 2. Structural check (dd-mm-yyyy): the dashes, then "dd-mm-yy" as one word and the last 2 year digits
+        if (bytes[offset + 2] != '-' || bytes[offset + 5] != '-') return false;
+        long word = (Swar.word(bytes, offset) & ~DASH_BYTES) | ZEROS_AT_DASHES;
+        if (!Swar.isDigits(word) || !Swar.isDigits(bytes, offset + 8, offset + 10)) return false;
 
         // 3. Fast integer parsing (no allocations for performance)
-        int day = fastParseInt(clean, 0, 2);
-        int month = fastParseInt(clean, 3, 5);
-        int year = fastParseInt(clean, 6, 10);
+        int day = fastParseInt(bytes, offset, offset + 2);
+        int month = fastParseInt(bytes, offset + 3, offset + 5);
+        int year = fastParseInt(bytes, offset + 6, offset + 10);
 
         // 4. Calendar Logic Validation
         return isValidCalendarDate(day, month, year);
@@ -36,15 +45,12 @@ public class DateValidator implements ObjectValidator {
         // Basic range checks
         if (m < 1 || m > 12 || d < 1 || y < 1000 || y > 9999) return false;
 
-        // Days in each month
-        int[] daysInMonth = {31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
-
         // Leap year logic for February
         if (m == 2 && isLeapYear(y)) {
             return d <= 29;
         }
 
-        return d <= daysInMonth[m - 1];
+        return d <= DAYS_IN_MONTH[m - 1];
     }
 
     private boolean isLeapYear(int y) {
@@ -52,19 +58,11 @@ public class DateValidator implements ObjectValidator {
         return (y % 4 == 0 && y % 100 != 0) || (y % 400 == 0);
     }
 
-    private int fastParseInt(String s, int start, int end) {
+    private int fastParseInt(byte[] bytes, int start, int end) {
         int res = 0;
         for (int i = start; i < end; i++) {
-            res = res * 10 + (s.charAt(i) - '0');
+            res = res * 10 + (bytes[i] - '0');
         }
         return res;
     }
-
-    private static boolean isDigits(String s, int start, int end) {
-        for (int i = start; i < end; i++) {
-            char c = s.charAt(i);
-            if (c < '0' || c > '9') return false;
-        }
-        return true;
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,626 @@
+package org.assignment.validation;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * A regular expression compiled to a deterministic finite automaton (DFA).
+ * <p>
+ * Unlike {@link java.util.regex.Pattern}, which backtracks and can take exponential time on patterns such as
+ * {@code (a+)+b}, matching a DFA reads every character exactly once: O(N) for any pattern and any input.
+ * The price is a smaller syntax, enough for value formats (phone numbers, SKUs, codes):
+ * - Literals and escapes: {@code \. \\ \- \n \t \r}, classes {@code \d \w \s \D \W \S}, and {@code .} (any but a line break).
+ * - Character classes: {@code [a-z0-9_]}, {@code [^"]}.
+ * - Grouping {@code ( )} and {@code (?: )}, alternation {@code |}.
+ * - Quantifiers {@code * + ? {m} {m,} {m,n}}.
+ * - Anchors {@code ^} and {@code $}, only at the start and end (a value always matches as a whole).
+ * Backreferences, lookarounds and lazy/possessive quantifiers cannot be expressed by a DFA and are rejected.
+ * </p>
+ * <p>
+ * Compilation: pattern -> syntax tree -> Thompson NFA -> DFA (subset construction) over character classes,
+ * so the transition table holds one column per distinct character range used by the pattern.
+ * Patterns whose automaton would exceed {@link #MAX_NFA_STATES} or {@link #MAX_DFA_STATES} states, or
+ * {@link #MAX_CHAR_CLASSES} character classes, are rejected, which bounds the memory of a pattern. The states alone do
+ * not bound the compilation time: every DFA state costs one NFA move per class, over sets of up to
+ * {@link #MAX_NFA_STATES} states. The subset construction therefore spends a budget of {@link #MAX_COMPILE_STEPS}
+ * steps (a DFA transition or an NFA state visited for it), and the pattern is rejected once it is spent.
+ * </p>
+ */
+public final class DfaPattern {
+
+    public static final int MAX_NFA_STATES = 20_000;
+    public static final int MAX_DFA_STATES = 2_000;
+    public static final int MAX_CHAR_CLASSES = 256;
+    // Tens of milliseconds of compilation, a hundred or two before the JIT compiles it
+    public static final long MAX_COMPILE_STEPS = 1_000_000;
+    private static final int MAX_REPEAT = 1_000;
+    private static final int DEAD = -1;
+    private static final int ASCII = 128;
+
+    private final String pattern;
+    // Class boundaries: class i holds the chars in [boundaries[i], boundaries[i + 1])
+    private final int[] boundaries;
+    private final int[] asciiClasses;
+    private final int classCount;
+    // transitions[state * classCount + class], DEAD when no match is possible anymore
+    private final int[] transitions;
+    private final boolean[] accepting;
+
+    private DfaPattern(String pattern, int[] boundaries, int[] transitions, boolean[] accepting) {
+        this.pattern = pattern;
+        this.boundaries = boundaries;
+        this.classCount = boundaries.length;
+        this.transitions = transitions;
+        this.accepting = accepting;
+        this.asciiClasses = new int[ASCII];
+        for (int c = 0; c < ASCII; c++) {
+            asciiClasses[c] = classOfSlow(c);
+        }
+    }
+
+    /**
+     * Compiles a pattern.
+     *
+     * @param pattern The regular expression, see the class documentation for the supported syntax.
+     * @return The compiled pattern.
+     * @throws IllegalArgumentException if the pattern is malformed, unsupported, or too large.
+     *
+     * <p><strong>Performance Complexity:</strong> O(D * C * N) where D, C and N are the number of DFA states,
+     * character classes and NFA states, bounded by {@link #MAX_COMPILE_STEPS}.</p>
+     */
+    public static DfaPattern compile(String pattern) {
+        Node tree = new Parser(pattern).parse();
+        Nfa nfa = new Nfa();
+        int[] fragment = nfa.build(tree);
+        nfa.accept = fragment[1];
+        return determinize(pattern, nfa, fragment[0]);
+    }
+
+    /**
+     * Checks whether the whole input matches the pattern.
+     *
+     * @param input The value to match.
+     * @return true if the input matches.
+     *
+     * <p><strong>Performance Complexity:</strong> O(N) where N is the length of the input, one table lookup per char.</p>
+     */
+    public boolean matches(CharSequence input) {
+        int state = 0;
+        for (int i = 0; i < input.length(); i++) {
+            char c = input.charAt(i);
+            state = transitions[state * classCount + (c < ASCII ? asciiClasses[c] : classOfSlow(c))];
+            if (state == DEAD) return false;
+        }
+        return accepting[state];
+    }
+
+    /**
+     * Returns the number of states of the automaton.
+     */
+    public int getStateCount() {
+        return accepting.length;
+    }
+
+    @Override
+    public String toString() {
+        return pattern;
+    }
+
+    private int classOfSlow(int c) {
+        int index = Arrays.binarySearch(boundaries, c);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    // ---------------------------------------------------------------------------------------------------------------
+    // Subset construction
+    // ---------------------------------------------------------------------------------------------------------------
+
+    private static DfaPattern determinize(String pattern, Nfa nfa, int start) {
+        // Split the alphabet at every range boundary, so all chars of a class behave the same in every state
+        TreeSet<Integer> points = new TreeSet<>();
+        points.add(0);
+        // Repetitions share the ranges of their copies
+        Set<int[]> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int[] ranges : nfa.ranges) {
+            if (ranges == null || !seen.add(ranges)) continue;
+            for (int i = 0; i < ranges.length; i += 2) {
+                points.add(ranges[i]);
+                if (ranges[i + 1] + 1 <= Character.MAX_VALUE) points.add(ranges[i + 1] + 1);
+            }
+        }
+        int[] boundaries = points.stream().mapToInt(Integer::intValue).toArray();
+        int classCount = boundaries.length;
+        if (classCount > MAX_CHAR_CLASSES) {
+            throw new IllegalArgumentException("Pattern is too complex (more than " + MAX_CHAR_CLASSES + " character classes)");
+        }
+
+        Map<BitSet, Integer> ids = new HashMap<>();
+        List<BitSet> states = new ArrayList<>();
+        List<int[]> rows = new ArrayList<>();
+        Deque<Integer> pending = new ArrayDeque<>();
+
+        BitSet initial = nfa.closure(single(start));
+        ids.put(initial, 0);
+        states.add(initial);
+        pending.add(0);
+
+        while (!pending.isEmpty()) {
+            int id = pending.poll();
+            BitSet current = states.get(id);
+            int[] row = new int[classCount];
+            for (int cls = 0; cls < classCount; cls++) {
+                // One step per transition on top of the NFA states it visits
+                nfa.spend();
+                BitSet next = nfa.closure(nfa.move(current, boundaries[cls]));
+                if (next.isEmpty()) {
+                    row[cls] = DEAD;
+                    continue;
+                }
+                Integer nextId = ids.get(next);
+                if (nextId == null) {
+                    if (states.size() >= MAX_DFA_STATES) {
+                        throw new IllegalArgumentException("Pattern is too complex (more than " + MAX_DFA_STATES + " states)");
+                    }
+                    nextId = states.size();
+                    ids.put(next, nextId);
+                    states.add(next);
+                    pending.add(nextId);
+                }
+                row[cls] = nextId;
+            }
+            while (rows.size() <= id) rows.add(null);
+            rows.set(id, row);
+        }
+
+        int[] transitions = new int[states.size() * classCount];
+        boolean[] accepting = new boolean[states.size()];
+        for (int id = 0; id < states.size(); id++) {
+            System.arraycopy(rows.get(id), 0, transitions, id * classCount, classCount);
+            accepting[id] = states.get(id).get(nfa.accept);
+        }
+        return new DfaPattern(pattern, boundaries, transitions, accepting);
+    }
+
+    private static BitSet single(int state) {
+        BitSet set = new BitSet();
+        set.set(state);
+        return set;
+    }
+
+    // ---------------------------------------------------------------------------------------------------------------
+    // Thompson NFA
+    // ---------------------------------------------------------------------------------------------------------------
+
+    /**
+     * NFA states: a state either consumes a char of its ranges and goes to {@code next}, or has epsilon transitions.
+     */
+    private static final class Nfa {
+        private final List<int[]> ranges = new ArrayList<>();
+        private final List<Integer> next = new ArrayList<>();
+        private final List<int[]> epsilons = new ArrayList<>();
+        private int accept;
+        // Steps of the subset construction so far
+        private long steps;
+
+        private int newState() {
+            if (ranges.size() >= MAX_NFA_STATES) {
+                throw new IllegalArgumentException("Pattern is too large (more than " + MAX_NFA_STATES + " states)");
+            }
+            ranges.add(null);
+            next.add(DEAD);
+            epsilons.add(new int[0]);
+            return ranges.size() - 1;
+        }
+
+        private void epsilon(int from, int to) {
+            int[] current = epsilons.get(from);
+            int[] extended = Arrays.copyOf(current, current.length + 1);
+            extended[current.length] = to;
+            epsilons.set(from, extended);
+        }
+
+        /**
+         * Builds the fragment of a node.
+         *
+         * @return {start, end} states of the fragment.
+         */
+        private int[] build(Node node) {
+            if (node instanceof CharSet) {
+                int start = newState();
+                int end = newState();
+                ranges.set(start, ((CharSet) node).ranges);
+                next.set(start, end);
+                return new int[]{start, end};
+            }
+            if (node instanceof Concat) {
+                int start = newState();
+                int end = start;
+                for (Node part : ((Concat) node).parts) {
+                    int[] fragment = build(part);
+                    epsilon(end, fragment[0]);
+                    end = fragment[1];
+                }
+                return new int[]{start, end};
+            }
+            if (node instanceof Alt) {
+                int start = newState();
+                int end = newState();
+                for (Node option : ((Alt) node).options) {
+                    int[] fragment = build(option);
+                    epsilon(start, fragment[0]);
+                    epsilon(fragment[1], end);
+                }
+                return new int[]{start, end};
+            }
+            Repeat repeat = (Repeat) node;
+            int start = newState();
+            int end = start;
+            // Mandatory copies
+            for (int i = 0; i < repeat.min; i++) {
+                int[] fragment = build(repeat.node);
+                epsilon(end, fragment[0]);
+                end = fragment[1];
+            }
+            if (repeat.max < 0) {
+                // Kleene star on one more copy
+                int[] fragment = build(repeat.node);
+                int loopEnd = newState();
+                epsilon(end, fragment[0]);
+                epsilon(end, loopEnd);
+                epsilon(fragment[1], fragment[0]);
+                epsilon(fragment[1], loopEnd);
+                return new int[]{start, loopEnd};
+            }
+            // Optional copies, each one may skip to the end
+            int optionalEnd = newState();
+            for (int i = repeat.min; i < repeat.max; i++) {
+                int[] fragment = build(repeat.node);
+                epsilon(end, optionalEnd);
+                epsilon(end, fragment[0]);
+                end = fragment[1];
+            }
+            epsilon(end, optionalEnd);
+            return new int[]{start, optionalEnd};
+        }
+
+        private BitSet closure(BitSet set) {
+            BitSet closed = (BitSet) set.clone();
+            Deque<Integer> stack = new ArrayDeque<>();
+            set.stream().forEach(stack::push);
+            while (!stack.isEmpty()) {
+                spend();
+                for (int to : epsilons.get(stack.pop())) {
+                    if (!closed.get(to)) {
+                        closed.set(to);
+                        stack.push(to);
+                    }
+                }
+            }
+            return closed;
+        }
+
+        private BitSet move(BitSet set, int c) {
+            BitSet moved = new BitSet();
+            for (int state = set.nextSetBit(0); state >= 0; state = set.nextSetBit(state + 1)) {
+                spend();
+                int[] stateRanges = ranges.get(state);
+                if (stateRanges != null && contains(stateRanges, c)) {
+                    moved.set(next.get(state));
+                }
+            }
+            return moved;
+        }
+
+        private void spend() {
+            if (++steps > MAX_COMPILE_STEPS) {
+                throw new IllegalArgumentException("Pattern is too complex (more than " + MAX_COMPILE_STEPS + " compilation steps)");
+            }
+        }
+
+        private static boolean contains(int[] ranges, int c) {
+            for (int i = 0; i < ranges.length; i += 2) {
+                if (c >= ranges[i] && c <= ranges[i + 1]) return true;
+            }
+            return false;
+        }
+    }
+
+    // ---------------------------------------------------------------------------------------------------------------
+    // Syntax tree and parser
+    // ---------------------------------------------------------------------------------------------------------------
+
+    private interface Node {
+    }
+
+    private static final class CharSet implements Node {
+        // Sorted, non overlapping inclusive [lo, hi] pairs
+        private final int[] ranges;
+
+        private CharSet(int[] ranges) {
+            this.ranges = ranges;
+        }
+    }
+
+    private static final class Concat implements Node {
+        private final List<Node> parts;
+
+        private Concat(List<Node> parts) {
+            this.parts = parts;
+        }
+    }
+
+    private static final class Alt implements Node {
+        private final List<Node> options;
+
+        private Alt(List<Node> options) {
+            this.options = options;
+        }
+    }
+
+    private static final class Repeat implements Node {
+        private final Node node;
+        private final int min;
+        // -1 for unbounded
+        private final int max;
+
+        private Repeat(Node node, int min, int max) {
+            this.node = node;
+            this.min = min;
+            this.max = max;
+        }
+    }
+
+    /**
+     * Recursive descent parser: alternation -> concatenation -> quantified atom.
+     */
+    private static final class Parser {
+        private static final int[] DIGITS = {'0', '9'};
+        private static final int[] WORD = {'0', '9', 'A', 'Z', '_', '_', 'a', 'z'};
+        private static final int[] SPACE = {'\t', '\r', ' ', ' '};
+        private static final int[] LINE_BREAKS = {'\n', '\n', '\r', '\r'};
+
+        private final String pattern;
+        private int pos;
+        private int end;
+
+        private Parser(String pattern) {
+            this.pattern = pattern;
+            this.end = pattern.length();
+        }
+
+        private Node parse() {
+            if (pattern.startsWith("^")) pos++;
+            if (end > pos && pattern.charAt(end - 1) == '$' && !isEscaped(end - 1)) end--;
+            Node node = parseAlternation();
+            if (pos < end) throw error("Unexpected ')'");
+            return node;
+        }
+
+        private Node parseAlternation() {
+            List<Node> options = new ArrayList<>();
+            options.add(parseConcatenation());
+            while (pos < end && pattern.charAt(pos) == '|') {
+                pos++;
+                options.add(parseConcatenation());
+            }
+            return options.size() == 1 ? options.get(0) : new Alt(options);
+        }
+
+        private Node parseConcatenation() {
+            List<Node> parts = new ArrayList<>();
+            while (pos < end && pattern.charAt(pos) != '|' && pattern.charAt(pos) != ')') {
+                parts.add(parseQuantified(parseAtom()));
+            }
+            return new Concat(parts);
+        }
+
+        private Node parseQuantified(Node atom) {
+            if (pos >= end) return atom;
+            char c = pattern.charAt(pos);
+            Node quantified;
+            if (c == '*') {
+                pos++;
+                quantified = new Repeat(atom, 0, -1);
+            } else if (c == '+') {
+                pos++;
+                quantified = new Repeat(atom, 1, -1);
+            } else if (c == '?') {
+                pos++;
+                quantified = new Repeat(atom, 0, 1);
+            } else if (c == '{') {
+                quantified = parseBraces(atom);
+            } else {
+                return atom;
+            }
+            if (pos < end && (pattern.charAt(pos) == '?' || pattern.charAt(pos) == '+')) {
+                throw error("Lazy and possessive quantifiers are not supported");
+            }
+            if (pos < end && "*+{".indexOf(pattern.charAt(pos)) >= 0) {
+                throw error("Nested quantifier");
+            }
+            return quantified;
+        }
+
+        private Node parseBraces(Node atom) {
+            int close = pattern.indexOf('}', pos);
+            if (close < 0 || close >= end) throw error("Unclosed '{'");
+            String body = pattern.substring(pos + 1, close);
+            pos = close + 1;
+            try {
+                int comma = body.indexOf(',');
+                int min = Integer.parseInt(comma < 0 ? body : body.substring(0, comma));
+                int max = comma < 0 ? min : (comma == body.length() - 1 ? -1 : Integer.parseInt(body.substring(comma + 1)));
+                if (min < 0 || min > MAX_REPEAT || max > MAX_REPEAT || (max >= 0 && max < min)) {
+                    throw error("Invalid repetition {" + body + "}, bounds must be in 0.." + MAX_REPEAT);
+                }
+                return new Repeat(atom, min, max);
+            } catch (NumberFormatException e) {
+                throw error("Invalid repetition {" + body + "}");
+            }
+        }
+
+        private Node parseAtom() {
+            char c = pattern.charAt(pos++);
+            switch (c) {
+                case '(':
+                    if (pattern.startsWith("?:", pos)) {
+                        pos += 2;
+                    } else if (pos < end && pattern.charAt(pos) == '?') {
+                        throw error("Lookarounds and inline flags are not supported");
+                    }
+                    Node group = parseAlternation();
+                    if (pos >= end || pattern.charAt(pos) != ')') throw error("Unclosed '('");
+                    pos++;
+                    return group;
+                case '[':
+                    return parseClass();
+                case '.':
+                    return new CharSet(negate(LINE_BREAKS));
+                case '\\':
+                    return new CharSet(parseEscape(false));
+                case '*':
+                case '+':
+                case '?':
+                case '{':
+                    throw error("Quantifier without a preceding element");
+                case '^':
+                case '$':
+                    throw error("Anchors are only supported at the start and the end of the pattern");
+                default:
+                    return new CharSet(new int[]{c, c});
+            }
+        }
+
+        private CharSet parseClass() {
+            boolean negated = pos < end && pattern.charAt(pos) == '^';
+            if (negated) pos++;
+            List<int[]> parts = new ArrayList<>();
+            boolean first = true;
+            while (true) {
+                if (pos >= end) throw error("Unclosed '['");
+                char c = pattern.charAt(pos);
+                if (c == ']' && !first) {
+                    pos++;
+                    break;
+                }
+                first = false;
+                int[] lowPart = parseClassChar();
+                if (lowPart.length == 2 && lowPart[0] == lowPart[1] && pos + 1 < end
+                        && pattern.charAt(pos) == '-' && pattern.charAt(pos + 1) != ']') {
+                    pos++;
+                    int[] highPart = parseClassChar();
+                    if (highPart.length != 2 || highPart[0] != highPart[1] || highPart[0] < lowPart[0]) {
+                        throw error("Invalid character range");
+                    }
+                    parts.add(new int[]{lowPart[0], highPart[0]});
+                } else {
+                    parts.add(lowPart);
+                }
+            }
+            int[] ranges = normalize(parts);
+            return new CharSet(negated ? negate(ranges) : ranges);
+        }
+
+        private int[] parseClassChar() {
+            char c = pattern.charAt(pos++);
+            if (c == '\\') return parseEscape(true);
+            if (c == '[') throw error("Nested classes are not supported");
+            return new int[]{c, c};
+        }
+
+        private int[] parseEscape(boolean inClass) {
+            if (pos >= end) throw error("Dangling '\\'");
+            char c = pattern.charAt(pos++);
+            switch (c) {
+                case 'd':
+                    return DIGITS.clone();
+                case 'D':
+                    return negate(DIGITS);
+                case 'w':
+                    return WORD.clone();
+                case 'W':
+                    return negate(WORD);
+                case 's':
+                    return SPACE.clone();
+                case 'S':
+                    return negate(SPACE);
+                case 'n':
+                    return new int[]{'\n', '\n'};
+                case 't':
+                    return new int[]{'\t', '\t'};
+                case 'r':
+                    return new int[]{'\r', '\r'};
+                default:
+                    if (Character.isLetterOrDigit(c)) {
+                        // Backreferences (\1), \b, \p{...}...: not regular or not supported
+                        throw error("Unsupported escape '\\" + c + "'");
+                    }
+                    return new int[]{c, c};
+            }
+        }
+
+        private boolean isEscaped(int index) {
+            int backslashes = 0;
+            for (int i = index - 1; i >= 0 && pattern.charAt(i) == '\\'; i--) backslashes++;
+            return backslashes % 2 == 1;
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " in pattern '" + pattern + "' at index " + pos);
+        }
+
+        private static int[] normalize(List<int[]> parts) {
+            List<int[]> pairs = new ArrayList<>();
+            for (int[] part : parts) {
+                for (int i = 0; i < part.length; i += 2) pairs.add(new int[]{part[i], part[i + 1]});
+            }
+            pairs.sort((a, b) -> Integer.compare(a[0], b[0]));
+            List<int[]> merged = new ArrayList<>();
+            for (int[] pair : pairs) {
+                int[] last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+                if (last != null && pair[0] <= last[1] + 1) {
+                    last[1] = Math.max(last[1], pair[1]);
+                } else {
+                    merged.add(pair);
+                }
+            }
+            int[] ranges = new int[merged.size() * 2];
+            for (int i = 0; i < merged.size(); i++) {
+                ranges[2 * i] = merged.get(i)[0];
+                ranges[2 * i + 1] = merged.get(i)[1];
+            }
+            return ranges;
+        }
+
+        private static int[] negate(int[] ranges) {
+            List<int[]> parts = new ArrayList<>();
+            parts.add(ranges);
+            int[] sorted = normalize(parts);
+            List<Integer> result = new ArrayList<>();
+            int low = 0;
+            for (int i = 0; i < sorted.length; i += 2) {
+                if (sorted[i] > low) {
+                    result.add(low);
+                    result.add(sorted[i] - 1);
+                }
+                low = sorted[i + 1] + 1;
+            }
+            if (low <= Character.MAX_VALUE) {
+                result.add(low);
+                result.add((int) Character.MAX_VALUE);
+            }
+            return result.stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+}
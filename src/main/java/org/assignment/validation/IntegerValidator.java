@@ -1,11 +1,19 @@
 package org.assignment.validation;
 
 public class IntegerValidator implements ObjectValidator {
+
+    // From this length, the Latin-1 copy pays for the checks of 8 digits at a time
+    private static final int SWAR_SCAN_LENGTH = 32;
+
     @Override
     public boolean validate(String s) {
         if (s.isEmpty() || s.startsWith("\"")) return false;
         int i = (s.charAt(0) == '-') ? 1 : 0;
         if (i == 1 && s.length() == 1) return false;
+        if (s.length() >= SWAR_SCAN_LENGTH) {
+            byte[] bytes = Swar.latin1(s);
+            return Swar.isDigits(bytes, i, bytes.length);
+        }
         for (; i < s.length(); i++) {
             char c = s.charAt(i);
             if (c < '0' || c > '9') return false;
@@ -105,7 +105,7 @@ public class ListValidator implements ObjectValidator {
      * Validates that a primitive item is valid in the context of being inside a list or object.
      * Enforces stricter rules than standalone validation.
      */
-    private static boolean validateAsPrimitiveInContext(String item) {
+    static boolean validateAsPrimitiveInContext(String item) {
         if (item.startsWith("\"") && item.endsWith("\"")) {
             item = item.substring(1, item.length() - 1);
             // Must be one of the String-based types defined in the table
@@ -3,12 +3,14 @@ package org.assignment.validation;
 import org.assignment.model.APIModelDTO;
 import org.assignment.model.APIModelParamDTO;
 import org.assignment.model.APIModelsDTO;
+import org.assignment.model.CustomTypeDTO;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.validation.Errors;
 import org.springframework.validation.Validator;
 
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -22,6 +24,7 @@ import java.util.Set;
 public class ModelSyntaxValidator implements Validator {
 
     public static final String API_MODELS_DTO_FIELD_NAME = "apiModelsDTO";
+    private static final String BODY_FIELD_NAME = "body";
     private static final Set<String> ALLOWED_METHODS = Set.of(
             "GET", "POST", "PUT", "DELETE", "PATCH", "HEAD", "OPTIONS"
     );
@@ -97,10 +100,73 @@ public class ModelSyntaxValidator implements Validator {
             }
         }
 
-        // 3. Validate Params
-        validateParams(model.getBody(), "body", index, errors);
-        validateParams(model.getHeaders(), "headers", index, errors);
-        validateParams(model.getQueryParams(), "queryParams", index, errors);
+        // 3. Validate Custom Types, compiled here once so a broken definition never reaches the detector
+        Set<String> customTypeNames = validateCustomTypes(model.getCustomTypes(), index, errors);
+
+        // 4. Validate Params
+        validateParams(model.getBody(), BODY_FIELD_NAME, index, customTypeNames, errors);
+        validateParams(model.getHeaders(), "headers", index, customTypeNames, errors);
+        validateParams(model.getQueryParams(), "queryParams", index, customTypeNames, errors);
+    }
+
+    /**
+     * Validates the custom types declared by a model by compiling them.
+     *
+     * @param customTypes the custom types of the model
+     * @param index       the index of the model in the list for error path formatting
+     * @param errors      contextual state about the validation process
+     * @return the names of the declared custom types, usable in the types of the model parameters
+     */
+    private Set<String> validateCustomTypes(List<CustomTypeDTO> customTypes, int index, Errors errors) {
+        Set<String> names = new HashSet<>();
+        if (customTypes == null) return names;
+
+        String customTypesPath = String.format("%s[%d].customTypes", API_MODELS_DTO_FIELD_NAME, index);
+        if (customTypes.size() > maxApiParam) {
+            errors.rejectValue(customTypesPath, "list.maxsize.exceeded",
+                    String.format("Model at index %d has too many custom types (max: %d)", index, maxApiParam));
+            return names;
+        }
+
+        for (int i = 0; i < customTypes.size(); i++) {
+            CustomTypeDTO customType = customTypes.get(i);
+            String typePath = String.format("%s[%d]", customTypesPath, i);
+            String name = customType != null ? customType.getName() : null;
+
+            if (!StringUtils.hasText(name)) {
+                errors.rejectValue(String.format("%s.name", typePath), "field.required",
+                        String.format("%s is missing 'name'", typePath));
+                continue;
+            }
+            if (name.length() > maxStringLength) {
+                errors.rejectValue(String.format("%s.name", typePath), "field.length",
+                        String.format("%s name exceeds maximum length of %d", typePath, maxStringLength));
+                continue;
+            }
+            if (ValueType.isSupportedType(name) || !names.add(name)) {
+                errors.rejectValue(String.format("%s.name", typePath), "field.duplicate",
+                        String.format("%s name '%s' is already defined", typePath, name));
+                continue;
+            }
+            // Security Check: bound the size of what gets compiled
+            if (customType.getPattern() != null && customType.getPattern().length() > maxStringLength) {
+                errors.rejectValue(String.format("%s.pattern", typePath), "field.length",
+                        String.format("%s pattern exceeds maximum length of %d", typePath, maxStringLength));
+                continue;
+            }
+            if (customType.getEnumValues() != null && customType.getEnumValues().size() > maxApiParam) {
+                errors.rejectValue(String.format("%s.enumValues", typePath), "list.maxsize.exceeded",
+                        String.format("%s has too many enum values (max: %d)", typePath, maxApiParam));
+                continue;
+            }
+            try {
+                CustomType.compile(customType);
+            } catch (IllegalArgumentException e) {
+                errors.rejectValue(typePath, "field.invalid",
+                        String.format("%s '%s' is invalid: %s", typePath, name, e.getMessage()));
+            }
+        }
+        return names;
     }
 
     /**
@@ -108,13 +174,17 @@ public class ModelSyntaxValidator implements Validator {
      *
      * @param params    the list of APIModelParamDTO to validate
      * @param fieldName the name of the field being validated (e.g., "body", "headers", "queryParams")
-     * @param index     the index of the model in the list for error path formatting
-     * @param errors    contextual state about the validation process
+     * @param index           the index of the model in the list for error path formatting
+     * @param customTypeNames the names of the custom types declared by the model
+     * @param errors          contextual state about the validation process
      */
-    private void validateParams(List<APIModelParamDTO> params, String fieldName, int index, Errors errors) {
+    private void validateParams(List<APIModelParamDTO> params, String fieldName, int index,
+                                Set<String> customTypeNames, Errors errors) {
         if (params == null) return;
 
         String modelFieldPath = String.format("%s[%d].%s", API_MODELS_DTO_FIELD_NAME, index, fieldName);
+        // Body parameters may be nested paths such as "user.address.zip" or "items[].sku"
+        boolean isBody = BODY_FIELD_NAME.equals(fieldName);
 
         if (params.size() > maxApiParam) {
             errors.rejectValue(modelFieldPath, "list.maxsize.exceeded",
@@ -131,8 +201,11 @@ public class ModelSyntaxValidator implements Validator {
             } else if (param.getName().length() > maxStringLength) {
                 errors.rejectValue(String.format("%s.name", paramPath), "field.length",
                         String.format("%s name exceeds maximum length of %d", paramPath, maxStringLength));
+            } else if (isBody && BodyPath.isNested(param.getName()) && BodyPath.parse(param.getName()) == null) {
+                errors.rejectValue(String.format("%s.name", paramPath), "field.invalid",
+                        String.format("%s name '%s' is not a valid body path", paramPath, param.getName()));
             }
-            validateTypes(param.getTypes(), paramPath, errors);
+            validateTypes(param.getTypes(), paramPath, customTypeNames, errors);
         }
     }
 
@@ -140,10 +213,11 @@ public class ModelSyntaxValidator implements Validator {
      * Validates the types of a single APIModelParamDTO.
      *
      * @param types     the list of types to validate
-     * @param paramPath the path of the parameter for error path formatting
-     * @param errors    contextual state about the validation process
+     * @param paramPath       the path of the parameter for error path formatting
+     * @param customTypeNames the names of the custom types declared by the model
+     * @param errors          contextual state about the validation process
      */
-    private void validateTypes(List<String> types, String paramPath, Errors errors) {
+    private void validateTypes(List<String> types, String paramPath, Set<String> customTypeNames, Errors errors) {
         String typesPath = String.format("%s.types", paramPath);
 
         if (types == null || types.isEmpty()) {
@@ -157,9 +231,9 @@ public class ModelSyntaxValidator implements Validator {
                     String.format("Parameter at %s has too many types (max: %d)", paramPath, maxApiParamType));
         }
 
-        // Whitelist Check: Ensure type exists in our supported ValueType Enum
+        // Whitelist Check: Ensure type exists in our supported ValueType Enum or is declared by the model
         for (String typeName : types) {
-            if (!ValueType.isSupportedType(typeName)) {
+            if (!ValueType.isSupportedType(typeName) && !customTypeNames.contains(typeName)) {
                 errors.rejectValue(typesPath, "type.unsupported",
                         String.format("Type '%s' at %s is not supported by the system", typeName, typesPath));
             }
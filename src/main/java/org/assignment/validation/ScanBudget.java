@@ -0,0 +1,36 @@
+package org.assignment.validation;
+
+/**
+ * The scan budget of a single request, shared by all of its values.
+ * <p>
+ * Not thread-safe: a budget is created per request and used by the thread validating it.
+ * </p>
+ */
+public class ScanBudget {
+
+    private long remaining;
+    private boolean exhausted;
+
+    public ScanBudget(long units) {
+        this.remaining = units;
+    }
+
+    public long getRemaining() {
+        return remaining;
+    }
+
+    public boolean isExhausted() {
+        return exhausted;
+    }
+
+    void charge(long units) {
+        remaining -= units;
+    }
+
+    ScanLimits.Violation exhaust() {
+        exhausted = true;
+        remaining = 0;
+        return ScanLimits.Violation.BUDGET_EXHAUSTED;
+    }
+
+}
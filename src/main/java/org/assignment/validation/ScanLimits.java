@@ -0,0 +1,206 @@
+package org.assignment.validation;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CPU budget guards applied before a value reaches the {@link TypeValidator}.
+ * <p>
+ * A single pathological value (a 100 KB string checked against Email, a list nested thousands of levels deep,
+ * a list with millions of elements) can keep a validator busy for a long time. This class measures values
+ * cheaply and with bounded work, so that values over a limit are reported without being fully scanned:
+ * - Max value length per {@link ValueType}: a value longer than the limit of every allowed type cannot match.
+ * - Max list depth and element count, for both parsed (List/Map) and string-encoded lists.
+ * - A total scan budget per request, shared by all values of the request ({@link ScanBudget}).
+ * </p>
+ */
+@Component
+public class ScanLimits {
+
+    /**
+     * The result of checking a single value against the limits.
+     */
+    public enum Violation {
+        NONE,
+        VALUE_TOO_LARGE,
+        LIST_TOO_DEEP,
+        LIST_TOO_LARGE,
+        BUDGET_EXHAUSTED
+    }
+
+    private final Map<String, Integer> maxLengthByType;
+    private final int maxListDepth;
+    private final int maxListElements;
+    private final long maxRequestScanUnits;
+
+    public ScanLimits(@Value("#{${app.detection-controller.limits.max-value-length}}") Map<String, Integer> maxLengthByType,
+                      @Value("${app.detection-controller.limits.max-list-depth}") int maxListDepth,
+                      @Value("${app.detection-controller.limits.max-list-elements}") int maxListElements,
+                      @Value("${app.detection-controller.limits.max-request-scan-units}") long maxRequestScanUnits) {
+        this.maxLengthByType = new HashMap<>(maxLengthByType);
+        this.maxListDepth = maxListDepth;
+        this.maxListElements = maxListElements;
+        this.maxRequestScanUnits = maxRequestScanUnits;
+    }
+
+    /**
+     * Creates the scan budget of a single request.
+     *
+     * @return A new {@link ScanBudget} holding the configured per-request budget.
+     */
+    public ScanBudget newBudget() {
+        return new ScanBudget(maxRequestScanUnits);
+    }
+
+    /**
+     * Checks a value against the configured limits and charges its scan cost to the request budget.
+     * <p>
+     * The cost of a string is its length, the cost of a parsed structure is its rendered size
+     * (leaf characters plus two per element). Measuring a structure stops as soon as any limit is crossed,
+     * so this method never does more work than the limits allow.
+     * </p>
+     *
+     * @param value            The value to check.
+     * @param allowedTypeNames The list of valid types from the API model.
+     * @param budget           The scan budget of the current request.
+     * @return {@link Violation#NONE} if the value may be validated, the violated limit otherwise.
+     *
+     * <p><strong>Performance Complexity:</strong> O(1) for scalar values, O(min(N, L)) for lists where N is the
+     * size of the list and L the tightest applicable limit.</p>
+     */
+    public Violation check(Object value, List<String> allowedTypeNames, ScanBudget budget) {
+        if (value == null) return Violation.NONE;
+
+        long maxLength = maxLengthOf(allowedTypeNames);
+        long remaining = budget.getRemaining();
+        Violation violation;
+        long cost;
+
+        if (value instanceof String) {
+            String s = (String) value;
+            cost = s.length();
+            if (cost > maxLength) return Violation.VALUE_TOO_LARGE;
+            if (cost > remaining) return budget.exhaust();
+            violation = allowsList(allowedTypeNames) ? checkEncodedList(s) : Violation.NONE;
+        } else if (value instanceof Collection || value instanceof Map) {
+            long[] measured = new long[1];
+            violation = checkStructure(value, Math.min(maxLength, remaining), measured);
+            cost = measured[0];
+            if (violation == Violation.NONE && cost > maxLength) return Violation.VALUE_TOO_LARGE;
+            if (violation == Violation.NONE && cost > remaining) return budget.exhaust();
+        } else {
+            // Numbers and booleans are small and cheap
+            cost = 1;
+            violation = Violation.NONE;
+        }
+
+        budget.charge(cost);
+        return violation;
+    }
+
+    /**
+     * Checks the size of a list walked element by element (nested body paths such as "items[].sku")
+     * and charges one scan unit per element to the request budget.
+     *
+     * @param elements The number of elements of the list.
+     * @param budget   The scan budget of the current request.
+     * @return {@link Violation#NONE} if the elements may be walked, the violated limit otherwise.
+     *
+     * <p><strong>Performance Complexity:</strong> O(1).</p>
+     */
+    public Violation checkElements(int elements, ScanBudget budget) {
+        if (elements > maxListElements) return Violation.LIST_TOO_LARGE;
+        if (elements > budget.getRemaining()) return budget.exhaust();
+        budget.charge(elements);
+        return Violation.NONE;
+    }
+
+    /**
+     * Returns the largest length any of the allowed types accepts.
+     */
+    private long maxLengthOf(List<String> allowedTypeNames) {
+        if (allowedTypeNames == null || allowedTypeNames.isEmpty()) return Long.MAX_VALUE;
+        long max = 0;
+        for (String typeName : allowedTypeNames) {
+            max = Math.max(max, maxLengthByType.getOrDefault(typeName, Integer.MAX_VALUE));
+        }
+        return max;
+    }
+
+    private static boolean allowsList(List<String> allowedTypeNames) {
+        return allowedTypeNames != null && allowedTypeNames.contains(ValueType.LIST.getTypeName());
+    }
+
+    /**
+     * Single pass over a string-encoded list to bound the work of {@link ListValidator}.
+     * Its BFS re-splits every nesting level, so its cost grows with length times depth.
+     */
+    private Violation checkEncodedList(String s) {
+        int depth = 0;
+        int elements = 0;
+        boolean inQuotes = false;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '\"') inQuotes = !inQuotes;
+            if (inQuotes) continue;
+            if (c == '[' || c == '{') {
+                if (++depth > maxListDepth) return Violation.LIST_TOO_DEEP;
+            } else if (c == ']' || c == '}') {
+                depth--;
+            } else if (c == ',') {
+                if (++elements > maxListElements) return Violation.LIST_TOO_LARGE;
+            }
+        }
+        return Violation.NONE;
+    }
+
+    /**
+     * Iterative walk over a parsed List/Map structure, stopping as soon as a limit is crossed.
+     *
+     * @param root     The List or Map to measure.
+     * @param maxCost  The cost above which measuring can stop.
+     * @param measured Output holder for the measured cost.
+     */
+    private Violation checkStructure(Object root, long maxCost, long[] measured) {
+        // Each frame is an iterator over the children of a container, its depth is the stack size
+        Deque<Iterator<?>> stack = new ArrayDeque<>();
+        stack.push(childrenOf(root));
+        long cost = 2;
+        int elements = 0;
+
+        while (!stack.isEmpty()) {
+            Iterator<?> it = stack.peek();
+            if (!it.hasNext()) {
+                stack.pop();
+                continue;
+            }
+            Object child = it.next();
+            if (++elements > maxListElements) return Violation.LIST_TOO_LARGE;
+            cost += 2;
+            if (child instanceof Collection || child instanceof Map) {
+                if (stack.size() + 1 > maxListDepth) return Violation.LIST_TOO_DEEP;
+                stack.push(childrenOf(child));
+            } else if (child instanceof String) {
+                cost += ((String) child).length();
+            } else {
+                cost++;
+            }
+            if (cost > maxCost) break;
+        }
+        measured[0] = cost;
+        return Violation.NONE;
+    }
+
+    private static Iterator<?> childrenOf(Object container) {
+        return container instanceof Map ? ((Map<?, ?>) container).values().iterator() : ((Collection<?>) container).iterator();
+    }
+
+}
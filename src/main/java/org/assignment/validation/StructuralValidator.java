@@ -0,0 +1,153 @@
+package org.assignment.validation;
+
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Validates values Jackson already parsed (List, Map, Number, Boolean) by walking them directly,
+ * instead of rendering them with {@code toString} and re-parsing the text.
+ * <p>
+ * The rules are those the string validators apply to the rendered value, so both paths agree on every
+ * well-formed value:
+ * - A List is a valid "List" when every leaf is a valid list element (see {@link ListValidator}).
+ * Map keys are not validated, Map values are walked like list elements.
+ * A Map renders as "{...}", so it is never a valid "List" on its own.
+ * - A List or Map is a valid "String" when no key or leaf holds a line break.
+ * - No other type accepts a List or Map.
+ * - Numbers and Booleans are checked against "Int", "Boolean" and "String" without rendering.
+ * The rendered path misparses string leaves containing delimiters (e.g. "a=b" inside a Map);
+ * walking the parsed value does not.
+ * </p>
+ */
+public final class StructuralValidator {
+
+    private StructuralValidator() {
+    }
+
+    /**
+     * Checks whether a value is validated natively by this class.
+     *
+     * @param value The parsed value.
+     * @return true for Collections, Maps, Numbers and Booleans.
+     */
+    public static boolean supports(Object value) {
+        return value instanceof Collection || value instanceof Map || value instanceof Number || value instanceof Boolean;
+    }
+
+    /**
+     * Validates a parsed value against a type.
+     *
+     * @param value The parsed value, see {@link #supports(Object)}.
+     * @param type  The type to check.
+     * @return true if the value matches the type.
+     *
+     * <p><strong>Performance Complexity:</strong> O(1) for scalars, O(N) for structures where N is the number of
+     * keys and leaves (string leaves are scanned once), without allocating any text.</p>
+     */
+    public static boolean isValid(Object value, ValueType type) {
+        if (value instanceof Boolean) {
+            return type == ValueType.BOOLEAN || type == ValueType.STRING;
+        }
+        if (value instanceof Number) {
+            return isValidNumber((Number) value, type);
+        }
+        if (type == ValueType.LIST) {
+            return value instanceof Collection && isValidList(value);
+        }
+        if (type == ValueType.STRING) {
+            return !containsLineBreak(value);
+        }
+        return false;
+    }
+
+    private static boolean isValidNumber(Number value, ValueType type) {
+        if (type == ValueType.STRING) return true;
+        if (type != ValueType.INT) {
+            // Digits and a '.', never a Boolean, List, Date, Email, UUID or Auth-Token
+            return false;
+        }
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte
+                || value instanceof BigInteger) {
+            return true;
+        }
+        if (value instanceof Double || value instanceof Float) {
+            // Always rendered with a '.' or an exponent
+            return false;
+        }
+        // BigDecimal and other Number types: rendering decides (e.g. "10" vs "1E+3")
+        return type.isValid(String.valueOf(value));
+    }
+
+    /**
+     * Iterative walk over the leaves of a List, see {@link ListValidator#validate(String)}.
+     */
+    private static boolean isValidList(Object root) {
+        Deque<Iterator<?>> stack = new ArrayDeque<>();
+        stack.push(childrenOf(root));
+        while (!stack.isEmpty()) {
+            Iterator<?> it = stack.peek();
+            if (!it.hasNext()) {
+                stack.pop();
+                continue;
+            }
+            Object child = it.next();
+            if (child instanceof Collection || child instanceof Map) {
+                stack.push(childrenOf(child));
+            } else if (child instanceof String) {
+                if (!ListValidator.validateAsPrimitiveInContext(((String) child).trim())) return false;
+            } else if (child != null && !(child instanceof Number) && !(child instanceof Boolean)) {
+                // Numbers, Booleans and nulls render as valid elements, anything else is checked as rendered
+                if (!ListValidator.validateAsPrimitiveInContext(String.valueOf(child).trim())) return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean containsLineBreak(Object root) {
+        Deque<Iterator<?>> stack = new ArrayDeque<>();
+        if (root instanceof Map && keysContainLineBreak((Map<?, ?>) root)) return true;
+        stack.push(childrenOf(root));
+        while (!stack.isEmpty()) {
+            Iterator<?> it = stack.peek();
+            if (!it.hasNext()) {
+                stack.pop();
+                continue;
+            }
+            Object child = it.next();
+            if (child instanceof Map) {
+                if (keysContainLineBreak((Map<?, ?>) child)) return true;
+                stack.push(childrenOf(child));
+            } else if (child instanceof Collection) {
+                stack.push(childrenOf(child));
+            } else if (child != null && !(child instanceof Number) && !(child instanceof Boolean)
+                    && containsLineBreak(String.valueOf(child))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean keysContainLineBreak(Map<?, ?> map) {
+        for (Object key : map.keySet()) {
+            if (key != null && containsLineBreak(String.valueOf(key))) return true;
+        }
+        return false;
+    }
+
+    private static boolean containsLineBreak(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '\n' || c == '\r') return true;
+        }
+        return false;
+    }
+
+    private static Iterator<?> childrenOf(Object container) {
+        return container instanceof Map ? ((Map<?, ?>) container).values().iterator() : ((Collection<?>) container).iterator();
+    }
+
+}
@@ -0,0 +1,96 @@
+package org.assignment.validation;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * SWAR (SIMD within a register) checks of 8 bytes at a time, for the validators scanning character classes.
+ * <p>
+ * Values are first copied to their Latin-1 bytes, a vectorized copy for the JDK's compact Latin-1 strings. Characters
+ * above U+00FF become '?', which is in none of the classes checked here (ASCII digits, hex digits), so the result is
+ * the one of a check of every character. Each check is exact: a word passes if and only if its 8 bytes are all in the
+ * class, so no byte-by-byte confirmation is needed.
+ * </p>
+ */
+final class Swar {
+
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final long ONES = 0x0101010101010101L;
+    private static final long HIGH_BITS = 0x8080808080808080L;
+    private static final long LOWER_CASE = 0x2020202020202020L;
+
+    private Swar() {
+    }
+
+    /**
+     * @param s The value.
+     * @return Its Latin-1 bytes, '?' for the characters above U+00FF.
+     */
+    static byte[] latin1(String s) {
+        return s.getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * @param bytes  The bytes.
+     * @param offset The offset of the word, at least 8 bytes before the end.
+     * @return The 8 bytes at offset, the first in the lowest byte.
+     */
+    static long word(byte[] bytes, int offset) {
+        return (long) LONGS.get(bytes, offset);
+    }
+
+    /**
+     * @param word 8 bytes.
+     * @return true if every byte is an ASCII digit.
+     *
+     * <p><strong>Performance Complexity:</strong> O(1), 5 arithmetic operations.</p>
+     */
+    static boolean isDigits(long word) {
+        // A byte sets its high bit in one of the terms if it is >= 0x80, >= '9' + 1 (adding 0x46) or < '0' (subtracting
+        // 0x30). Carries and borrows between bytes only come from a byte that already set its own high bit.
+        return ((word | (word + 0x4646464646464646L) | (word - 0x3030303030303030L)) & HIGH_BITS) == 0;
+    }
+
+    /**
+     * @param bytes The bytes.
+     * @param from  The first byte to check.
+     * @param to    The end of the range, exclusive.
+     * @return true if every byte of the range is an ASCII digit.
+     *
+     * <p><strong>Performance Complexity:</strong> O(N / 8) where N is the length of the range.</p>
+     */
+    static boolean isDigits(byte[] bytes, int from, int to) {
+        int i = from;
+        for (; i + Long.BYTES <= to; i += Long.BYTES) {
+            if (!isDigits(word(bytes, i))) return false;
+        }
+        for (; i < to; i++) {
+            if (bytes[i] < '0' || bytes[i] > '9') return false;
+        }
+        return true;
+    }
+
+    /**
+     * @param word 8 bytes.
+     * @return true if every byte is an ASCII hex digit, in either case.
+     *
+     * <p><strong>Performance Complexity:</strong> O(1), about 15 arithmetic operations.</p>
+     */
+    static boolean isHexDigits(long word) {
+        if ((word & HIGH_BITS) != 0) return false;
+        // All bytes below 0x80: the range checks below never carry between bytes
+        long digit = inRange(word, '0', '9');
+        long letter = inRange(word | LOWER_CASE, 'a', 'f');
+        return (digit | letter) == HIGH_BITS;
+    }
+
+    // The high bit of every byte in [low, high], for bytes below 0x80
+    private static long inRange(long word, int low, int high) {
+        long atLeastLow = word + (0x80 - low) * ONES;
+        long aboveHigh = word + (0x7F - high) * ONES;
+        return atLeastLow & ~aboveHigh & HIGH_BITS;
+    }
+
+}
@@ -0,0 +1,150 @@
+package org.assignment.validation;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * The order in which {@link TypeValidator} tries the allowed types of one model parameter, adapted to its traffic.
+ * <p>
+ * A value is valid when any allowed type matches, so the order never changes the result, only the number of checks
+ * run before the matching one. A parameter declared {@code ["List", "Email", "String"]} that almost always receives
+ * plain strings pays for a List and an Email check on every request in declaration order.
+ * </p>
+ * <p>
+ * One validation in 16 records, per type, whether it was tried and whether it matched. Every 256 recorded validations
+ * the types are sorted by expected cost: relative cost ({@link ValueType#getRelativeCost()}) divided by match rate,
+ * which for independent checks minimizes the cost of an OR evaluated in order. Match rates are smoothed (a type never
+ * tried counts as matching half the time) and the counters are halved at each replan, so the order follows changes in
+ * the traffic. Ties keep the declaration order.
+ * </p>
+ * The order is published as an immutable {@link Plan} through a volatile field: validations read one reference and
+ * never lock. Counters are atomics, updated only by the sampled validations; the halving may lose a concurrent
+ * increment, which only delays the next order by a sample.
+ */
+public final class TypeCheckOrder {
+
+    // Records one validation in SAMPLE_MASK + 1
+    private static final int SAMPLE_MASK = 15;
+    private static final int SAMPLES_PER_PLAN = 256;
+    // Custom types run an enum lookup, a range check or a DFA scan
+    private static final int CUSTOM_TYPE_COST = 3;
+
+    private final String[] declaredNames;
+    private final ValueType[] declaredTypes;
+    private final int[] costs;
+    private final AtomicIntegerArray attempts;
+    private final AtomicIntegerArray matches;
+    private final AtomicInteger samples = new AtomicInteger();
+    private volatile Plan plan;
+
+    /**
+     * @param allowedTypeNames The allowed types of the parameter, in declaration order.
+     */
+    public TypeCheckOrder(List<String> allowedTypeNames) {
+        int size = allowedTypeNames.size();
+        this.declaredNames = allowedTypeNames.toArray(new String[0]);
+        this.declaredTypes = new ValueType[size];
+        this.costs = new int[size];
+        int[] declarationOrder = new int[size];
+        for (int i = 0; i < size; i++) {
+            declaredTypes[i] = ValueType.get(declaredNames[i]);
+            costs[i] = declaredTypes[i] != null ? declaredTypes[i].getRelativeCost() : CUSTOM_TYPE_COST;
+            declarationOrder[i] = i;
+        }
+        this.attempts = new AtomicIntegerArray(size);
+        this.matches = new AtomicIntegerArray(size);
+        this.plan = new Plan(declarationOrder);
+    }
+
+    /**
+     * @return The current order of the type names.
+     */
+    public List<String> getOrder() {
+        Plan current = plan;
+        String[] names = new String[current.size()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = current.name(i);
+        }
+        return List.of(names);
+    }
+
+    Plan getPlan() {
+        return plan;
+    }
+
+    boolean shouldSample() {
+        return (ThreadLocalRandom.current().nextInt() & SAMPLE_MASK) == 0;
+    }
+
+    /**
+     * Records a sampled validation.
+     *
+     * @param plan     The plan the validation followed.
+     * @param last     The position in the plan of the last type tried.
+     * @param matched  Whether that type matched.
+     *
+     * <p><strong>Performance Complexity:</strong> O(T) atomic increments where T is the number of types tried,
+     * O(T log T) every 256 samples to compute the next plan.</p>
+     */
+    void record(Plan plan, int last, boolean matched) {
+        for (int i = 0; i <= last; i++) {
+            attempts.incrementAndGet(plan.declaredIndex[i]);
+        }
+        if (matched) {
+            matches.incrementAndGet(plan.declaredIndex[last]);
+        }
+        if (samples.incrementAndGet() % SAMPLES_PER_PLAN == 0) {
+            replan();
+        }
+    }
+
+    private void replan() {
+        int size = declaredNames.length;
+        double[] expectedCost = new double[size];
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            int tried = attempts.get(i);
+            int matched = matches.get(i);
+            expectedCost[i] = costs[i] * (tried + 2.0) / (matched + 1.0);
+            attempts.set(i, tried / 2);
+            matches.set(i, matched / 2);
+            order[i] = i;
+        }
+        // Stable, so ties keep the declaration order
+        Arrays.sort(order, Comparator.comparingDouble(i -> expectedCost[i]));
+        int[] declaredIndex = new int[size];
+        for (int i = 0; i < size; i++) {
+            declaredIndex[i] = order[i];
+        }
+        plan = new Plan(declaredIndex);
+    }
+
+    /**
+     * An immutable order of the types, by position.
+     */
+    final class Plan {
+        private final int[] declaredIndex;
+
+        private Plan(int[] declaredIndex) {
+            this.declaredIndex = declaredIndex;
+        }
+
+        int size() {
+            return declaredIndex.length;
+        }
+
+        String name(int position) {
+            return declaredNames[declaredIndex[position]];
+        }
+
+        // Null for a custom type
+        ValueType type(int position) {
+            return declaredTypes[declaredIndex[position]];
+        }
+    }
+
+}
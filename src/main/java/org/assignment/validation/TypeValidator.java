@@ -2,7 +2,9 @@ package org.assignment.validation;
 
 import org.springframework.stereotype.Component;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 /**
  * The core validation engine.
@@ -19,6 +21,21 @@ public class TypeValidator {
      * @return true if the value matches at least one type, false otherwise.
      */
     public boolean validate(Object value, List<String> allowedTypeNames) {
+        return validate(value, allowedTypeNames, Collections.emptyMap());
+    }
+
+    /**
+     * Determines if a value is valid against a list of allowed types, built-in or declared by the model.
+     *
+     * @param value            The value from the request.
+     * @param allowedTypeNames The list of valid types from the API model.
+     * @param customTypes      The compiled custom types of the model, by name.
+     * @return true if the value matches at least one type, false otherwise.
+     *
+     * <p><strong>Performance Complexity:</strong> O(T * N) where T is the number of allowed types and N the length
+     * of the value; custom types never backtrack (see {@link CustomType}).</p>
+     */
+    public boolean validate(Object value, List<String> allowedTypeNames, Map<String, CustomType> customTypes) {
         // If no types are defined, we consider it valid (no constraints).
         if (allowedTypeNames == null || allowedTypeNames.isEmpty()) {
             return true;
@@ -30,6 +47,17 @@ public class TypeValidator {
             return false;
         }
 
+        // Values Jackson already parsed are checked as they are, never rendered and re-parsed
+        if (StructuralValidator.supports(value)) {
+            for (String typeName : allowedTypeNames) {
+                ValueType strategy = ValueType.get(typeName);
+                if (strategy != null ? StructuralValidator.isValid(value, strategy) : matchesCustom(value, typeName, customTypes)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
         String strVal = String.valueOf(value);
 
         // Principal Engineer approach: Iterate and exit as soon as one type matches (OR logic).
@@ -37,7 +65,7 @@ public class TypeValidator {
             ValueType strategy = ValueType.get(typeName);
 
             // If the strategy exists and the value matches the specific format.
-            if (strategy != null && strategy.isValid(strVal)) {
+            if (strategy != null ? strategy.isValid(strVal) : matchesCustom(strVal, typeName, customTypes)) {
                 return true;
             }
         }
@@ -45,4 +73,48 @@ public class TypeValidator {
         return false;
     }
 
-}
\ No newline at end of file
+    /**
+     * Same as {@link #validate(Object, List, Map)}, trying the types in the adaptive order of the parameter.
+     * The result is the same in any order; the order only decides how many types are checked before the match.
+     *
+     * @param value       The value from the request.
+     * @param typeOrder   The type order of the parameter, holding its allowed types.
+     * @param customTypes The compiled custom types of the model, by name.
+     * @return true if the value matches at least one type, false otherwise.
+     *
+     * <p><strong>Performance Complexity:</strong> O(T * N) like {@link #validate(Object, List, Map)}, one volatile
+     * read for the order, plus O(T) atomic increments for one validation in 16.</p>
+     */
+    public boolean validate(Object value, TypeCheckOrder typeOrder, Map<String, CustomType> customTypes) {
+        if (value == null) {
+            return false;
+        }
+
+        boolean structural = StructuralValidator.supports(value);
+        Object checked = structural ? value : String.valueOf(value);
+        TypeCheckOrder.Plan plan = typeOrder.getPlan();
+        boolean sampled = typeOrder.shouldSample();
+        for (int i = 0; i < plan.size(); i++) {
+            if (matches(checked, structural, plan.type(i), plan.name(i), customTypes)) {
+                if (sampled) typeOrder.record(plan, i, true);
+                return true;
+            }
+        }
+        if (sampled) typeOrder.record(plan, plan.size() - 1, false);
+        return false;
+    }
+
+    private static boolean matches(Object value, boolean structural, ValueType strategy, String typeName,
+                                   Map<String, CustomType> customTypes) {
+        if (strategy == null) {
+            return matchesCustom(value, typeName, customTypes);
+        }
+        return structural ? StructuralValidator.isValid(value, strategy) : strategy.isValid((String) value);
+    }
+
+    private static boolean matchesCustom(Object value, String typeName, Map<String, CustomType> customTypes) {
+        CustomType customType = customTypes.get(typeName);
+        return customType != null && customType.matches(value);
+    }
+
+}
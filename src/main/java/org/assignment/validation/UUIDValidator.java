@@ -4,18 +4,44 @@ import java.util.regex.Pattern;
 
 public class UUIDValidator implements ObjectValidator {
 
+    // Not used for validation, the reference the word checks are tested and benchmarked against
     public static final Pattern UUID = Pattern.compile("^[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}$");
 
+    private static final int LENGTH = 36;
+    // Byte 4 of the words read at offsets 9, 14 and 19 holds the dashes at 13, 18 and 23
+    private static final long DASH_BYTE = 0xFFL << 32;
+    private static final long ZERO_AT_DASH = (long) '0' << 32;
+
     /**
-     * Validates if the given string is a valid email address enclosed in double quotes.
+     * Validates if the given string is a UUID in its canonical form (8-4-4-4-12 hex digits, in either case), the
+     * strings matched by {@link #UUID}.
+     * <p>
+     * The 32 hex digits are checked 8 at a time, in 6 overlapping words: 0, 9, 14, 19, 24 and 28. The words at 9, 14
+     * and 19 hold a dash, checked on its own and replaced by a '0' before the hex check.
+     * </p>
+     *
+     * @param s The value.
+     * @return true if the value is a UUID.
      *
-     * @param s
-     * @return
+     * <p><strong>Performance Complexity:</strong> O(1), 6 word checks instead of a regex match.</p>
      */
     @Override
     public boolean validate(String s) {
-        if (s.length() != 36) return false;
-        return UUID.matcher(s).matches();
+        if (s.length() != LENGTH) return false;
+        byte[] bytes = Swar.latin1(s);
+        // Shorter when the value holds a surrogate pair
+        if (bytes.length != LENGTH) return false;
+        if (bytes[8] != '-' || bytes[13] != '-' || bytes[18] != '-' || bytes[23] != '-') return false;
+        return Swar.isHexDigits(Swar.word(bytes, 0))
+                && Swar.isHexDigits(withoutDash(Swar.word(bytes, 9)))
+                && Swar.isHexDigits(withoutDash(Swar.word(bytes, 14)))
+                && Swar.isHexDigits(withoutDash(Swar.word(bytes, 19)))
+                && Swar.isHexDigits(Swar.word(bytes, 24))
+                && Swar.isHexDigits(Swar.word(bytes, 28));
+    }
+
+    private static long withoutDash(long word) {
+        return (word & ~DASH_BYTE) | ZERO_AT_DASH;
     }
 
-}
\ No newline at end of file
+}
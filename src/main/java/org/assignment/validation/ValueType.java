@@ -10,29 +10,43 @@ import java.util.stream.Collectors;
  * - Int & Boolean: No quotes.
  * - String & Subtypes (Date, Email, etc.): Mandatory quotes.
  * - List: BFS iterative validation.
+ * Each type has a relative cost, used to order the checks of a parameter allowing several types
+ * (see {@link TypeCheckOrder}).
  */
 public enum ValueType {
 
-    INT("Int", s -> new IntegerValidator().validate(s)),
-    STRING("String", s -> new StringValidator().validate(s)),
-    BOOLEAN("Boolean", s -> new BooleanValidator().validate(s)),
-    LIST("List", s -> new ListValidator().validate(s)),
-    DATE("Date", s -> new DateValidator().validate(s)),
-    EMAIL("Email", s -> new EmailValidator().validate(s)),
-    UUID("UUID", s -> new UUIDValidator().validate(s)),
-    AUTH_TOKEN("Auth-Token", s -> new AuthTokenValidator().validate(s));
+    // Relative costs: 1 for single scans (Date and UUID check fixed-size words, see Swar), 3-4 for regular
+    // expressions, 4 for List, which splits and queues every element
+    INT("Int", 1, s -> new IntegerValidator().validate(s)),
+    STRING("String", 1, s -> new StringValidator().validate(s)),
+    BOOLEAN("Boolean", 1, s -> new BooleanValidator().validate(s)),
+    LIST("List", 4, s -> new ListValidator().validate(s)),
+    DATE("Date", 1, s -> new DateValidator().validate(s)),
+    EMAIL("Email", 4, s -> new EmailValidator().validate(s)),
+    UUID("UUID", 1, s -> new UUIDValidator().validate(s)),
+    AUTH_TOKEN("Auth-Token", 3, s -> new AuthTokenValidator().validate(s));
 
     private static final Map<String, ValueType> LOOKUP = Arrays.stream(values())
             .collect(Collectors.toUnmodifiableMap(v -> v.typeName, v -> v));
 
     private final String typeName;
+    private final int relativeCost;
     private final Predicate<String> validator;
 
-    ValueType(String typeName, Predicate<String> validator) {
+    ValueType(String typeName, int relativeCost, Predicate<String> validator) {
         this.typeName = typeName;
+        this.relativeCost = relativeCost;
         this.validator = validator;
     }
 
+    public String getTypeName() {
+        return typeName;
+    }
+
+    public int getRelativeCost() {
+        return relativeCost;
+    }
+
     public boolean isValid(String value) {
         return value != null && validator.test(value);
     }
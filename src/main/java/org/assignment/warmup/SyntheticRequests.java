@@ -0,0 +1,182 @@
+package org.assignment.warmup;
+
+import org.assignment.model.APIModelDTO;
+import org.assignment.model.APIModelParamDTO;
+import org.assignment.model.CustomTypeDTO;
+import org.assignment.model.KeyValueObjectDTO;
+import org.assignment.model.KeyValueStringDTO;
+import org.assignment.model.RequestDTO;
+import org.assignment.validation.BodyPath;
+import org.assignment.validation.ValueType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Generates synthetic requests from an API model, used to warm up the detection path before serving traffic.
+ * <p>
+ * A valid request carries every parameter of the model with a sample value of its first type.
+ * An anomalous request breaks every other parameter with a value no type accepts and leaves the others out,
+ * so it goes through the type mismatch and missing parameter branches of the detector.
+ * Custom patterns are not sampled: their parameters get a plain string, which may or may not match.
+ * </p>
+ */
+public final class SyntheticRequests {
+
+    // Rejected by every built-in type: String rejects line breaks, the others reject letters
+    private static final String INVALID_VALUE = "warm\nup";
+    private static final String DEFAULT_VALUE = "warmup";
+
+    private static final Map<ValueType, String> SAMPLES = Map.of(
+            ValueType.INT, "42",
+            ValueType.STRING, "warmup",
+            ValueType.BOOLEAN, "true",
+            ValueType.LIST, "[1,2,3]",
+            ValueType.DATE, "12-01-2022",
+            ValueType.EMAIL, "warmup@example.org",
+            ValueType.UUID, "46da6390-7c78-4a1c-9efa-7c0396067ce4",
+            ValueType.AUTH_TOKEN, "Bearer warmup0123456789");
+
+    private SyntheticRequests() {
+    }
+
+    /**
+     * Generates a request matching the model.
+     *
+     * @param model The API model.
+     * @return A request every parameter of which matches its first allowed type (custom patterns aside).
+     *
+     * <p><strong>Performance Complexity:</strong> O(P) where P is the number of parameters of the model.</p>
+     */
+    public static RequestDTO valid(APIModelDTO model) {
+        return generate(model, false);
+    }
+
+    /**
+     * Generates a request breaking the model: every other parameter holds an invalid value, the rest are missing.
+     *
+     * @param model The API model.
+     * @return A request the detector reports anomalies for, as long as the model declares parameters.
+     *
+     * <p><strong>Performance Complexity:</strong> O(P) where P is the number of parameters of the model.</p>
+     */
+    public static RequestDTO anomalous(APIModelDTO model) {
+        return generate(model, true);
+    }
+
+    private static RequestDTO generate(APIModelDTO model, boolean anomalous) {
+        Map<String, CustomTypeDTO> customTypes = new LinkedHashMap<>();
+        if (model.getCustomTypes() != null) {
+            for (CustomTypeDTO customType : model.getCustomTypes()) {
+                customTypes.put(customType.getName(), customType);
+            }
+        }
+
+        RequestDTO request = new RequestDTO();
+        request.setMethod(model.getMethod());
+        request.setPath(model.getPath());
+        request.setQueryParams(stringParams(model.getQueryParams(), customTypes, anomalous));
+        request.setHeaders(stringParams(model.getHeaders(), customTypes, anomalous));
+        request.setBody(bodyParams(model.getBody(), customTypes, anomalous));
+        return request;
+    }
+
+    private static List<KeyValueStringDTO> stringParams(List<APIModelParamDTO> params, Map<String, CustomTypeDTO> customTypes,
+                                                        boolean anomalous) {
+        if (params == null) return Collections.emptyList();
+        List<KeyValueStringDTO> values = new ArrayList<>(params.size());
+        for (int i = 0; i < params.size(); i++) {
+            APIModelParamDTO param = params.get(i);
+            if (anomalous && i % 2 == 1) continue;
+            String value = anomalous ? INVALID_VALUE : String.valueOf(sample(param, customTypes, false));
+            values.add(new KeyValueStringDTO(param.getName(), value));
+        }
+        return values;
+    }
+
+    private static List<KeyValueObjectDTO> bodyParams(List<APIModelParamDTO> params, Map<String, CustomTypeDTO> customTypes,
+                                                      boolean anomalous) {
+        if (params == null) return Collections.emptyList();
+        // Nested paths ("user.address.zip", "items[].sku") are merged into one JSON structure per top-level field
+        Map<String, Object> body = new LinkedHashMap<>();
+        for (int i = 0; i < params.size(); i++) {
+            APIModelParamDTO param = params.get(i);
+            if (anomalous && i % 2 == 1) continue;
+            Object value = anomalous ? INVALID_VALUE : sample(param, customTypes, true);
+            List<String> tokens = BodyPath.isNested(param.getName())
+                    ? BodyPath.parse(param.getName())
+                    : List.of(param.getName());
+            if (tokens != null) {
+                put(body, tokens, 0, value);
+            }
+        }
+        List<KeyValueObjectDTO> values = new ArrayList<>(body.size());
+        body.forEach((name, value) -> values.add(new KeyValueObjectDTO(name, value)));
+        return values;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void put(Map<String, Object> node, List<String> tokens, int index, Object value) {
+        String field = tokens.get(index);
+        boolean elements = index + 1 < tokens.size() && BodyPath.ELEMENTS.equals(tokens.get(index + 1));
+        int next = elements ? index + 2 : index + 1;
+        if (next >= tokens.size()) {
+            node.put(field, elements ? List.of(value) : value);
+            return;
+        }
+
+        Map<String, Object> child;
+        if (elements) {
+            Object existing = node.get(field);
+            List<Object> list = existing instanceof List ? (List<Object>) existing : null;
+            if (list == null || list.isEmpty() || !(list.get(0) instanceof Map)) {
+                list = new ArrayList<>();
+                list.add(new LinkedHashMap<String, Object>());
+                node.put(field, list);
+            }
+            child = (Map<String, Object>) list.get(0);
+        } else {
+            Object existing = node.get(field);
+            if (!(existing instanceof Map)) {
+                existing = new LinkedHashMap<String, Object>();
+                node.put(field, existing);
+            }
+            child = (Map<String, Object>) existing;
+        }
+        put(child, tokens, next, value);
+    }
+
+    /**
+     * A value of the first type of the parameter, as a JSON-native value (number, boolean, list) in bodies.
+     */
+    private static Object sample(APIModelParamDTO param, Map<String, CustomTypeDTO> customTypes, boolean json) {
+        if (param.getTypes() == null || param.getTypes().isEmpty()) return DEFAULT_VALUE;
+        String typeName = param.getTypes().get(0);
+        ValueType type = ValueType.get(typeName);
+        if (type == null) return sampleCustom(customTypes.get(typeName), json);
+        if (json && type == ValueType.INT) return 42;
+        if (json && type == ValueType.BOOLEAN) return Boolean.TRUE;
+        if (json && type == ValueType.LIST) return List.of(1, 2, 3);
+        return SAMPLES.get(type);
+    }
+
+    private static Object sampleCustom(CustomTypeDTO customType, boolean json) {
+        if (customType == null) return DEFAULT_VALUE;
+        if (customType.getEnumValues() != null && !customType.getEnumValues().isEmpty()) {
+            return customType.getEnumValues().get(0);
+        }
+        if (customType.getIntRange() != null && !customType.getIntRange().isEmpty() && customType.getIntRange().get(0) != null) {
+            long min = customType.getIntRange().get(0);
+            return json ? (Object) min : String.valueOf(min);
+        }
+        int minLength = customType.getMinLength() != null ? Math.max(1, customType.getMinLength()) : DEFAULT_VALUE.length();
+        if (customType.getPattern() == null && minLength <= 4096) {
+            return "a".repeat(minLength);
+        }
+        return DEFAULT_VALUE;
+    }
+
+}
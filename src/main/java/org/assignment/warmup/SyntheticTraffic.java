@@ -0,0 +1,41 @@
+package org.assignment.warmup;
+
+import java.util.function.Supplier;
+
+/**
+ * Marks the detections running on the current thread as synthetic (warm-up traffic).
+ * <p>
+ * Synthetic detections go through the same code as real ones, but their anomalies are not real:
+ * they are neither shipped to the event pipeline nor counted in the anomaly statistics.
+ * </p>
+ */
+public final class SyntheticTraffic {
+
+    private static final ThreadLocal<Boolean> ACTIVE = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    private SyntheticTraffic() {
+    }
+
+    /**
+     * Runs an action with the current thread marked as synthetic.
+     *
+     * @param action The action sending synthetic detections.
+     * @return The result of the action.
+     */
+    public static <T> T run(Supplier<T> action) {
+        ACTIVE.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            ACTIVE.remove();
+        }
+    }
+
+    /**
+     * @return true if the current thread is sending synthetic detections.
+     */
+    public static boolean isActive() {
+        return ACTIVE.get();
+    }
+
+}
@@ -0,0 +1,303 @@
+package org.assignment.warmup;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.assignment.cluster.ClusterRouter;
+import org.assignment.controller.DetectionController;
+import org.assignment.metrics.StageTimer;
+import org.assignment.model.APIModelDTO;
+import org.assignment.model.AnomalyDTO;
+import org.assignment.model.RequestDTO;
+import org.assignment.model.WarmupStatsDTO;
+import org.assignment.repository.ModelRepository;
+import org.assignment.service.HotKeyTracker;
+import org.assignment.service.ModelCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Startup warm-up: runs synthetic detections through the detection path until the JIT compiled it,
+ * preloads the model cache with the hot endpoints of the previous run, and only then lets the application report ready.
+ * <p>
+ * Runs after the models are loaded ({@link org.assignment.service.ModelBootstrap}) and before the application is
+ * ready: Spring Boot keeps the readiness state at REFUSING_TRAFFIC until every runner returned, so the
+ * readiness probe ({@code /api/health/readiness}) fails for the whole warm-up.
+ * </p>
+ * <p>
+ * The synthetic requests ({@link SyntheticRequests}, valid and anomalous) are generated from the loaded models and
+ * serialized once. Every iteration binds one with the application {@link ObjectMapper}, hands it to the
+ * {@link DetectionController} (mapping, syntax validation, admission, cache, {@link org.assignment.service.AnomalyDetector})
+ * and serializes the response, which covers the code a real request runs, minus Tomcat.
+ * One iteration in {@value #BATCH_PERIOD} goes through the batch endpoint instead.
+ * Their anomalies are not reported ({@link SyntheticTraffic}). In cluster mode only the endpoints this node owns are used.
+ * </p>
+ * <p>
+ * The warm-up stops after the configured number of iterations or the configured duration, whichever comes first.
+ * The cache preload runs even when the synthetic detections are disabled.
+ * </p>
+ */
+@Slf4j
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class WarmupRunner implements ApplicationRunner {
+
+    /**
+     * The progress of the warm-up.
+     */
+    public enum State {
+        PENDING,
+        RUNNING,
+        DONE,
+        SKIPPED
+    }
+
+    // One iteration in BATCH_PERIOD sends a batch, so the batch endpoint is compiled as well
+    private static final int BATCH_PERIOD = 16;
+    private static final int MAX_BATCH_ENTRIES = 16;
+    private static final TypeReference<List<RequestDTO>> REQUEST_LIST = new TypeReference<List<RequestDTO>>() {
+    };
+
+    private final ModelRepository repository;
+    private final ModelCache modelCache;
+    private final HotKeyTracker hotKeyTracker;
+    private final DetectionController detectionController;
+    private final ClusterRouter clusterRouter;
+    private final StageTimer stageTimer;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final long iterations;
+    private final long maxDurationNanos;
+    private final int maxModels;
+    private final int maxPreloadEndpoints;
+    private final int maxBatchEntries;
+
+    private volatile WarmupStatsDTO stats = WarmupStatsDTO.builder().state(State.PENDING.name()).build();
+
+    public WarmupRunner(ModelRepository repository, ModelCache modelCache, HotKeyTracker hotKeyTracker,
+                        DetectionController detectionController,
+                        ClusterRouter clusterRouter, StageTimer stageTimer, ObjectMapper objectMapper,
+                        ApplicationEventPublisher eventPublisher,
+                        @Value("${app.warmup.enabled}") boolean enabled,
+                        @Value("${app.warmup.iterations}") long iterations,
+                        @Value("${app.warmup.max-duration-millis}") long maxDurationMillis,
+                        @Value("${app.warmup.max-models}") int maxModels,
+                        @Value("${app.warmup.max-preload-endpoints}") int maxPreloadEndpoints,
+                        @Value("${app.detection-controller.max-batch-size}") int maxBatchSize) {
+        this.repository = repository;
+        this.modelCache = modelCache;
+        this.hotKeyTracker = hotKeyTracker;
+        this.detectionController = detectionController;
+        this.clusterRouter = clusterRouter;
+        this.stageTimer = stageTimer;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.iterations = iterations;
+        this.maxDurationNanos = TimeUnit.MILLISECONDS.toNanos(maxDurationMillis);
+        this.maxModels = maxModels;
+        this.maxPreloadEndpoints = maxPreloadEndpoints;
+        this.maxBatchEntries = Math.min(MAX_BATCH_ENTRIES, maxBatchSize);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        warmUp();
+    }
+
+    /**
+     * Runs the warm-up, holding the readiness state at REFUSING_TRAFFIC until it is done.
+     *
+     * @return The outcome of the warm-up, also returned by {@link #getStats()}.
+     *
+     * <p><strong>Performance Complexity:</strong> O(I) detections for I iterations (bounded by the configured duration),
+     * plus O(M) to generate the requests of M models and one cache multi-get per tenant.</p>
+     */
+    public WarmupStatsDTO warmUp() {
+        AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.REFUSING_TRAFFIC);
+        try {
+            stats = doWarmUp();
+            return stats;
+        } finally {
+            AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.ACCEPTING_TRAFFIC);
+        }
+    }
+
+    public WarmupStatsDTO getStats() {
+        return stats;
+    }
+
+    private WarmupStatsDTO doWarmUp() {
+        long start = System.nanoTime();
+        Map<String, List<String>> endpoints = new LinkedHashMap<>();
+        List<Sample> samples = enabled ? generateSamples(endpoints) : List.of();
+        Counters counters = new Counters();
+        if (samples.isEmpty()) {
+            log.info("Warm-up skipped: {}", enabled ? "no model loaded" : "disabled");
+        } else {
+            stats = WarmupStatsDTO.builder().state(State.RUNNING.name()).models(samples.size()).build();
+            log.info("Warm-up: up to {} iterations or {} ms over {} models", iterations,
+                    TimeUnit.NANOSECONDS.toMillis(maxDurationNanos), samples.size());
+            counters = SyntheticTraffic.run(() -> detect(samples, start + maxDurationNanos));
+            // Traffic starts from clean stage histograms
+            stageTimer.clearRequest();
+            stageTimer.reset();
+        }
+
+        // Last, so the preloaded entries are the freshest in the cache when traffic arrives
+        int preloaded = preload(endpoints);
+
+        WarmupStatsDTO result = WarmupStatsDTO.builder()
+                .state(samples.isEmpty() ? State.SKIPPED.name() : State.DONE.name())
+                .models(samples.size())
+                .detections(counters.detections)
+                .anomalies(counters.anomalies)
+                .errors(counters.errors)
+                .preloadedEndpoints(preloaded)
+                .elapsedMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))
+                .build();
+        log.info("Warm-up done: {}", result);
+        return result;
+    }
+
+    /**
+     * Serializes a valid and an anomalous request per model, and collects the endpoints of every tenant.
+     */
+    private List<Sample> generateSamples(Map<String, List<String>> endpoints) {
+        List<Sample> samples = new ArrayList<>();
+        for (String tenantId : new TreeSet<>(repository.findAllTenants())) {
+            List<Sample> tenantSamples = new ArrayList<>();
+            for (Map.Entry<String, APIModelDTO> entry : repository.findAllByTenant(tenantId).entrySet()) {
+                if (samples.size() + tenantSamples.size() >= maxModels) break;
+                String key = entry.getKey();
+                if (clusterRouter.isEnabled() && !clusterRouter.isLocal(clusterRouter.ownersOf(tenantId, key))) continue;
+                try {
+                    tenantSamples.add(new Sample(tenantId,
+                            objectMapper.writeValueAsBytes(SyntheticRequests.valid(entry.getValue())),
+                            objectMapper.writeValueAsBytes(SyntheticRequests.anomalous(entry.getValue()))));
+                } catch (IOException e) {
+                    log.warn("Cannot generate warm-up requests for {}: {}", key, e.getMessage());
+                    continue;
+                }
+                endpoints.computeIfAbsent(tenantId, t -> new ArrayList<>()).add(key);
+            }
+            setBatch(tenantSamples);
+            samples.addAll(tenantSamples);
+        }
+        return samples;
+    }
+
+    /**
+     * Builds the batch request of a tenant: valid and anomalous requests of its first models, shared by its samples.
+     */
+    private void setBatch(List<Sample> tenantSamples) {
+        if (tenantSamples.isEmpty()) return;
+        List<RequestDTO> entries = new ArrayList<>(maxBatchEntries);
+        try {
+            for (int i = 0; entries.size() < maxBatchEntries && i < 2 * tenantSamples.size(); i++) {
+                Sample sample = tenantSamples.get((i >>> 1) % tenantSamples.size());
+                entries.add(objectMapper.readValue((i & 1) == 0 ? sample.valid : sample.anomalous, RequestDTO.class));
+            }
+            byte[] batch = objectMapper.writeValueAsBytes(entries);
+            for (Sample sample : tenantSamples) {
+                sample.batch = batch;
+            }
+        } catch (IOException e) {
+            log.warn("Cannot generate the warm-up batch: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Sends the synthetic requests round robin, alternating valid and anomalous ones.
+     */
+    private Counters detect(List<Sample> samples, long deadline) {
+        Counters counters = new Counters();
+        for (long i = 0; i < iterations && System.nanoTime() < deadline; i++) {
+            Sample sample = samples.get((int) ((i >>> 1) % samples.size()));
+            try {
+                if (i % BATCH_PERIOD == BATCH_PERIOD - 1 && sample.batch != null) {
+                    List<RequestDTO> requests = objectMapper.readValue(sample.batch, REQUEST_LIST);
+                    ResponseEntity<List<List<AnomalyDTO>>> response = detectionController.validateDetections(requests, sample.tenantId);
+                    objectMapper.writeValueAsBytes(response.getBody());
+                    counters.detections += requests.size();
+                    for (List<AnomalyDTO> anomalies : response.getBody()) {
+                        counters.anomalies += anomalies.size();
+                    }
+                } else {
+                    RequestDTO request = objectMapper.readValue((i & 1) == 0 ? sample.valid : sample.anomalous, RequestDTO.class);
+                    ResponseEntity<List<AnomalyDTO>> response = detectionController.validateDetection(request, sample.tenantId);
+                    objectMapper.writeValueAsBytes(response.getBody());
+                    counters.detections++;
+                    counters.anomalies += response.getBody().size();
+                }
+            } catch (IOException | RuntimeException e) {
+                // A model the generator cannot satisfy must not stop the warm-up
+                if (counters.errors++ == 0) {
+                    log.debug("Warm-up detection failed: {}", e.getMessage());
+                }
+            }
+        }
+        return counters;
+    }
+
+    /**
+     * Loads the hot endpoints saved by the previous run into the model cache ({@link HotKeyTracker}).
+     * Without saved hot endpoints, the first warmed-up endpoints of every tenant are preloaded, up to the configured limit.
+     */
+    private int preload(Map<String, List<String>> endpoints) {
+        int preloaded = hotKeyTracker.preload();
+        if (preloaded > 0) return preloaded;
+
+        for (Map.Entry<String, List<String>> entry : endpoints.entrySet()) {
+            List<String> keys = entry.getValue().subList(0, Math.min(maxPreloadEndpoints, entry.getValue().size()));
+            try {
+                modelCache.getAll(entry.getKey(), keys);
+                preloaded += keys.size();
+            } catch (ExecutionException e) {
+                log.warn("Cannot preload the models of tenant {}: {}", entry.getKey(), e.getMessage());
+            }
+        }
+        return preloaded;
+    }
+
+    /**
+     * The serialized synthetic requests of one model.
+     */
+    private static final class Sample {
+        private final String tenantId;
+        private final byte[] valid;
+        private final byte[] anomalous;
+        private byte[] batch;
+
+        private Sample(String tenantId, byte[] valid, byte[] anomalous) {
+            this.tenantId = tenantId;
+            this.valid = valid;
+            this.anomalous = anomalous;
+        }
+    }
+
+    private static final class Counters {
+        private long detections;
+        private long anomalies;
+        private long errors;
+    }
+
+}
@@ -40,10 +40,9 @@ class APIAnomalyDTODetectorTest {
         ClassPathResource resource = new ClassPathResource("api-models/model_list.json");
         String modelsJson = Files.readString(resource.getFile().toPath());
 
-        mockMvc.perform(post("/api/models")
+        IngestionJobs.awaitSuccess(mockMvc, mockMvc.perform(post("/api/models")
                         .contentType(MediaType.APPLICATION_JSON)
-                        .content(modelsJson))
-                .andExpect(status().isOk());
+                        .content(modelsJson)));
     }
 
     @Test
@@ -84,7 +83,10 @@ class APIAnomalyDTODetectorTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(unknownPath)))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].type").value("UNKNOWN_ENDPOINT"));
+                .andExpect(jsonPath("$[0].type").value("UNKNOWN_ENDPOINT"))
+                // Written from pre-encoded bytes, with a known length
+                .andExpect(header().longValue("Content-Length", 82))
+                .andExpect(content().string("[{\"type\":\"UNKNOWN_ENDPOINT\",\"description\":\"Endpoint not found in learned models\"}]"));
 
         // Scenario 2: Missing Required Field (Body)
         RequestDTO missingPass = new RequestDTO();
@@ -150,6 +152,103 @@ class APIAnomalyDTODetectorTest {
                 .andExpect(status().isPayloadTooLarge());
     }
 
+    @Test
+    void testTenantNamespaces() throws Exception {
+        // Models pushed for team-a only exist in team-a's namespace
+        IngestionJobs.awaitSuccess(mockMvc, mockMvc.perform(post("/api/models")
+                        .header("X-Tenant-ID", "team-a")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"method\": \"GET\", \"path\": \"/api/team-a-only\"}]")));
+
+        RequestDTO teamARequest = new RequestDTO();
+        teamARequest.setMethod("GET");
+        teamARequest.setPath("/api/team-a-only");
+
+        mockMvc.perform(post("/api/detection/validate")
+                        .header("X-Tenant-ID", "team-a")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(teamARequest)))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[]"));
+
+        mockMvc.perform(post("/api/detection/validate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(teamARequest)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].type").value("UNKNOWN_ENDPOINT"));
+
+        // Malformed tenant IDs are rejected
+        mockMvc.perform(post("/api/detection/validate")
+                        .header("X-Tenant-ID", "../etc")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(teamARequest)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value("ERROR-4003"));
+    }
+
+    @Test
+    void testBatchDetection() throws Exception {
+        RequestDTO validLogin = new RequestDTO();
+        validLogin.setMethod("POST");
+        validLogin.setPath("/api/login");
+        validLogin.setBody(List.of(
+                new KeyValueObjectDTO("username", "john_doe"),
+                new KeyValueObjectDTO("password", "secret123"),
+                new KeyValueObjectDTO("is_admin", "true")
+        ));
+
+        RequestDTO unknownPath = new RequestDTO();
+        unknownPath.setMethod("DELETE");
+        unknownPath.setPath("/api/unknown");
+
+        // One result per entry, in the order of the entries
+        mockMvc.perform(post("/api/detection/validate/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(validLogin, unknownPath, validLogin))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0]").isEmpty())
+                .andExpect(jsonPath("$[1][0].type").value("UNKNOWN_ENDPOINT"))
+                .andExpect(jsonPath("$[2]").isEmpty())
+                .andExpect(content().string("[[],[{\"type\":\"UNKNOWN_ENDPOINT\",\"description\":\"Endpoint not found in learned models\"}],[]]"));
+    }
+
+    @Test
+    void testCustomTypes() throws Exception {
+        IngestionJobs.awaitSuccess(mockMvc, mockMvc.perform(post("/api/models")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"method\": \"POST\", \"path\": \"/api/orders\","
+                                + " \"custom_types\": [{\"name\": \"OrderStatus\", \"enum\": [\"NEW\", \"PAID\"]},"
+                                + " {\"name\": \"Sku\", \"pattern\": \"[A-Z]{3}-\\\\d{4}\"},"
+                                + " {\"name\": \"Quantity\", \"intRange\": [1, 100]}],"
+                                + " \"body\": [{\"name\": \"status\", \"types\": [\"OrderStatus\"], \"required\": true},"
+                                + " {\"name\": \"sku\", \"types\": [\"Sku\"], \"required\": true},"
+                                + " {\"name\": \"quantity\", \"types\": [\"Quantity\"], \"required\": true}]}]")));
+
+        RequestDTO order = new RequestDTO();
+        order.setMethod("POST");
+        order.setPath("/api/orders");
+        order.setBody(List.of(
+                new KeyValueObjectDTO("status", "PAID"),
+                new KeyValueObjectDTO("sku", "ABC-1234"),
+                new KeyValueObjectDTO("quantity", 3)
+        ));
+        sendAndExpectValid(order);
+
+        order.setBody(List.of(
+                new KeyValueObjectDTO("status", "SHIPPED"),
+                new KeyValueObjectDTO("sku", "ABC-1234"),
+                new KeyValueObjectDTO("quantity", 101)
+        ));
+        mockMvc.perform(post("/api/detection/validate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(order)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].type").value("TYPE_MISMATCH_BODY"))
+                .andExpect(jsonPath("$[1].type").value("TYPE_MISMATCH_BODY"));
+    }
+
     private void sendAndExpectValid(RequestDTO detection) throws Exception {
         mockMvc.perform(post("/api/detection/validate")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -0,0 +1,72 @@
+package org.assignment;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.assignment.service.ModelIngestionLane;
+import org.assignment.service.TenantResolver;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Waits for the ingestion jobs queued by POST /api/models in MockMvc tests.
+ */
+public final class IngestionJobs {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final long TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    private IngestionJobs() {
+    }
+
+    /**
+     * Polls the job of an accepted POST /api/models, with its tenant, until it finishes.
+     *
+     * @param mockMvc   The MockMvc the models were posted with.
+     * @param submitted The result of the POST, expected to be 202 Accepted.
+     * @return The last poll, with the final status of the job in its JSON body.
+     */
+    public static ResultActions await(MockMvc mockMvc, ResultActions submitted) throws Exception {
+        MvcResult accepted = submitted.andExpect(status().isAccepted()).andReturn();
+        String location = accepted.getResponse().getHeader(HttpHeaders.LOCATION);
+        String tenantHeader = ((MockHttpServletRequest) accepted.getRequest()).getHeader(TenantResolver.TENANT_HEADER);
+
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (true) {
+            MockHttpServletRequestBuilder poll = get(location).accept(MediaType.APPLICATION_JSON);
+            if (tenantHeader != null) {
+                poll.header(TenantResolver.TENANT_HEADER, tenantHeader);
+            }
+            ResultActions result = mockMvc.perform(poll).andExpect(status().isOk());
+            String jobStatus = MAPPER.readTree(result.andReturn().getResponse().getContentAsByteArray()).get("status").asText();
+            if (!jobStatus.equals(ModelIngestionLane.Status.QUEUED.name()) && !jobStatus.equals(ModelIngestionLane.Status.RUNNING.name())) {
+                return result;
+            }
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("Ingestion job " + location + " still " + jobStatus);
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    /**
+     * Like {@link #await}, expecting the job to succeed.
+     *
+     * @param mockMvc   The MockMvc the models were posted with.
+     * @param submitted The result of the POST, expected to be 202 Accepted.
+     * @return The last poll.
+     */
+    public static ResultActions awaitSuccess(MockMvc mockMvc, ResultActions submitted) throws Exception {
+        return await(mockMvc, submitted).andExpect(jsonPath("$.status").value(ModelIngestionLane.Status.SUCCEEDED.name()));
+    }
+
+}
@@ -0,0 +1,33 @@
+package org.assignment;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests of the offline replay entry point: the components of a server are off whatever the environment says.
+ */
+class ReplayApplicationTest {
+
+    @Test
+    @DisplayName("Hot keys, warm-up, log tailing and the binary protocol are off unless the command line turns them on")
+    void testServerComponentsOff() {
+        // Ranks like an environment variable, above application.properties
+        System.setProperty("app.binary-protocol.enabled", "true");
+        try (ConfigurableApplicationContext context = ReplayApplication.application()
+                .run("--app.warmup.enabled=true", "--app.warmup.max-duration-millis=1")) {
+            Environment environment = context.getEnvironment();
+            assertEquals(Boolean.FALSE, environment.getProperty("app.binary-protocol.enabled", Boolean.class));
+            assertEquals(Boolean.FALSE, environment.getProperty("app.log-tail.enabled", Boolean.class));
+            assertEquals(Boolean.FALSE, environment.getProperty("app.detection-controller.hot-keys.enabled", Boolean.class));
+            assertTrue(environment.getProperty("app.warmup.enabled", Boolean.class));
+        } finally {
+            System.clearProperty("app.binary-protocol.enabled");
+        }
+    }
+
+}
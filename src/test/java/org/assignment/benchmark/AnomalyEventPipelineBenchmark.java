@@ -0,0 +1,101 @@
+package org.assignment.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.assignment.events.AnomalyEventPipeline;
+import org.assignment.events.NdjsonFileSink;
+import org.assignment.metrics.LatencyHistogram;
+import org.assignment.model.AnomalyDTO;
+import org.assignment.model.AnomalyEventDTO;
+import org.assignment.model.AnomalyEventStatsDTO;
+import org.assignment.model.DetectionDTO;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Consumer;
+
+/**
+ * Cost added to the request path by shipping the anomalies: not shipped at all, published to the
+ * {@link AnomalyEventPipeline} (NDJSON file sink written by the batcher), or written inline to the same sink
+ * by the request thread, as a naive implementation in the controller would do.
+ * <p>
+ * Run with: {@code <requests per thread> <threads>}. Prints the mean, p99 and max time per request.
+ * </p>
+ */
+public class AnomalyEventPipelineBenchmark {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    public static void main(String[] args) throws Exception {
+        int requests = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        DetectionDTO detection = new DetectionDTO("POST", "/api/login", null, null, null);
+        List<AnomalyDTO> anomalies = List.of(
+                AnomalyDTO.builder().type("TYPE_MISMATCH").description("Parameter 'password' has an invalid type").build(),
+                AnomalyDTO.builder().type("MISSING_REQUIRED").description("Missing required parameter 'username'").build());
+        Path dir = Files.createTempDirectory("anomaly-events");
+
+        // Warm-up of every variant before measuring
+        for (int round = 0; round < 2; round++) {
+            boolean print = round == 1;
+            run("not shipped", threads, requests, print, tenant -> {
+            });
+
+            AnomalyEventPipeline pipeline = new AnomalyEventPipeline(
+                    new NdjsonFileSink(MAPPER, dir.resolve("pipeline.ndjson"), 100L << 20, 2),
+                    65536, AnomalyEventPipeline.OverflowPolicy.DROP_NEWEST, 0, 1000, 10);
+            run("pipeline (async)", threads, requests, print, tenant -> pipeline.publish(tenant, detection, anomalies));
+            pipeline.close();
+            AnomalyEventStatsDTO stats = pipeline.getStats();
+            if (print) {
+                System.out.printf("%-20s written=%,d dropped=%,d batches=%,d%n", "",
+                        stats.getWritten(), stats.getDroppedOverflow(), stats.getBatches());
+            }
+
+            NdjsonFileSink inlineSink = new NdjsonFileSink(MAPPER, dir.resolve("inline.ndjson"), 100L << 20, 2);
+            run("inline sink write", threads, requests, print, tenant -> {
+                List<AnomalyEventDTO> events = new ArrayList<>(anomalies.size());
+                for (AnomalyDTO anomaly : anomalies) {
+                    events.add(AnomalyEventDTO.builder().timestamp(System.currentTimeMillis()).tenantId(tenant)
+                            .method(detection.getMethod()).path(detection.getPath())
+                            .type(anomaly.getType()).description(anomaly.getDescription()).build());
+                }
+                try {
+                    synchronized (inlineSink) {
+                        inlineSink.write(events);
+                    }
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            inlineSink.close();
+        }
+    }
+
+    private static void run(String label, int threads, int requests, boolean print, Consumer<String> ship) throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        CountDownLatch done = new CountDownLatch(threads);
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            String tenant = "tenant-" + t;
+            new Thread(() -> {
+                for (int i = 0; i < requests; i++) {
+                    long requestStart = System.nanoTime();
+                    ship.accept(tenant);
+                    histogram.record(System.nanoTime() - requestStart);
+                }
+                done.countDown();
+            }).start();
+        }
+        done.await();
+        long elapsed = System.nanoTime() - start;
+        if (print) {
+            System.out.printf("%-20s mean=%,8.0f ns p99<=%,10d ns max=%,12d ns throughput=%,12.0f req/s%n", label,
+                    (double) histogram.getTotalNanos() / histogram.getCount(), histogram.getPercentileNanos(0.99),
+                    histogram.getMaxNanos(), histogram.getCount() * 1e9 / elapsed);
+        }
+    }
+
+}
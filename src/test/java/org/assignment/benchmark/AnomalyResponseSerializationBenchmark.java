@@ -0,0 +1,163 @@
+package org.assignment.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.assignment.controller.AnomalyListHttpMessageConverter;
+import org.assignment.model.AnomalyDTO;
+import org.assignment.service.DetectionService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.GenericHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Serialization cost per detection response: the Jackson message converter (data binding) against
+ * {@link AnomalyListHttpMessageConverter}, through the same {@code HttpMessageConverter} entry point Spring MVC uses
+ * (which includes setting the response headers), then for the body alone: {@code ObjectMapper} against
+ * {@link AnomalyListHttpMessageConverter#writeTo}.
+ * <p>
+ * Run with: {@code <iterations>}. Prints the average time and allocated bytes per response.
+ * </p>
+ */
+public class AnomalyResponseSerializationBenchmark {
+
+    private static final Type ANOMALIES = new TypeReference<List<AnomalyDTO>>() {
+    }.getType();
+    private static final Type BATCH = new TypeReference<List<List<AnomalyDTO>>>() {
+    }.getType();
+
+    public static void main(String[] args) throws IOException {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        ObjectMapper objectMapper = new ObjectMapper();
+        MappingJackson2HttpMessageConverter jackson = new MappingJackson2HttpMessageConverter(objectMapper);
+        AnomalyListHttpMessageConverter direct = new AnomalyListHttpMessageConverter(objectMapper.getFactory());
+
+        List<AnomalyDTO> detected = List.of(
+                new AnomalyDTO("TYPE_MISMATCH", "Param 'id' value does not match any of the types [Int]", "id"),
+                new AnomalyDTO("MISSING_REQUIRED", "Required param 'Authorization' is missing", "Authorization"),
+                new AnomalyDTO("UNKNOWN_PARAM", "Param 'debug' is not part of the model", "debug"));
+        List<List<AnomalyDTO>> batch = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            batch.add(i % 8 == 3 ? detected : i % 8 == 5 ? DetectionService.UNKNOWN_ENDPOINT_RESULT : List.of());
+        }
+
+        for (Case c : Arrays.asList(
+                new Case("[] (no anomaly)", List.of(), ANOMALIES, iterations),
+                new Case("UNKNOWN_ENDPOINT", DetectionService.UNKNOWN_ENDPOINT_RESULT, ANOMALIES, iterations),
+                new Case("3 anomalies", detected, ANOMALIES, iterations),
+                new Case("batch of 16", batch, BATCH, iterations / 8))) {
+            // Warm-up
+            run(jackson, c);
+            run(direct, c);
+            Result before = run(jackson, c);
+            Result after = run(direct, c);
+            System.out.printf("converter %-18s jackson=%7.1f ns %6d B/op   direct=%7.1f ns %6d B/op   (%d bytes)%n",
+                    c.label, before.nanos, before.bytes, after.nanos, after.bytes, after.length);
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(4096);
+        for (Case c : Arrays.asList(
+                new Case("[] (no anomaly)", List.of(), ANOMALIES, iterations),
+                new Case("UNKNOWN_ENDPOINT", DetectionService.UNKNOWN_ENDPOINT_RESULT, ANOMALIES, iterations),
+                new Case("3 anomalies", detected, ANOMALIES, iterations),
+                new Case("batch of 16", batch, BATCH, iterations / 8))) {
+            BodyWriter mapper = value -> objectMapper.writerFor(objectMapper.constructType(c.type)).writeValue(out, value);
+            BodyWriter streaming = value -> direct.writeTo(value, out);
+            run(mapper, out, c);
+            run(streaming, out, c);
+            Result before = run(mapper, out, c);
+            Result after = run(streaming, out, c);
+            System.out.printf("body      %-18s jackson=%7.1f ns %6d B/op   direct=%7.1f ns %6d B/op%n",
+                    c.label, before.nanos, before.bytes, after.nanos, after.bytes);
+        }
+    }
+
+    private interface BodyWriter {
+        void write(Object value) throws IOException;
+    }
+
+    private static Result run(BodyWriter writer, ByteArrayOutputStream out, Case c) throws IOException {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocated = threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+        long start = System.nanoTime();
+        for (int i = 0; i < c.iterations; i++) {
+            out.reset();
+            writer.write(c.value);
+        }
+        long nanos = System.nanoTime() - start;
+        allocated = threads.getThreadAllocatedBytes(Thread.currentThread().getId()) - allocated;
+        return new Result(nanos / (double) c.iterations, allocated / c.iterations, out.size());
+    }
+
+    private static Result run(GenericHttpMessageConverter<Object> converter, Case c) throws IOException {
+        ReusableOutputMessage message = new ReusableOutputMessage();
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocated = threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+        long start = System.nanoTime();
+        for (int i = 0; i < c.iterations; i++) {
+            message.reset();
+            converter.write(c.value, c.type, MediaType.APPLICATION_JSON, message);
+        }
+        long nanos = System.nanoTime() - start;
+        allocated = threads.getThreadAllocatedBytes(Thread.currentThread().getId()) - allocated;
+        return new Result(nanos / (double) c.iterations, allocated / c.iterations, message.body.size());
+    }
+
+    private static final class Case {
+        private final String label;
+        private final Object value;
+        private final Type type;
+        private final int iterations;
+
+        private Case(String label, Object value, Type type, int iterations) {
+            this.label = label;
+            this.value = value;
+            this.type = type;
+            this.iterations = iterations;
+        }
+    }
+
+    private static final class Result {
+        private final double nanos;
+        private final long bytes;
+        private final int length;
+
+        private Result(double nanos, long bytes, int length) {
+            this.nanos = nanos;
+            this.bytes = bytes;
+            this.length = length;
+        }
+    }
+
+    // A response that is reused, so the benchmark measures the converter rather than the buffers
+    private static final class ReusableOutputMessage implements HttpOutputMessage {
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream(4096);
+        private final HttpHeaders headers = new HttpHeaders();
+
+        void reset() {
+            body.reset();
+            headers.clear();
+        }
+
+        @Override
+        public OutputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+
+}
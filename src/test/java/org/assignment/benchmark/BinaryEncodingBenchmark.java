@@ -0,0 +1,110 @@
+package org.assignment.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.assignment.model.APIModelDTO;
+import org.assignment.model.RequestDTO;
+import org.assignment.warmup.SyntheticRequests;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Payload size and parse time of JSON, Smile and CBOR for {@code model_list.json}-shaped traffic, with the same DTOs
+ * the controllers bind: the model list as sent to {@code /api/models}, as is and repeated to {@code <models>} models
+ * with distinct paths, and a valid and an anomalous detection request per model, as sent to
+ * {@code /api/detection/validate}.
+ * <p>
+ * Run with: {@code <iterations> <models>}. Prints the encoded sizes and the average time per parse.
+ * </p>
+ */
+public class BinaryEncodingBenchmark {
+
+    private static final int ROUNDS = 6;
+
+    public static void main(String[] args) throws IOException {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int modelCount = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        ObjectMapper json = new ObjectMapper();
+        List<APIModelDTO> models;
+        try (InputStream in = BinaryEncodingBenchmark.class.getResourceAsStream("/api-models/model_list.json")) {
+            models = json.readValue(in, new TypeReference<List<APIModelDTO>>() {
+            });
+        }
+        List<APIModelDTO> manyModels = new ArrayList<>(modelCount);
+        for (int i = 0; i < modelCount; i++) {
+            APIModelDTO model = models.get(i % models.size());
+            manyModels.add(new APIModelDTO(model.getPath() + "/" + i, model.getMethod(), model.getQueryParams(),
+                    model.getHeaders(), model.getBody()));
+        }
+        List<RequestDTO> detections = new ArrayList<>();
+        for (APIModelDTO model : models) {
+            detections.add(SyntheticRequests.valid(model));
+            detections.add(SyntheticRequests.anomalous(model));
+        }
+
+        List<JsonFactory> factories = List.of(new JsonFactory(), new SmileFactory(), new CBORFactory());
+        List<ObjectReader> modelReaders = new ArrayList<>();
+        List<ObjectReader> detectionReaders = new ArrayList<>();
+        List<byte[]> modelPayloads = new ArrayList<>();
+        List<byte[]> manyModelPayloads = new ArrayList<>();
+        List<List<byte[]>> detectionPayloads = new ArrayList<>();
+        for (JsonFactory factory : factories) {
+            ObjectMapper mapper = new ObjectMapper(factory);
+            modelReaders.add(mapper.readerFor(new TypeReference<List<APIModelDTO>>() {
+            }));
+            detectionReaders.add(mapper.readerFor(RequestDTO.class));
+            modelPayloads.add(mapper.writeValueAsBytes(models));
+            manyModelPayloads.add(mapper.writeValueAsBytes(manyModels));
+            List<byte[]> payloads = new ArrayList<>();
+            for (RequestDTO detection : detections) {
+                payloads.add(mapper.writeValueAsBytes(detection));
+            }
+            detectionPayloads.add(payloads);
+        }
+
+        // The formats share the data binding code, so they are interleaved over rounds and the best round is kept
+        double[] modelNanos = new double[factories.size()];
+        double[] manyModelNanos = new double[factories.size()];
+        double[] detectionNanos = new double[factories.size()];
+        Arrays.fill(modelNanos, Double.MAX_VALUE);
+        Arrays.fill(manyModelNanos, Double.MAX_VALUE);
+        Arrays.fill(detectionNanos, Double.MAX_VALUE);
+        for (int round = 0; round < ROUNDS; round++) {
+            for (int f = 0; f < factories.size(); f++) {
+                modelNanos[f] = Math.min(modelNanos[f], run(modelReaders.get(f), List.of(modelPayloads.get(f)), iterations / 5));
+                manyModelNanos[f] = Math.min(manyModelNanos[f],
+                        run(modelReaders.get(f), List.of(manyModelPayloads.get(f)), Math.max(1, iterations * 5 / modelCount)));
+                detectionNanos[f] = Math.min(detectionNanos[f], run(detectionReaders.get(f), detectionPayloads.get(f), iterations));
+            }
+        }
+
+        for (int f = 0; f < factories.size(); f++) {
+            long detectionSize = detectionPayloads.get(f).stream().mapToLong(bytes -> bytes.length).sum();
+            System.out.printf("%-6s model_list.json: %6d B %8.1f us   %d models: %8d B %8.1f us   detection: %6.1f B avg %7.1f ns%n",
+                    factories.get(f).getFormatName(), modelPayloads.get(f).length, modelNanos[f] / 1000,
+                    modelCount, manyModelPayloads.get(f).length, manyModelNanos[f] / 1000,
+                    detectionSize / (double) detections.size(), detectionNanos[f]);
+        }
+    }
+
+    private static double run(ObjectReader reader, List<byte[]> payloads, int iterations) throws IOException {
+        int checksum = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            Object value = reader.readValue(payloads.get(i % payloads.size()));
+            checksum += value.hashCode();
+        }
+        long nanos = System.nanoTime() - start;
+        if (checksum == 42) System.out.println();
+        return nanos / (double) iterations;
+    }
+
+}
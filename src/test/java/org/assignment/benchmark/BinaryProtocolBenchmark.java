@@ -0,0 +1,217 @@
+package org.assignment.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.assignment.APIAnomalyDetectorApplication;
+import org.assignment.model.APIModelDTO;
+import org.assignment.model.RequestDTO;
+import org.assignment.protocol.DetectionProtocolClient;
+import org.assignment.warmup.SyntheticRequests;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loopback comparison of the binary detection protocol with the HTTP/JSON endpoint, on the same detector.
+ * <p>
+ * Run with: {@code <seconds> <connections> <pipeline depth>}, for example {@code 20 2 16}.
+ * The detector is started in a fresh JVM with the models of {@code model_list.json} (admission control off, so no
+ * request is shed). HTTP runs connections x depth client threads, each waiting for its response before sending the
+ * next request, which is the concurrency HTTP/1.1 needs for the same number of requests in flight. The binary
+ * protocol runs one client per connection keeping depth requests pipelined. Both send the same mix of valid and
+ * anomalous requests. The client shares the machine, so the throughput is the one of client and server together.
+ * </p>
+ */
+public class BinaryProtocolBenchmark {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final int HTTP_PORT = 18092;
+    private static final int BINARY_PORT = 17072;
+    private static final String BASE_URL = "http://localhost:" + HTTP_PORT;
+
+    public static void main(String[] args) throws Exception {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        int connections = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+        int depth = args.length > 2 ? Integer.parseInt(args[2]) : 16;
+
+        List<APIModelDTO> models;
+        try (InputStream in = BinaryProtocolBenchmark.class.getResourceAsStream("/api-models/model_list.json")) {
+            models = MAPPER.readValue(in, new TypeReference<List<APIModelDTO>>() {
+            });
+        }
+        List<RequestDTO> requests = new ArrayList<>();
+        List<String> jsonRequests = new ArrayList<>();
+        for (APIModelDTO model : models) {
+            for (RequestDTO request : List.of(SyntheticRequests.valid(model), SyntheticRequests.anomalous(model))) {
+                requests.add(request);
+                jsonRequests.add(MAPPER.writeValueAsString(request));
+            }
+        }
+        Path modelsFile = Files.createTempFile("binary-protocol-models", ".json");
+        MAPPER.writeValue(modelsFile.toFile(), models);
+
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                APIAnomalyDetectorApplication.class.getName(),
+                "--server.port=" + HTTP_PORT,
+                "--app.binary-protocol.enabled=true",
+                "--app.binary-protocol.port=" + BINARY_PORT,
+                "--app.models.bootstrap-file=" + modelsFile,
+                "--app.detection-controller.admission.enabled=false",
+                "--app.detection-controller.hot-keys.enabled=false",
+                "--logging.level.root=WARN")
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(new File("binary-protocol-benchmark.log"))
+                .start();
+        try {
+            HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            awaitReady(process, http);
+            // Both paths once, so neither pays the JIT compilation of the other
+            runHttp(http, jsonRequests, Math.min(5, seconds), connections * depth);
+            runBinary(requests, Math.min(5, seconds), connections, depth);
+
+            System.out.printf("HTTP/JSON %3d threads            %s%n", connections * depth,
+                    report(runHttp(http, jsonRequests, seconds, connections * depth), seconds));
+            System.out.printf("binary    %3d connections x %3d  %s%n", connections, depth,
+                    report(runBinary(requests, seconds, connections, depth), seconds));
+        } finally {
+            process.destroy();
+            process.waitFor(30, TimeUnit.SECONDS);
+            Files.deleteIfExists(modelsFile);
+        }
+    }
+
+    private static long[] runHttp(HttpClient http, List<String> jsonRequests, int seconds, int threads) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        ConcurrentLinkedQueue<long[]> results = new ConcurrentLinkedQueue<>();
+        List<Thread> clients = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int offset = t;
+            Thread thread = new Thread(() -> {
+                LongList latencies = new LongList();
+                for (int i = offset; System.nanoTime() < deadline; i++) {
+                    HttpRequest request = HttpRequest.newBuilder(URI.create(BASE_URL + "/api/detection/validate"))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(jsonRequests.get(i % jsonRequests.size())))
+                            .build();
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<byte[]> response = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                        if (response.statusCode() != 200) throw new IllegalStateException("HTTP " + response.statusCode());
+                    } catch (IOException e) {
+                        throw new IllegalStateException(e);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    latencies.add(System.nanoTime() - start);
+                }
+                results.add(latencies.toArray());
+            });
+            thread.start();
+            clients.add(thread);
+        }
+        for (Thread thread : clients) {
+            thread.join();
+        }
+        return merge(results);
+    }
+
+    private static long[] runBinary(List<RequestDTO> requests, int seconds, int connections, int depth) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        ConcurrentLinkedQueue<long[]> results = new ConcurrentLinkedQueue<>();
+        List<Thread> senders = new ArrayList<>();
+        for (int c = 0; c < connections; c++) {
+            int offset = c;
+            DetectionProtocolClient client = new DetectionProtocolClient("localhost", BINARY_PORT, 1000, MAPPER);
+            Thread thread = new Thread(() -> {
+                Semaphore inFlight = new Semaphore(depth);
+                // Completed on the client reader thread only
+                LongList latencies = new LongList();
+                try {
+                    for (int i = offset; System.nanoTime() < deadline; i++) {
+                        inFlight.acquire();
+                        long start = System.nanoTime();
+                        client.detect(null, requests.get(i % requests.size())).whenComplete((anomalies, e) -> {
+                            if (e != null) throw new IllegalStateException(e);
+                            latencies.add(System.nanoTime() - start);
+                            inFlight.release();
+                        });
+                    }
+                    inFlight.acquire(depth);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    client.close();
+                }
+                results.add(latencies.toArray());
+            });
+            thread.start();
+            senders.add(thread);
+        }
+        for (Thread thread : senders) {
+            thread.join();
+        }
+        return merge(results);
+    }
+
+    private static long[] merge(ConcurrentLinkedQueue<long[]> results) {
+        long[] all = results.stream().flatMapToLong(Arrays::stream).toArray();
+        Arrays.sort(all);
+        return all;
+    }
+
+    private static String report(long[] sorted, int seconds) {
+        return String.format("requests/s=%8.0f p50=%7.3f ms p99=%7.3f ms p99.9=%7.3f ms", sorted.length / (double) seconds,
+                percentile(sorted, 0.5), percentile(sorted, 0.99), percentile(sorted, 0.999));
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.floor(p * sorted.length))] / 1e6;
+    }
+
+    private static void awaitReady(Process process, HttpClient http) throws Exception {
+        while (process.isAlive()) {
+            try {
+                HttpResponse<Void> response = http.send(HttpRequest.newBuilder(URI.create(BASE_URL + "/api/health/readiness")).build(),
+                        HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() == 200) return;
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(20);
+        }
+        throw new IllegalStateException("The detector exited with code " + process.exitValue());
+    }
+
+    // Growable array of latencies, written by a single thread
+    private static final class LongList {
+        private long[] values = new long[1 << 16];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+}
@@ -0,0 +1,166 @@
+package org.assignment.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Throughput benchmark of the cluster mode with 1, 2 and 4 detector JVMs on localhost.
+ * <p>
+ * Build the jar first ({@code mvn package -DskipTests}), then run this class with:
+ * {@code <jar path> <node counts> <seconds per run> <client threads>}, for example
+ * {@code target/anomaly-detector.jar 1,2,4 20 32}.
+ * Each run starts the nodes, ingests 1000 models through the first node (routed to their owners),
+ * then spreads detections round-robin over all nodes and reports the total requests per second.
+ * </p>
+ */
+public class ClusterThroughputBenchmark {
+
+    private static final int BASE_PORT = 18080;
+    private static final int MODELS = 1000;
+    private static final HttpClient HTTP = HttpClient.newHttpClient();
+
+    public static void main(String[] args) throws Exception {
+        String jar = args.length > 0 ? args[0] : "target/anomaly-detector.jar";
+        String nodeCounts = args.length > 1 ? args[1] : "1,2,4";
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        int clients = args.length > 3 ? Integer.parseInt(args[3]) : 32;
+
+        for (String count : nodeCounts.split(",")) {
+            int nodes = Integer.parseInt(count.trim());
+            double throughput = run(jar, nodes, seconds, clients);
+            System.out.printf("nodes=%d clients=%d throughput=%.0f req/s%n", nodes, clients, throughput);
+        }
+    }
+
+    private static double run(String jar, int nodes, int seconds, int clients) throws Exception {
+        List<String> addresses = IntStream.range(0, nodes)
+                .mapToObj(i -> "localhost:" + (BASE_PORT + i))
+                .collect(Collectors.toList());
+        List<Process> processes = new ArrayList<>();
+        try {
+            for (String address : addresses) {
+                processes.add(new ProcessBuilder("java", "-Xmx256m", "-jar", jar,
+                        "--server.port=" + address.split(":")[1],
+                        "--app.cluster.enabled=" + (nodes > 1),
+                        "--app.cluster.self-node=" + address,
+                        "--app.cluster.nodes=" + String.join(",", addresses),
+                        "--app.cluster.replication-factor=" + Math.min(2, nodes),
+                        "--app.cluster.secret=benchmark-secret",
+                        "--app.detection-controller.admission.enabled=false")
+                        .redirectOutput(new File("/dev/null"))
+                        .redirectErrorStream(true)
+                        .start());
+            }
+            for (String address : addresses) {
+                awaitStarted(address);
+            }
+
+            post(addresses.get(0), "/api/models", models());
+            return load(addresses, seconds, clients);
+        } finally {
+            processes.forEach(Process::destroy);
+            for (Process process : processes) {
+                process.waitFor();
+            }
+        }
+    }
+
+    private static double load(List<String> addresses, int seconds, int clients) throws InterruptedException {
+        LongAdder completed = new LongAdder();
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch done = new CountDownLatch(clients);
+
+        for (int c = 0; c < clients; c++) {
+            int client = c;
+            new Thread(() -> {
+                int i = client;
+                while (running.get()) {
+                    String address = addresses.get(i % addresses.size());
+                    String detection = "{\"method\":\"POST\",\"path\":\"/api/e" + (i % MODELS) + "\","
+                            + "\"headers\":[{\"name\":\"X-Request-ID\",\"value\":\"46da6390-7c78-4a1c-9efa-7c0396067ce4\"}],"
+                            + "\"body\":[{\"name\":\"id\",\"value\":42},{\"name\":\"email\",\"value\":\"foo@bar.com\"}]}";
+                    try {
+                        post(address, "/api/detection/validate", detection);
+                        completed.increment();
+                    } catch (Exception e) {
+                        // Count only successful detections
+                    }
+                    i++;
+                }
+                done.countDown();
+            }).start();
+        }
+
+        // Warm-up, then measure
+        Thread.sleep(seconds * 250L);
+        long start = System.nanoTime();
+        long before = completed.sum();
+        Thread.sleep(seconds * 1000L);
+        double throughput = (completed.sum() - before) / ((System.nanoTime() - start) / 1e9);
+        running.set(false);
+        done.await();
+        return throughput;
+    }
+
+    private static String models() {
+        StringBuilder models = new StringBuilder("[");
+        for (int i = 0; i < MODELS; i++) {
+            if (i > 0) models.append(',');
+            models.append("{\"method\":\"POST\",\"path\":\"/api/e").append(i).append("\",")
+                    .append("\"headers\":[{\"name\":\"X-Request-ID\",\"types\":[\"UUID\"],\"required\":true}],")
+                    .append("\"body\":[{\"name\":\"id\",\"types\":[\"Int\"],\"required\":true},")
+                    .append("{\"name\":\"email\",\"types\":[\"Email\"],\"required\":true}]}");
+        }
+        return models.append(']').toString();
+    }
+
+    private static void awaitStarted(String address) throws Exception {
+        for (int attempt = 0; attempt < 600; attempt++) {
+            try {
+                post(address, "/api/detection/validate", "{\"method\":\"GET\",\"path\":\"/\"}");
+                return;
+            } catch (IOException e) {
+                // Not listening yet, or still starting up
+                Thread.sleep(100);
+            }
+        }
+        throw new IllegalStateException("Node " + address + " did not start");
+    }
+
+    private static String post(String address, String path, String json) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://" + address + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+        HttpResponse<String> response = HTTP.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() == 202) {
+            awaitIngestion(address, response.headers().firstValue("Location").orElseThrow());
+        } else if (response.statusCode() != 200) {
+            throw new IOException("Status " + response.statusCode() + " from " + address + path);
+        }
+        return response.body();
+    }
+
+    // Polls an ingestion job until the models are loaded
+    private static void awaitIngestion(String address, String location) throws IOException, InterruptedException {
+        while (true) {
+            HttpRequest poll = HttpRequest.newBuilder(URI.create("http://" + address + location)).build();
+            String job = HTTP.send(poll, HttpResponse.BodyHandlers.ofString()).body();
+            if (job.contains("\"status\":\"SUCCEEDED\"")) return;
+            if (job.contains("\"status\":\"FAILED\"")) throw new IOException("Ingestion failed: " + job);
+            Thread.sleep(20);
+        }
+    }
+
+}
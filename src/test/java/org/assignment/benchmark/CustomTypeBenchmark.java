@@ -0,0 +1,84 @@
+package org.assignment.benchmark;
+
+import org.assignment.model.CustomTypeDTO;
+import org.assignment.validation.CustomType;
+import org.assignment.validation.DfaPattern;
+import org.assignment.validation.TypeValidator;
+
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Validation cost of custom types against the built-in types, and of the DFA pattern engine against
+ * java.util.regex on a pattern that makes the backtracking engine work hard.
+ * <p>
+ * Run with: {@code <iterations>}. Prints the average time per validation.
+ * </p>
+ */
+public class CustomTypeBenchmark {
+
+    private static final String UUID_PATTERN =
+            "[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}";
+
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        TypeValidator typeValidator = new TypeValidator();
+        Map<String, CustomType> customTypes = Map.of(
+                "Uuid", CustomType.compile(CustomTypeDTO.builder().name("Uuid").pattern(UUID_PATTERN).build()),
+                "OrderStatus", CustomType.compile(CustomTypeDTO.builder().name("OrderStatus")
+                        .enumValues(List.of("NEW", "PAID", "SHIPPED", "DELIVERED", "CANCELLED")).build()),
+                "Quantity", CustomType.compile(CustomTypeDTO.builder().name("Quantity").intRange(List.of(0L, 1000L)).build()));
+
+        String uuid = "123e4567-e89b-12d3-a456-426614174000";
+        report("built-in UUID (java.util.regex)", typeValidator, uuid, "UUID", customTypes, iterations);
+        report("custom pattern UUID (DFA)", typeValidator, uuid, "Uuid", customTypes, iterations);
+        report("built-in Int", typeValidator, "742", "Int", customTypes, iterations);
+        report("custom intRange", typeValidator, "742", "Quantity", customTypes, iterations);
+        report("built-in String", typeValidator, "SHIPPED", "String", customTypes, iterations);
+        report("custom enum", typeValidator, "SHIPPED", "OrderStatus", customTypes, iterations);
+
+        // Backtracking: (x+x+)+y on "xxx...x" never matches, java.util.regex explores the ways to split the input
+        // (bounded by its loop memoization on recent JDKs, but still polynomial), the DFA reads it once
+        DfaPattern dfa = DfaPattern.compile("(x+x+)+y");
+        Pattern backtracking = Pattern.compile("(x+x+)+y");
+        for (int length : new int[]{50, 100, 200, 400}) {
+            String input = "x".repeat(length);
+            long start = System.nanoTime();
+            String javaResult;
+            try {
+                javaResult = backtracking.matcher(input).matches() ? "match" : "no match";
+            } catch (StackOverflowError e) {
+                javaResult = "StackOverflowError";
+            }
+            long javaNanos = System.nanoTime() - start;
+            start = System.nanoTime();
+            boolean dfaMatch = dfa.matches(input);
+            long dfaNanos = System.nanoTime() - start;
+            if (dfaMatch) throw new IllegalStateException("Input should not match");
+            System.out.printf("(x+x+)+y length=%,7d java.util.regex=%,14d ns (%s) DFA=%,10d ns%n",
+                    length, javaNanos, javaResult, dfaNanos);
+        }
+    }
+
+    private static void report(String label, TypeValidator typeValidator, String value, String type,
+                               Map<String, CustomType> customTypes, int iterations) {
+        List<String> types = List.of(type);
+        // Warm-up
+        run(typeValidator, value, types, customTypes, iterations);
+        double nanos = run(typeValidator, value, types, customTypes, iterations);
+        System.out.printf("%-34s %8.1f ns/op%n", label, nanos);
+    }
+
+    private static double run(TypeValidator typeValidator, String value, List<String> types,
+                              Map<String, CustomType> customTypes, int iterations) {
+        long start = System.nanoTime();
+        boolean valid = true;
+        for (int i = 0; i < iterations; i++) {
+            valid &= typeValidator.validate(value, types, customTypes);
+        }
+        if (!valid) throw new IllegalStateException("Benchmark value should be valid");
+        return (System.nanoTime() - start) / (double) iterations;
+    }
+
+}
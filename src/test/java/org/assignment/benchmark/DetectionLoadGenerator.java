@@ -0,0 +1,90 @@
+package org.assignment.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Steady detection load against a running detector, used to take a Flight Recorder recording or to fill
+ * the stage histograms under load (see "Latency Breakdown" in the README).
+ * <p>
+ * Run with: {@code <base url> <seconds> <client threads>}, for example {@code http://localhost:8080 60 8}.
+ * Ingests the models of {@code src/test/resources/api-models/model_list.json}, then sends the same
+ * valid login detection in a loop from every client thread and reports the requests per second.
+ * </p>
+ */
+public class DetectionLoadGenerator {
+
+    private static final HttpClient HTTP = HttpClient.newHttpClient();
+    private static final String MODELS_FILE = "src/test/resources/api-models/model_list.json";
+    private static final String DETECTION = "{\"method\":\"POST\",\"path\":\"/api/login\",\"body\":["
+            + "{\"name\":\"username\",\"value\":\"john_doe\"},"
+            + "{\"name\":\"password\",\"value\":\"secret123\"},"
+            + "{\"name\":\"is_admin\",\"value\":\"true\"}]}";
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 60;
+        int clients = args.length > 2 ? Integer.parseInt(args[2]) : 8;
+
+        post(baseUrl + "/api/models", Files.readString(Path.of(MODELS_FILE)));
+
+        LongAdder requests = new LongAdder();
+        LongAdder errors = new LongAdder();
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < clients; i++) {
+            Thread thread = new Thread(() -> {
+                while (System.nanoTime() < deadline) {
+                    try {
+                        post(baseUrl + "/api/detection/validate", DETECTION);
+                        requests.increment();
+                    } catch (IOException e) {
+                        errors.increment();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        System.out.printf("clients=%d requests=%d errors=%d throughput=%.0f req/s%n",
+                clients, requests.sum(), errors.sum(), requests.sum() / (double) seconds);
+    }
+
+    private static void post(String url, String json) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+        HttpResponse<String> response = HTTP.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() == 202) {
+            awaitIngestion(url.substring(0, url.indexOf("/api/")) + response.headers().firstValue("Location").orElseThrow());
+        } else if (response.statusCode() != 200) {
+            throw new IOException("HTTP " + response.statusCode() + " from " + url + ": " + response.body());
+        }
+    }
+
+    // Polls an ingestion job until the models are loaded
+    private static void awaitIngestion(String jobUrl) throws IOException, InterruptedException {
+        while (true) {
+            String job = HTTP.send(HttpRequest.newBuilder(URI.create(jobUrl)).build(), HttpResponse.BodyHandlers.ofString()).body();
+            if (job.contains("\"status\":\"SUCCEEDED\"")) return;
+            if (job.contains("\"status\":\"FAILED\"")) throw new IOException("Ingestion failed: " + job);
+            Thread.sleep(20);
+        }
+    }
+
+}
@@ -0,0 +1,71 @@
+package org.assignment.benchmark;
+
+import org.assignment.model.AnomalyDTO;
+import org.assignment.model.DetectionDTO;
+import org.assignment.service.EndpointScanDetector;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cost of the endpoint scan checks per request, and the memory of the client sketches.
+ * <p>
+ * Run with: {@code <requests>}. Prints the average time per check and the heap held by the detector after a GC, for:
+ * - 1,000 clients cycling over 50 endpoints (the registers are already set, a read per request);
+ * - 1,000 scanning clients, each request on a new endpoint (registers raised, estimates recomputed);
+ * - 100,000 clients (the default LRU bound), each on 20 endpoints.
+ * </p>
+ */
+public class EndpointScanBenchmark {
+
+    public static void main(String[] args) {
+        int requests = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        String[] keys = new String[1 << 16];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = "GET:/api/endpoint/" + i;
+        }
+
+        report("1,000 clients, 50 endpoints", requests, 1_000, keys, 50);
+        report("1,000 clients scanning", requests, 1_000, keys, keys.length);
+        report("100,000 clients, 20 endpoints", requests, 100_000, keys, 20);
+    }
+
+    private static void report(String label, int requests, int clients, String[] keys, int endpoints) {
+        long before = usedHeap();
+        // The defaults of application.properties
+        EndpointScanDetector detector = new EndpointScanDetector(true, "Authorization", 300, 4, 7, 100, 100_000);
+        DetectionDTO[] detections = new DetectionDTO[clients];
+        for (int i = 0; i < clients; i++) {
+            detections[i] = new DetectionDTO("GET", "/", null, Map.of("Authorization", "Bearer token-" + i), null);
+        }
+        long detectionsHeap = usedHeap() - before;
+
+        // Warm-up
+        run(detector, detections, keys, endpoints, requests / 4);
+        long start = System.nanoTime();
+        int reported = run(detector, detections, keys, endpoints, requests);
+        double nanos = (System.nanoTime() - start) / (double) requests;
+        long heap = usedHeap() - before - detectionsHeap;
+        System.out.printf("%-30s %6.0f ns/check, %5.1f%% reported, sketches=%4d MB%n", label, nanos,
+                100.0 * reported / requests, heap >> 20);
+    }
+
+    private static int run(EndpointScanDetector detector, DetectionDTO[] detections, String[] keys, int endpoints,
+                           int requests) {
+        List<AnomalyDTO> none = List.of();
+        int reported = 0;
+        for (int i = 0; i < requests; i++) {
+            DetectionDTO detection = detections[i % detections.length];
+            // Each client moves to its next endpoint once every client sent a request
+            String key = keys[(i / detections.length) % endpoints % keys.length];
+            if (detector.check("default", key, detection, none, false) != none) reported++;
+        }
+        return reported;
+    }
+
+    private static long usedHeap() {
+        System.gc();
+        return Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
+    }
+
+}
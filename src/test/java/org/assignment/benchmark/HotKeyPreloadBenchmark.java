@@ -0,0 +1,199 @@
+package org.assignment.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.assignment.APIAnomalyDetectorApplication;
+import org.assignment.model.APIModelDTO;
+import org.assignment.model.APIModelParamDTO;
+import org.assignment.warmup.SyntheticRequests;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Model cache hit rate during the first minutes after a restart, with and without the hot-key preload.
+ * <p>
+ * Run with: {@code <seconds> <client threads> <models>}, for example {@code 120 4 20000}.
+ * A first run of the detector serves Zipf-distributed detections over the generated models and is stopped gracefully,
+ * which saves its hot keys. The detector is then restarted twice (fresh JVMs, same models, warm-up detections off),
+ * with and without the hot-key preload, under the same traffic. The hit rate of every 5 second window is read from
+ * {@code /api/metrics/tenants}.
+ * </p>
+ */
+public class HotKeyPreloadBenchmark {
+
+    private static final HttpClient HTTP = HttpClient.newHttpClient();
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final int PORT = 18091;
+    private static final String BASE_URL = "http://localhost:" + PORT;
+    private static final int WINDOW_SECONDS = 5;
+    // Zipf exponent of the endpoint popularity
+    private static final double SKEW = 1.0;
+
+    public static void main(String[] args) throws Exception {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 120;
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int modelCount = args.length > 2 ? Integer.parseInt(args[2]) : 20_000;
+
+        List<String> detections = new ArrayList<>(modelCount);
+        List<APIModelDTO> models = new ArrayList<>(modelCount);
+        for (int i = 0; i < modelCount; i++) {
+            APIModelDTO model = new APIModelDTO("/api/resource/" + i, "GET",
+                    List.of(new APIModelParamDTO("id", List.of("Int"), true)), List.of(), List.of());
+            models.add(model);
+            detections.add(MAPPER.writeValueAsString(SyntheticRequests.valid(model)));
+        }
+        double[] cdf = zipf(modelCount);
+        Path modelsFile = Files.createTempFile("hot-key-models", ".json");
+        Path hotKeysFile = Files.createTempFile("hot-keys", ".json");
+        Files.delete(hotKeysFile);
+        MAPPER.writeValue(modelsFile.toFile(), models);
+
+        try {
+            System.out.println("previous run (records the hot keys)");
+            run(modelsFile, hotKeysFile, true, detections, cdf, seconds, clients);
+            System.out.printf("saved hot keys: %d bytes%n", Files.size(hotKeysFile));
+            System.out.println("restart with preload");
+            run(modelsFile, hotKeysFile, true, detections, cdf, seconds, clients);
+            System.out.println("restart without preload");
+            run(modelsFile, hotKeysFile, false, detections, cdf, seconds, clients);
+        } finally {
+            Files.deleteIfExists(modelsFile);
+            Files.deleteIfExists(hotKeysFile);
+        }
+    }
+
+    private static void run(Path modelsFile, Path hotKeysFile, boolean hotKeys, List<String> detections, double[] cdf,
+                            int seconds, int clients) throws Exception {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                APIAnomalyDetectorApplication.class.getName(),
+                "--server.port=" + PORT,
+                "--app.models.bootstrap-file=" + modelsFile,
+                "--app.warmup.enabled=false",
+                "--app.detection-controller.hot-keys.enabled=" + hotKeys,
+                "--app.detection-controller.hot-keys.file=" + hotKeysFile,
+                "--logging.level.root=WARN")
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(new File("hot-key-benchmark.log"))
+                .start();
+        try {
+            awaitReady(process);
+            long[] previous = hitsAndMisses();
+            System.out.printf("  after boot: cached entries=%d%n", cachedEntries());
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+            List<Thread> threads = new ArrayList<>();
+            for (int c = 0; c < clients; c++) {
+                SplittableRandom random = new SplittableRandom(c);
+                Thread thread = new Thread(() -> {
+                    while (System.nanoTime() < deadline) {
+                        int index = Arrays.binarySearch(cdf, random.nextDouble());
+                        String detection = detections.get(index >= 0 ? index : Math.min(cdf.length - 1, -index - 1));
+                        try {
+                            post(BASE_URL + "/api/detection/validate", detection);
+                        } catch (IOException e) {
+                            // Counted by the detector, not here
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                    }
+                });
+                thread.start();
+                threads.add(thread);
+            }
+            for (int w = 0; w * WINDOW_SECONDS < seconds; w++) {
+                Thread.sleep(TimeUnit.SECONDS.toMillis(Math.min(WINDOW_SECONDS, seconds - w * WINDOW_SECONDS)));
+                long[] current = hitsAndMisses();
+                long hits = current[0] - previous[0];
+                long lookups = hits + current[1] - previous[1];
+                System.out.printf("  %3d-%3ds lookups=%7d hit rate=%6.2f%%%n", w * WINDOW_SECONDS,
+                        Math.min(seconds, (w + 1) * WINDOW_SECONDS), lookups, lookups == 0 ? 0 : 100.0 * hits / lookups);
+                previous = current;
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        } finally {
+            // SIGTERM: graceful shutdown, which saves the hot keys
+            process.destroy();
+            process.waitFor(30, TimeUnit.SECONDS);
+        }
+    }
+
+    private static double[] zipf(int n) {
+        double[] cdf = new double[n];
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += 1 / Math.pow(i + 1, SKEW);
+            cdf[i] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cdf[i] /= sum;
+        }
+        return cdf;
+    }
+
+    private static long[] hitsAndMisses() throws IOException, InterruptedException {
+        long[] counts = new long[2];
+        for (Map<String, Object> tenant : tenantStats()) {
+            counts[0] += ((Number) tenant.get("hitCount")).longValue();
+            counts[1] += ((Number) tenant.get("missCount")).longValue();
+        }
+        return counts;
+    }
+
+    private static long cachedEntries() throws IOException, InterruptedException {
+        long entries = 0;
+        for (Map<String, Object> tenant : tenantStats()) {
+            entries += ((Number) tenant.get("cachedEntries")).longValue();
+        }
+        return entries;
+    }
+
+    private static List<Map<String, Object>> tenantStats() throws IOException, InterruptedException {
+        HttpResponse<String> response = HTTP.send(HttpRequest.newBuilder(URI.create(BASE_URL + "/api/metrics/tenants")).build(),
+                HttpResponse.BodyHandlers.ofString());
+        return MAPPER.readValue(response.body(), new TypeReference<List<Map<String, Object>>>() {
+        });
+    }
+
+    private static void awaitReady(Process process) throws Exception {
+        while (process.isAlive()) {
+            try {
+                HttpResponse<Void> response = HTTP.send(HttpRequest.newBuilder(URI.create(BASE_URL + "/api/health/readiness")).build(),
+                        HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() == 200) return;
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(20);
+        }
+        throw new IllegalStateException("The detector exited with code " + process.exitValue());
+    }
+
+    private static void post(String url, String json) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+        HttpResponse<String> response = HTTP.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IOException("HTTP " + response.statusCode() + " from " + url + ": " + response.body());
+        }
+    }
+
+}
@@ -0,0 +1,243 @@
+package org.assignment.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.assignment.APIAnomalyDetectorApplication;
+import org.assignment.model.APIModelDTO;
+import org.assignment.model.APIModelParamDTO;
+import org.assignment.warmup.SyntheticRequests;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Detection latency while batches of 1,000 models are pushed concurrently.
+ * <p>
+ * Run with: {@code <seconds> <detection clients> <pushers>}, for example {@code 20 4 4}.
+ * The detector is started in a fresh JVM with the models of {@code model_list.json} (admission control off, so no
+ * detection is shed). Detection clients send valid and anomalous requests in a closed loop, first alone, then while
+ * every pusher posts 1,000 models and waits for its job, again and again. This runs twice: with as many ingestion
+ * threads as pushers, which is how ingestion ran before the lane (each push on its own request thread), then with the
+ * default single ingestion thread. The client shares the machine with the detector.
+ * </p>
+ */
+public class IngestionIsolationBenchmark {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final int HTTP_PORT = 18093;
+    private static final String BASE_URL = "http://localhost:" + HTTP_PORT;
+    private static final int MODELS_PER_PUSH = 1000;
+
+    public static void main(String[] args) throws Exception {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int pushers = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+
+        List<APIModelDTO> models;
+        try (InputStream in = IngestionIsolationBenchmark.class.getResourceAsStream("/api-models/model_list.json")) {
+            models = MAPPER.readValue(in, new TypeReference<List<APIModelDTO>>() {
+            });
+        }
+        List<String> detections = new ArrayList<>();
+        for (APIModelDTO model : models) {
+            detections.add(MAPPER.writeValueAsString(SyntheticRequests.valid(model)));
+            detections.add(MAPPER.writeValueAsString(SyntheticRequests.anomalous(model)));
+        }
+        List<String> pushes = new ArrayList<>();
+        for (int p = 0; p < pushers; p++) {
+            pushes.add(MAPPER.writeValueAsString(pushModels(p)));
+        }
+        Path modelsFile = Files.createTempFile("ingestion-isolation-models", ".json");
+        MAPPER.writeValue(modelsFile.toFile(), models);
+
+        HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        try {
+            for (int ingestionThreads : new int[]{pushers, 1}) {
+                Process process = start(modelsFile, ingestionThreads);
+                try {
+                    awaitReady(process, http);
+                    // Both workloads once, so the measured runs do not pay the JIT compilation
+                    run(http, detections, pushes, Math.min(5, seconds), clients, true);
+
+                    if (ingestionThreads == pushers) {
+                        System.out.printf("no push                        %s%n", run(http, detections, pushes, seconds, clients, false));
+                    }
+                    System.out.printf("%d pushers, %2d ingestion thr.  %s%n", pushers, ingestionThreads,
+                            run(http, detections, pushes, seconds, clients, true));
+                } finally {
+                    process.destroy();
+                    process.waitFor(30, TimeUnit.SECONDS);
+                }
+            }
+        } finally {
+            Files.deleteIfExists(modelsFile);
+        }
+    }
+
+    // Distinct endpoints per pusher, the same on every push, so each push replaces the models of the previous one
+    private static List<APIModelDTO> pushModels(int pusher) {
+        List<APIModelDTO> models = new ArrayList<>();
+        for (int i = 0; i < MODELS_PER_PUSH; i++) {
+            List<APIModelParamDTO> body = List.of(
+                    new APIModelParamDTO("id", List.of("Int"), true),
+                    new APIModelParamDTO("email", List.of("Email"), true),
+                    new APIModelParamDTO("tags", List.of("List", "String"), false));
+            List<APIModelParamDTO> query = List.of(new APIModelParamDTO("page", List.of("Int"), false));
+            models.add(new APIModelDTO("/api/push/" + pusher + "/" + i, "POST", query, List.of(), body));
+        }
+        return models;
+    }
+
+    private static Process start(Path modelsFile, int ingestionThreads) throws IOException {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        return new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                APIAnomalyDetectorApplication.class.getName(),
+                "--server.port=" + HTTP_PORT,
+                "--app.models.bootstrap-file=" + modelsFile,
+                "--app.model-controller.ingestion.threads=" + ingestionThreads,
+                "--app.detection-controller.admission.enabled=false",
+                "--app.detection-controller.hot-keys.enabled=false",
+                "--logging.level.root=WARN")
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(new File("ingestion-isolation-benchmark.log"))
+                .start();
+    }
+
+    private static String run(HttpClient http, List<String> detections, List<String> pushes, int seconds, int clients,
+                              boolean push) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        AtomicBoolean stop = new AtomicBoolean();
+        LongAdder ingestedModels = new LongAdder();
+        List<Thread> pushThreads = new ArrayList<>();
+        if (push) {
+            for (String models : pushes) {
+                Thread thread = new Thread(() -> {
+                    try {
+                        while (!stop.get()) {
+                            pushAndWait(http, models);
+                            ingestedModels.add(MODELS_PER_PUSH);
+                        }
+                    } catch (IOException e) {
+                        throw new IllegalStateException(e);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+                thread.start();
+                pushThreads.add(thread);
+            }
+        }
+
+        ConcurrentLinkedQueue<long[]> results = new ConcurrentLinkedQueue<>();
+        List<Thread> clientThreads = new ArrayList<>();
+        for (int t = 0; t < clients; t++) {
+            int offset = t;
+            Thread thread = new Thread(() -> {
+                LongList latencies = new LongList();
+                for (int i = offset; System.nanoTime() < deadline; i++) {
+                    HttpRequest request = HttpRequest.newBuilder(URI.create(BASE_URL + "/api/detection/validate"))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(detections.get(i % detections.size())))
+                            .build();
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<byte[]> response = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                        if (response.statusCode() != 200) throw new IllegalStateException("HTTP " + response.statusCode());
+                    } catch (IOException e) {
+                        throw new IllegalStateException(e);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    latencies.add(System.nanoTime() - start);
+                }
+                results.add(latencies.toArray());
+            });
+            thread.start();
+            clientThreads.add(thread);
+        }
+        for (Thread thread : clientThreads) {
+            thread.join();
+        }
+        stop.set(true);
+        for (Thread thread : pushThreads) {
+            thread.join();
+        }
+
+        long[] sorted = results.stream().flatMapToLong(Arrays::stream).toArray();
+        Arrays.sort(sorted);
+        return String.format("detections/s=%6.0f p50=%7.3f ms p99=%8.3f ms p99.9=%8.3f ms models/s=%6.0f",
+                sorted.length / (double) seconds, percentile(sorted, 0.5), percentile(sorted, 0.99),
+                percentile(sorted, 0.999), ingestedModels.sum() / (double) seconds);
+    }
+
+    private static void pushAndWait(HttpClient http, String models) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(BASE_URL + "/api/models"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(models))
+                .build();
+        HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 202) {
+            throw new IOException("HTTP " + response.statusCode() + ": " + response.body());
+        }
+        URI location = URI.create(BASE_URL + response.headers().firstValue("Location").orElseThrow());
+        while (true) {
+            JsonNode job = MAPPER.readTree(http.send(HttpRequest.newBuilder(location).build(), HttpResponse.BodyHandlers.ofString()).body());
+            String status = job.get("status").asText();
+            if (status.equals("SUCCEEDED")) return;
+            if (status.equals("FAILED")) throw new IOException("Ingestion failed: " + job);
+            Thread.sleep(10);
+        }
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.floor(p * sorted.length))] / 1e6;
+    }
+
+    private static void awaitReady(Process process, HttpClient http) throws Exception {
+        while (process.isAlive()) {
+            try {
+                HttpResponse<Void> response = http.send(HttpRequest.newBuilder(URI.create(BASE_URL + "/api/health/readiness")).build(),
+                        HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() == 200) return;
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(20);
+        }
+        throw new IllegalStateException("The detector exited with code " + process.exitValue());
+    }
+
+    // Growable array of latencies, written by a single thread
+    private static final class LongList {
+        private long[] values = new long[1 << 16];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+}
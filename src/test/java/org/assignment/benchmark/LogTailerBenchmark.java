@@ -0,0 +1,97 @@
+package org.assignment.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.assignment.APIAnomalyDetectorApplication;
+import org.assignment.model.APIModelDTO;
+import org.assignment.model.LogTailStatsDTO;
+import org.assignment.replay.LogTailer;
+import org.assignment.service.ModelService;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Whether the log tailer keeps up with a given write rate: a writer appends requests to a log at a fixed rate
+ * while the tailer follows it, and the lag is sampled every 100 ms.
+ * <p>
+ * Run with: {@code <lines per second> <seconds> <worker threads>}. Prints the write and evaluation rates
+ * and the largest lag observed.
+ * </p>
+ */
+public class LogTailerBenchmark {
+
+    private static final byte[] LINE = ("{\"method\":\"POST\",\"path\":\"/api/login\",\"body\":[{\"name\":\"username\","
+            + "\"value\":\"john\"},{\"name\":\"password\",\"value\":\"pw\"},{\"name\":\"is_admin\",\"value\":false}]}\n")
+            .getBytes(StandardCharsets.UTF_8);
+
+    public static void main(String[] args) throws Exception {
+        int linesPerSecond = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        Path dir = Files.createTempDirectory("log-tail");
+        Path log = dir.resolve("requests.ndjson");
+        Files.createFile(log);
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(APIAnomalyDetectorApplication.class)
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .run("--logging.level.org.assignment=WARN", "--app.log-tail.enabled=true", "--app.log-tail.file=" + log,
+                        "--app.log-tail.threads=" + threads);
+        try {
+            ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+            context.getBean(ModelService.class).ingestModels(objectMapper.readValue(
+                    new ClassPathResource("api-models/model_list.json").getInputStream(), new TypeReference<List<APIModelDTO>>() {
+                    }));
+            LogTailer tailer = context.getBean(LogTailer.class);
+
+            long written = 0;
+            long maxLagBytes = 0;
+            long maxLagMillis = 0;
+            long start = System.nanoTime();
+            long nextSample = start;
+            try (OutputStream out = Files.newOutputStream(log, StandardOpenOption.APPEND)) {
+                byte[] chunk = new byte[LINE.length * 1000];
+                for (int i = 0; i < 1000; i++) {
+                    System.arraycopy(LINE, 0, chunk, i * LINE.length, LINE.length);
+                }
+                while (System.nanoTime() - start < seconds * 1_000_000_000L) {
+                    long due = (System.nanoTime() - start) * linesPerSecond / 1_000_000_000L;
+                    while (written + 1000 <= due) {
+                        out.write(chunk);
+                        written += 1000;
+                    }
+                    out.flush();
+                    if (System.nanoTime() >= nextSample) {
+                        LogTailStatsDTO stats = tailer.getStats();
+                        maxLagBytes = Math.max(maxLagBytes, stats.getLagBytes());
+                        maxLagMillis = Math.max(maxLagMillis, stats.getLagMillis());
+                        nextSample += 100_000_000L;
+                    }
+                    Thread.sleep(1);
+                }
+            }
+            double writeSeconds = (System.nanoTime() - start) / 1e9;
+            long evaluatedDuringWrite = tailer.getStats().getLines();
+            while (tailer.getStats().getLines() < written) {
+                Thread.sleep(10);
+            }
+            double totalSeconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("written=%,d lines at %,.0f lines/s, evaluated %,d during the write, all after %.2f s (%,.0f lines/s)%n",
+                    written, written / writeSeconds, evaluatedDuringWrite, totalSeconds, written / totalSeconds);
+            System.out.printf("max lag=%,d bytes / %,d ms, workers=%d%n", maxLagBytes, maxLagMillis, threads);
+        } finally {
+            context.close();
+        }
+    }
+
+}
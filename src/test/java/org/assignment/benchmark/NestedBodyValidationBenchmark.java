@@ -0,0 +1,69 @@
+package org.assignment.benchmark;
+
+import org.assignment.validation.TypeValidator;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Validation cost of parsed nested body values checked as "List": the rendered path
+ * ({@code String.valueOf} then re-parsing) against the native walk of the parsed value.
+ * <p>
+ * Run with: {@code <iterations per size>}. Prints the average time per validation for bodies of
+ * increasing size (a list of N objects, each with a nested list and a nested object).
+ * </p>
+ */
+public class NestedBodyValidationBenchmark {
+
+    private static final List<String> LIST_TYPE = List.of("List");
+
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        TypeValidator typeValidator = new TypeValidator();
+
+        for (int size : new int[]{1, 10, 100, 1000}) {
+            Object body = body(size);
+            int rounds = Math.max(10, iterations / size);
+
+            // Warm-up both paths
+            run(typeValidator, body, rounds, true);
+            run(typeValidator, body, rounds, false);
+
+            double renderedNanos = run(typeValidator, body, rounds, true);
+            double nativeNanos = run(typeValidator, body, rounds, false);
+            System.out.printf("objects=%4d rendered=%10.0f ns/op native=%9.0f ns/op speedup=%.1fx%n",
+                    size, renderedNanos, nativeNanos, renderedNanos / nativeNanos);
+        }
+    }
+
+    private static double run(TypeValidator typeValidator, Object body, int rounds, boolean rendered) {
+        long start = System.nanoTime();
+        boolean valid = true;
+        for (int i = 0; i < rounds; i++) {
+            valid &= rendered
+                    ? typeValidator.validate(String.valueOf(body), LIST_TYPE)
+                    : typeValidator.validate(body, LIST_TYPE);
+        }
+        if (!valid) throw new IllegalStateException("Benchmark body should be valid");
+        return (System.nanoTime() - start) / (double) rounds;
+    }
+
+    private static Object body(int size) {
+        List<Object> items = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("id", i);
+            item.put("sku", "SKU-" + i);
+            item.put("price", 9.99);
+            item.put("active", true);
+            item.put("email", "buyer" + i + "@example.com");
+            item.put("tags", List.of("a", "b", "c"));
+            item.put("dimensions", Map.of("w", 10, "h", 20, "unit", "cm"));
+            items.add(item);
+        }
+        return items;
+    }
+
+}
@@ -0,0 +1,93 @@
+package org.assignment.benchmark;
+
+import org.assignment.model.AnomalyDTO;
+import org.assignment.model.DetectionDTO;
+import org.assignment.service.RateAnomalyDetector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cost of the request-rate checks per request, and the memory they hold, with a few or millions of clients.
+ * <p>
+ * Run with: {@code <requests per thread> <threads>}, for example {@code 5000000 1}.
+ * Requests cycle over 100 endpoints, without client header, over 1,000 clients (all with exact counters, all
+ * flooding) or over 4 million distinct clients (counted by the sketch only). Prints the average time per check and the heap held by the detector after a GC.
+ * </p>
+ */
+public class RateAnomalyBenchmark {
+
+    private static final int ENDPOINTS = 100;
+
+    public static void main(String[] args) throws Exception {
+        int requests = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+
+        report("no client header", requests, threads, 0);
+        // Hundreds of thousands of requests per second from 1,000 clients is a flood: exact counters, every request reported
+        report("1,000 clients", requests, threads, 1_000);
+        // Each client under the floor: counted by the sketch only
+        report("4,000,000 clients", requests, threads, 4_000_000);
+    }
+
+    private static void report(String label, int requests, int threads, int clients) throws Exception {
+        // The defaults of application.properties
+        RateAnomalyDetector detector = new RateAnomalyDetector(true, "Authorization", 60, 5, 0.2, 3, 600, 300,
+                100_000, 100_000, 65536, 4);
+        DetectionDTO[] detections = new DetectionDTO[Math.max(1, Math.min(clients, 1 << 20))];
+        for (int i = 0; i < detections.length; i++) {
+            Map<String, String> headers = clients > 0 ? Map.of("Authorization", "Bearer token-" + i) : Map.of();
+            detections[i] = new DetectionDTO("GET", "/", null, headers, null);
+        }
+        String[] keys = new String[ENDPOINTS];
+        for (int i = 0; i < ENDPOINTS; i++) {
+            keys[i] = "GET:/api/endpoint/" + i;
+        }
+
+        long before = usedHeap();
+        // Warm-up
+        run(detector, detections, keys, clients, requests / 4, threads, new LongAdder());
+        LongAdder reported = new LongAdder();
+        double nanos = run(detector, detections, keys, clients, requests, threads, reported);
+        long heap = usedHeap() - before;
+        System.out.printf("%-18s %d threads: %6.0f ns/check, %5.1f%% reported, counters=%4d MB%n", label, threads,
+                nanos, 100.0 * reported.sum() / requests / threads, heap >> 20);
+    }
+
+    private static long usedHeap() {
+        System.gc();
+        return Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
+    }
+
+    private static double run(RateAnomalyDetector detector, DetectionDTO[] detections, String[] keys, int clients,
+                              int requests, int threads, LongAdder reported) throws Exception {
+        LongAdder nanos = new LongAdder();
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int seed = t;
+            Thread thread = new Thread(() -> {
+                List<AnomalyDTO> none = List.of();
+                long start = System.nanoTime();
+                long count = 0;
+                for (int i = 0; i < requests; i++) {
+                    int n = seed * requests + i;
+                    DetectionDTO detection = detections[n % detections.length];
+                    // Beyond the prepared detections, distinct clients through the tenant
+                    String tenant = clients > detections.length ? "t" + (n % clients) / detections.length : "default";
+                    if (detector.check(tenant, keys[n % ENDPOINTS], true, detection, none, false) != none) count++;
+                }
+                nanos.add(System.nanoTime() - start);
+                reported.add(count);
+            });
+            thread.start();
+            workers.add(thread);
+        }
+        for (Thread thread : workers) {
+            thread.join();
+        }
+        return nanos.sum() / (double) requests / threads;
+    }
+
+}
@@ -0,0 +1,40 @@
+package org.assignment.benchmark;
+
+import java.io.BufferedWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Writes a recorded traffic file for the offline replay: login and payment requests matching
+ * {@code api-models/model_list.json}, with a share of type mismatches and unknown endpoints.
+ * <p>
+ * Run with: {@code <output file> <lines>}, then replay it with {@code org.assignment.ReplayApplication}.
+ * </p>
+ */
+public class ReplayTrafficGenerator {
+
+    public static void main(String[] args) throws Exception {
+        Path output = Path.of(args.length > 0 ? args[0] : "traffic.ndjson");
+        long lines = args.length > 1 ? Long.parseLong(args[1]) : 1_000_000;
+        Random random = new Random(42);
+        try (BufferedWriter writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+            for (long i = 0; i < lines; i++) {
+                int kind = random.nextInt(100);
+                if (kind < 5) {
+                    writer.write("{\"method\":\"GET\",\"path\":\"/api/unknown/" + random.nextInt(1000) + "\"}");
+                } else if (kind < 15) {
+                    writer.write("{\"method\":\"POST\",\"path\":\"/api/login\",\"body\":[{\"name\":\"username\",\"value\":\"user"
+                            + i + "\"},{\"name\":\"password\",\"value\":\"pw\"},{\"name\":\"is_admin\",\"value\":\"sometimes\"}]}");
+                } else {
+                    writer.write("{\"method\":\"POST\",\"path\":\"/api/login\",\"body\":[{\"name\":\"username\",\"value\":\"user"
+                            + i + "\"},{\"name\":\"password\",\"value\":\"pw\"},{\"name\":\"is_admin\",\"value\":false}]}");
+                }
+                writer.newLine();
+            }
+        }
+        System.out.printf("Wrote %,d lines (%,d bytes) to %s%n", lines, Files.size(output), output);
+    }
+
+}
@@ -0,0 +1,74 @@
+package org.assignment.benchmark;
+
+import org.assignment.model.APIModelDTO;
+import org.assignment.repository.ModelRepository;
+import org.assignment.service.EndpointFilter;
+import org.assignment.service.ModelCache;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Hot-model hit rate of the ModelCache under an unknown-endpoint scan, with and without the EndpointFilter.
+ * <p>
+ * 800 hot models share a cache of 1000 entries with a scanner sending an increasing number of random paths
+ * per hot lookup. Run with: {@code <hot models> <cache size> <lookups per phase>}.
+ * </p>
+ */
+public class ScanWorkloadBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int hotModels = args.length > 0 ? Integer.parseInt(args[0]) : 800;
+        int cacheSize = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        int lookups = args.length > 2 ? Integer.parseInt(args[2]) : 200_000;
+
+        for (boolean filtered : new boolean[]{false, true}) {
+            System.out.printf("endpoint filter %s%n", filtered ? "enabled" : "disabled");
+            for (int scansPerLookup : new int[]{0, 1, 4, 16}) {
+                double hitRate = run(hotModels, cacheSize, lookups, scansPerLookup, filtered);
+                System.out.printf("  scans per hot lookup=%2d hot hit rate=%.4f%n", scansPerLookup, hitRate);
+            }
+        }
+    }
+
+    private static double run(int hotModels, int cacheSize, int lookups, int scansPerLookup, boolean filtered) throws Exception {
+        ModelRepository repository = new ModelRepository();
+        EndpointFilter endpointFilter = new EndpointFilter(filtered, 0.01);
+        ModelCache modelCache = new ModelCache(repository, cacheSize, 600_000, Map.of(), endpointFilter);
+
+        Map<String, APIModelDTO> models = new HashMap<>();
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < hotModels; i++) {
+            String key = "GET:/api/hot/" + i;
+            models.put(key, new APIModelDTO("/api/hot/" + i, "GET", List.of(), List.of(), List.of()));
+            keys.add(key);
+        }
+        endpointFilter.addAll("default", keys);
+        repository.saveBatch("default", models);
+
+        Random random = new Random(42);
+        long scan = 0;
+        // Warm-up pass, then measure the hot lookups only
+        for (String key : keys) {
+            modelCache.get("default", key);
+        }
+        long hits = 0;
+        for (int i = 0; i < lookups; i++) {
+            for (int s = 0; s < scansPerLookup; s++) {
+                modelCache.get("default", "GET:/scan/" + scan++);
+            }
+            long before = hitCount(modelCache);
+            modelCache.get("default", keys.get(random.nextInt(hotModels)));
+            hits += hitCount(modelCache) - before;
+        }
+        return (double) hits / lookups;
+    }
+
+    private static long hitCount(ModelCache modelCache) {
+        return modelCache.getTenantStats().get(0).getHitCount();
+    }
+
+}
@@ -0,0 +1,123 @@
+package org.assignment.benchmark;
+
+import org.assignment.validation.DateValidator;
+import org.assignment.validation.IntegerValidator;
+import org.assignment.validation.ObjectValidator;
+import org.assignment.validation.StringValidator;
+import org.assignment.validation.UUIDValidator;
+
+import java.util.function.Predicate;
+
+/**
+ * Validation cost of String, Int, UUID and Date values across value lengths, with the character-by-character (or
+ * regex) implementations and the current ones.
+ * <p>
+ * Run with: {@code <iterations>}. Prints the average time per validation. Each case cycles over 1,024 distinct valid
+ * values, so the JIT cannot fold the checks away.
+ * </p>
+ */
+public class SwarScanBenchmark {
+
+    private static final int VALUES = 1024;
+    private static final int[] LENGTHS = {8, 16, 32, 64, 256, 4096};
+
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+
+        for (int length : LENGTHS) {
+            String[] strings = new String[VALUES];
+            String[] numbers = new String[VALUES];
+            for (int i = 0; i < VALUES; i++) {
+                strings[i] = fill("customer note " + i + " ", length);
+                numbers[i] = fill(String.valueOf(i * 7919L + 1_000_000_007L), length);
+            }
+            report("String, " + length + " chars", new StringValidator(), SwarScanBenchmark::plainString, strings, iterations);
+            report("Int, " + length + " digits", new IntegerValidator(), SwarScanBenchmark::plainInt, numbers, iterations);
+        }
+
+        String[] uuids = new String[VALUES];
+        String[] dates = new String[VALUES];
+        String[] quotedDates = new String[VALUES];
+        for (int i = 0; i < VALUES; i++) {
+            uuids[i] = new java.util.UUID(i * 0x9E3779B97F4A7C15L, ~i * 0xC2B2AE3D27D4EB4FL).toString();
+            dates[i] = String.format("%02d-%02d-%04d", 1 + i % 28, 1 + i % 12, 1900 + i);
+            quotedDates[i] = "\"" + dates[i] + "\"";
+        }
+        report("UUID", new UUIDValidator(), s -> s.length() == 36 && UUIDValidator.UUID.matcher(s).matches(), uuids, iterations);
+        report("Date", new DateValidator(), SwarScanBenchmark::plainDate, dates, iterations);
+        report("Date, quoted", new DateValidator(), SwarScanBenchmark::plainDate, quotedDates, iterations);
+    }
+
+    private static void report(String label, ObjectValidator validator, Predicate<String> plain, String[] values, int iterations) {
+        // Warm-up
+        run(validator::validate, values, iterations);
+        run(plain, values, iterations);
+
+        double before = run(plain, values, iterations);
+        double after = run(validator::validate, values, iterations);
+        System.out.printf("%-22s before=%8.1f ns/op after=%8.1f ns/op%n", label, before, after);
+    }
+
+    private static double run(Predicate<String> validator, String[] values, int iterations) {
+        long start = System.nanoTime();
+        int valid = 0;
+        for (int i = 0; i < iterations; i++) {
+            if (validator.test(values[i & (VALUES - 1)])) valid++;
+        }
+        if (valid != iterations) throw new IllegalStateException("Benchmark values should be valid");
+        return (System.nanoTime() - start) / (double) iterations;
+    }
+
+    private static String fill(String s, int length) {
+        StringBuilder sb = new StringBuilder(length);
+        while (sb.length() < length) {
+            sb.append(s.charAt(sb.length() % s.length()));
+        }
+        return sb.toString();
+    }
+
+    // The implementations before the word-at-a-time scans
+
+    private static boolean plainString(String s) {
+        if (s.isEmpty()) return false;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '\n' || c == '\r') return false;
+        }
+        return true;
+    }
+
+    private static boolean plainInt(String s) {
+        if (s.isEmpty() || s.startsWith("\"")) return false;
+        int i = (s.charAt(0) == '-') ? 1 : 0;
+        if (i == 1 && s.length() == 1) return false;
+        for (; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') return false;
+        }
+        return true;
+    }
+
+    private static boolean plainDate(String s) {
+        String clean = s;
+        if (s.startsWith("\"") && s.endsWith("\"")) {
+            if (s.length() != 12) return false;
+            clean = s.substring(1, 11);
+        } else if (s.length() != 10) {
+            return false;
+        }
+        if (clean.charAt(2) != '-' || clean.charAt(5) != '-') return false;
+        for (int i = 0; i < 10; i++) {
+            char c = clean.charAt(i);
+            if (i != 2 && i != 5 && (c < '0' || c > '9')) return false;
+        }
+        int day = (clean.charAt(0) - '0') * 10 + clean.charAt(1) - '0';
+        int month = (clean.charAt(3) - '0') * 10 + clean.charAt(4) - '0';
+        int year = Integer.parseInt(clean, 6, 10, 10);
+        if (month < 1 || month > 12 || day < 1 || year < 1000 || year > 9999) return false;
+        int[] daysInMonth = {31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+        boolean leap = (year % 4 == 0 && year % 100 != 0) || (year % 400 == 0);
+        return day <= (month == 2 && leap ? 29 : daysInMonth[month - 1]);
+    }
+
+}
@@ -0,0 +1,77 @@
+package org.assignment.benchmark;
+
+import org.assignment.validation.TypeCheckOrder;
+import org.assignment.validation.TypeValidator;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Validation cost of parameters allowing several types, in declaration order and in the adaptive order of
+ * {@link TypeCheckOrder}.
+ * <p>
+ * Run with: {@code <iterations>}. Prints the average time per validation. Each case cycles over 1,024 distinct values,
+ * so the JIT cannot fold the checks away.
+ * </p>
+ */
+public class TypeCheckOrderBenchmark {
+
+    private static final int VALUES = 1024;
+
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        TypeValidator typeValidator = new TypeValidator();
+
+        String[] plainStrings = new String[VALUES];
+        String[] numbers = new String[VALUES];
+        String[] emails = new String[VALUES];
+        String[] mixed = new String[VALUES];
+        for (int i = 0; i < VALUES; i++) {
+            plainStrings[i] = "customer note number " + i;
+            numbers[i] = String.valueOf(i * 7919);
+            emails[i] = "user" + i + "@example.com";
+            // 90% strings, 10% lists
+            mixed[i] = i % 10 == 0 ? "[" + i + ", \"a\", true]" : plainStrings[i];
+        }
+
+        report("plain strings, [List, Email, String]", typeValidator, plainStrings, List.of("List", "Email", "String"), iterations);
+        report("numbers, [Email, UUID, Auth-Token, Int]", typeValidator, numbers, List.of("Email", "UUID", "Auth-Token", "Int"), iterations);
+        report("90% strings, 10% lists, [List, String]", typeValidator, mixed, List.of("List", "String"), iterations);
+        report("emails, [Email, String]", typeValidator, emails, List.of("Email", "String"), iterations);
+        // Already in the best order: the cost of the sampling
+        report("numbers, [Int, Email]", typeValidator, numbers, List.of("Int", "Email"), iterations);
+    }
+
+    private static void report(String label, TypeValidator typeValidator, String[] values, List<String> types, int iterations) {
+        TypeCheckOrder order = new TypeCheckOrder(types);
+        // Warm-up, which also lets the order adapt
+        runDeclared(typeValidator, values, types, iterations);
+        runAdaptive(typeValidator, values, order, iterations);
+
+        double declared = runDeclared(typeValidator, values, types, iterations);
+        double adaptive = runAdaptive(typeValidator, values, order, iterations);
+        System.out.printf("%-42s declared=%7.1f ns/op adaptive=%7.1f ns/op order=%s%n",
+                label, declared, adaptive, order.getOrder());
+    }
+
+    private static double runDeclared(TypeValidator typeValidator, String[] values, List<String> types, int iterations) {
+        long start = System.nanoTime();
+        int valid = 0;
+        for (int i = 0; i < iterations; i++) {
+            if (typeValidator.validate(values[i & (VALUES - 1)], types, Map.of())) valid++;
+        }
+        if (valid != iterations) throw new IllegalStateException("Benchmark values should be valid");
+        return (System.nanoTime() - start) / (double) iterations;
+    }
+
+    private static double runAdaptive(TypeValidator typeValidator, String[] values, TypeCheckOrder order, int iterations) {
+        long start = System.nanoTime();
+        int valid = 0;
+        for (int i = 0; i < iterations; i++) {
+            if (typeValidator.validate(values[i & (VALUES - 1)], order, Map.of())) valid++;
+        }
+        if (valid != iterations) throw new IllegalStateException("Benchmark values should be valid");
+        return (System.nanoTime() - start) / (double) iterations;
+    }
+
+}
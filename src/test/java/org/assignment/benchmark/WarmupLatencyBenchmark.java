@@ -0,0 +1,199 @@
+package org.assignment.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.assignment.APIAnomalyDetectorApplication;
+import org.assignment.model.APIModelDTO;
+import org.assignment.model.APIModelParamDTO;
+import org.assignment.warmup.SyntheticRequests;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the first minute of detection traffic after startup, without and with the startup warm-up.
+ * <p>
+ * Run with: {@code <seconds> <client threads> <models>}, for example {@code 60 4 200}.
+ * Starts the detector twice in a fresh JVM (so the JIT starts cold), with generated models loaded from a bootstrap
+ * file, waits for {@code /api/health/readiness}, then sends valid and anomalous detections of every model from the
+ * client threads. Reports the time to ready and the latency percentiles of every 10 second window.
+ * </p>
+ */
+public class WarmupLatencyBenchmark {
+
+    private static final HttpClient HTTP = HttpClient.newHttpClient();
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final int PORT = 18090;
+    private static final String BASE_URL = "http://localhost:" + PORT;
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(10);
+    private static final String[] TYPES = {"Int", "String", "Boolean", "Date", "Email", "UUID", "Auth-Token", "List"};
+
+    public static void main(String[] args) throws Exception {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 60;
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int modelCount = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+
+        List<APIModelDTO> models = generateModels(modelCount);
+        Path modelsFile = Files.createTempFile("warmup-models", ".json");
+        MAPPER.writeValue(modelsFile.toFile(), models);
+        List<String> detections = new ArrayList<>();
+        for (APIModelDTO model : models) {
+            detections.add(MAPPER.writeValueAsString(SyntheticRequests.valid(model)));
+            detections.add(MAPPER.writeValueAsString(SyntheticRequests.anomalous(model)));
+        }
+
+        try {
+            for (boolean warmup : new boolean[]{false, true}) {
+                run(warmup, modelsFile, detections, seconds, clients);
+            }
+        } finally {
+            Files.deleteIfExists(modelsFile);
+        }
+    }
+
+    private static void run(boolean warmup, Path modelsFile, List<String> detections, int seconds, int clients) throws Exception {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                APIAnomalyDetectorApplication.class.getName(),
+                "--server.port=" + PORT,
+                "--app.models.bootstrap-file=" + modelsFile,
+                "--app.warmup.enabled=" + warmup,
+                "--logging.level.root=WARN")
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(new File("warmup-benchmark-" + warmup + ".log"))
+                .start();
+        try {
+            long launched = System.nanoTime();
+            awaitReady(process);
+            long readyMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - launched);
+
+            int windows = (int) Math.ceil(seconds * 1e9 / WINDOW_NANOS);
+            List<long[]> latencies = new ArrayList<>();
+            List<Thread> threads = new ArrayList<>();
+            long start = System.nanoTime();
+            long deadline = start + TimeUnit.SECONDS.toNanos(seconds);
+            for (int c = 0; c < clients; c++) {
+                int offset = c;
+                List<List<Long>> samples = new ArrayList<>();
+                for (int w = 0; w < windows; w++) {
+                    samples.add(new ArrayList<>());
+                }
+                Thread thread = new Thread(() -> {
+                    for (int i = offset; ; i += clients) {
+                        long sent = System.nanoTime();
+                        if (sent >= deadline) break;
+                        try {
+                            post(BASE_URL + "/api/detection/validate", detections.get(i % detections.size()));
+                        } catch (IOException e) {
+                            continue;
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                        samples.get((int) Math.min(windows - 1, (sent - start) / WINDOW_NANOS)).add(System.nanoTime() - sent);
+                    }
+                    synchronized (latencies) {
+                        for (int w = 0; w < windows; w++) {
+                            latencies.add(toWindow(w, samples.get(w)));
+                        }
+                    }
+                });
+                thread.start();
+                threads.add(thread);
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            System.out.printf("warmup=%s ready after %d ms%n", warmup, readyMillis);
+            List<Long> all = new ArrayList<>();
+            for (int w = 0; w < windows; w++) {
+                List<Long> window = new ArrayList<>();
+                for (long[] entry : latencies) {
+                    if (entry[0] == w) {
+                        for (int i = 1; i < entry.length; i++) window.add(entry[i]);
+                    }
+                }
+                all.addAll(window);
+                System.out.printf("  %3d-%3ds %s%n", w * 10, Math.min(seconds, (w + 1) * 10), describe(window));
+            }
+            System.out.printf("  total    %s%n", describe(all));
+        } finally {
+            process.destroy();
+            process.waitFor(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private static long[] toWindow(int window, List<Long> samples) {
+        long[] entry = new long[samples.size() + 1];
+        entry[0] = window;
+        for (int i = 0; i < samples.size(); i++) entry[i + 1] = samples.get(i);
+        return entry;
+    }
+
+    private static String describe(List<Long> latencies) {
+        if (latencies.isEmpty()) return "no request";
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+        return String.format("requests=%7d p50=%7.3f ms p99=%7.3f ms p99.9=%7.3f ms max=%8.3f ms", sorted.length,
+                percentile(sorted, 0.5), percentile(sorted, 0.99), percentile(sorted, 0.999), sorted[sorted.length - 1] / 1e6);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.floor(p * sorted.length))] / 1e6;
+    }
+
+    private static void awaitReady(Process process) throws Exception {
+        while (process.isAlive()) {
+            try {
+                HttpResponse<Void> response = HTTP.send(HttpRequest.newBuilder(URI.create(BASE_URL + "/api/health/readiness")).build(),
+                        HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() == 200) return;
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(20);
+        }
+        throw new IllegalStateException("The detector exited with code " + process.exitValue());
+    }
+
+    /**
+     * Models of every built-in type, with query params, headers and a nested body.
+     */
+    private static List<APIModelDTO> generateModels(int count) {
+        List<APIModelDTO> models = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            List<APIModelParamDTO> query = List.of(param("q" + i, i), param("page", i + 1));
+            List<APIModelParamDTO> headers = List.of(param("X-Request-ID", i + 5), param("Authorization", 6));
+            List<APIModelParamDTO> body = List.of(param("user.name", i + 1), param("user.email", 4),
+                    param("items[].sku", 1), param("items[].qty", 0), param("flag", 2), param("day", 3));
+            models.add(new APIModelDTO("/api/resource" + i, i % 2 == 0 ? "POST" : "PUT", query, headers, body));
+        }
+        return models;
+    }
+
+    private static APIModelParamDTO param(String name, int type) {
+        return new APIModelParamDTO(name, List.of(TYPES[type % TYPES.length]), true);
+    }
+
+    private static void post(String url, String json) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+        HttpResponse<String> response = HTTP.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IOException("HTTP " + response.statusCode() + " from " + url + ": " + response.body());
+        }
+    }
+
+}
@@ -0,0 +1,199 @@
+package org.assignment.cluster;
+
+import org.assignment.APIAnomalyDetectorApplication;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Integration test running a two-node cluster on localhost.
+ * With a replication factor of 1 every endpoint lives on exactly one node, so half of the
+ * requests sent to any node must be forwarded to the other one.
+ */
+class ClusterModeTest {
+
+    private static final int ENDPOINTS = 20;
+    private static final HttpClient HTTP = HttpClient.newHttpClient();
+    private static final List<ConfigurableApplicationContext> NODES = new ArrayList<>();
+    private static final List<String> ADDRESSES = new ArrayList<>();
+
+    @BeforeAll
+    static void startCluster() throws IOException {
+        ADDRESSES.add("localhost:" + freePort());
+        ADDRESSES.add("localhost:" + freePort());
+        for (String address : ADDRESSES) {
+            // Command line arguments take precedence over application.properties
+            NODES.add(new SpringApplicationBuilder(APIAnomalyDetectorApplication.class).run(
+                    "--server.port=" + address.split(":")[1],
+                    "--app.cluster.enabled=true",
+                    "--app.cluster.self-node=" + address,
+                    "--app.cluster.nodes=" + String.join(",", ADDRESSES),
+                    "--app.cluster.replication-factor=1",
+                    "--app.cluster.secret=test-secret",
+                    "--app.detection-controller.hot-keys.enabled=false"));
+        }
+    }
+
+    @AfterAll
+    static void stopCluster() {
+        NODES.forEach(ConfigurableApplicationContext::close);
+    }
+
+    @Test
+    @DisplayName("Models ingested on one node are routed to their owners and reachable from every node")
+    void testRoutingAcrossNodes() throws Exception {
+        StringBuilder models = new StringBuilder("[");
+        for (int i = 0; i < ENDPOINTS; i++) {
+            if (i > 0) models.append(',');
+            models.append("{\"method\":\"POST\",\"path\":\"/api/e").append(i)
+                    .append("\",\"body\":[{\"name\":\"id\",\"types\":[\"Int\"],\"required\":true}]}");
+        }
+        models.append(']');
+        HttpResponse<String> accepted = post(ADDRESSES.get(0), "/api/models", models.toString());
+        assertEquals(202, accepted.statusCode());
+        assertTrue(awaitJob(ADDRESSES.get(0), accepted).contains("\"status\":\"SUCCEEDED\""));
+
+        for (String address : ADDRESSES) {
+            for (int i = 0; i < ENDPOINTS; i++) {
+                String valid = "{\"method\":\"POST\",\"path\":\"/api/e" + i + "\",\"body\":[{\"name\":\"id\",\"value\":7}]}";
+                assertEquals("[]", post(address, "/api/detection/validate", valid).body());
+
+                String invalid = "{\"method\":\"POST\",\"path\":\"/api/e" + i + "\",\"body\":[{\"name\":\"id\",\"value\":\"x\"}]}";
+                assertEquals(true, post(address, "/api/detection/validate", invalid).body().contains("TYPE_MISMATCH_BODY"));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Internal endpoints reject requests without the cluster secret")
+    void testInternalEndpointRequiresSecret() throws Exception {
+        String detection = "{\"method\":\"GET\",\"path\":\"/api/x\"}";
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://" + ADDRESSES.get(0) + "/internal/cluster/detect"))
+                .header("Content-Type", "application/json")
+                .header("X-Tenant-ID", "default")
+                .POST(HttpRequest.BodyPublishers.ofString(detection))
+                .build();
+
+        assertEquals(403, HTTP.send(request, HttpResponse.BodyHandlers.ofString()).statusCode());
+    }
+
+    @Test
+    @DisplayName("Internal endpoints check the tenant and the models like the public API")
+    void testInternalEndpointValidatesRequests() throws Exception {
+        String model = "[{\"method\":\"POST\",\"path\":\"/api/internal\",\"body\":[{\"name\":\"id\",\"types\":[\"Int\"],\"required\":true}]}]";
+        assertEquals(400, postInternal("/models", "bad tenant!", model).statusCode());
+
+        String invalidType = "[{\"method\":\"POST\",\"path\":\"/api/internal\",\"body\":[{\"name\":\"id\",\"types\":[\"Sku\"],\"required\":true}],"
+                + "\"customTypes\":[{\"name\":\"Sku\",\"pattern\":\"[A-Z\"}]}]";
+        HttpResponse<String> rejected = postInternal("/models", "default", invalidType);
+        assertEquals(400, rejected.statusCode());
+        assertTrue(rejected.body().contains("ERROR-4022"));
+
+        assertEquals(400, postInternal("/detect", "bad tenant!", "{\"method\":\"GET\",\"path\":\"/api/x\"}").statusCode());
+        assertEquals(200, postInternal("/models", "default", model).statusCode());
+    }
+
+    @Test
+    @DisplayName("A node in cluster mode refuses to start without a secret or with the former default one")
+    void testDefaultSecretRejected() throws Exception {
+        for (String secret : List.of("", "change-me")) {
+            Exception failure = assertThrows(Exception.class, () -> new SpringApplicationBuilder(APIAnomalyDetectorApplication.class).run(
+                    "--server.port=" + freePort(),
+                    "--app.cluster.enabled=true",
+                    "--app.cluster.self-node=" + ADDRESSES.get(0),
+                    "--app.cluster.nodes=" + String.join(",", ADDRESSES),
+                    "--app.cluster.secret=" + secret,
+                    "--app.detection-controller.hot-keys.enabled=false"));
+            Throwable cause = failure;
+            while (cause.getCause() != null) cause = cause.getCause();
+            assertTrue(cause.getMessage().contains("app.cluster.secret"), cause.getMessage());
+        }
+    }
+
+    @Test
+    @DisplayName("An unreachable owner only skips the batch entries it owns")
+    void testBatchSurvivesDeadNode() throws Exception {
+        String self = "localhost:" + freePort();
+        // Never started
+        String dead = "localhost:" + freePort();
+        try (ConfigurableApplicationContext node = new SpringApplicationBuilder(APIAnomalyDetectorApplication.class).run(
+                "--server.port=" + self.split(":")[1],
+                "--app.cluster.enabled=true",
+                "--app.cluster.self-node=" + self,
+                "--app.cluster.nodes=" + self + "," + dead,
+                "--app.cluster.replication-factor=1",
+                "--app.cluster.secret=test-secret",
+                "--app.detection-controller.hot-keys.enabled=false")) {
+            StringBuilder batch = new StringBuilder("[");
+            for (int i = 0; i < ENDPOINTS; i++) {
+                if (i > 0) batch.append(',');
+                batch.append("{\"method\":\"GET\",\"path\":\"/api/e").append(i).append("\"}");
+            }
+            batch.append(']');
+            HttpResponse<String> response = post(self, "/api/detection/validate/batch", batch.toString());
+
+            assertEquals(200, response.statusCode());
+            int skipped = response.body().split("SKIPPED_NODE_UNAVAILABLE", -1).length - 1;
+            int local = response.body().split("UNKNOWN_ENDPOINT", -1).length - 1;
+            assertTrue(skipped > 0 && local > 0, response.body());
+            assertEquals(ENDPOINTS, skipped + local);
+        }
+    }
+
+    private static HttpResponse<String> postInternal(String path, String tenantId, String json) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://" + ADDRESSES.get(0) + "/internal/cluster" + path))
+                .header("Content-Type", "application/json")
+                .header("X-Tenant-ID", tenantId)
+                .header("X-Cluster-Secret", "test-secret")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+        return HTTP.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static HttpResponse<String> post(String address, String path, String json) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://" + address + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+        return HTTP.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    // Polls the ingestion job of an accepted POST /api/models until it finishes, returns its last status
+    private static String awaitJob(String address, HttpResponse<String> accepted) throws Exception {
+        URI location = URI.create("http://" + address + accepted.headers().firstValue("Location").orElseThrow());
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (true) {
+            String job = HTTP.send(HttpRequest.newBuilder(location).build(), HttpResponse.BodyHandlers.ofString()).body();
+            if (!job.contains("\"status\":\"QUEUED\"") && !job.contains("\"status\":\"RUNNING\"")) {
+                return job;
+            }
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("Ingestion job still running: " + job);
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+}
@@ -0,0 +1,69 @@
+package org.assignment.cluster;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the ConsistentHashRing.
+ */
+class ConsistentHashRingTest {
+
+    private static final List<String> NODES = List.of("node-1:8080", "node-2:8080", "node-3:8080", "node-4:8080");
+    private static final int KEYS = 100_000;
+
+    @Test
+    @DisplayName("Owners are distinct and capped by the number of nodes")
+    void testReplicaOwners() {
+        ConsistentHashRing ring = new ConsistentHashRing(NODES, 128);
+
+        for (int i = 0; i < 1_000; i++) {
+            List<String> owners = ring.ownersOf("default/GET:/api/" + i, 3);
+            assertEquals(3, owners.size());
+            assertEquals(3, new HashSet<>(owners).size());
+        }
+        assertEquals(4, ring.ownersOf("default/GET:/api/x", 10).size());
+    }
+
+    @Test
+    @DisplayName("Keys are spread evenly over the nodes")
+    void testBalance() {
+        ConsistentHashRing ring = new ConsistentHashRing(NODES, 128);
+        Map<String, Integer> primaries = new HashMap<>();
+
+        for (int i = 0; i < KEYS; i++) {
+            primaries.merge(ring.ownersOf("default/GET:/api/" + i, 1).get(0), 1, Integer::sum);
+        }
+
+        int expected = KEYS / NODES.size();
+        primaries.values().forEach(count ->
+                assertTrue(Math.abs(count - expected) < expected * 0.25, "Unbalanced ring: " + primaries));
+    }
+
+    @Test
+    @DisplayName("Adding a node only moves the keys it takes over")
+    void testMinimalMovement() {
+        ConsistentHashRing before = new ConsistentHashRing(NODES.subList(0, 3), 128);
+        ConsistentHashRing after = new ConsistentHashRing(NODES, 128);
+
+        int moved = 0;
+        for (int i = 0; i < KEYS; i++) {
+            String key = "default/GET:/api/" + i;
+            String newOwner = after.ownersOf(key, 1).get(0);
+            if (!before.ownersOf(key, 1).get(0).equals(newOwner)) {
+                moved++;
+                assertEquals("node-4:8080", newOwner, "Keys may only move to the new node");
+            }
+        }
+        // Ideally a quarter of the keys move to the new node
+        assertTrue(moved < KEYS * 0.35, "Too many keys moved: " + moved);
+    }
+
+}
@@ -0,0 +1,86 @@
+package org.assignment.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.assignment.model.AnomalyDTO;
+import org.assignment.service.DetectionService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests checking that the detection response writer produces exactly the JSON of Jackson data binding.
+ */
+class AnomalyListHttpMessageConverterTest {
+
+    private static final TypeReference<List<AnomalyDTO>> ANOMALIES = new TypeReference<>() {
+    };
+    private static final TypeReference<List<List<AnomalyDTO>>> BATCH = new TypeReference<>() {
+    };
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AnomalyListHttpMessageConverter converter = new AnomalyListHttpMessageConverter(objectMapper.getFactory());
+
+    @Test
+    @DisplayName("Anomaly lists are written byte for byte as Jackson writes them")
+    void testAnomalyLists() throws Exception {
+        List<AnomalyDTO> anomalies = Arrays.asList(
+                new AnomalyDTO("TYPE_MISMATCH", "Param 'id' is not of type Int", "id"),
+                new AnomalyDTO("MISSING_REQUIRED", "Missing \"quoted\"\n\ttab \\ and é中\u0001", "items[].sku"),
+                new AnomalyDTO("UNKNOWN_ENDPOINT", null, null),
+                null);
+
+        assertSameJson(anomalies, ANOMALIES);
+        assertSameJson(new ArrayList<>(), ANOMALIES);
+        assertSameJson(Collections.emptyList(), ANOMALIES);
+        assertSameJson(DetectionService.UNKNOWN_ENDPOINT_RESULT, ANOMALIES);
+        assertSameJson(DetectionService.OVERLOAD_RESULT, ANOMALIES);
+        // An equal list that is not the shared constant takes the streaming path
+        assertSameJson(List.copyOf(DetectionService.UNKNOWN_ENDPOINT_RESULT), ANOMALIES);
+    }
+
+    @Test
+    @DisplayName("Batches mixing constant, empty and detected results are written as Jackson writes them")
+    void testBatches() throws Exception {
+        List<List<AnomalyDTO>> batch = Arrays.asList(
+                List.of(),
+                DetectionService.UNKNOWN_ENDPOINT_RESULT,
+                List.of(new AnomalyDTO("TYPE_MISMATCH", "bad", "id"), new AnomalyDTO("EXTRA_PARAM", "extra", null)),
+                DetectionService.OVERLOAD_RESULT,
+                null);
+
+        assertSameJson(batch, BATCH);
+        assertSameJson(List.of(), BATCH);
+    }
+
+    @Test
+    @DisplayName("Only JSON writes of anomaly lists are handled")
+    void testSupportedTypes() {
+        assertTrue(converter.canWrite(ANOMALIES.getType(), List.class, MediaType.APPLICATION_JSON));
+        assertTrue(converter.canWrite(BATCH.getType(), List.class, null));
+        assertFalse(converter.canWrite(ANOMALIES.getType(), List.class, MediaType.APPLICATION_XML));
+        assertFalse(converter.canWrite(new TypeReference<List<Map<String, Object>>>() {
+        }.getType(), List.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canWrite(List.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canRead(ANOMALIES.getType(), null, MediaType.APPLICATION_JSON));
+    }
+
+    private void assertSameJson(Object value, TypeReference<?> type) throws Exception {
+        MockHttpOutputMessage message = new MockHttpOutputMessage();
+        converter.write(value, type.getType(), MediaType.APPLICATION_JSON, message);
+        assertEquals(objectMapper.writerFor(objectMapper.constructType(type)).writeValueAsString(value),
+                message.getBodyAsString());
+    }
+
+}
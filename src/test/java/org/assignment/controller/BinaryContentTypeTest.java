@@ -0,0 +1,157 @@
+package org.assignment.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.assignment.IngestionJobs;
+import org.assignment.exception.AppErrorCode;
+import org.assignment.model.AnomalyDTO;
+import org.assignment.model.KeyValueObjectDTO;
+import org.assignment.model.RequestDTO;
+import org.assignment.service.DetectionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration tests for the Smile and CBOR encodings of the model and detection APIs.
+ */
+@TestPropertySource(locations = "classpath:application-test.properties")
+@SpringBootTest
+@AutoConfigureMockMvc
+class BinaryContentTypeTest {
+
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+    private static final MediaType CBOR = MediaType.parseMediaType("application/cbor");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+    private final ObjectMapper cborMapper = new ObjectMapper(new CBORFactory());
+
+    @BeforeEach
+    void setupLearningPhase() throws Exception {
+        JsonNode models = objectMapper.readTree(new ClassPathResource("api-models/model_list.json").getInputStream());
+        IngestionJobs.awaitSuccess(mockMvc, mockMvc.perform(post("/api/models")
+                        .contentType(SMILE)
+                        .content(smileMapper.writeValueAsBytes(models))));
+    }
+
+    @Test
+    @DisplayName("Smile detections get Smile anomalies back, and JSON when the client does not ask for Smile")
+    void testSmileDetection() throws Exception {
+        byte[] response = mockMvc.perform(post("/api/detection/validate")
+                        .contentType(SMILE)
+                        .accept(SMILE)
+                        .content(smileMapper.writeValueAsBytes(login("secret123"))))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertEquals(List.of(), smileMapper.readValue(response, new TypeReference<List<AnomalyDTO>>() {
+        }));
+
+        response = mockMvc.perform(post("/api/detection/validate")
+                        .contentType(SMILE)
+                        .accept(SMILE)
+                        .content(smileMapper.writeValueAsBytes(login(null))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        List<AnomalyDTO> anomalies = smileMapper.readValue(response, new TypeReference<>() {
+        });
+        assertEquals(1, anomalies.size());
+        assertEquals("MISSING_BODY", anomalies.get(0).getType());
+        // The model parameter is kept for the statistics, never sent
+        assertFalse(smileMapper.readTree(response).get(0).has("param"));
+
+        mockMvc.perform(post("/api/detection/validate")
+                        .contentType(SMILE)
+                        .content(smileMapper.writeValueAsBytes(unknownEndpoint())))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$[0].type").value(DetectionService.UNKNOWN_ENDPOINT));
+    }
+
+    @Test
+    @DisplayName("CBOR batches get one CBOR anomaly list per entry")
+    void testCborBatch() throws Exception {
+        byte[] response = mockMvc.perform(post("/api/detection/validate/batch")
+                        .contentType(CBOR)
+                        .accept(CBOR)
+                        .content(cborMapper.writeValueAsBytes(List.of(login("secret123"), unknownEndpoint()))))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        List<List<AnomalyDTO>> results = cborMapper.readValue(response, new TypeReference<>() {
+        });
+        assertEquals(List.of(List.of(), DetectionService.UNKNOWN_ENDPOINT_RESULT), results);
+    }
+
+    @Test
+    @DisplayName("Errors keep the JSON error contract in the binary encodings")
+    void testErrors() throws Exception {
+        byte[] response = mockMvc.perform(post("/api/models")
+                        .contentType(CBOR)
+                        .accept(CBOR)
+                        .content(cborMapper.writeValueAsBytes(List.of())))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentType(CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        Map<String, Object> error = cborMapper.readValue(response, new TypeReference<>() {
+        });
+        assertEquals(AppErrorCode.EMPTY_MODEL_LIST.getCode(), error.get("errorCode"));
+        // Same ISO date string as in JSON, not a timestamp array
+        assertTrue(error.get("timestamp") instanceof String, "timestamp " + error.get("timestamp"));
+
+        response = mockMvc.perform(post("/api/detection/validate")
+                        .contentType(SMILE)
+                        .accept(SMILE)
+                        .content(new byte[]{':', ')', '\n', 1, 2, 3}))
+                .andExpect(status().isBadRequest())
+                .andReturn().getResponse().getContentAsByteArray();
+        error = smileMapper.readValue(response, new TypeReference<>() {
+        });
+        assertEquals(AppErrorCode.INVALID_JSON_FORMAT.getCode(), error.get("errorCode"));
+    }
+
+    private static RequestDTO login(String password) {
+        RequestDTO login = new RequestDTO();
+        login.setMethod("POST");
+        login.setPath("/api/login");
+        login.setBody(password == null
+                ? List.of(new KeyValueObjectDTO("username", "john_doe"))
+                : List.of(new KeyValueObjectDTO("username", "john_doe"), new KeyValueObjectDTO("password", password)));
+        return login;
+    }
+
+    private static RequestDTO unknownEndpoint() {
+        RequestDTO request = new RequestDTO();
+        request.setMethod("DELETE");
+        request.setPath("/api/database/drop");
+        return request;
+    }
+
+}
@@ -0,0 +1,79 @@
+package org.assignment.controller;
+
+import org.assignment.IngestionJobs;
+import org.assignment.exception.AppErrorCode;
+import org.assignment.repository.ModelRepository;
+import org.assignment.service.ModelIngestionLane;
+import org.assignment.service.TenantResolver;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Integration test of the tenant limit of the model ingestion, enforced when the queued jobs run.
+ */
+@TestPropertySource(locations = "classpath:application-test.properties", properties = "app.tenants.max-tenants=3")
+@SpringBootTest
+@AutoConfigureMockMvc
+class ModelControllerTenantLimitTest {
+
+    private static final String MODELS = "[{\"method\":\"GET\",\"path\":\"/api/limit\",\"query_params\":[]}]";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ModelIngestionLane lane;
+
+    @Autowired
+    private ModelRepository repository;
+
+    @Test
+    @DisplayName("Jobs of new tenants queued together cannot go over the tenant limit")
+    void testQueuedNewTenants() throws Exception {
+        int free = 3 - repository.findAllTenants().size();
+        // Holds the lane: every job below passes the check of the request thread before any tenant is stored
+        CountDownLatch release = new CountDownLatch(1);
+        lane.submit(TenantResolver.DEFAULT_TENANT, 0, () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        List<ResultActions> jobs = new ArrayList<>();
+        for (int i = 0; i < free + 3; i++) {
+            jobs.add(mockMvc.perform(post("/api/models")
+                    .header(TenantResolver.TENANT_HEADER, "limited-" + i)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(MODELS)));
+        }
+        release.countDown();
+
+        int succeeded = 0;
+        for (ResultActions job : jobs) {
+            String body = IngestionJobs.await(mockMvc, job).andReturn().getResponse().getContentAsString();
+            if (body.contains("\"status\":\"SUCCEEDED\"")) {
+                succeeded++;
+            } else {
+                assertEquals(true, body.contains(AppErrorCode.TENANT_LIMIT_EXCEEDED.getCode()), body);
+            }
+        }
+        assertEquals(free, succeeded);
+        assertEquals(3, repository.findAllTenants().size());
+    }
+
+}
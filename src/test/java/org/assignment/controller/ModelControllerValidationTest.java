@@ -1,9 +1,11 @@
 package org.assignment.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.assignment.IngestionJobs;
 import org.assignment.exception.AppErrorCode;
 import org.assignment.model.APIModelDTO;
 import org.assignment.model.APIModelParamDTO;
+import org.assignment.model.CustomTypeDTO;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -49,10 +51,9 @@ class ModelControllerValidationTest {
         String modelsJson = Files.readString(resource.getFile().toPath());
 
         // 2. Send to Ingestion API (POST /api/models)
-        mockMvc.perform(post("/api/models")
+        IngestionJobs.awaitSuccess(mockMvc, mockMvc.perform(post("/api/models")
                         .contentType(MediaType.APPLICATION_JSON)
-                        .content(modelsJson))
-                .andExpect(status().isOk());
+                        .content(modelsJson)));
     }
 
     @Test
@@ -61,11 +62,11 @@ class ModelControllerValidationTest {
         APIModelDTO badModel = new APIModelDTO();
         badModel.setMethod("POST"); // Path is NULL
         // 2. Perform Request
-        mockMvc.perform(post("/api/models")
+        IngestionJobs.await(mockMvc, mockMvc.perform(post("/api/models")
                         .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(List.of(badModel))))
+                        .content(objectMapper.writeValueAsString(List.of(badModel)))))
                 .andDo(print()) // Prints response to console for debugging
-                .andExpect(status().isBadRequest()) // Expect 400
+                .andExpect(jsonPath("$.status").value("FAILED")) // The ingestion job fails
                 .andExpect(jsonPath("$.errorCode").value("ERROR-4022")) // INVALID_MODEL_SYNTAX
                 // Check that debug message contains the specific error from BindingResult
                 .andExpect(jsonPath("$.debugMessage").value(org.hamcrest.Matchers.containsString("Model at index 0 is missing 'path'")));
@@ -77,10 +78,10 @@ class ModelControllerValidationTest {
         badModel.setPath("/api/test");
         // Method is NULL
 
-        mockMvc.perform(post("/api/models")
+        IngestionJobs.await(mockMvc, mockMvc.perform(post("/api/models")
                         .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(List.of(badModel))))
-                .andExpect(status().isBadRequest())
+                        .content(objectMapper.writeValueAsString(List.of(badModel)))))
+                .andExpect(jsonPath("$.status").value("FAILED"))
                 .andExpect(jsonPath("$.errorCode").value(AppErrorCode.INVALID_MODEL_SYNTAX.getCode()))
                 .andExpect(jsonPath("$.debugMessage").value(org.hamcrest.Matchers.containsString("Model at index 0 is missing 'method'")));
     }
@@ -95,14 +96,48 @@ class ModelControllerValidationTest {
         APIModelParamDTO badParam = new APIModelParamDTO(null, List.of("String"), true);
         badModel.setQueryParams(List.of(badParam));
 
-        mockMvc.perform(post("/api/models")
+        IngestionJobs.await(mockMvc, mockMvc.perform(post("/api/models")
                         .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(List.of(badModel))))
-                .andExpect(status().isBadRequest())
+                        .content(objectMapper.writeValueAsString(List.of(badModel)))))
+                .andExpect(jsonPath("$.status").value("FAILED"))
                 .andExpect(jsonPath("$.errorCode").value("ERROR-4022"))
                 .andExpect(jsonPath("$.debugMessage").value(org.hamcrest.Matchers.containsString("apiModelsDTO[0].queryParams[0] is missing 'name'")));
     }
 
+    @Test
+    void shouldFailWhenBodyPathIsMalformed() throws Exception {
+        APIModelDTO badModel = new APIModelDTO();
+        badModel.setPath("/api/test");
+        badModel.setMethod("POST");
+        badModel.setBody(List.of(new APIModelParamDTO("user..zip", List.of("Int"), true)));
+
+        IngestionJobs.await(mockMvc, mockMvc.perform(post("/api/models")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(badModel)))))
+                .andExpect(jsonPath("$.status").value("FAILED"))
+                .andExpect(jsonPath("$.errorCode").value("ERROR-4022"))
+                .andExpect(jsonPath("$.debugMessage").value(org.hamcrest.Matchers.containsString("'user..zip' is not a valid body path")));
+    }
+
+    @Test
+    void shouldFailWhenCustomTypeIsInvalid() throws Exception {
+        APIModelDTO badModel = new APIModelDTO();
+        badModel.setPath("/api/test");
+        badModel.setMethod("POST");
+        badModel.setCustomTypes(List.of(CustomTypeDTO.builder().name("Code").pattern("(a)\\1").build()));
+        badModel.setBody(List.of(new APIModelParamDTO("code", List.of("Code"), true),
+                new APIModelParamDTO("status", List.of("OrderStatus"), true)));
+
+        IngestionJobs.await(mockMvc, mockMvc.perform(post("/api/models")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(badModel)))))
+                .andExpect(jsonPath("$.status").value("FAILED"))
+                .andExpect(jsonPath("$.errorCode").value("ERROR-4022"))
+                .andExpect(jsonPath("$.debugMessage").value(org.hamcrest.Matchers.containsString("Unsupported escape '\\1'")))
+                // Custom types are only visible to the model declaring them
+                .andExpect(jsonPath("$.debugMessage").value(org.hamcrest.Matchers.containsString("Type 'OrderStatus'")));
+    }
+
     @Test
     void shouldFailWhenParamTypesAreEmpty() throws Exception {
         APIModelDTO badModel = new APIModelDTO();
@@ -113,10 +148,10 @@ class ModelControllerValidationTest {
         APIModelParamDTO badParam = new APIModelParamDTO("userid", List.of(), true);
         badModel.setHeaders(List.of(badParam));
 
-        mockMvc.perform(post("/api/models")
+        IngestionJobs.await(mockMvc, mockMvc.perform(post("/api/models")
                         .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(List.of(badModel))))
-                .andExpect(status().isBadRequest())
+                        .content(objectMapper.writeValueAsString(List.of(badModel)))))
+                .andExpect(jsonPath("$.status").value("FAILED"))
                 .andExpect(jsonPath("$.errorCode").value("ERROR-4022"))
                 .andExpect(jsonPath("$.debugMessage").value(org.hamcrest.Matchers.containsString("At least one type is required")));
     }
@@ -131,10 +166,10 @@ class ModelControllerValidationTest {
         model2.setMethod("GET");
         model2.setBody(List.of(new APIModelParamDTO("id", null, true))); // Missing Types
 
-        mockMvc.perform(post("/api/models")
+        IngestionJobs.await(mockMvc, mockMvc.perform(post("/api/models")
                         .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(List.of(model1, model2))))
-                .andExpect(status().isBadRequest())
+                        .content(objectMapper.writeValueAsString(List.of(model1, model2)))))
+                .andExpect(jsonPath("$.status").value("FAILED"))
                 .andExpect(jsonPath("$.debugMessage").value(org.hamcrest.Matchers.containsString("Model at index 0 is missing 'path'")))
                 .andExpect(jsonPath("$.debugMessage").value(org.hamcrest.Matchers.containsString("At least one type is required")));
     }
@@ -159,6 +194,34 @@ class ModelControllerValidationTest {
                 .andExpect(jsonPath("$.errorCode").value(AppErrorCode.RESOURCE_NOT_FOUND.getCode()));
     }
 
+    @Test
+    @DisplayName("Models are accepted as a job polled at its Location, visible to its tenant only")
+    void testIngestionJob() throws Exception {
+        String location = mockMvc.perform(post("/api/models")
+                        .header("X-Tenant-ID", "team-jobs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"method\": \"GET\", \"path\": \"/api/jobs\"}]"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.jobId").isNotEmpty())
+                .andExpect(jsonPath("$.tenantId").value("team-jobs"))
+                .andExpect(jsonPath("$.models").value(1))
+                .andReturn().getResponse().getHeader("Location");
+
+        IngestionJobs.awaitSuccess(mockMvc, mockMvc.perform(post("/api/models")
+                        .header("X-Tenant-ID", "team-jobs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"method\": \"GET\", \"path\": \"/api/jobs\"}]")))
+                .andExpect(jsonPath("$.finishedAt").isNotEmpty())
+                .andExpect(jsonPath("$.errorCode").doesNotExist());
+
+        // Another tenant cannot see the job
+        mockMvc.perform(get(location))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.errorCode").value(AppErrorCode.RESOURCE_NOT_FOUND.getCode()));
+        mockMvc.perform(get("/api/models/jobs/no-such-job"))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     @DisplayName("Security: Reject model with excessive number of parameters (DoS protection)")
     void testExceedingMaxParamSize() throws Exception {
@@ -173,10 +236,10 @@ class ModelControllerValidationTest {
 
         // Note: In a real system, we'd expect 413 Payload Too Large or 400 Bad Request
         // If your controller has @Valid with @Size limits, this will fail as expected.
-        mockMvc.perform(post("/api/models")
+        IngestionJobs.await(mockMvc, mockMvc.perform(post("/api/models")
                         .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(List.of(massiveModel))))
-                .andExpect(status().isBadRequest());
+                        .content(objectMapper.writeValueAsString(List.of(massiveModel)))))
+                .andExpect(jsonPath("$.status").value("FAILED"));
     }
 
     @Test
@@ -190,10 +253,10 @@ class ModelControllerValidationTest {
 
         APIModelDTO model = new APIModelDTO("/api/test", "POST", List.of(badParam), List.of(), List.of());
 
-        mockMvc.perform(post("/api/models")
+        IngestionJobs.await(mockMvc, mockMvc.perform(post("/api/models")
                         .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(List.of(model))))
-                .andExpect(status().isBadRequest());
+                        .content(objectMapper.writeValueAsString(List.of(model)))))
+                .andExpect(jsonPath("$.status").value("FAILED"));
     }
 
     @Test
@@ -205,10 +268,10 @@ class ModelControllerValidationTest {
         APIModelParamDTO badParam = new APIModelParamDTO("name", List.of(hugeType), true);
         APIModelDTO model = new APIModelDTO("/api/test", "POST", List.of(badParam), List.of(), List.of());
 
-        mockMvc.perform(post("/api/models")
+        IngestionJobs.await(mockMvc, mockMvc.perform(post("/api/models")
                         .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(List.of(model))))
-                .andExpect(status().isBadRequest());
+                        .content(objectMapper.writeValueAsString(List.of(model)))))
+                .andExpect(jsonPath("$.status").value("FAILED"));
     }
 
 }
\ No newline at end of file
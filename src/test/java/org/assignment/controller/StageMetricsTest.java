@@ -0,0 +1,90 @@
+package org.assignment.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.assignment.IngestionJobs;
+import org.assignment.metrics.Stage;
+import org.assignment.model.KeyValueObjectDTO;
+import org.assignment.model.RequestDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration tests for the per-stage latency breakdown and the slow-request recorder.
+ */
+@TestPropertySource(locations = "classpath:application-test.properties",
+        properties = "app.metrics.slow-requests.min-duration-millis=0")
+@SpringBootTest
+@AutoConfigureMockMvc
+class StageMetricsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @AfterEach
+    void disableStageTiming() throws Exception {
+        mockMvc.perform(put("/api/metrics/stages").param("enabled", "false")).andExpect(status().isOk());
+    }
+
+    @Test
+    void testStagesOfADetection() throws Exception {
+        ClassPathResource resource = new ClassPathResource("api-models/model_list.json");
+        IngestionJobs.awaitSuccess(mockMvc, mockMvc.perform(post("/api/models")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(Files.readString(resource.getFile().toPath()))));
+
+        mockMvc.perform(delete("/api/metrics/stages")).andExpect(status().isNoContent());
+        mockMvc.perform(put("/api/metrics/stages").param("enabled", "true")).andExpect(status().isOk());
+
+        RequestDTO login = new RequestDTO();
+        login.setMethod("POST");
+        login.setPath("/api/login");
+        login.setBody(List.of(
+                new KeyValueObjectDTO("username", "john_doe"),
+                new KeyValueObjectDTO("password", "secret123"),
+                new KeyValueObjectDTO("is_admin", "true")
+        ));
+        mockMvc.perform(post("/api/detection/validate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(login)))
+                .andExpect(status().isOk());
+
+        // Every stage of the request was timed once
+        mockMvc.perform(get("/api/metrics/stages"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(Stage.values().length))
+                .andExpect(jsonPath("$[*].count").value(org.hamcrest.Matchers.everyItem(org.hamcrest.Matchers.is(1))))
+                .andExpect(jsonPath("$[6].stage").value("TOTAL"))
+                .andExpect(jsonPath("$[6].maxMicros").value(org.hamcrest.Matchers.greaterThan(0.0)));
+
+        // Without a minimum duration, the request is one of the slowest, described without its values
+        mockMvc.perform(get("/api/metrics/slow-requests"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].endpoint").value("POST /api/login"))
+                .andExpect(jsonPath("$[0].valueCount").value(3))
+                .andExpect(jsonPath("$[0].stageMicros.ANOMALY_DETECTION").exists())
+                .andExpect(jsonPath("$[0].fingerprint").isNotEmpty())
+                .andExpect(content().string(org.hamcrest.Matchers.not(org.hamcrest.Matchers.containsString("secret123"))));
+    }
+
+}
@@ -0,0 +1,169 @@
+package org.assignment.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.assignment.model.AnomalyDTO;
+import org.assignment.model.AnomalyEventDTO;
+import org.assignment.model.AnomalyEventStatsDTO;
+import org.assignment.model.DetectionDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the anomaly event pipeline and its sinks.
+ */
+class AnomalyEventPipelineTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final DetectionDTO DETECTION = new DetectionDTO("POST", "/api/login", null, null, null);
+
+    @Test
+    @DisplayName("Anomalies are written as NDJSON lines and the file rotates at its size limit")
+    void testFileSink(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("anomalies.ndjson");
+        AnomalyEventPipeline pipeline = new AnomalyEventPipeline(
+                new NdjsonFileSink(MAPPER, file, 1000, 2), 1024, AnomalyEventPipeline.OverflowPolicy.DROP_NEWEST, 0, 10, 1);
+        for (int i = 0; i < 100; i++) {
+            pipeline.publish("tenant-" + i, DETECTION, List.of(anomaly("TYPE_MISMATCH")));
+        }
+        pipeline.publish("tenant-x", DETECTION, List.of());
+        pipeline.close();
+
+        AnomalyEventStatsDTO stats = pipeline.getStats();
+        assertEquals(100, stats.getPublished());
+        assertEquals(100, stats.getWritten());
+        assertEquals(0, stats.getDroppedOverflow());
+
+        // The active file plus at most 2 rotated ones, the oldest events are gone
+        assertTrue(Files.exists(dir.resolve("anomalies.ndjson.2")));
+        assertTrue(Files.notExists(dir.resolve("anomalies.ndjson.3")));
+        List<AnomalyEventDTO> kept = new ArrayList<>();
+        for (String name : List.of("anomalies.ndjson.2", "anomalies.ndjson.1", "anomalies.ndjson")) {
+            for (String line : Files.readAllLines(dir.resolve(name))) {
+                kept.add(MAPPER.readValue(line, AnomalyEventDTO.class));
+            }
+        }
+        assertTrue(kept.size() < 100);
+        AnomalyEventDTO last = kept.get(kept.size() - 1);
+        assertEquals("tenant-99", last.getTenantId());
+        assertEquals("/api/login", last.getPath());
+        assertEquals("TYPE_MISMATCH", last.getType());
+        // Rotation happens between batches, so the kept events are the most recent ones in order
+        for (int i = 1; i < kept.size(); i++) {
+            assertEquals(Integer.parseInt(kept.get(i - 1).getTenantId().substring(7)) + 1,
+                    Integer.parseInt(kept.get(i).getTenantId().substring(7)));
+        }
+    }
+
+    @Test
+    @DisplayName("Anomalies are streamed as NDJSON lines to a TCP collector")
+    void testTcpSink() throws Exception {
+        try (ServerSocket collector = new ServerSocket(0)) {
+            List<String> lines = new ArrayList<>();
+            CountDownLatch received = new CountDownLatch(3);
+            Thread reader = new Thread(() -> {
+                try (Socket socket = collector.accept();
+                     BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = in.readLine()) != null) {
+                        synchronized (lines) {
+                            lines.add(line);
+                        }
+                        received.countDown();
+                    }
+                } catch (Exception ignored) {
+                    // The collector is closed at the end of the test
+                }
+            });
+            reader.start();
+
+            AnomalyEventPipeline pipeline = new AnomalyEventPipeline(
+                    new TcpSink(MAPPER, "localhost", collector.getLocalPort(), 1000),
+                    16, AnomalyEventPipeline.OverflowPolicy.DROP_NEWEST, 0, 100, 1);
+            pipeline.publish("default", DETECTION, List.of(anomaly("A"), anomaly("B")));
+            pipeline.publish("default", DETECTION, List.of(anomaly("C")));
+
+            assertTrue(received.await(10, TimeUnit.SECONDS));
+            pipeline.close();
+            reader.join(5000);
+            synchronized (lines) {
+                assertEquals(List.of("A", "B", "C"), lines.stream()
+                        .map(line -> readEvent(line).getType())
+                        .collect(Collectors.toList()));
+            }
+            assertEquals(3, pipeline.getStats().getWritten());
+        }
+    }
+
+    @Test
+    @DisplayName("A stalled sink never blocks publishers: overflow and failed batches are counted")
+    void testOverflowAndSinkFailure() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AnomalyEventSink stalledSink = new AnomalyEventSink() {
+            @Override
+            public void write(List<AnomalyEventDTO> events) throws java.io.IOException {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new java.io.IOException("collector unreachable");
+            }
+
+            @Override
+            public String describe() {
+                return "stalled";
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        AnomalyEventPipeline pipeline = new AnomalyEventPipeline(
+                stalledSink, 8, AnomalyEventPipeline.OverflowPolicy.DROP_NEWEST, 0, 4, 1);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 1000; i++) {
+            pipeline.publish("default", DETECTION, List.of(anomaly("A")));
+        }
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+        release.countDown();
+        pipeline.close();
+
+        AnomalyEventStatsDTO stats = pipeline.getStats();
+        assertEquals(1000, stats.getPublished() + stats.getDroppedOverflow());
+        assertTrue(stats.getDroppedOverflow() >= 1000 - 8 - 4);
+        assertEquals(0, stats.getWritten());
+        assertEquals(stats.getPublished(), stats.getDroppedSinkFailure());
+        assertTrue(stats.getSinkFailures() >= 1);
+    }
+
+    private static AnomalyDTO anomaly(String type) {
+        return AnomalyDTO.builder().type(type).description("Parameter 'password' has an invalid type").build();
+    }
+
+    private static AnomalyEventDTO readEvent(String line) {
+        try {
+            return MAPPER.readValue(line, AnomalyEventDTO.class);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
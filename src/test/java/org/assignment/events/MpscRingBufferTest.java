@@ -0,0 +1,89 @@
+package org.assignment.events;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the multi-producer single-consumer ring buffer.
+ */
+class MpscRingBufferTest {
+
+    @Test
+    @DisplayName("Elements come out in order, a full buffer rejects offers until drained")
+    void testOfferAndDrain() {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(3);
+        assertEquals(4, buffer.capacity());
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i));
+        }
+        assertFalse(buffer.offer(4));
+        assertEquals(4, buffer.size());
+
+        List<Integer> drained = new ArrayList<>();
+        assertEquals(3, buffer.drainTo(drained, 3));
+        assertEquals(List.of(0, 1, 2), drained);
+
+        // The freed slots are reused on the next lap
+        assertTrue(buffer.offer(4));
+        assertTrue(buffer.offer(5));
+        assertEquals(3, buffer.drainTo(drained, 10));
+        assertEquals(List.of(0, 1, 2, 3, 4, 5), drained);
+        assertEquals(0, buffer.drainTo(drained, 10));
+    }
+
+    @Test
+    @DisplayName("Concurrent producers: every accepted element is drained exactly once, in per-producer order")
+    void testConcurrentProducers() throws Exception {
+        int producers = 4;
+        int perProducer = 100_000;
+        MpscRingBuffer<Long> buffer = new MpscRingBuffer<>(1024);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int p = 0; p < producers; p++) {
+            long producer = p;
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < perProducer; i++) {
+                    // Retry until accepted so the expected content is known
+                    while (!buffer.offer(producer << 32 | i)) {
+                        Thread.yield();
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+
+        int[] next = new int[producers];
+        List<Long> batch = new ArrayList<>();
+        long received = 0;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (received < (long) producers * perProducer && System.nanoTime() < deadline) {
+            batch.clear();
+            buffer.drainTo(batch, 256);
+            for (long element : batch) {
+                int producer = (int) (element >>> 32);
+                assertEquals(next[producer]++, (int) element);
+            }
+            received += batch.size();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        assertEquals((long) producers * perProducer, received);
+        assertEquals(0, buffer.size());
+    }
+
+}
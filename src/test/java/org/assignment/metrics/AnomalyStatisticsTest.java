@@ -0,0 +1,163 @@
+package org.assignment.metrics;
+
+import org.assignment.model.AnomalyDTO;
+import org.assignment.model.AnomalyOffenderDTO;
+import org.assignment.model.AnomalyTopDTO;
+import org.assignment.model.DetectionDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the windowed anomaly statistics and their count-min sketch.
+ */
+class AnomalyStatisticsTest {
+
+    private static final DetectionDTO LOGIN = new DetectionDTO("POST", "/api/login", null, null, null);
+    private static final DetectionDTO ORDERS = new DetectionDTO("GET", "/api/orders", null, null, null);
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+
+    @Test
+    @DisplayName("Offenders are keyed by tenant, endpoint, type and parameter, most anomalies first")
+    void testTopOffenders() {
+        AnomalyStatistics statistics = statistics(60, 6, 10);
+        for (int i = 0; i < 5; i++) {
+            statistics.record("default", LOGIN, List.of(anomaly("TYPE_MISMATCH_BODY", "password")));
+        }
+        for (int i = 0; i < 3; i++) {
+            statistics.record("default", ORDERS, List.of(anomaly("MISSING_QUERY_PARAM", "page"), anomaly("UNKNOWN_ENDPOINT", null)));
+        }
+        statistics.record("team-a", LOGIN, List.of(anomaly("TYPE_MISMATCH_BODY", "password")));
+        statistics.record("default", LOGIN, List.of());
+
+        AnomalyTopDTO top = statistics.getTop(3);
+        assertEquals(12, top.getTotalAnomalies());
+        assertEquals(60, top.getWindowSeconds());
+        List<AnomalyOffenderDTO> offenders = top.getOffenders();
+        assertEquals(3, offenders.size());
+        assertEquals(AnomalyOffenderDTO.builder().tenantId("default").endpoint("POST /api/login")
+                .type("TYPE_MISMATCH_BODY").param("password").count(5).build(), offenders.get(0));
+        assertEquals(3, offenders.get(1).getCount());
+        assertEquals(3, offenders.get(2).getCount());
+        assertEquals(4, statistics.getTop(10).getOffenders().size());
+    }
+
+    @Test
+    @DisplayName("Anomalies leave the window bucket by bucket")
+    void testSlidingWindow() {
+        AnomalyStatistics statistics = statistics(60, 6, 10);
+        statistics.record("default", LOGIN, List.of(anomaly("TYPE_MISMATCH_BODY", "password")));
+        now.addAndGet(30_000);
+        statistics.record("default", LOGIN, List.of(anomaly("TYPE_MISMATCH_BODY", "password")));
+        assertEquals(2, statistics.getTop(1).getOffenders().get(0).getCount());
+
+        // The first bucket is out of the window, the second one is not yet
+        now.addAndGet(40_000);
+        assertEquals(1, statistics.getTop(1).getOffenders().get(0).getCount());
+        now.addAndGet(30_000);
+        assertEquals(0, statistics.getTop(1).getTotalAnomalies());
+        assertTrue(statistics.getTop(1).getOffenders().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Heavy hitters are found among a long tail of distinct endpoints in bounded memory")
+    void testHeavyHittersAmongLongTail() {
+        AnomalyStatistics statistics = statistics(60, 1, 5);
+        for (int i = 0; i < 50_000; i++) {
+            DetectionDTO scan = new DetectionDTO("GET", "/scan/" + i, null, null, null);
+            statistics.record("default", scan, List.of(anomaly("UNKNOWN_ENDPOINT", null)));
+            if (i % 100 == 0) {
+                statistics.record("default", LOGIN, List.of(anomaly("TYPE_MISMATCH_BODY", "password")));
+            }
+            if (i % 250 == 0) {
+                statistics.record("default", ORDERS, List.of(anomaly("MISSING_QUERY_PARAM", "page")));
+            }
+        }
+
+        AnomalyTopDTO top = statistics.getTop(2);
+        assertEquals(50_000 + 500 + 200, top.getTotalAnomalies());
+        assertEquals(List.of("POST /api/login", "GET /api/orders"),
+                top.getOffenders().stream().map(AnomalyOffenderDTO::getEndpoint).collect(Collectors.toList()));
+        // Never under the true count, over it by at most the advertised error
+        assertTrue(top.getOffenders().get(0).getCount() >= 500);
+        assertTrue(top.getOffenders().get(0).getCount() <= 500 + top.getMaxError());
+        assertTrue(statistics.getTop(100).getOffenders().size() <= 2 * 5);
+    }
+
+    @Test
+    @DisplayName("Concurrent recording of the same key loses no count")
+    void testConcurrentRecording() throws Exception {
+        AnomalyStatistics statistics = statistics(60, 6, 10);
+        int threads = 4;
+        int perThread = 50_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new java.util.ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    statistics.record("default", LOGIN, List.of(anomaly("TYPE_MISMATCH_BODY", "password")));
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        AnomalyTopDTO top = statistics.getTop(1);
+        assertEquals((long) threads * perThread, top.getTotalAnomalies());
+        assertEquals((long) threads * perThread, top.getOffenders().get(0).getCount());
+    }
+
+    @Test
+    @DisplayName("A bucket keeps at least one candidate, a top-k, window or bucket count of 0 is rejected")
+    void testTopKBounds() {
+        AnomalyStatistics statistics = statistics(60, 6, 1);
+        for (int i = 0; i < 6; i++) {
+            statistics.record("default", LOGIN, List.of(anomaly("MISSING_BODY", "password")));
+        }
+        // The third candidate trims the bucket down to its top one
+        statistics.record("default", ORDERS, List.of(anomaly("MISSING_QUERY_PARAM", "page")));
+        statistics.record("default", LOGIN, List.of(anomaly("MISSING_BODY", "username")));
+
+        List<AnomalyOffenderDTO> offenders = statistics.getTop(10).getOffenders();
+        assertEquals(1, offenders.size());
+        assertEquals(6, offenders.get(0).getCount());
+        assertThrows(IllegalArgumentException.class, () -> statistics(60, 6, 0));
+        assertThrows(IllegalArgumentException.class, () -> statistics(60, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> statistics(0, 6, 1));
+    }
+
+    @Test
+    @DisplayName("The sketch never underestimates and sums its stripes")
+    void testCountMinSketch() {
+        CountMinSketch sketch = new CountMinSketch(64, 4, 4);
+        for (long key = 0; key < 1000; key++) {
+            sketch.add(key * 0x9E3779B97F4A7C15L, key * 31 | 1, key % 7 + 1);
+        }
+        for (long key = 0; key < 1000; key++) {
+            assertTrue(sketch.estimate(key * 0x9E3779B97F4A7C15L, key * 31 | 1) >= key % 7 + 1);
+        }
+    }
+
+    private AnomalyStatistics statistics(long windowSeconds, int buckets, int topK) {
+        return new AnomalyStatistics(true, windowSeconds, buckets, 2048, 4, topK, now::get);
+    }
+
+    private static AnomalyDTO anomaly(String type, String param) {
+        return AnomalyDTO.builder().type(type).param(param).description("anomaly").build();
+    }
+
+}
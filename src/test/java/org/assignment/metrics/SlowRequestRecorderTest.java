@@ -0,0 +1,114 @@
+package org.assignment.metrics;
+
+import org.assignment.model.DetectionDTO;
+import org.assignment.model.SlowRequestDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the top-N slow-request recorder.
+ */
+class SlowRequestRecorderTest {
+
+    @Test
+    @DisplayName("Keeps the N slowest requests above the minimum duration")
+    void testTopN() {
+        SlowRequestRecorder recorder = recorder(3, 300, 1);
+        for (long millis : new long[]{5, 0, 2, 9, 1, 7, 3}) {
+            recorder.offer(trace(millis, "secret"));
+        }
+
+        assertEquals(List.of(9_000.0, 7_000.0, 5_000.0), totals(recorder));
+        SlowRequestDTO slowest = recorder.getSlowRequests().get(0);
+        assertEquals("POST /api/login", slowest.getEndpoint());
+        assertEquals(Map.of("MODEL_LOOKUP", 10.0), slowest.getStageMicros());
+        assertEquals(2, slowest.getValueCount());
+        assertEquals(6, slowest.getLargestValueChars());
+    }
+
+    @Test
+    @DisplayName("The fingerprint depends on the request shape, never on the values")
+    void testRedactedFingerprint() {
+        SlowRequestRecorder recorder = recorder(3, 300, 0);
+        recorder.offer(trace(3, "secret"));
+        recorder.offer(trace(2, "hidden"));
+        recorder.offer(trace(1, "a much longer password value"));
+
+        List<SlowRequestDTO> requests = recorder.getSlowRequests();
+        assertEquals(requests.get(0).getFingerprint(), requests.get(1).getFingerprint());
+        assertNotEquals(requests.get(0).getFingerprint(), requests.get(2).getFingerprint());
+        assertFalse(requests.toString().contains("secret"));
+    }
+
+    @Test
+    @DisplayName("Requests older than the window are forgotten and make room for faster ones")
+    void testWindow() throws Exception {
+        SlowRequestRecorder recorder = recorder(2, 1, 0);
+        recorder.offer(trace(50, "x"));
+        recorder.offer(trace(40, "x"));
+        TimeUnit.MILLISECONDS.sleep(1_100);
+
+        assertTrue(recorder.getSlowRequests().isEmpty());
+        recorder.offer(trace(1, "x"));
+        assertEquals(List.of(1_000.0), totals(recorder));
+    }
+
+    @Test
+    @DisplayName("Concurrent offers keep exactly the N slowest requests")
+    void testConcurrentOffers() throws Exception {
+        SlowRequestRecorder recorder = recorder(10, 300, 0);
+        List<Long> offered = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Random random = new Random(t);
+            List<Long> durations = new ArrayList<>();
+            for (int i = 0; i < 10_000; i++) durations.add(1 + (long) random.nextInt(1_000_000_000));
+            offered.addAll(durations);
+            threads.add(new Thread(() -> durations.forEach(nanos -> recorder.offer(traceNanos(nanos)))));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) thread.join();
+
+        List<Double> expected = offered.stream()
+                .sorted((a, b) -> Long.compare(b, a))
+                .limit(10)
+                .map(nanos -> nanos / 1_000.0)
+                .collect(Collectors.toList());
+        assertEquals(expected, totals(recorder));
+    }
+
+    private static SlowRequestRecorder recorder(int capacity, long windowSeconds, long minDurationMillis) {
+        return new SlowRequestRecorder(new StageTimer(false), true, capacity, windowSeconds, minDurationMillis);
+    }
+
+    private static RequestTrace trace(long millis, String password) {
+        RequestTrace trace = traceNanos(TimeUnit.MILLISECONDS.toNanos(millis));
+        trace.add(Stage.MODEL_LOOKUP, 10_000);
+        trace.describe("default", List.of(new DetectionDTO("POST", "/api/login", Map.of(), Map.of(),
+                Map.of("username", "john", "password", password))));
+        return trace;
+    }
+
+    private static RequestTrace traceNanos(long nanos) {
+        RequestTrace trace = new RequestTrace();
+        trace.add(Stage.TOTAL, nanos);
+        return trace;
+    }
+
+    private static List<Double> totals(SlowRequestRecorder recorder) {
+        return recorder.getSlowRequests().stream().map(SlowRequestDTO::getTotalMicros).collect(Collectors.toList());
+    }
+
+}
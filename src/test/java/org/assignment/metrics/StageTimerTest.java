@@ -0,0 +1,82 @@
+package org.assignment.metrics;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the stage histograms and Flight Recorder events.
+ */
+class StageTimerTest {
+
+    @Test
+    @DisplayName("Histogram percentiles are bucket upper bounds")
+    void testHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 99; i++) histogram.record(1_000);
+        histogram.record(1_000_000);
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(1_024, histogram.getPercentileNanos(50));
+        assertEquals(1_024, histogram.getPercentileNanos(99));
+        assertEquals(1L << 20, histogram.getPercentileNanos(100));
+        assertEquals(1_000_000, histogram.getMaxNanos());
+        assertEquals(2, histogram.getBuckets().size());
+
+        histogram.reset();
+        assertEquals(0, histogram.getPercentileNanos(99));
+    }
+
+    @Test
+    @DisplayName("Histograms record only while enabled")
+    void testToggle() {
+        StageTimer stageTimer = new StageTimer(false);
+        stageTimer.stop(Stage.MAPPING, stageTimer.start());
+        assertEquals(0, stageTimer.getStats().get(Stage.MAPPING.ordinal()).getCount());
+
+        stageTimer.setEnabled(true);
+        stageTimer.stop(Stage.MAPPING, stageTimer.start());
+        stageTimer.beginRequest();
+        stageTimer.beginSerialization();
+        stageTimer.endRequest();
+
+        assertEquals(1, stageTimer.getStats().get(Stage.MAPPING.ordinal()).getCount());
+        assertEquals(1, stageTimer.getStats().get(Stage.SERIALIZATION.ordinal()).getCount());
+        assertEquals(1, stageTimer.getStats().get(Stage.TOTAL.ordinal()).getCount());
+        assertEquals(0, stageTimer.getStats().get(Stage.JSON_BINDING.ordinal()).getCount());
+    }
+
+    @Test
+    @DisplayName("A Flight Recorder recording receives one event per stage, with the histograms disabled")
+    void testFlightRecorderEvents() throws Exception {
+        StageTimer stageTimer = new StageTimer(false);
+        Path file = Files.createTempFile("stages", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(StageEvent.NAME);
+            recording.start();
+            stageTimer.stop(Stage.MODEL_LOOKUP, stageTimer.start());
+            stageTimer.stop(Stage.ANOMALY_DETECTION, stageTimer.start());
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<String> stages = RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals(StageEvent.NAME))
+                .map(event -> event.getString("stage"))
+                .collect(Collectors.toList());
+        assertEquals(List.of("MODEL_LOOKUP", "ANOMALY_DETECTION"), stages);
+        assertTrue(stageTimer.getStats().stream().allMatch(stats -> stats.getCount() == 0));
+        Files.delete(file);
+    }
+
+}
@@ -0,0 +1,309 @@
+package org.assignment.protocol;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.assignment.IngestionJobs;
+import org.assignment.controller.DetectionController;
+import org.assignment.exception.AppErrorCode;
+import org.assignment.metrics.SlowRequestRecorder;
+import org.assignment.metrics.StageTimer;
+import org.assignment.model.APIModelDTO;
+import org.assignment.model.APIModelParamDTO;
+import org.assignment.model.AnomalyDTO;
+import org.assignment.model.KeyValueStringDTO;
+import org.assignment.model.RequestDTO;
+import org.assignment.service.DetectionService;
+import org.assignment.warmup.SyntheticRequests;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Integration tests for the binary detection protocol: pipelining, framing and errors.
+ */
+@TestPropertySource(locations = "classpath:application-test.properties",
+        properties = {"app.binary-protocol.enabled=true", "app.binary-protocol.port=0"})
+@SpringBootTest
+@AutoConfigureMockMvc
+class DetectionProtocolServerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DetectionProtocolServer server;
+
+    @Autowired
+    private DetectionController detectionController;
+
+    @Autowired
+    private StageTimer stageTimer;
+
+    @Autowired
+    private SlowRequestRecorder slowRequestRecorder;
+
+    private List<APIModelDTO> models;
+
+    @BeforeEach
+    void setupLearningPhase() throws Exception {
+        String modelsJson = Files.readString(new ClassPathResource("api-models/model_list.json").getFile().toPath());
+        IngestionJobs.awaitSuccess(mockMvc, mockMvc.perform(post("/api/models")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(modelsJson)));
+        models = objectMapper.readValue(modelsJson, new TypeReference<>() {
+        });
+    }
+
+    @Test
+    @DisplayName("Pipelined requests get the anomalies the HTTP endpoint finds")
+    void testPipelinedDetections() throws Exception {
+        List<RequestDTO> requests = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            APIModelDTO model = models.get(i % models.size());
+            requests.add(SyntheticRequests.valid(model));
+            requests.add(SyntheticRequests.anomalous(model));
+            RequestDTO unknown = SyntheticRequests.valid(model);
+            unknown.setPath("/unknown/" + i);
+            requests.add(unknown);
+        }
+
+        try (DetectionProtocolClient client = new DetectionProtocolClient("localhost", server.getPort(), 1000, objectMapper)) {
+            // Everything is sent before the first response is read
+            List<CompletableFuture<List<AnomalyDTO>>> futures = new ArrayList<>();
+            for (RequestDTO request : requests) {
+                futures.add(client.detect(null, request));
+            }
+            for (int i = 0; i < requests.size(); i++) {
+                List<AnomalyDTO> expected = withoutParams(detectionController.validateDetection(requests.get(i), null).getBody());
+                assertEquals(expected, futures.get(i).get(10, TimeUnit.SECONDS), "request " + i);
+            }
+            assertEquals(DetectionService.UNKNOWN_ENDPOINT_RESULT, futures.get(2).get());
+            assertTrue(futures.get(1).get().size() > 0);
+            assertEquals(0, client.getPendingCount());
+        }
+    }
+
+    @Test
+    @DisplayName("Invalid requests get the error codes of the HTTP API and the connection stays usable")
+    void testErrors() throws Exception {
+        try (DetectionProtocolClient client = new DetectionProtocolClient("localhost", server.getPort(), 1000, objectMapper)) {
+            RequestDTO valid = SyntheticRequests.valid(models.get(0));
+            RequestDTO noMethod = SyntheticRequests.valid(models.get(0));
+            noMethod.setMethod(null);
+
+            assertErrorCode(AppErrorCode.INVALID_TENANT_ID, client.detect("not a tenant!", valid));
+            assertErrorCode(AppErrorCode.INVALID_JSON_FORMAT, client.detect(null, noMethod));
+            assertEquals(List.of(), client.detect("default", valid).get(10, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    @DisplayName("Frames split across reads or sharing one are all answered, a malformed one gets an ERROR frame")
+    void testFraming() throws Exception {
+        RequestDTO valid = SyntheticRequests.valid(models.get(0));
+        ByteBuffer first = DetectionFrames.encodeRequest(1, null, valid, objectMapper);
+        ByteBuffer second = DetectionFrames.encodeRequest(2, null, valid, objectMapper);
+        ByteBuffer third = DetectionFrames.encodeRequest(3, null, valid, objectMapper);
+        // Unknown frame type 9, request id 4
+        ByteBuffer malformed = ByteBuffer.allocate(4 + 9).putInt(9).put((byte) 9).putLong(4).flip();
+
+        try (Socket socket = new Socket("localhost", server.getPort())) {
+            OutputStream out = socket.getOutputStream();
+            // Two frames in one write, then one frame in two writes
+            out.write(concat(first, second));
+            out.flush();
+            out.write(third.array(), 0, 7);
+            out.flush();
+            Thread.sleep(50);
+            out.write(third.array(), 7, third.limit() - 7);
+            out.write(malformed.array());
+            out.flush();
+
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            Set<Long> answered = new HashSet<>();
+            for (int i = 0; i < 4; i++) {
+                byte[] frame = new byte[in.readInt()];
+                in.readFully(frame);
+                DetectionFrames.Response response = DetectionFrames.decodeResponse(ByteBuffer.wrap(frame));
+                answered.add(response.getRequestId());
+                if (response.getRequestId() == 4) {
+                    assertNull(response.getAnomalies());
+                    assertEquals(AppErrorCode.INVALID_JSON_FORMAT.getCode(), response.getErrorCode());
+                } else {
+                    assertEquals(List.of(), response.getAnomalies());
+                }
+            }
+            assertEquals(Set.of(1L, 2L, 3L, 4L), answered);
+        }
+    }
+
+    @Test
+    @DisplayName("A frame above the maximum size closes the connection")
+    void testOversizedFrame() throws Exception {
+        try (Socket socket = new Socket("localhost", server.getPort())) {
+            socket.getOutputStream().write(ByteBuffer.allocate(4).putInt(Integer.MAX_VALUE).array());
+            socket.setSoTimeout(10_000);
+            InputStream in = socket.getInputStream();
+            assertEquals(-1, in.read());
+        }
+    }
+
+    @Test
+    @DisplayName("A client that never reads its responses is no longer read, then served once it reads")
+    void testClientNotReading() throws Exception {
+        // 100 required query parameters: a request without them gets a response of about 7 KB
+        List<APIModelParamDTO> params = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            params.add(new APIModelParamDTO("q" + i, List.of("Int"), true));
+        }
+        APIModelDTO wide = new APIModelDTO("/api/wide", "GET", params, List.of(), List.of());
+        IngestionJobs.awaitSuccess(mockMvc, mockMvc.perform(post("/api/models")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(wide)))));
+        RequestDTO request = new RequestDTO();
+        request.setMethod("GET");
+        request.setPath("/api/wide");
+        // 8 KB requests: far more than the socket buffers can hold
+        request.setHeaders(List.of(new KeyValueStringDTO("X-Padding", "p".repeat(8192))));
+        int requests = 4_000;
+
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress("localhost", server.getPort()));
+            AtomicInteger sent = new AtomicInteger();
+            Thread writer = new Thread(() -> {
+                try {
+                    OutputStream out = socket.getOutputStream();
+                    for (int i = 0; i < requests; i++) {
+                        out.write(DetectionFrames.encodeRequest(i, null, request, objectMapper).array());
+                        sent.incrementAndGet();
+                    }
+                    out.flush();
+                } catch (Exception e) {
+                    // Closed by the end of the test
+                }
+            });
+            writer.setDaemon(true);
+            writer.start();
+
+            // The writes block once the server stops reading
+            int previous = -1;
+            while (sent.get() != previous) {
+                previous = sent.get();
+                Thread.sleep(500);
+            }
+            assertTrue(sent.get() < requests, "the server read " + sent.get() + " requests without writing a response");
+
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            Set<Long> answered = new HashSet<>();
+            for (int i = 0; i < requests; i++) {
+                byte[] frame = new byte[in.readInt()];
+                in.readFully(frame);
+                DetectionFrames.Response response = DetectionFrames.decodeResponse(ByteBuffer.wrap(frame));
+                assertEquals(100, response.getAnomalies().size());
+                answered.add(response.getRequestId());
+            }
+            assertEquals(requests, answered.size());
+            writer.join(10_000);
+        }
+    }
+
+    @Test
+    @DisplayName("Frames received in one read are dispatched up to the in-flight limit, the rest as responses are written")
+    void testInFlightLimitWithinOneRead() throws Exception {
+        // One worker and a queue of 8: only the limit of 4 per connection keeps it from overflowing
+        Set<String> errors = sendAtOnce(new DetectionProtocolServer(detectionController, stageTimer, slowRequestRecorder,
+                objectMapper, true, 0, 1, 1 << 20, 4, 8), 300);
+        assertEquals(Set.of(), errors);
+    }
+
+    @Test
+    @DisplayName("A frame arriving on a full worker queue gets an overload ERROR frame")
+    void testWorkerQueueFull() throws Exception {
+        Set<String> errors = sendAtOnce(new DetectionProtocolServer(detectionController, stageTimer, slowRequestRecorder,
+                objectMapper, true, 0, 1, 1 << 20, 1000, 1), 300);
+        assertEquals(Set.of(AppErrorCode.DETECTION_QUEUE_FULL.getCode()), errors);
+    }
+
+    // Sends the requests in a single write, then nothing more, and returns the error codes of their responses
+    private Set<String> sendAtOnce(DetectionProtocolServer limited, int requests) throws Exception {
+        limited.start();
+        try (Socket socket = new Socket("localhost", limited.getPort())) {
+            RequestDTO valid = SyntheticRequests.valid(models.get(0));
+            ByteArrayOutputStream frames = new ByteArrayOutputStream();
+            for (int i = 0; i < requests; i++) {
+                frames.write(DetectionFrames.encodeRequest(i, null, valid, objectMapper).array());
+            }
+            OutputStream out = socket.getOutputStream();
+            out.write(frames.toByteArray());
+            out.flush();
+
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            Set<Long> answered = new HashSet<>();
+            Set<String> errors = new HashSet<>();
+            for (int i = 0; i < requests; i++) {
+                byte[] frame = new byte[in.readInt()];
+                in.readFully(frame);
+                DetectionFrames.Response response = DetectionFrames.decodeResponse(ByteBuffer.wrap(frame));
+                answered.add(response.getRequestId());
+                if (response.getErrorCode() != null) errors.add(response.getErrorCode());
+            }
+            assertEquals(requests, answered.size());
+            return errors;
+        } finally {
+            limited.stop();
+        }
+    }
+
+    private static void assertErrorCode(AppErrorCode expected, CompletableFuture<List<AnomalyDTO>> future) {
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(10, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof DetectionProtocolException, String.valueOf(e.getCause()));
+        assertEquals(expected.getCode(), ((DetectionProtocolException) e.getCause()).getErrorCode());
+    }
+
+    // The model parameter of an anomaly is never sent
+    private static List<AnomalyDTO> withoutParams(List<AnomalyDTO> anomalies) {
+        List<AnomalyDTO> sent = new ArrayList<>(anomalies.size());
+        for (AnomalyDTO anomaly : anomalies) {
+            sent.add(AnomalyDTO.builder().type(anomaly.getType()).description(anomaly.getDescription()).build());
+        }
+        return sent;
+    }
+
+    private static byte[] concat(ByteBuffer a, ByteBuffer b) {
+        return ByteBuffer.allocate(a.remaining() + b.remaining()).put(a.duplicate()).put(b.duplicate()).array();
+    }
+
+}
@@ -0,0 +1,171 @@
+package org.assignment.replay;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.assignment.model.APIModelDTO;
+import org.assignment.model.LogTailStatsDTO;
+import org.assignment.service.DetectionService;
+import org.assignment.service.ModelService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.test.context.TestPropertySource;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Integration tests for the log tailer: following, checkpointing and rotation.
+ */
+@TestPropertySource(locations = "classpath:application-test.properties")
+@SpringBootTest
+class LogTailerTest {
+
+    private static final String TENANT = "tail";
+    private static final String VALID = "{\"method\":\"POST\",\"path\":\"/api/login\",\"body\":["
+            + "{\"name\":\"username\",\"value\":\"john\"},{\"name\":\"password\",\"value\":\"secret\"}]}\n";
+    private static final String ANOMALOUS = "{\"method\":\"GET\",\"path\":\"/api/unknown\"}\n";
+
+    @Autowired
+    private DetectionService detectionService;
+
+    @Autowired
+    private RequestLineParser lineParser;
+
+    @Autowired
+    private ModelService modelService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @TempDir
+    Path dir;
+
+    @BeforeEach
+    void loadModels() throws Exception {
+        ClassPathResource resource = new ClassPathResource("api-models/model_list.json");
+        modelService.ingestModels(TENANT, objectMapper.readValue(resource.getInputStream(), new TypeReference<List<APIModelDTO>>() {
+        }));
+    }
+
+    @Test
+    @DisplayName("New lines are evaluated as they are appended, a partial line waits for its newline")
+    void testFollow() throws Exception {
+        Path log = dir.resolve("requests.ndjson");
+        append(log, VALID.repeat(100) + ANOMALOUS.repeat(10));
+        LogTailer tailer = tailer(log);
+        tailer.start();
+        try {
+            awaitStats(tailer, stats -> stats.getLines() == 110);
+            assertEquals(10, tailer.getStats().getAnomalousLines());
+
+            append(log, "not json\n" + ANOMALOUS.substring(0, 10));
+            awaitStats(tailer, stats -> stats.getInvalidLines() == 1);
+            append(log, ANOMALOUS.substring(10));
+            awaitStats(tailer, stats -> stats.getLines() == 111 && stats.getLagBytes() == 0);
+            assertEquals(Files.size(log), tailer.getStats().getOffset());
+        } finally {
+            tailer.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("A line over the maximum length is skipped up to its newline, the buffer stays bounded")
+    void testLineTooLong() throws Exception {
+        Path log = dir.resolve("requests.ndjson");
+        // 100 KB without a newline, then over several reads, then with one
+        append(log, VALID + "x".repeat(100 * 1024));
+        LogTailer tailer = tailer(log);
+        tailer.start();
+        try {
+            awaitStats(tailer, stats -> stats.getLines() == 1 && stats.getInvalidLines() == 1);
+            append(log, "y".repeat(50 * 1024));
+            append(log, "z\n" + VALID + ANOMALOUS);
+            long size = Files.size(log);
+            awaitStats(tailer, stats -> stats.getLines() == 3 && stats.getOffset() == size);
+            assertEquals(1, tailer.getStats().getInvalidLines());
+            assertEquals(1, tailer.getStats().getAnomalousLines());
+        } finally {
+            tailer.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("A restart resumes at the checkpoint without evaluating the previous lines again")
+    void testCheckpoint() throws Exception {
+        Path log = dir.resolve("requests.ndjson");
+        append(log, VALID.repeat(500));
+        LogTailer first = tailer(log);
+        first.start();
+        awaitStats(first, stats -> stats.getLines() == 500);
+        first.stop();
+
+        append(log, ANOMALOUS.repeat(20));
+        LogTailer second = tailer(log);
+        second.start();
+        try {
+            long size = Files.size(log);
+            awaitStats(second, stats -> stats.getLines() == 20 && stats.getOffset() == size);
+            assertEquals(20, second.getStats().getAnomalousLines());
+        } finally {
+            second.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Rotated and truncated logs are followed without losing lines")
+    void testRotation() throws Exception {
+        Path log = dir.resolve("requests.ndjson");
+        append(log, VALID.repeat(50));
+        LogTailer tailer = tailer(log);
+        tailer.start();
+        try {
+            awaitStats(tailer, stats -> stats.getLines() == 50);
+
+            // Rename and create: the lines written to the old file before the switch are still read
+            Files.move(log, dir.resolve("requests.ndjson.1"));
+            append(dir.resolve("requests.ndjson.1"), ANOMALOUS.repeat(5));
+            append(log, VALID.repeat(30));
+            awaitStats(tailer, stats -> stats.getLines() == 85);
+            assertEquals(1, tailer.getStats().getRotations());
+            assertEquals(5, tailer.getStats().getAnomalousLines());
+
+            // Copy and truncate
+            Files.write(log, new byte[0], StandardOpenOption.TRUNCATE_EXISTING);
+            append(log, ANOMALOUS.repeat(3));
+            awaitStats(tailer, stats -> stats.getLines() == 88);
+            assertEquals(2, tailer.getStats().getRotations());
+            assertEquals(8, tailer.getStats().getAnomalousLines());
+        } finally {
+            tailer.stop();
+        }
+    }
+
+    private LogTailer tailer(Path log) {
+        return new LogTailer(detectionService, lineParser, true, log.toString(), "", TENANT, 2, 64, 4, 16, 10, 10);
+    }
+
+    private static void append(Path log, String content) throws Exception {
+        Files.writeString(log, content, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private static void awaitStats(LogTailer tailer, Predicate<LogTailStatsDTO> condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.test(tailer.getStats()) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(condition.test(tailer.getStats()), () -> "Unexpected state: " + tailer.getStats());
+    }
+
+}
@@ -0,0 +1,150 @@
+package org.assignment.replay;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.assignment.model.APIModelDTO;
+import org.assignment.model.ReplayLineResultDTO;
+import org.assignment.model.ReplaySummaryDTO;
+import org.assignment.service.ModelService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.test.context.TestPropertySource;
+
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Integration tests for the offline replay of recorded traffic files.
+ */
+@TestPropertySource(locations = "classpath:application-test.properties")
+@SpringBootTest
+class TrafficReplayerTest {
+
+    private static final String TENANT = "replay";
+    private static final String VALID = "{\"method\":\"POST\",\"path\":\"/api/login\",\"body\":["
+            + "{\"name\":\"username\",\"value\":\"john\"},{\"name\":\"password\",\"value\":\"secret\"}]}";
+    private static final String ANOMALOUS = "{\"method\":\"POST\",\"path\":\"/api/login\",\"body\":["
+            + "{\"name\":\"username\",\"value\":\"john\"},{\"name\":\"password\",\"value\":\"secret\"},"
+            + "{\"name\":\"is_admin\",\"value\":\"maybe\"}]}";
+    private static final String UNKNOWN = "{\"method\":\"GET\",\"path\":\"/api/unknown\"}";
+
+    @Autowired
+    private TrafficReplayer trafficReplayer;
+
+    @Autowired
+    private ModelService modelService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void loadModels() throws Exception {
+        ClassPathResource resource = new ClassPathResource("api-models/model_list.json");
+        modelService.ingestModels(TENANT, objectMapper.readValue(resource.getInputStream(), new TypeReference<List<APIModelDTO>>() {
+        }));
+    }
+
+    @Test
+    @DisplayName("Every line of a multi-chunk file is replayed once, results are written in file order")
+    void testReplay(@TempDir Path dir) throws Exception {
+        Path input = dir.resolve("traffic.ndjson");
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            lines.add(i % 10 == 0 ? ANOMALOUS : i % 25 == 1 ? UNKNOWN : VALID);
+        }
+        lines.add("{not json");
+        lines.add("{\"path\":\"/api/login\"}");
+        lines.add("");
+        // CRLF line endings and no final newline are accepted
+        Files.writeString(input, String.join("\r\n", lines) + "\r\n" + VALID, StandardCharsets.UTF_8);
+        Path output = dir.resolve("results.ndjson");
+
+        ReplaySummaryDTO summary = trafficReplayer.replay(input, TENANT, 3, 4096, output);
+
+        assertTrue(summary.getChunks() > 10);
+        assertEquals(1001, summary.getRequests());
+        assertEquals(2, summary.getInvalidLines());
+        assertEquals(100 + 40, summary.getAnomalousRequests());
+        assertEquals(100L, summary.getAnomaliesByType().get("TYPE_MISMATCH_BODY"));
+        assertEquals(40L, summary.getAnomaliesByType().get("UNKNOWN_ENDPOINT"));
+        assertEquals("POST /api/login", summary.getTopEndpoints().keySet().iterator().next());
+        assertTrue(summary.getRequestsPerSecondPerCore() > 0);
+
+        List<String> results = Files.readAllLines(output);
+        assertEquals(1003, results.size());
+        long previousOffset = -1;
+        for (String result : results) {
+            long offset = objectMapper.readValue(result, ReplayLineResultDTO.class).getOffset();
+            assertTrue(offset > previousOffset);
+            previousOffset = offset;
+        }
+        ReplayLineResultDTO first = objectMapper.readValue(results.get(0), ReplayLineResultDTO.class);
+        assertEquals(0, first.getOffset());
+        assertEquals("TYPE_MISMATCH_BODY", first.getAnomalies().get(0).getType());
+        assertTrue(first.getAnomalies().get(0).getDescription().contains("is_admin"));
+        ReplayLineResultDTO malformed = objectMapper.readValue(results.get(1000), ReplayLineResultDTO.class);
+        assertNotNull(malformed.getError());
+        assertNull(malformed.getAnomalies());
+        try (var parts = Files.list(dir)) {
+            assertEquals(2, parts.count());
+        }
+    }
+
+    @Test
+    @DisplayName("Recorded traffic is never counted for rate anomalies and endpoint scans")
+    void testReplayIsNotLiveTraffic(@TempDir Path dir) throws Exception {
+        Path input = dir.resolve("scan.ndjson");
+        List<String> lines = new ArrayList<>();
+        // A single client flooding distinct endpoints: both detectors would report it live
+        for (int i = 0; i < 600; i++) {
+            lines.add("{\"method\":\"GET\",\"path\":\"/api/scan/" + i + "\","
+                    + "\"headers\":[{\"name\":\"Authorization\",\"value\":\"Bearer recorded-scanner\"}]}");
+        }
+        Files.write(input, lines, StandardCharsets.UTF_8);
+
+        ReplaySummaryDTO summary = trafficReplayer.replay(input, TENANT, 2, 4096, dir.resolve("results.ndjson"));
+
+        assertEquals(600, summary.getRequests());
+        assertEquals(Map.of("UNKNOWN_ENDPOINT", 600L), summary.getAnomaliesByType());
+    }
+
+    @Test
+    @DisplayName("Chunks start at line starts and cover the whole file")
+    void testLineChunks(@TempDir Path dir) throws Exception {
+        Path input = dir.resolve("lines.ndjson");
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            content.append("x".repeat(i % 37)).append('\n');
+        }
+        Files.writeString(input, content);
+        try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ)) {
+            for (long chunkSize : new long[]{1, 7, 100, 1 << 20}) {
+                List<LineChunk> chunks = LineChunk.split(channel, chunkSize);
+                long position = 0;
+                for (LineChunk chunk : chunks) {
+                    assertEquals(position, chunk.start);
+                    assertTrue(chunk.start == 0 || content.charAt((int) chunk.start - 1) == '\n');
+                    position += chunk.length;
+                }
+                assertEquals(channel.size(), position);
+            }
+        }
+    }
+
+}
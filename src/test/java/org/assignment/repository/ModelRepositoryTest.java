@@ -0,0 +1,164 @@
+package org.assignment.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.assignment.model.APIModelDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the tier composition of the ModelRepository.
+ */
+class ModelRepositoryTest {
+
+    private static final APIModelDTO LOGIN = new APIModelDTO("/login", "POST", List.of(), List.of(), List.of());
+    private static final APIModelDTO LOGOUT = new APIModelDTO("/logout", "POST", List.of(), List.of(), List.of());
+
+    private CountingStore store;
+    private ModelRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        store = new CountingStore();
+        store.putAll("team-a", Map.of("POST:/login", LOGIN, "POST:/logout", LOGOUT));
+        repository = new ModelRepository(store, new LoopbackSharedCacheClient(new ObjectMapper(), 1_000));
+    }
+
+    @Test
+    @DisplayName("Read-through fills the shared cache, so the next read does not reach the store")
+    void testReadThrough() {
+        assertEquals(LOGIN, repository.findByKey("team-a", "POST:/login"));
+        assertEquals(LOGIN, repository.findByKey("team-a", "POST:/login"));
+
+        assertEquals(1, store.reads.get());
+        assertEquals(1, repository.getStats().getSharedCacheHits());
+    }
+
+    @Test
+    @DisplayName("Concurrent misses for the same key are coalesced into a single store read")
+    void testSingleFlight() throws Exception {
+        store.block = new CountDownLatch(1);
+        int callers = 16;
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        List<Future<APIModelDTO>> results = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            results.add(pool.submit(() -> repository.findByKey("team-a", "POST:/login")));
+        }
+
+        // Wait for every caller to either load or wait on the load, then let the store answer
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (repository.getStats().getCoalescedLoads() < callers - 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+        store.block.countDown();
+        for (Future<APIModelDTO> result : results) {
+            assertEquals(LOGIN, result.get(5, TimeUnit.SECONDS));
+        }
+        pool.shutdown();
+
+        assertEquals(1, store.reads.get());
+        assertEquals(callers - 1, repository.getStats().getCoalescedLoads());
+    }
+
+    @Test
+    @DisplayName("Multi-get fetches the shared cache misses from the store in one batch")
+    void testMultiGet() {
+        repository.findByKey("team-a", "POST:/login");
+        store.reads.set(0);
+
+        Map<String, APIModelDTO> found = repository.findAllByKeys("team-a", List.of("POST:/login", "POST:/logout", "GET:/unknown"));
+
+        assertEquals(Map.of("POST:/login", LOGIN, "POST:/logout", LOGOUT), found);
+        assertEquals(1, store.reads.get());
+        assertEquals(1, store.batchReads.get());
+    }
+
+    @Test
+    @DisplayName("Writes replace the shared cache entry, so updates are visible immediately")
+    void testWriteUpdatesSharedCache() {
+        repository.findByKey("team-a", "POST:/login");
+        APIModelDTO updated = new APIModelDTO("/login", "POST", List.of(), List.of(), null);
+
+        repository.saveBatch("team-a", Map.of("POST:/login", updated));
+
+        assertEquals(updated, repository.findByKey("team-a", "POST:/login"));
+        assertNull(repository.findByKey("team-b", "POST:/login"));
+    }
+
+    @Test
+    @DisplayName("Write-behind acknowledges before the store is written and stays readable until flushed")
+    void testWriteBehind() {
+        CountingStore durable = new CountingStore();
+        try (WriteBehindModelStore writeBehind = new WriteBehindModelStore(durable, 60_000)) {
+            ModelRepository writeBehindRepository = new ModelRepository(writeBehind, null);
+
+            writeBehindRepository.saveBatch("team-c", Map.of("POST:/login", LOGIN));
+
+            assertTrue(writeBehindRepository.hasTenant("team-c"));
+            assertNotNull(writeBehindRepository.findByKey("team-c", "POST:/login"));
+            assertNull(durable.get("team-c", "POST:/login"));
+            assertEquals(1, writeBehindRepository.getStats().getPendingWrites());
+
+            writeBehind.flush();
+
+            assertEquals(LOGIN, durable.get("team-c", "POST:/login"));
+            assertEquals(0, writeBehindRepository.getStats().getPendingWrites());
+        }
+    }
+
+    /**
+     * In-memory store counting its reads, optionally blocking them until released.
+     */
+    private static class CountingStore extends InMemoryModelStore {
+        private final AtomicInteger reads = new AtomicInteger();
+        private final AtomicInteger batchReads = new AtomicInteger();
+        private volatile CountDownLatch block;
+
+        @Override
+        public APIModelDTO get(String tenantId, String key) {
+            reads.incrementAndGet();
+            awaitRelease();
+            return super.get(tenantId, key);
+        }
+
+        @Override
+        public Map<String, APIModelDTO> getAll(String tenantId, Collection<String> keys) {
+            reads.incrementAndGet();
+            batchReads.incrementAndGet();
+            Map<String, APIModelDTO> found = new HashMap<>();
+            for (String key : keys) {
+                APIModelDTO model = super.get(tenantId, key);
+                if (model != null) found.put(key, model);
+            }
+            return found;
+        }
+
+        private void awaitRelease() {
+            CountDownLatch latch = block;
+            if (latch == null) return;
+            try {
+                latch.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,186 @@
+package org.assignment.service;
+
+import org.assignment.model.AdmissionStatsDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit and load tests for the AdmissionController.
+ */
+class AdmissionControllerTest {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    @DisplayName("Admits everything while the latency budget is respected")
+    void testAdmitsUnderBudget() {
+        AdmissionController controller = new AdmissionController(true, 10, 100, AdmissionController.OverloadMode.SKIP, 0.1);
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(AdmissionController.Decision.ADMIT, controller.tryAcquire());
+            controller.release(MILLIS);
+        }
+
+        AdmissionStatsDTO stats = controller.getStats();
+        assertEquals(100, stats.getAdmitted());
+        assertEquals(0, stats.getShed());
+        assertEquals(0, stats.getInFlight());
+    }
+
+    @Test
+    @DisplayName("Sheds with SKIPPED_OVERLOAD once the budget is exceeded, keeping a sample")
+    void testShedsOverBudget() {
+        AdmissionController controller = new AdmissionController(true, 10, 100, AdmissionController.OverloadMode.SKIP, 0.1);
+        pushLatencyOverBudget(controller);
+
+        int admitted = 0;
+        int rejected = 0;
+        for (int i = 0; i < 100; i++) {
+            AdmissionController.Decision decision = controller.tryAcquire();
+            if (decision == AdmissionController.Decision.REJECT) {
+                rejected++;
+            } else {
+                assertEquals(AdmissionController.Decision.ADMIT, decision);
+                admitted++;
+                // Keep the latency above the budget
+                controller.release(100 * MILLIS);
+            }
+        }
+
+        assertEquals(10, admitted, "One request out of ten should still be sampled");
+        assertEquals(90, rejected);
+        assertTrue(controller.getStats().getShedRate() > 0);
+    }
+
+    @Test
+    @DisplayName("Degrades to verdict-only mode instead of skipping when configured")
+    void testVerdictOnlyMode() {
+        AdmissionController controller = new AdmissionController(true, 10, 100, AdmissionController.OverloadMode.VERDICT_ONLY, 0.0);
+        pushLatencyOverBudget(controller);
+
+        assertEquals(AdmissionController.Decision.DEGRADE, controller.tryAcquire());
+        controller.release(100 * MILLIS);
+        assertTrue(controller.getStats().getDegraded() > 0);
+        assertEquals(0, controller.getStats().getShed());
+    }
+
+    @Test
+    @DisplayName("Recovers once sampled requests are fast again")
+    void testRecoversAfterOverload() {
+        AdmissionController controller = new AdmissionController(true, 10, 100, AdmissionController.OverloadMode.SKIP, 1.0);
+        pushLatencyOverBudget(controller);
+
+        // With a sample ratio of 1 every request is admitted, so fast requests pull the average down
+        for (int i = 0; i < 50; i++) {
+            controller.tryAcquire();
+            controller.release(MILLIS);
+        }
+        assertTrue(controller.getStats().getRecentLatencyMillis() <= 10);
+    }
+
+    @Test
+    @DisplayName("Rejects above the in-flight limit regardless of latency")
+    void testMaxInFlight() {
+        AdmissionController controller = new AdmissionController(true, 10, 2, AdmissionController.OverloadMode.VERDICT_ONLY, 1.0);
+
+        assertEquals(AdmissionController.Decision.ADMIT, controller.tryAcquire());
+        assertEquals(AdmissionController.Decision.ADMIT, controller.tryAcquire());
+        assertEquals(AdmissionController.Decision.REJECT, controller.tryAcquire());
+
+        controller.release(MILLIS);
+        assertEquals(AdmissionController.Decision.ADMIT, controller.tryAcquire());
+        assertEquals(2, controller.getStats().getPeakInFlight());
+    }
+
+    @Test
+    @DisplayName("Disabled controller admits everything")
+    void testDisabled() {
+        AdmissionController controller = new AdmissionController(false, 10, 1, AdmissionController.OverloadMode.SKIP, 0.1);
+        pushLatencyOverBudget(controller);
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(AdmissionController.Decision.ADMIT, controller.tryAcquire());
+        }
+    }
+
+    @Test
+    @DisplayName("Load: a saturated detector sheds requests and never runs more than the in-flight limit")
+    void testSheddingUnderLoad() throws Exception {
+        AdmissionController unbounded = new AdmissionController(false, 5, 1000, AdmissionController.OverloadMode.SKIP, 0.1);
+        AdmissionController shedding = new AdmissionController(true, 5, 8, AdmissionController.OverloadMode.SKIP, 0.1);
+
+        int unboundedPeak = runLoad(unbounded);
+        int sheddingPeak = runLoad(shedding);
+
+        AdmissionStatsDTO stats = shedding.getStats();
+        assertTrue(stats.getShed() > 0, "Overload should shed requests");
+        assertEquals(32 * 50, stats.getAdmitted() + stats.getDegraded() + stats.getShed());
+        assertTrue(sheddingPeak <= 8, "Detections running at once: " + sheddingPeak);
+        assertTrue(stats.getPeakInFlight() <= 8);
+        assertEquals(0, stats.getInFlight());
+        assertEquals(0, unbounded.getStats().getShed());
+        assertTrue(unboundedPeak > 8, "Without admission control the clients all get in: " + unboundedPeak);
+    }
+
+    private static void pushLatencyOverBudget(AdmissionController controller) {
+        for (int i = 0; i < 20; i++) {
+            controller.tryAcquire();
+            controller.release(100 * MILLIS);
+        }
+    }
+
+    /**
+     * Simulates 32 clients hammering a detector that can only run 4 detections in parallel
+     * (e.g. a 4 core box) and returns the largest number of admitted detections seen running at once.
+     */
+    private static int runLoad(AdmissionController controller) throws Exception {
+        int clients = 32;
+        int requestsPerClient = 50;
+        Semaphore cores = new Semaphore(4);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(clients);
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+
+        for (int c = 0; c < clients; c++) {
+            pool.submit(() -> {
+                try {
+                    for (int i = 0; i < requestsPerClient; i++) {
+                        long start = System.nanoTime();
+                        AdmissionController.Decision decision = controller.tryAcquire();
+                        if (decision != AdmissionController.Decision.REJECT) {
+                            peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                            cores.acquire();
+                            try {
+                                Thread.sleep(1);
+                            } finally {
+                                cores.release();
+                                running.decrementAndGet();
+                            }
+                            controller.release(System.nanoTime() - start);
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+        pool.shutdown();
+        return peak.get();
+    }
+
+}
@@ -0,0 +1,153 @@
+package org.assignment.service;
+
+import org.assignment.model.APIModelDTO;
+import org.assignment.model.APIModelParamDTO;
+import org.assignment.model.AnomalyDTO;
+import org.assignment.model.DetectionDTO;
+import org.assignment.validation.ScanLimits;
+import org.assignment.validation.TypeValidator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for nested body paths ("user.address.zip", "items[].sku") in body models.
+ */
+class AnomalyDetectorBodyPathTest {
+
+    private AnomalyDetector anomalyDetector;
+
+    @BeforeEach
+    void setUp() {
+        Map<String, Integer> maxLengths = Map.of(
+                "Int", 64, "String", 8192, "Boolean", 5, "List", 65536,
+                "Date", 12, "Email", 255, "UUID", 36, "Auth-Token", 4096);
+        anomalyDetector = new AnomalyDetector(new TypeValidator(), new ScanLimits(maxLengths, 32, 10_000, 1_000_000));
+    }
+
+    @Test
+    @DisplayName("Nested object fields are validated at their path")
+    void testNestedObject() {
+        APIModelDTO model = bodyModel(param("user.address.zip", "Int"), param("user.email", "Email"));
+
+        assertTrue(detect(model, Map.of("user", Map.of("email", "foo@bar.com", "address", Map.of("zip", 12345)))).isEmpty());
+
+        List<AnomalyDTO> anomalies = detect(model, Map.of("user", Map.of("email", "foo@bar.com", "address", Map.of("zip", "abc"))));
+        assertSingle(anomalies, "TYPE_MISMATCH_BODY", "'user.address.zip'");
+
+        anomalies = detect(model, Map.of("user", Map.of("email", "foo@bar.com")));
+        assertSingle(anomalies, "MISSING_BODY", "'user.address.zip'");
+    }
+
+    @Test
+    @DisplayName("List element fields are validated for every element, reported once with the element index")
+    void testListElements() {
+        APIModelDTO model = bodyModel(param("items[].sku", "String"), param("items[].qty", "Int"));
+        List<Object> items = List.of(
+                Map.of("sku", "A-1", "qty", 1),
+                Map.of("sku", "A-2", "qty", 2),
+                Map.of("sku", "A-3", "qty", "two"),
+                Map.of("sku", "A-4", "qty", "four"));
+
+        List<AnomalyDTO> anomalies = detect(model, Map.of("items", items));
+        assertSingle(anomalies, "TYPE_MISMATCH_BODY", "'items[2].qty'");
+
+        assertTrue(detect(model, Map.of("items", List.of())).isEmpty(), "An empty list has no element to validate");
+    }
+
+    @Test
+    @DisplayName("A field holding the wrong shape is reported once")
+    void testShapeMismatch() {
+        APIModelDTO model = bodyModel(param("user.name", "String"), param("user.age", "Int"), param("tags[]", "String"));
+
+        List<AnomalyDTO> anomalies = detect(model, Map.of("user", "john", "tags", List.of("a")));
+        assertSingle(anomalies, "TYPE_MISMATCH_BODY", "'user' is not an object");
+
+        anomalies = detect(model, Map.of("user", Map.of("name", "john", "age", 42), "tags", "a"));
+        assertSingle(anomalies, "TYPE_MISMATCH_BODY", "'tags' is not a list");
+    }
+
+    @Test
+    @DisplayName("Subtrees no model path references are never visited")
+    void testUnreferencedSubtreesSkipped() {
+        APIModelDTO model = bodyModel(param("meta.id", "Int"));
+        Map<String, Object> meta = new UntouchableMap();
+        meta.put("id", 7);
+        meta.put("blob", List.of(List.of(List.of("deep"))));
+        Map<String, Object> body = new HashMap<>();
+        body.put("meta", meta);
+        body.put("payload", Collections.nCopies(5_000_000, Map.of("x", 1)));
+
+        List<AnomalyDTO> anomalies = assertTimeoutPreemptively(Duration.ofMillis(50), () -> detect(model, body));
+        assertTrue(anomalies.isEmpty(), anomalies::toString);
+    }
+
+    @Test
+    @DisplayName("A literal top-level field named like a path keeps its flat meaning")
+    void testLiteralDottedField() {
+        APIModelDTO model = bodyModel(param("user.id", "Int"));
+
+        assertTrue(detect(model, Map.of("user.id", 42)).isEmpty());
+        assertSingle(detect(model, Map.of("user.id", "john", "user", Map.of("id", 42))), "TYPE_MISMATCH_BODY", "'user.id'");
+    }
+
+    @Test
+    @DisplayName("Flat models are validated as before")
+    void testFlatModel() {
+        APIModelDTO model = bodyModel(param("email", "Email"), param("tags", "List"));
+
+        assertTrue(detect(model, Map.of("email", "foo@bar.com", "tags", List.of("a", "b"))).isEmpty());
+        assertSingle(detect(model, Map.of("tags", List.of("a"))), "MISSING_BODY", "'email'");
+    }
+
+    private List<AnomalyDTO> detect(APIModelDTO model, Map<String, Object> body) {
+        return anomalyDetector.detectAnomalies(new DetectionDTO("POST", "/api/test", Map.of(), Map.of(), body), model);
+    }
+
+    private static void assertSingle(List<AnomalyDTO> anomalies, String type, String descriptionPart) {
+        assertEquals(1, anomalies.size(), anomalies::toString);
+        assertEquals(type, anomalies.get(0).getType());
+        assertTrue(anomalies.get(0).getDescription().contains(descriptionPart), anomalies.get(0).getDescription());
+    }
+
+    private static APIModelDTO bodyModel(APIModelParamDTO... params) {
+        return new APIModelDTO("/api/test", "POST", List.of(), List.of(), List.of(params));
+    }
+
+    private static APIModelParamDTO param(String name, String... types) {
+        return new APIModelParamDTO(name, List.of(types), true);
+    }
+
+    /**
+     * A body object that fails the test if it is iterated: only the fields a model path references may be read.
+     */
+    private static class UntouchableMap extends HashMap<String, Object> {
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            throw new AssertionError("Body object iterated");
+        }
+
+        @Override
+        public Set<String> keySet() {
+            throw new AssertionError("Body object iterated");
+        }
+
+        @Override
+        public Collection<Object> values() {
+            throw new AssertionError("Body object iterated");
+        }
+    }
+
+}
@@ -0,0 +1,140 @@
+package org.assignment.service;
+
+import org.assignment.model.APIModelDTO;
+import org.assignment.model.APIModelParamDTO;
+import org.assignment.model.AnomalyDTO;
+import org.assignment.model.DetectionDTO;
+import org.assignment.validation.ScanLimits;
+import org.assignment.validation.TypeValidator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Adversarial-input tests for the CPU budget guards of the AnomalyDetector.
+ * Every pathological request must be answered with a distinct anomaly within a bounded time.
+ */
+class AnomalyDetectorLimitsTest {
+
+    // Worst-case time allowed for a single adversarial request
+    private static final Duration MAX_REQUEST_TIME = Duration.ofMillis(200);
+
+    private AnomalyDetector anomalyDetector;
+
+    @BeforeEach
+    void setUp() {
+        Map<String, Integer> maxLengths = Map.of(
+                "Int", 64, "String", 8192, "Boolean", 5, "List", 65536,
+                "Date", 12, "Email", 255, "UUID", 36, "Auth-Token", 4096);
+        ScanLimits scanLimits = new ScanLimits(maxLengths, 32, 10_000, 1_000_000);
+        anomalyDetector = new AnomalyDetector(new TypeValidator(), scanLimits);
+    }
+
+    @Test
+    @DisplayName("Valid values are not affected by the limits")
+    void testValidValuesPass() {
+        APIModelDTO model = bodyModel(param("email", "Email"), param("tags", "List"));
+        Map<String, Object> body = Map.of(
+                "email", "foo@bar.com",
+                "tags", List.of("a", List.of(1, 2), Map.of("k", "v")));
+
+        assertTrue(detect(model, body).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Adversarial: 100 KB string checked against Email")
+    void testHugeEmail() {
+        APIModelDTO model = bodyModel(param("email", "Email"));
+        Map<String, Object> body = Map.of("email", "a".repeat(100_000) + "@example.com");
+
+        List<AnomalyDTO> anomalies = detectWithinBudget(model, body);
+        assertSingle(anomalies, "VALUE_TOO_LARGE_BODY");
+    }
+
+    @Test
+    @DisplayName("Adversarial: string-encoded list nested deeper than the limit")
+    void testDeepEncodedList() {
+        APIModelDTO model = new APIModelDTO("/api/test", "GET", List.of(param("q", "List")), List.of(), List.of());
+        DetectionDTO detection = new DetectionDTO("GET", "/api/test",
+                Map.of("q", "[".repeat(5_000) + "1" + "]".repeat(5_000)), Map.of(), Map.of());
+
+        List<AnomalyDTO> anomalies = assertTimeoutPreemptively(MAX_REQUEST_TIME,
+                () -> anomalyDetector.detectAnomalies(detection, model));
+        assertSingle(anomalies, "VALUE_TOO_LARGE_QUERY_PARAM");
+    }
+
+    @Test
+    @DisplayName("Adversarial: parsed list nested deeper than the limit")
+    void testDeepParsedList() {
+        List<Object> root = new ArrayList<>();
+        List<Object> current = root;
+        for (int i = 0; i < 100_000; i++) {
+            List<Object> next = new ArrayList<>();
+            current.add(next);
+            current = next;
+        }
+        APIModelDTO model = bodyModel(param("items", "List"));
+
+        List<AnomalyDTO> anomalies = detectWithinBudget(model, Map.of("items", root));
+        assertSingle(anomalies, "VALUE_TOO_LARGE_BODY");
+    }
+
+    @Test
+    @DisplayName("Adversarial: parsed list with millions of elements")
+    void testHugeParsedList() {
+        List<Object> huge = Collections.nCopies(5_000_000, "x");
+        APIModelDTO model = bodyModel(param("items", "List", "String"));
+
+        List<AnomalyDTO> anomalies = detectWithinBudget(model, Map.of("items", huge));
+        assertSingle(anomalies, "VALUE_TOO_LARGE_BODY");
+    }
+
+    @Test
+    @DisplayName("Adversarial: many large values exhaust the request scan budget")
+    void testRequestBudgetExhausted() {
+        List<APIModelParamDTO> params = new ArrayList<>();
+        Map<String, Object> body = new HashMap<>();
+        String bigValue = "x".repeat(8_000);
+        for (int i = 0; i < 1_000; i++) {
+            params.add(param("p" + i, "String"));
+            body.put("p" + i, bigValue);
+        }
+        APIModelDTO model = new APIModelDTO("/api/test", "POST", List.of(), List.of(), params);
+
+        List<AnomalyDTO> anomalies = detectWithinBudget(model, body);
+        assertEquals("SCAN_BUDGET_EXCEEDED", anomalies.get(anomalies.size() - 1).getType());
+    }
+
+    private List<AnomalyDTO> detect(APIModelDTO model, Map<String, Object> body) {
+        return anomalyDetector.detectAnomalies(new DetectionDTO("POST", "/api/test", Map.of(), Map.of(), body), model);
+    }
+
+    private List<AnomalyDTO> detectWithinBudget(APIModelDTO model, Map<String, Object> body) {
+        return assertTimeoutPreemptively(MAX_REQUEST_TIME, () -> detect(model, body));
+    }
+
+    private static void assertSingle(List<AnomalyDTO> anomalies, String type) {
+        assertEquals(1, anomalies.size(), anomalies::toString);
+        assertEquals(type, anomalies.get(0).getType());
+    }
+
+    private static APIModelDTO bodyModel(APIModelParamDTO... params) {
+        return new APIModelDTO("/api/test", "POST", List.of(), List.of(), List.of(params));
+    }
+
+    private static APIModelParamDTO param(String name, String... types) {
+        return new APIModelParamDTO(name, List.of(types), true);
+    }
+
+}
@@ -0,0 +1,30 @@
+package org.assignment.service;
+
+import org.assignment.model.APIModelDTO;
+import org.assignment.model.AnomalyDTO;
+import org.assignment.model.DetectionDTO;
+
+import java.util.List;
+
+/**
+ * Validates detections against models compiled on every call, for tests of other packages.
+ * Production code goes through the {@link CompiledModelRegistry}.
+ */
+public final class AnomalyDetectors {
+
+    private AnomalyDetectors() {
+    }
+
+    /**
+     * Compiles a model and validates a detection against it.
+     *
+     * @param anomalyDetector The detector.
+     * @param detection       The detection to validate.
+     * @param model           The model, compiled for this call only.
+     * @return The anomalies of the detection.
+     */
+    public static List<AnomalyDTO> detect(AnomalyDetector anomalyDetector, DetectionDTO detection, APIModelDTO model) {
+        return anomalyDetector.detectAnomalies(detection, model);
+    }
+
+}
@@ -0,0 +1,67 @@
+package org.assignment.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.assignment.model.APIModelDTO;
+import org.assignment.model.APIModelParamDTO;
+import org.assignment.model.CustomTypeDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Unit tests for the CompiledModelRegistry: models are compiled at ingestion and reused by every copy of the cache.
+ */
+class CompiledModelRegistryTest {
+
+    private static final String TENANT = "tenant-a";
+    private static final String KEY = "POST:/api/orders";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("A copy of a registered model, as decoded after a cache miss, reuses its compilation")
+    void testCopyReusesCompilation() throws Exception {
+        CompiledModelRegistry registry = new CompiledModelRegistry();
+        APIModelDTO model = model("[A-Z]{3}-\\d{4}");
+        registry.registerAll(TENANT, Map.of(KEY, model));
+
+        CompiledModel compiled = registry.get(TENANT, KEY, model);
+        APIModelDTO copy = objectMapper.readValue(objectMapper.writeValueAsBytes(model), APIModelDTO.class);
+
+        assertNotSame(model, copy);
+        assertSame(compiled, registry.get(TENANT, KEY, copy));
+        assertSame(compiled, registry.get(TENANT, KEY, copy), "The copy is remembered");
+        // Validated against the ingested instance, whose parameters key the type orders
+        assertSame(model, registry.get(TENANT, KEY, copy).getModel());
+    }
+
+    @Test
+    @DisplayName("A re-ingested model replaces the compilation, a stale copy is compiled apart")
+    void testReingestionReplacesCompilation() {
+        CompiledModelRegistry registry = new CompiledModelRegistry();
+        APIModelDTO first = model("[A-Z]{3}-\\d{4}");
+        APIModelDTO second = model("[A-Z]{2}-\\d{6}");
+        registry.registerAll(TENANT, Map.of(KEY, first));
+        registry.registerAll(TENANT, Map.of(KEY, second));
+
+        CompiledModel current = registry.get(TENANT, KEY, second);
+        assertSame(second, current.getModel());
+        CompiledModel stale = registry.get(TENANT, KEY, first);
+        assertSame(first, stale.getModel());
+        assertSame(current, registry.get(TENANT, KEY, second), "A stale copy never replaces the registered version");
+        assertNotSame(current, registry.get("tenant-b", KEY, second), "Tenants never share compilations");
+    }
+
+    private static APIModelDTO model(String pattern) {
+        APIModelDTO model = new APIModelDTO("/api/orders", "POST", List.of(), List.of(),
+                List.of(new APIModelParamDTO("sku", List.of("Sku", "Int"), true)));
+        model.setCustomTypes(List.of(CustomTypeDTO.builder().name("Sku").pattern(pattern).build()));
+        return model;
+    }
+
+}
@@ -0,0 +1,63 @@
+package org.assignment.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the EndpointFilter.
+ */
+class EndpointFilterTest {
+
+    @Test
+    @DisplayName("Registered keys are never filtered out, even after the filter grew many times")
+    void testNoFalseNegatives() {
+        EndpointFilter filter = new EndpointFilter(true, 0.01);
+        List<String> keys = new ArrayList<>();
+        for (int batch = 0; batch < 100; batch++) {
+            List<String> batchKeys = new ArrayList<>();
+            for (int i = 0; i < 1_000; i++) {
+                batchKeys.add("GET:/api/" + batch + "/" + i);
+            }
+            filter.addAll("team-a", batchKeys);
+            keys.addAll(batchKeys);
+        }
+
+        for (String key : keys) {
+            assertTrue(filter.mightContain("team-a", key), key);
+        }
+        assertFalse(filter.mightContain("team-b", keys.get(0)), "Filters are per tenant");
+    }
+
+    @Test
+    @DisplayName("The false positive rate stays below the configured rate as the filter grows")
+    void testFalsePositiveRate() {
+        EndpointFilter filter = new EndpointFilter(true, 0.01);
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            keys.add("POST:/known/" + i);
+        }
+        filter.addAll("team-a", keys);
+
+        int falsePositives = 0;
+        int probes = 100_000;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain("team-a", "GET:/scan/" + i)) falsePositives++;
+        }
+        assertTrue(falsePositives < probes * 0.01, "False positives: " + falsePositives);
+    }
+
+    @Test
+    @DisplayName("Disabled filter lets every lookup through")
+    void testDisabled() {
+        EndpointFilter filter = new EndpointFilter(false, 0.01);
+
+        assertTrue(filter.mightContain("team-a", "GET:/anything"));
+    }
+
+}
@@ -0,0 +1,129 @@
+package org.assignment.service;
+
+import org.assignment.model.AnomalyDTO;
+import org.assignment.model.DetectionDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the endpoint scan anomalies, on a manual clock.
+ */
+class EndpointScanDetectorTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+
+    @Test
+    @DisplayName("A client probing many endpoints is reported, a busy client on a few endpoints is not")
+    void testScan() {
+        // Window of 60 s in 4 buckets, precision 7, at most 100 endpoints
+        EndpointScanDetector detector = detector(7, 100);
+        for (int i = 0; i < 10_000; i++) {
+            assertFalse(isReported(detector, "Bearer busy", "GET:/api/orders/" + i % 50));
+        }
+        int firstReported = firstReported(detector, "Bearer scanner", 1000);
+        // Linear counting is accurate in this range
+        assertTrue(firstReported > 90 && firstReported < 115, "first reported at " + firstReported);
+        // Known endpoints are reported too once over the limit
+        assertTrue(isReported(detector, "Bearer scanner", "GET:/api/orders/1"));
+        assertFalse(isReported(detector, "Bearer busy", "GET:/api/orders/1"));
+    }
+
+    @Test
+    @DisplayName("The estimate stays within a few standard errors at large counts")
+    void testAccuracy() {
+        // Precision 10: a standard error of 3.3%
+        for (int limit : new int[]{1_000, 5_000, 20_000}) {
+            EndpointScanDetector detector = detector(10, limit);
+            int firstReported = firstReported(detector, "Bearer scanner", limit * 2);
+            assertTrue(Math.abs(firstReported - limit) < limit * 0.12, "limit " + limit + ", first reported at " + firstReported);
+        }
+    }
+
+    @Test
+    @DisplayName("Endpoints leave the window bucket by bucket")
+    void testSlidingWindow() {
+        EndpointScanDetector detector = detector(7, 100);
+        for (int i = 0; i < 60; i++) {
+            isReported(detector, "Bearer scanner", "GET:/a/" + i);
+        }
+        // 45 s later, still in the window: 60 + 60 endpoints
+        now.addAndGet(45_000);
+        assertTrue(firstReported(detector, "Bearer scanner", 60) > 0);
+        // 30 s later, the first 60 endpoints left the window
+        now.addAndGet(30_000);
+        assertFalse(isReported(detector, "Bearer scanner", "GET:/b/0"));
+        // The whole window later, nothing is left
+        now.addAndGet(60_000);
+        assertEquals(-1, firstReported(detector, "Bearer scanner", 100));
+    }
+
+    @Test
+    @DisplayName("Requests without the client header are not counted, results are new lists")
+    void testResultList() {
+        EndpointScanDetector detector = detector(7, 10);
+        List<AnomalyDTO> none = List.of();
+        for (int i = 0; i < 100; i++) {
+            assertSame(none, detector.check("default", "GET:/" + i, new DetectionDTO(), none, false));
+        }
+        firstReported(detector, "Bearer scanner", 100);
+        List<AnomalyDTO> typeMismatch = List.of(AnomalyDTO.builder().type("TYPE_MISMATCH_BODY").param("id").build());
+        assertSame(typeMismatch, detector.check("default", "GET:/x", detection("Bearer scanner"), typeMismatch, true));
+        List<AnomalyDTO> result = detector.check("default", "GET:/x", detection("Bearer scanner"), typeMismatch, false);
+        assertEquals(List.of("TYPE_MISMATCH_BODY", EndpointScanDetector.ENDPOINT_SCAN),
+                List.of(result.get(0).getType(), result.get(1).getType()));
+        // The header value is a credential
+        assertFalse(result.get(1).getDescription().contains("scanner"));
+        // Another tenant is another client
+        assertFalse(isReported(detector, "team-a", "Bearer scanner", "GET:/x"));
+    }
+
+    @Test
+    @DisplayName("A precision, window, bucket count or client limit out of range is rejected")
+    void testInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class, () -> detector(3, 100));
+        assertThrows(IllegalArgumentException.class,
+                () -> new EndpointScanDetector(true, "Authorization", 60, 0, 7, 100, 1000, now::get));
+        assertThrows(IllegalArgumentException.class,
+                () -> new EndpointScanDetector(true, "Authorization", 60, -1, 7, 100, 1000, now::get));
+        assertThrows(IllegalArgumentException.class,
+                () -> new EndpointScanDetector(true, "Authorization", 0, 4, 7, 100, 1000, now::get));
+        assertThrows(IllegalArgumentException.class,
+                () -> new EndpointScanDetector(true, "Authorization", 60, 4, 7, 100, 0, now::get));
+    }
+
+    private EndpointScanDetector detector(int precision, long maxDistinctEndpoints) {
+        return new EndpointScanDetector(true, "Authorization", 60, 4, precision, maxDistinctEndpoints, 1000, now::get);
+    }
+
+    // The number of distinct endpoints hit when the client is first reported, -1 if never
+    private int firstReported(EndpointScanDetector detector, String client, int endpoints) {
+        for (int i = 1; i <= endpoints; i++) {
+            if (isReported(detector, client, "GET:/api/probe/" + now.get() + "/" + i)) return i;
+        }
+        return -1;
+    }
+
+    private boolean isReported(EndpointScanDetector detector, String client, String key) {
+        return isReported(detector, "default", client, key);
+    }
+
+    private boolean isReported(EndpointScanDetector detector, String tenantId, String client, String key) {
+        return detector.check(tenantId, key, detection(client), List.of(), false).stream()
+                .anyMatch(anomaly -> anomaly.getType().equals(EndpointScanDetector.ENDPOINT_SCAN));
+    }
+
+    private static DetectionDTO detection(String client) {
+        return new DetectionDTO("GET", "/", null, Map.of("Authorization", client), null);
+    }
+
+}
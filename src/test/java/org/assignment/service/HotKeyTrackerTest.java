@@ -0,0 +1,152 @@
+package org.assignment.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.assignment.model.APIModelDTO;
+import org.assignment.model.HotKeyDTO;
+import org.assignment.model.TenantStatsDTO;
+import org.assignment.repository.ModelRepository;
+import org.assignment.replay.RecordedTraffic;
+import org.assignment.warmup.SyntheticTraffic;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the hot-key tracking, its file and the cache preload after a restart.
+ */
+class HotKeyTrackerTest {
+
+    @TempDir
+    Path dir;
+
+    private ModelRepository repository;
+    private Path file;
+
+    @BeforeEach
+    void setUp() {
+        repository = new ModelRepository();
+        Map<String, APIModelDTO> models = new HashMap<>();
+        for (int i = 0; i < 300; i++) {
+            models.put("GET:/e" + i, new APIModelDTO("/e" + i, "GET", List.of(), List.of(), List.of()));
+        }
+        repository.saveBatch("team-a", models);
+        repository.saveBatch("team-b", Map.of("POST:/b", new APIModelDTO("/b", "POST", List.of(), List.of(), List.of())));
+        file = dir.resolve("hot-keys.json");
+    }
+
+    @Test
+    @DisplayName("The hottest endpoints are saved on shutdown and preloaded into a fresh cache")
+    void testSaveAndPreload() throws Exception {
+        HotKeyTracker tracker = tracker(newCache(), 200, 1000);
+        for (int i = 0; i < 300; i++) {
+            // Endpoint i is accessed 300 - i times
+            for (int n = i; n < 300; n++) {
+                tracker.record("team-a", "GET:/e" + i);
+            }
+        }
+        tracker.record("team-b", "POST:/b");
+        SyntheticTraffic.run(() -> {
+            tracker.record("team-b", "POST:/synthetic");
+            return null;
+        });
+        tracker.stop();
+
+        List<HotKeyDTO> saved = List.of(new ObjectMapper().readValue(file.toFile(), HotKeyDTO[].class));
+        assertEquals(200, saved.size(), "capped at max-keys");
+        assertEquals(new HotKeyDTO("team-a", "GET:/e0", 300), saved.get(0));
+        assertEquals("GET:/e199", saved.get(199).getKey());
+
+        // Restart: a fresh cache and tracker preload the saved endpoints (chunks of 128 on several threads)
+        ModelCache restarted = newCache();
+        HotKeyTracker preloader = tracker(restarted, 200, 1000);
+        assertEquals(200, preloader.preload());
+        assertEquals(200, statsOf(restarted, "team-a").getCachedEntries());
+
+        restarted.get("team-a", "GET:/e0");
+        restarted.get("team-a", "GET:/e299");
+        assertEquals(1, statsOf(restarted, "team-a").getHitCount());
+        // The saved counts seed the new tracker
+        assertEquals(300, preloader.getTop(1).get(0).getCount());
+        preloader.stop();
+    }
+
+    @Test
+    @DisplayName("Synthetic and recorded traffic are not counted")
+    void testOnlyLiveTrafficCounted() {
+        HotKeyTracker tracker = tracker(newCache(), 10, 100);
+        SyntheticTraffic.run(() -> {
+            tracker.record("team-a", "GET:/synthetic");
+            return null;
+        });
+        RecordedTraffic.run(() -> {
+            tracker.record("team-a", "GET:/replayed");
+            return null;
+        });
+        assertEquals(List.of(), tracker.getTop(10));
+
+        tracker.record("team-a", "GET:/live");
+        assertEquals(List.of(new HotKeyDTO("team-a", "GET:/live", 1)), tracker.getTop(10));
+        tracker.stop();
+    }
+
+    @Test
+    @DisplayName("Decay halves the counts and forgets cold endpoints, making room for new ones")
+    void testDecay() throws Exception {
+        HotKeyTracker tracker = tracker(newCache(), 10, 2);
+        for (int i = 0; i < 8; i++) tracker.record("team-a", "GET:/e1");
+        tracker.record("team-a", "GET:/e2");
+        tracker.record("team-a", "GET:/e3");
+
+        List<HotKeyDTO> top = tracker.getTop(10);
+        assertEquals(2, top.size(), "capped at max-tracked-keys");
+
+        tracker.decay();
+        top = tracker.getTop(10);
+        assertEquals(List.of(new HotKeyDTO("team-a", "GET:/e1", 4)), top);
+
+        tracker.record("team-a", "GET:/e3");
+        assertEquals(2, tracker.getTop(10).size());
+    }
+
+    @Test
+    @DisplayName("Nothing is preloaded without a saved file, and an empty tracker keeps the previous file")
+    void testNoFile() throws Exception {
+        HotKeyTracker tracker = tracker(newCache(), 10, 100);
+        assertEquals(0, tracker.preload());
+        tracker.stop();
+        assertFalse(Files.exists(file));
+
+        Files.writeString(file, "[{\"tenantId\":\"team-b\",\"key\":\"POST:/b\",\"count\":3}]");
+        tracker = tracker(newCache(), 10, 100);
+        tracker.stop();
+        assertTrue(Files.readString(file).contains("POST:/b"));
+    }
+
+    private ModelCache newCache() {
+        return new ModelCache(repository, 1000, 60_000, Map.of(), new EndpointFilter(false, 0.01));
+    }
+
+    private HotKeyTracker tracker(ModelCache cache, int maxKeys, int maxTrackedKeys) {
+        return new HotKeyTracker(cache, new ObjectMapper(), true, file.toString(), maxKeys, maxTrackedKeys,
+                3_600_000, 4, 10_000);
+    }
+
+    private static TenantStatsDTO statsOf(ModelCache cache, String tenantId) {
+        return cache.getTenantStats().stream()
+                .filter(stats -> stats.getTenantId().equals(tenantId))
+                .findFirst()
+                .orElseThrow();
+    }
+
+}
@@ -0,0 +1,108 @@
+package org.assignment.service;
+
+import org.assignment.model.APIModelDTO;
+import org.assignment.model.TenantStatsDTO;
+import org.assignment.repository.ModelRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the tenant isolation of the ModelCache.
+ */
+class ModelCacheTest {
+
+    private ModelRepository repository;
+    private ModelCache modelCache;
+
+    @BeforeEach
+    void setUp() {
+        repository = new ModelRepository();
+        repository.saveBatch("team-a", Map.of("GET:/hot", new APIModelDTO("/hot", "GET", List.of(), List.of(), List.of())));
+        repository.saveBatch("team-b", Map.of("GET:/hot", new APIModelDTO("/hot", "GET", List.of(), List.of(), List.of())));
+        // Without the endpoint filter, so that scans reach the cache
+        modelCache = new ModelCache(repository, 100, 60_000, Map.of("team-b", 10L), new EndpointFilter(false, 0.01));
+    }
+
+    @Test
+    @DisplayName("Tenants do not see each other's models")
+    void testNamespaces() throws Exception {
+        repository.saveBatch("team-a", Map.of("POST:/only-a", new APIModelDTO("/only-a", "POST", List.of(), List.of(), List.of())));
+
+        assertTrue(modelCache.get("team-a", "POST:/only-a").isPresent());
+        assertFalse(modelCache.get("team-b", "POST:/only-a").isPresent());
+        assertFalse(modelCache.get("unknown-tenant", "POST:/only-a").isPresent());
+    }
+
+    @Test
+    @DisplayName("A tenant flooding its cache with scans cannot evict another tenant's hot model")
+    void testScanFloodIsIsolated() throws Exception {
+        modelCache.get("team-a", "GET:/hot");
+
+        // team-b scans thousands of unknown endpoints, far over its budget of 10 entries
+        for (int i = 0; i < 5_000; i++) {
+            modelCache.get("team-b", "GET:/scan/" + i);
+        }
+
+        modelCache.get("team-a", "GET:/hot");
+        Map<String, TenantStatsDTO> stats = statsByTenant();
+        assertEquals(1, stats.get("team-a").getHitCount(), "team-a's hot model must still be cached");
+        assertEquals(0, stats.get("team-a").getEvictionCount());
+        assertTrue(stats.get("team-b").getCachedEntries() <= 10);
+        assertTrue(stats.get("team-b").getEvictionCount() > 0);
+    }
+
+    @Test
+    @DisplayName("Unknown tenants never allocate a cache")
+    void testUnknownTenantStats() throws Exception {
+        modelCache.get("ghost", "GET:/hot");
+
+        assertEquals(2, modelCache.getTenantStats().size());
+        assertTrue(statsByTenant().get("team-a").getEstimatedStoreBytes() > 0);
+    }
+
+    @Test
+    @DisplayName("Unknown-endpoint scans are filtered out and leave the hot models cached")
+    void testScanFiltered() throws Exception {
+        EndpointFilter endpointFilter = new EndpointFilter(true, 0.01);
+        ModelCache filteredCache = new ModelCache(repository, 100, 60_000, Map.of(), endpointFilter);
+        Map<String, APIModelDTO> hotModels = new HashMap<>();
+        for (int i = 0; i < 50; i++) {
+            hotModels.put("GET:/hot/" + i, new APIModelDTO("/hot/" + i, "GET", List.of(), List.of(), List.of()));
+        }
+        endpointFilter.addAll("team-c", hotModels.keySet());
+        repository.saveBatch("team-c", hotModels);
+
+        // A scanner probes 100 random paths between every pass over the hot models
+        for (int pass = 0; pass < 100; pass++) {
+            for (String key : hotModels.keySet()) {
+                assertTrue(filteredCache.get("team-c", key).isPresent());
+            }
+            for (int i = 0; i < 100; i++) {
+                assertFalse(filteredCache.get("team-c", "GET:/scan/" + pass + "/" + i).isPresent());
+            }
+        }
+
+        TenantStatsDTO stats = filteredCache.getTenantStats().stream()
+                .filter(s -> s.getTenantId().equals("team-c")).findFirst().orElseThrow();
+        assertEquals(50, stats.getMissCount(), "Only the first pass over the hot models should miss");
+        assertEquals(0, stats.getEvictionCount());
+        // Scans only reach the cache on a false positive (1%)
+        assertTrue(stats.getFilteredLookups() > 9_800, "Filtered lookups: " + stats.getFilteredLookups());
+        assertTrue(stats.getCachedEntries() < 50 + 200);
+    }
+
+    private Map<String, TenantStatsDTO> statsByTenant() {
+        return modelCache.getTenantStats().stream()
+                .collect(java.util.stream.Collectors.toMap(TenantStatsDTO::getTenantId, s -> s));
+    }
+
+}
@@ -0,0 +1,116 @@
+package org.assignment.service;
+
+import org.assignment.exception.AppErrorCode;
+import org.assignment.exception.InvalidModelsControllerException;
+import org.assignment.model.IngestionJobDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the ModelIngestionLane.
+ */
+class ModelIngestionLaneTest {
+
+    private final ModelIngestionLane lane = new ModelIngestionLane(1, 1, 2);
+
+    @AfterEach
+    void stopLane() {
+        lane.stop();
+    }
+
+    @Test
+    @DisplayName("Jobs run one at a time on the lane, and a full queue is rejected with 429")
+    void testBoundedQueue() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        IngestionJobDTO first = lane.submit("default", 3, () -> {
+            running.countDown();
+            await(release);
+        });
+        assertTrue(running.await(10, TimeUnit.SECONDS));
+        assertEquals("RUNNING", lane.getJob("default", first.getJobId()).orElseThrow().getStatus());
+
+        IngestionJobDTO second = lane.submit("default", 1, () -> {
+        });
+        assertEquals("QUEUED", second.getStatus());
+        assertEquals(1, lane.getQueuedCount());
+
+        InvalidModelsControllerException e = assertThrows(InvalidModelsControllerException.class,
+                () -> lane.submit("default", 1, () -> {
+                }));
+        assertEquals(AppErrorCode.INGESTION_QUEUE_FULL, e.getErrorCode());
+        assertEquals(429, e.getErrorCode().getStatus().value());
+
+        release.countDown();
+        IngestionJobDTO done = awaitFinished("default", second.getJobId());
+        assertEquals("SUCCEEDED", done.getStatus());
+        assertNotNull(done.getFinishedAt());
+        assertNull(done.getErrorCode());
+        assertEquals(3, awaitFinished("default", first.getJobId()).getModels());
+    }
+
+    @Test
+    @DisplayName("A failing job reports the error code the synchronous API returned")
+    void testFailedJob() throws Exception {
+        IngestionJobDTO invalid = lane.submit("default", 1, () -> {
+            throw new InvalidModelsControllerException(AppErrorCode.INVALID_MODEL_SYNTAX, "Model at index 0 is missing 'path'");
+        });
+        IngestionJobDTO failed = awaitFinished("default", invalid.getJobId());
+        assertEquals("FAILED", failed.getStatus());
+        assertEquals(AppErrorCode.INVALID_MODEL_SYNTAX.getCode(), failed.getErrorCode());
+        assertEquals(AppErrorCode.INVALID_MODEL_SYNTAX.getMessage(), failed.getMessage());
+        assertEquals("Model at index 0 is missing 'path'", failed.getDebugMessage());
+
+        IngestionJobDTO crashed = lane.submit("default", 1, () -> {
+            throw new IllegalStateException("boom");
+        });
+        assertEquals(AppErrorCode.INTERNAL_ERROR.getCode(), awaitFinished("default", crashed.getJobId()).getErrorCode());
+    }
+
+    @Test
+    @DisplayName("Jobs are only visible to their tenant, and the oldest finished jobs are dropped")
+    void testVisibilityAndRetention() throws Exception {
+        IngestionJobDTO oldest = lane.submit("team-a", 1, () -> {
+        });
+        awaitFinished("team-a", oldest.getJobId());
+        assertTrue(lane.getJob("team-b", oldest.getJobId()).isEmpty());
+        assertTrue(lane.getJob("team-a", "no-such-job").isEmpty());
+
+        for (int i = 0; i < 2; i++) {
+            awaitFinished("team-a", lane.submit("team-a", 1, () -> {
+            }).getJobId());
+        }
+        assertTrue(lane.getJob("team-a", oldest.getJobId()).isEmpty());
+    }
+
+    private IngestionJobDTO awaitFinished(String tenantId, String jobId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+        while (System.currentTimeMillis() < deadline) {
+            IngestionJobDTO job = lane.getJob(tenantId, jobId).orElseThrow();
+            if (job.getStatus().equals("SUCCEEDED") || job.getStatus().equals("FAILED")) {
+                return job;
+            }
+            Thread.sleep(1);
+        }
+        throw new AssertionError("Job " + jobId + " did not finish");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,109 @@
+package org.assignment.service;
+
+import org.assignment.model.AnomalyDTO;
+import org.assignment.model.DetectionDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the request-rate anomalies, on a manual clock.
+ */
+class RateAnomalyDetectorTest {
+
+    private static final String LOGIN = "POST:/api/login";
+    private static final String ENDPOINT_ANOMALY = "RATE_ANOMALY_ENDPOINT";
+    private static final String CLIENT_ANOMALY = "RATE_ANOMALY_CLIENT";
+
+    // Window of 10 s, factor 5, 2 warm-up windows, floors of 50 (endpoint) and 20 (client) requests
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private final RateAnomalyDetector detector = new RateAnomalyDetector(true, "Authorization", 10, 5, 0.5, 2, 50, 20,
+            1000, 1000, 1024, 4, now::get);
+
+    @Test
+    @DisplayName("A flood on an endpoint is reported once its baseline is learned")
+    void testEndpointFlood() {
+        // Windows 1 to 3 at the usual 20 requests, the first windows are never reported
+        assertEquals(0, send(200, "POST:/api/new", null, ENDPOINT_ANOMALY));
+        for (int window = 0; window < 3; window++) {
+            assertEquals(0, send(20, LOGIN, null, ENDPOINT_ANOMALY));
+            now.addAndGet(10_000);
+        }
+        // Over 5 times the baseline of 20 from the 81st request, counting the 20 of the previous window
+        assertEquals(120, send(200, LOGIN, null, ENDPOINT_ANOMALY));
+        // A flood is never learned by the baseline: a sustained one is reported for as long as it lasts
+        for (int window = 0; window < 3; window++) {
+            now.addAndGet(10_000);
+            assertEquals(200, send(200, LOGIN, null, ENDPOINT_ANOMALY));
+        }
+        // Back to the usual traffic once the flood left the sliding window
+        now.addAndGet(20_000);
+        assertEquals(0, send(20, LOGIN, null, ENDPOINT_ANOMALY));
+    }
+
+    @Test
+    @DisplayName("A new client is reported over the client floor, other clients are not")
+    void testClientFlood() {
+        assertEquals(0, send(19, "GET:/api/orders", "Bearer quiet", CLIENT_ANOMALY));
+        // Counted exactly from the 10th request (half the floor in the sketch), so reported from the 29th
+        assertEquals(12, send(40, "GET:/api/orders", "Bearer flood", CLIENT_ANOMALY));
+        for (int client = 0; client < 1000; client++) {
+            assertEquals(0, send(3, "GET:/api/orders", "Bearer client-" + client, CLIENT_ANOMALY));
+        }
+    }
+
+    @Test
+    @DisplayName("The first window of a flooding client does not become its baseline")
+    void testClientFloodNotLearned() {
+        assertEquals(12, send(40, "GET:/api/orders", "Bearer flood", CLIENT_ANOMALY));
+        now.addAndGet(10_000);
+        assertEquals(40, send(40, "GET:/api/orders", "Bearer flood", CLIENT_ANOMALY));
+    }
+
+    @Test
+    @DisplayName("Unknown endpoints and requests without the client header are not counted")
+    void testNotCounted() {
+        List<AnomalyDTO> none = List.of();
+        for (int i = 0; i < 1000; i++) {
+            assertSame(none, detector.check("default", "GET:/unknown", false, detection(null), none, false));
+            assertSame(none, detector.check("default", "GET:/unknown", false, new DetectionDTO(), none, false));
+        }
+    }
+
+    @Test
+    @DisplayName("Rate anomalies are appended to a new list, never to a non-empty verdict-only result")
+    void testResultList() {
+        List<AnomalyDTO> typeMismatch = List.of(AnomalyDTO.builder().type("TYPE_MISMATCH_BODY").param("id").build());
+        for (int i = 0; i < 28; i++) {
+            detector.check("default", LOGIN, true, detection("Bearer flood"), List.of(), false);
+        }
+        assertSame(typeMismatch, detector.check("default", LOGIN, true, detection("Bearer flood"), typeMismatch, true));
+        List<AnomalyDTO> result = detector.check("default", LOGIN, true, detection("Bearer flood"), typeMismatch, false);
+        assertEquals(List.of("TYPE_MISMATCH_BODY", CLIENT_ANOMALY), List.of(result.get(0).getType(), result.get(1).getType()));
+        assertEquals(1, typeMismatch.size());
+        // The header value is a credential
+        assertTrue(!result.get(1).getDescription().contains("flood"));
+    }
+
+    // The number of requests reported with the given anomaly type
+    private int send(int requests, String key, String client, String type) {
+        int reported = 0;
+        for (int i = 0; i < requests; i++) {
+            List<AnomalyDTO> anomalies = detector.check("default", key, true, detection(client), List.of(), false);
+            if (anomalies.stream().anyMatch(anomaly -> anomaly.getType().equals(type))) reported++;
+        }
+        return reported;
+    }
+
+    private static DetectionDTO detection(String client) {
+        return new DetectionDTO("GET", "/", null, client == null ? Map.of() : Map.of("Authorization", client), null);
+    }
+
+}
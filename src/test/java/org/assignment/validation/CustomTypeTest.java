@@ -0,0 +1,84 @@
+package org.assignment.validation;
+
+import org.assignment.model.CustomTypeDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for custom types and their use through the TypeValidator.
+ */
+class CustomTypeTest {
+
+    private TypeValidator typeValidator;
+    private Map<String, CustomType> customTypes;
+
+    @BeforeEach
+    void setUp() {
+        typeValidator = new TypeValidator();
+        customTypes = Map.of(
+                "OrderStatus", CustomType.compile(CustomTypeDTO.builder()
+                        .name("OrderStatus").enumValues(List.of("NEW", "PAID", "7")).build()),
+                "Sku", CustomType.compile(CustomTypeDTO.builder()
+                        .name("Sku").pattern("[A-Z]{3}-\\d{4}").build()),
+                "Quantity", CustomType.compile(CustomTypeDTO.builder()
+                        .name("Quantity").intRange(List.of(0L, 1000L)).build()),
+                "Code", CustomType.compile(CustomTypeDTO.builder()
+                        .name("Code").minLength(2).maxLength(4).build()));
+    }
+
+    @Test
+    @DisplayName("Enum, pattern, range and length types")
+    void testMatching() {
+        assertTrue(validate("PAID", "OrderStatus"));
+        assertTrue(validate(7, "OrderStatus"), "Numbers match in their rendered form");
+        assertFalse(validate("paid", "OrderStatus"));
+
+        assertTrue(validate("ABC-1234", "Sku"));
+        assertFalse(validate("ABC-12345", "Sku"));
+
+        assertTrue(validate(1000, "Quantity"));
+        assertTrue(validate("0", "Quantity"));
+        assertFalse(validate(1001, "Quantity"));
+        assertFalse(validate("-1", "Quantity"));
+        assertFalse(validate("99999999999999999999999", "Quantity"));
+        assertFalse(validate(5.0, "Quantity"));
+
+        assertTrue(validate("abcd", "Code"));
+        assertFalse(validate("a", "Code"));
+        assertFalse(validate(List.of("ab"), "Code"), "Lists never match a custom type");
+    }
+
+    @Test
+    @DisplayName("Custom types combine with built-in types, unknown names match nothing")
+    void testCombined() {
+        assertTrue(typeValidator.validate(true, List.of("Sku", "Boolean"), customTypes));
+        assertTrue(typeValidator.validate("NEW", List.of("Int", "OrderStatus"), customTypes));
+        assertFalse(typeValidator.validate("NEW", List.of("Undeclared"), customTypes));
+    }
+
+    @Test
+    @DisplayName("Invalid definitions are rejected")
+    void testInvalidDefinitions() {
+        assertThrows(IllegalArgumentException.class, () -> CustomType.compile(CustomTypeDTO.builder()
+                .name("Both").enumValues(List.of("A")).pattern("A").build()));
+        assertThrows(IllegalArgumentException.class, () -> CustomType.compile(CustomTypeDTO.builder()
+                .name("Nothing").build()));
+        assertThrows(IllegalArgumentException.class, () -> CustomType.compile(CustomTypeDTO.builder()
+                .name("Range").intRange(List.of(10L, 1L)).build()));
+        assertThrows(IllegalArgumentException.class, () -> CustomType.compile(CustomTypeDTO.builder()
+                .name("Empty").enumValues(List.of()).build()));
+    }
+
+    private boolean validate(Object value, String typeName) {
+        return typeValidator.validate(value, List.of(typeName), customTypes);
+    }
+
+}
@@ -0,0 +1,107 @@
+package org.assignment.validation;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the DfaPattern engine.
+ * Matches are compared with java.util.regex on the syntax both engines share.
+ */
+class DfaPatternTest {
+
+    private static final List<String> PATTERNS = List.of(
+            "abc", "a|b|", "a*b+c?", "[a-c]{2,3}", "(ab|a)(c|bc)", "\\d{3}-\\d{4}", "[^a]*a", "x{0,2}y{2,}",
+            "(?:a|b)*abb", "^[A-Z]{3}-\\w+$", "\\s*\\S+\\s*", ".b.", "[\\d\\-]+", "(a+)+b", "\\.\\\\[]a]");
+    private static final String ALPHABET = "abcxyAZ09-_. \\]\n";
+
+    @Test
+    @DisplayName("Differential: matches the same strings as java.util.regex")
+    void testSameAsJavaRegex() {
+        Random random = new Random(42);
+        for (String regex : PATTERNS) {
+            DfaPattern dfa = DfaPattern.compile(regex);
+            Pattern java = Pattern.compile(regex);
+            for (int i = 0; i < 5_000; i++) {
+                StringBuilder input = new StringBuilder();
+                int length = random.nextInt(8);
+                for (int j = 0; j < length; j++) input.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+                String s = input.toString();
+                assertEquals(java.matcher(s).matches(), dfa.matches(s), () -> "Pattern '" + regex + "' on '" + s + "'");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Pinned: formats used as custom types")
+    void testFormats() {
+        DfaPattern sku = DfaPattern.compile("[A-Z]{3}-\\d{4}");
+        assertTrue(sku.matches("ABC-1234"));
+        assertFalse(sku.matches("ABC-123"));
+        assertFalse(sku.matches("abc-1234"));
+
+        DfaPattern unicode = DfaPattern.compile("[^x]+");
+        assertTrue(unicode.matches("שלום"));
+        assertFalse(unicode.matches(""));
+    }
+
+    @Test
+    @DisplayName("Adversarial: catastrophic backtracking patterns stay linear")
+    void testNoBacktracking() {
+        DfaPattern nested = DfaPattern.compile("(a+)+b");
+        DfaPattern alternation = DfaPattern.compile("(a|aa)*c");
+        String input = "a".repeat(1_000_000);
+
+        assertTimeoutPreemptively(Duration.ofMillis(500), () -> {
+            assertFalse(nested.matches(input));
+            assertFalse(alternation.matches(input));
+        });
+    }
+
+    @Test
+    @DisplayName("Unsupported syntax and oversized automata are rejected")
+    void testRejected() {
+        assertThrows(IllegalArgumentException.class, () -> DfaPattern.compile("(a)\\1"));
+        assertThrows(IllegalArgumentException.class, () -> DfaPattern.compile("(?=a)a"));
+        assertThrows(IllegalArgumentException.class, () -> DfaPattern.compile("a*?"));
+        assertThrows(IllegalArgumentException.class, () -> DfaPattern.compile("a^b"));
+        assertThrows(IllegalArgumentException.class, () -> DfaPattern.compile("(ab"));
+        assertThrows(IllegalArgumentException.class, () -> DfaPattern.compile("[z-a]"));
+        assertThrows(IllegalArgumentException.class, () -> DfaPattern.compile("a{1001}"));
+        // Exponential subset construction: the n-th char from the end is an 'a'
+        assertThrows(IllegalArgumentException.class, () -> DfaPattern.compile("[ab]*a[ab]{20}"));
+    }
+
+    @Test
+    @DisplayName("Adversarial: patterns expensive to compile are rejected within the work budget")
+    void testCompilationBudget() {
+        StringBuilder literals = new StringBuilder();
+        StringBuilder alternation = new StringBuilder("(?:");
+        for (int i = 0; i < 1_010; i++) {
+            literals.append((char) (0x100 + i));
+        }
+        for (int i = 0; i < 120; i++) {
+            alternation.append(i > 0 ? "|" : "").append((char) (0x100 + i));
+        }
+        alternation.append(")*");
+
+        assertTimeoutPreemptively(Duration.ofSeconds(2), () -> {
+            // Over MAX_CHAR_CLASSES
+            assertThrows(IllegalArgumentException.class, () -> DfaPattern.compile(literals.toString()));
+            // Few states, but every transition visits every NFA state
+            assertThrows(IllegalArgumentException.class, () -> DfaPattern.compile(alternation.toString()));
+            assertThrows(IllegalArgumentException.class, () -> DfaPattern.compile("(?:\\w{0,1000}\\d{0,1000}){0,4}"));
+        });
+    }
+
+}
@@ -0,0 +1,115 @@
+package org.assignment.validation;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the native validation of parsed values.
+ * The rendered path ({@code String.valueOf(value)} validated as text) is the reference for every well-formed value.
+ */
+class StructuralValidatorTest {
+
+    private static final List<String> ALL_TYPES = List.of("Int", "String", "Boolean", "List", "Date", "Email", "UUID", "Auth-Token");
+
+    // Leaves the rendered path handles correctly: no delimiters (',', '=', brackets) and no blank strings
+    private static final List<Object> LEAVES = Arrays.asList(
+            42, -7, 123456789012L, 3.14, 1.0E10, BigInteger.TEN, new BigDecimal("10"), new BigDecimal("1.5"),
+            true, false, null,
+            "foo", "this is a string", "12-01-2022", "foo@bar.com", "550e8400-e29b-41d4-a716-446655440000",
+            "Bearer myToken123", "\"quoted\"", "tab\tinside", "line\nbreak", "\rcarriage", "trailing\n");
+
+    private final TypeValidator typeValidator = new TypeValidator();
+
+    @Test
+    @DisplayName("Native and rendered validation agree on random well-formed bodies")
+    void testDifferentialAgainstRenderedPath() {
+        Random random = new Random(20240611);
+        for (int i = 0; i < 20_000; i++) {
+            Object value = randomValue(random, 0);
+            // A missing value is rejected before any rendering
+            if (value == null) continue;
+            List<String> types = randomTypes(random);
+
+            assertEquals(typeValidator.validate(String.valueOf(value), types), typeValidator.validate(value, types),
+                    () -> "Value " + value + " with types " + types);
+        }
+    }
+
+    @Test
+    @DisplayName("Accepted inputs are pinned: lists, maps and scalars per type")
+    void testPinnedInputs() {
+        Map<String, Object> object = new LinkedHashMap<>();
+        object.put("id", 123);
+        object.put("name", Map.of("a", 1, "b", List.of(1, 2, 3)));
+
+        assertTrue(typeValidator.validate(List.of(object, Map.of("id", 456)), List.of("List")));
+        assertTrue(typeValidator.validate(List.of(), List.of("List")));
+        assertTrue(typeValidator.validate(Arrays.asList(1, null, true, "x"), List.of("List")));
+        assertTrue(typeValidator.validate(List.of(1, 2), List.of("String")), "A rendered list is a valid String");
+        assertTrue(typeValidator.validate(object, List.of("String")));
+        assertFalse(typeValidator.validate(object, List.of("List")), "A Map is not a List");
+        assertFalse(typeValidator.validate(List.of("a\nb"), List.of("List", "String")));
+        assertFalse(typeValidator.validate(List.of(1), List.of("Int", "Boolean", "Date", "Email", "UUID", "Auth-Token")));
+
+        assertTrue(typeValidator.validate(42, List.of("Int")));
+        assertTrue(typeValidator.validate(-42L, List.of("Int")));
+        assertFalse(typeValidator.validate(4.2, List.of("Int")));
+        assertFalse(typeValidator.validate(4.0, List.of("Int")));
+        assertTrue(typeValidator.validate(4.2, List.of("String")));
+        assertFalse(typeValidator.validate(42, List.of("Boolean", "List")));
+        assertTrue(typeValidator.validate(true, List.of("Boolean")));
+        assertFalse(typeValidator.validate(true, List.of("Int")));
+    }
+
+    @Test
+    @DisplayName("String leaves holding delimiters are no longer misparsed")
+    void testDelimitersInStrings() {
+        List<String> listType = List.of("List");
+
+        // Rendered as "[{k=a=b}]": three '=' separated parts
+        assertTrue(typeValidator.validate(List.of(Map.of("k", "a=b")), listType));
+        // Rendered as "[x]]": unbalanced brackets
+        assertTrue(typeValidator.validate(List.of("x]"), listType));
+        // Rendered as "[say "hi]": unbalanced quote
+        assertTrue(typeValidator.validate(List.of("say \"hi"), listType));
+    }
+
+    private static Object randomValue(Random random, int depth) {
+        int kind = random.nextInt(depth >= 4 ? 1 : 4);
+        if (kind == 0) {
+            return LEAVES.get(random.nextInt(LEAVES.size()));
+        }
+        int size = random.nextInt(4);
+        if (kind == 1 || kind == 2) {
+            List<Object> list = new ArrayList<>();
+            for (int i = 0; i < size; i++) list.add(randomValue(random, depth + 1));
+            return list;
+        }
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) map.put(random.nextBoolean() ? "k" + i : "k\n" + i, randomValue(random, depth + 1));
+        return map;
+    }
+
+    private static List<String> randomTypes(Random random) {
+        List<String> types = new ArrayList<>();
+        for (String type : ALL_TYPES) {
+            if (random.nextInt(3) == 0) types.add(type);
+        }
+        if (types.isEmpty()) types.add(ALL_TYPES.get(random.nextInt(ALL_TYPES.size())));
+        return types;
+    }
+
+}
@@ -0,0 +1,157 @@
+package org.assignment.validation;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Differential tests of the word-at-a-time validators against the character-by-character implementations they
+ * replaced, on random values built from the characters at the edges of every checked class.
+ */
+class SwarValidatorsFuzzTest {
+
+    private static final int VALUES = 200_000;
+    // Class edges ('/' and ':' around the digits, '`' and 'g' around the hex letters), quotes, line breaks, Latin-1
+    // bytes with the high bit set, and characters whose low byte is a digit or a line break
+    private static final char[] ALPHABET = "0123456789-\"\n\r/:@`gG aAfFzZ\u0080\u00b9\u00ff\u0131\u010a\u0130\ud83d\ude00"
+            .toCharArray();
+
+    @Test
+    @DisplayName("String gives the result of a scan of every character")
+    void testString() {
+        fuzz(new StringValidator(), SwarValidatorsFuzzTest::isString, "plain value with no line break");
+    }
+
+    @Test
+    @DisplayName("Int gives the result of a scan of every character")
+    void testInt() {
+        fuzz(new IntegerValidator(), SwarValidatorsFuzzTest::isInt, "-1234567890123456789012345678901234567890");
+    }
+
+    @Test
+    @DisplayName("UUID gives the result of the regex")
+    void testUuid() {
+        fuzz(new UUIDValidator(), s -> s.length() == 36 && UUIDValidator.UUID.matcher(s).matches(),
+                "123e4567-E89b-12d3-a456-426614174000");
+    }
+
+    @Test
+    @DisplayName("Date gives the result of a scan of every character")
+    void testDate() {
+        fuzz(new DateValidator(), SwarValidatorsFuzzTest::isDate, "29-02-2024", "\"31-12-1999\"");
+    }
+
+    private static void fuzz(ObjectValidator validator, Predicate<String> reference, String... validValues) {
+        Random random = new Random(48);
+        List<String> values = new ArrayList<>();
+        for (String valid : validValues) {
+            values.add(valid);
+            // Every length around the word boundaries
+            for (int length = 0; length <= valid.length() + 9; length++) {
+                values.add(repeat(valid, length));
+            }
+        }
+        for (int i = 0; i < VALUES; i++) {
+            String valid = validValues[random.nextInt(validValues.length)];
+            values.add(i % 2 == 0 ? mutate(valid, random) : randomValue(random));
+        }
+        for (String value : values) {
+            assertEquals(reference.test(value), validator.validate(value), () -> "value " + escape(value));
+        }
+    }
+
+    // Up to 3 characters of the valid value replaced, inserted or removed, sometimes on a long repetition of it
+    private static String mutate(String valid, Random random) {
+        StringBuilder sb = new StringBuilder(random.nextInt(8) == 0 ? repeat(valid, 64 + random.nextInt(4096)) : valid);
+        int edits = random.nextInt(4);
+        for (int e = 0; e < edits && sb.length() > 0; e++) {
+            int at = random.nextInt(sb.length());
+            switch (random.nextInt(3)) {
+                case 0:
+                    sb.setCharAt(at, ALPHABET[random.nextInt(ALPHABET.length)]);
+                    break;
+                case 1:
+                    sb.insert(at, ALPHABET[random.nextInt(ALPHABET.length)]);
+                    break;
+                default:
+                    sb.deleteCharAt(at);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String randomValue(Random random) {
+        int length = random.nextInt(4) == 0 ? random.nextInt(2048) : random.nextInt(48);
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(ALPHABET[random.nextInt(ALPHABET.length)]);
+        }
+        return sb.toString();
+    }
+
+    private static String repeat(String s, int length) {
+        StringBuilder sb = new StringBuilder(length);
+        while (sb.length() < length) {
+            sb.append(s.charAt(sb.length() % s.length()));
+        }
+        return sb.toString();
+    }
+
+    private static String escape(String s) {
+        StringBuilder sb = new StringBuilder();
+        for (char c : s.toCharArray()) {
+            sb.append(c >= ' ' && c < 0x7F ? String.valueOf(c) : String.format("\\u%04x", (int) c));
+        }
+        return sb.toString();
+    }
+
+    // The implementations before the word-at-a-time scans
+
+    private static boolean isString(String s) {
+        if (s.isEmpty()) return false;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '\n' || c == '\r') return false;
+        }
+        return true;
+    }
+
+    private static boolean isInt(String s) {
+        if (s.isEmpty() || s.startsWith("\"")) return false;
+        int i = (s.charAt(0) == '-') ? 1 : 0;
+        if (i == 1 && s.length() == 1) return false;
+        for (; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') return false;
+        }
+        return true;
+    }
+
+    private static boolean isDate(String s) {
+        String clean = s;
+        if (s.startsWith("\"") && s.endsWith("\"")) {
+            if (s.length() != 12) return false;
+            clean = s.substring(1, 11);
+        } else if (s.length() != 10) {
+            return false;
+        }
+        if (clean.charAt(2) != '-' || clean.charAt(5) != '-') return false;
+        for (int i : new int[]{0, 1, 3, 4, 6, 7, 8, 9}) {
+            if (clean.charAt(i) < '0' || clean.charAt(i) > '9') return false;
+        }
+        int day = Integer.parseInt(clean.substring(0, 2));
+        int month = Integer.parseInt(clean.substring(3, 5));
+        int year = Integer.parseInt(clean.substring(6, 10));
+        if (month < 1 || month > 12 || day < 1 || year < 1000) return false;
+        int[] daysInMonth = {31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+        boolean leap = (year % 4 == 0 && year % 100 != 0) || (year % 400 == 0);
+        return day <= (month == 2 && leap ? 29 : daysInMonth[month - 1]);
+    }
+
+}
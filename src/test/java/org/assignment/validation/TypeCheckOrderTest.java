@@ -0,0 +1,73 @@
+package org.assignment.validation;
+
+import org.assignment.model.CustomTypeDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the adaptive TypeCheckOrder.
+ */
+class TypeCheckOrderTest {
+
+    private final TypeValidator typeValidator = new TypeValidator();
+
+    @Test
+    @DisplayName("A param mostly holding plain strings checks String before List and Email")
+    void testLikelyTypeFirst() {
+        TypeCheckOrder order = new TypeCheckOrder(List.of("List", "Email", "String"));
+        assertEquals(List.of("List", "Email", "String"), order.getOrder());
+
+        for (int i = 0; i < 20_000; i++) {
+            assertTrue(typeValidator.validate("plain value " + i, order, Map.of()));
+        }
+        assertEquals("String", order.getOrder().get(0));
+    }
+
+    @Test
+    @DisplayName("The order follows a change of traffic")
+    void testAdaptsToTraffic() {
+        TypeCheckOrder order = new TypeCheckOrder(List.of("Email", "Int"));
+        for (int i = 0; i < 20_000; i++) {
+            typeValidator.validate(String.valueOf(i), order, Map.of());
+        }
+        assertEquals(List.of("Int", "Email"), order.getOrder());
+
+        for (int i = 0; i < 20_000; i++) {
+            typeValidator.validate("user" + i + "@example.com", order, Map.of());
+        }
+        assertEquals(List.of("Email", "Int"), order.getOrder());
+    }
+
+    @Test
+    @DisplayName("Every value gets the result of the declaration order while the order adapts")
+    void testSameResults() {
+        Map<String, CustomType> customTypes = Map.of("Sku", CustomType.compile(CustomTypeDTO.builder()
+                .name("Sku").pattern("[A-Z]{3}-\\d{4}").build()));
+        List<String> types = List.of("List", "Email", "Sku", "Int", "Boolean", "String");
+        TypeCheckOrder order = new TypeCheckOrder(types);
+
+        List<Object> values = new ArrayList<>(List.of("plain", "a@b.io", "ABC-1234", "42", "-7", "true", "[1, \"x\"]",
+                "line\nbreak", "", 42, 3.5, true, List.of(1, "x"), List.of("a\nb"), Map.of("k", "v"), "\"quoted\""));
+        Random random = new Random(7);
+        for (int i = 0; i < 50_000; i++) {
+            // Mostly strings, so the order moves away from the declaration order
+            Object value = random.nextInt(4) > 0 ? "value " + i : values.get(random.nextInt(values.size()));
+            assertEquals(typeValidator.validate(value, types, customTypes), typeValidator.validate(value, order, customTypes),
+                    "value " + value + " in order " + order.getOrder());
+        }
+        assertEquals("String", order.getOrder().get(0));
+        for (Object value : values) {
+            assertEquals(typeValidator.validate(value, types, customTypes), typeValidator.validate(value, order, customTypes),
+                    "value " + value);
+        }
+    }
+
+}
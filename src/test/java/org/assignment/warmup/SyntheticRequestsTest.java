@@ -0,0 +1,89 @@
+package org.assignment.warmup;
+
+import org.assignment.model.APIModelDTO;
+import org.assignment.model.APIModelParamDTO;
+import org.assignment.model.AnomalyDTO;
+import org.assignment.model.CustomTypeDTO;
+import org.assignment.model.RequestDTO;
+import org.assignment.service.AnomalyDetector;
+import org.assignment.service.AnomalyDetectors;
+import org.assignment.service.DetectionMapper;
+import org.assignment.validation.ScanLimits;
+import org.assignment.validation.TypeValidator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the synthetic warm-up requests generated from API models.
+ */
+class SyntheticRequestsTest {
+
+    private AnomalyDetector anomalyDetector;
+
+    @BeforeEach
+    void setUp() {
+        Map<String, Integer> maxLengths = Map.of(
+                "Int", 64, "String", 8192, "Boolean", 5, "List", 65536,
+                "Date", 12, "Email", 255, "UUID", 36, "Auth-Token", 4096);
+        anomalyDetector = new AnomalyDetector(new TypeValidator(), new ScanLimits(maxLengths, 32, 10_000, 1_000_000));
+    }
+
+    @Test
+    @DisplayName("A valid request matches every built-in type, in every section")
+    void testValidBuiltInTypes() {
+        List<APIModelParamDTO> params = List.of(
+                param("count", "Int"), param("name", "String"), param("flag", "Boolean"), param("ids", "List"),
+                param("day", "Date"), param("email", "Email"), param("id", "UUID"), param("token", "Auth-Token"));
+        APIModelDTO model = new APIModelDTO("/api/all", "POST", params, params, params);
+
+        assertTrue(detect(model, SyntheticRequests.valid(model)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("A valid request builds nested bodies and satisfies enum, range and length custom types")
+    void testValidNestedAndCustom() {
+        APIModelDTO model = new APIModelDTO("/api/orders", "POST", List.of(param("status", "Status")), List.of(),
+                List.of(param("user.address.zip", "Int"), param("user.email", "Email"),
+                        param("items[].sku", "Code"), param("items[].qty", "Quantity"), param("tags[]", "String")),
+                List.of(CustomTypeDTO.builder().name("Status").enumValues(List.of("open", "closed")).build(),
+                        CustomTypeDTO.builder().name("Quantity").intRange(List.of(1L, 10L)).build(),
+                        CustomTypeDTO.builder().name("Code").minLength(3).maxLength(8).build()));
+
+        RequestDTO request = SyntheticRequests.valid(model);
+
+        assertEquals(3, request.getBody().size(), "user, items and tags");
+        assertTrue(detect(model, request).isEmpty());
+    }
+
+    @Test
+    @DisplayName("An anomalous request reports type mismatches and missing required parameters")
+    void testAnomalous() {
+        APIModelDTO model = new APIModelDTO("/api/login", "POST",
+                List.of(param("page", "Int")), List.of(),
+                List.of(param("username", "String"), param("password", "String"), param("user.age", "Int")));
+
+        List<AnomalyDTO> anomalies = detect(model, SyntheticRequests.anomalous(model));
+
+        assertFalse(anomalies.isEmpty());
+        assertTrue(anomalies.stream().anyMatch(a -> a.getType().equals("TYPE_MISMATCH_QUERY_PARAM")));
+        assertTrue(anomalies.stream().anyMatch(a -> a.getType().equals("TYPE_MISMATCH_BODY")));
+        assertTrue(anomalies.stream().anyMatch(a -> a.getType().equals("MISSING_BODY") && a.getParam().equals("password")));
+    }
+
+    private List<AnomalyDTO> detect(APIModelDTO model, RequestDTO request) {
+        return AnomalyDetectors.detect(anomalyDetector, DetectionMapper.toDetection(request), model);
+    }
+
+    private static APIModelParamDTO param(String name, String type) {
+        return new APIModelParamDTO(name, List.of(type), true);
+    }
+
+}
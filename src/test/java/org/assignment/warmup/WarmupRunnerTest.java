@@ -0,0 +1,74 @@
+package org.assignment.warmup;
+
+import org.assignment.metrics.AnomalyStatistics;
+import org.assignment.model.TenantStatsDTO;
+import org.assignment.model.WarmupStatsDTO;
+import org.assignment.service.ModelCache;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests for the startup warm-up, run on models loaded from a bootstrap file.
+ */
+@TestPropertySource(locations = "classpath:application-test.properties", properties = {
+        "app.models.bootstrap-file=src/test/resources/api-models/model_list.json",
+        "app.warmup.iterations=2000",
+        "app.metrics.anomaly-stats.enabled=true"
+})
+@SpringBootTest
+@AutoConfigureMockMvc
+class WarmupRunnerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private WarmupRunner warmupRunner;
+
+    @Autowired
+    private ModelCache modelCache;
+
+    @Autowired
+    private AnomalyStatistics anomalyStatistics;
+
+    @Test
+    @DisplayName("The warm-up runs the configured iterations over the bootstrap models before the application is ready")
+    void testWarmupBeforeReady() throws Exception {
+        WarmupStatsDTO stats = warmupRunner.getStats();
+        assertEquals(WarmupRunner.State.DONE.name(), stats.getState());
+        assertEquals(3, stats.getModels());
+        // 2000 iterations, one in 16 being a batch of 6 entries
+        assertEquals(2000 - 125 + 125 * 6, stats.getDetections());
+        assertTrue(stats.getAnomalies() > 0, "anomalous requests were sent");
+        assertEquals(0, stats.getErrors());
+        assertEquals(3, stats.getPreloadedEndpoints());
+
+        mockMvc.perform(get("/api/health/readiness"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("ACCEPTING_TRAFFIC"));
+        mockMvc.perform(get("/api/metrics/warmup"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("DONE"));
+    }
+
+    @Test
+    @DisplayName("Synthetic anomalies are not counted, and the preloaded models are in the cache")
+    void testNoSideEffects() {
+        assertEquals(0, anomalyStatistics.getTop(10).getTotalAnomalies());
+
+        TenantStatsDTO tenant = modelCache.getTenantStats().get(0);
+        assertEquals(3, tenant.getCachedEntries());
+    }
+
+}